@@ -0,0 +1,50 @@
+package org.greenplum.pxf.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.greenplum.pxf.api.io.EncodedText;
+
+/**
+ * A text field whose value is shared with other records and keeps its
+ * encoded bytes, so that the value is written without being encoded again.
+ * The value of the field is the {@link String} of the text.
+ */
+public class EncodedTextField extends OneField {
+
+    private final EncodedText text;
+
+    /**
+     * Constructs a text field with the given shared value.
+     *
+     * @param type the OID value recognized by GPDBWritable
+     * @param text the shared value
+     */
+    public EncodedTextField(int type, EncodedText text) {
+        super(type, text.toString());
+        this.text = text;
+    }
+
+    /**
+     * @return the shared value, or null if the value of the field was replaced
+     */
+    public EncodedText getEncodedText() {
+        return val == text.toString() ? text : null;
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Configuration properties for PXF.
@@ -57,6 +59,18 @@ public class PxfServerProperties {
     @Setter
     private TaskExecutionProperties task = new TaskExecutionProperties();
 
+    /**
+     * Configurable settings for prefetching of fragments during Bridge Read
+     */
+    @Setter
+    private FragmentPrefetch fragmentPrefetch = new FragmentPrefetch();
+
+    /**
+     * Configurable settings for sharing the fragments of a query between the PXF hosts of the cluster
+     */
+    @Setter
+    private FragmentSharing fragmentSharing = new FragmentSharing();
+
     @Getter
     @Setter
     public static class Tomcat {
@@ -78,6 +92,67 @@ public class PxfServerProperties {
 
     }
 
+    @Getter
+    @Setter
+    public static class FragmentPrefetch {
+
+        /**
+         * Number of fragments following the one being streamed that are opened
+         * ahead of time for a read request, 0 disables prefetching
+         */
+        private int depth = 0;
+
+        /**
+         * Maximum number of threads opening fragments ahead of time, shared by all read requests
+         */
+        private int poolSize = 16;
+
+        /**
+         * Capacity of the queue of fragments waiting to be opened ahead of time, when the queue is full
+         * the fragments are opened by the thread streaming the data
+         */
+        private int queueCapacity = 256;
+
+    }
+
+    @Getter
+    @Setter
+    public static class FragmentSharing {
+
+        /**
+         * Whether the fragments of a query are computed by a single PXF host and fetched by the other hosts
+         */
+        private boolean enabled = false;
+
+        /**
+         * The PXF hosts of the cluster, as host or host:port, the port defaults to the port of this PXF server.
+         * All the hosts must list the same hosts in the same order.
+         */
+        private List<String> hosts = new ArrayList<>();
+
+        /**
+         * The name of this host as it appears in the list of hosts, if not set the name is resolved from the network
+         */
+        private String localHost;
+
+        /**
+         * How long a host waits for the fragments computed by another host before it computes them itself
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+
+        /**
+         * How long the computed fragments are kept available to the other hosts, and how long a host that did not
+         * answer in time is not asked for fragments
+         */
+        private Duration expiration = Duration.ofMinutes(1);
+
+        /**
+         * Maximum number of lists of fragments kept available to the other hosts
+         */
+        private long maxSize = 1000;
+
+    }
+
     public void setBase(String base) {
         this.base = base;
         System.setProperty(PXF_BASE_PROPERTY, base);
@@ -0,0 +1,538 @@
+package org.greenplum.pxf.api.filter;
+
+import org.apache.commons.lang.ArrayUtils;
+import org.apache.commons.lang.StringUtils;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates a filter against the rows read by PXF, so that the rows the filter
+ * rejects are not sent to Greenplum. The filter is compiled once from the
+ * expression tree and then evaluated for every row.
+ * <p>
+ * Greenplum applies the filter again to the rows it receives, so a row is
+ * only rejected when the filter is certainly false for it. Comparisons that
+ * PXF can not evaluate exactly as Greenplum does, such as floating-point and
+ * collation-dependent comparisons, comparisons of values that do not parse,
+ * and comparisons with null values, are {@link Result#UNKNOWN}, and are
+ * combined with the other conditions using three-valued logic.
+ */
+public class FilterEvaluator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FilterEvaluator.class);
+
+    /**
+     * The value of a column that PXF does not know, such as a column that
+     * was not projected
+     */
+    public static final Object UNKNOWN_VALUE = new Object();
+
+    private static final Condition UNKNOWN_CONDITION = row -> Result.UNKNOWN;
+
+    private final List<ColumnDescriptor> columnDescriptors;
+    private final Condition condition;
+
+    /**
+     * Compiles the filter
+     *
+     * @param root              the root of the expression tree of the filter
+     * @param columnDescriptors the columns of the table
+     */
+    public FilterEvaluator(Node root, List<ColumnDescriptor> columnDescriptors) {
+        this.columnDescriptors = columnDescriptors;
+        this.condition = compile(root);
+    }
+
+    /**
+     * Evaluates the filter for a row
+     *
+     * @param row returns the value of the column with the given index, null
+     *            for a null value, or {@link #UNKNOWN_VALUE}
+     * @return the result of the filter for the row
+     */
+    public Result evaluate(IntFunction<Object> row) {
+        return condition.evaluate(row);
+    }
+
+    /**
+     * Returns whether the filter can reject any row, false when the result
+     * of the filter is unknown for all rows
+     *
+     * @return true if the filter can reject rows, false otherwise
+     */
+    public boolean canReject() {
+        return condition != UNKNOWN_CONDITION;
+    }
+
+    /**
+     * The result of a filter in three-valued logic
+     */
+    public enum Result {
+        TRUE, FALSE, UNKNOWN;
+
+        static Result of(boolean value) {
+            return value ? TRUE : FALSE;
+        }
+
+        Result and(Result other) {
+            if (this == FALSE || other == FALSE) {
+                return FALSE;
+            }
+            return this == TRUE && other == TRUE ? TRUE : UNKNOWN;
+        }
+
+        Result or(Result other) {
+            if (this == TRUE || other == TRUE) {
+                return TRUE;
+            }
+            return this == FALSE && other == FALSE ? FALSE : UNKNOWN;
+        }
+
+        Result not() {
+            return this == UNKNOWN ? UNKNOWN : of(this == FALSE);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        Result evaluate(IntFunction<Object> row);
+    }
+
+    private Condition compile(Node node) {
+        if (!(node instanceof OperatorNode)) {
+            return UNKNOWN_CONDITION;
+        }
+        OperatorNode operatorNode = (OperatorNode) node;
+        Operator operator = operatorNode.getOperator();
+        switch (operator) {
+            case AND: {
+                Condition left = compile(node.getLeft());
+                Condition right = compile(node.getRight());
+                if (left == UNKNOWN_CONDITION && right == UNKNOWN_CONDITION) {
+                    return UNKNOWN_CONDITION;
+                }
+                return row -> {
+                    Result result = left.evaluate(row);
+                    return result == Result.FALSE ? result : result.and(right.evaluate(row));
+                };
+            }
+            case OR: {
+                Condition left = compile(node.getLeft());
+                Condition right = compile(node.getRight());
+                if (left == UNKNOWN_CONDITION || right == UNKNOWN_CONDITION) {
+                    return UNKNOWN_CONDITION;
+                }
+                return row -> {
+                    Result result = left.evaluate(row);
+                    return result == Result.TRUE ? result : result.or(right.evaluate(row));
+                };
+            }
+            case NOT: {
+                Condition operand = compile(node.getLeft());
+                return operand == UNKNOWN_CONDITION ? UNKNOWN_CONDITION : row -> operand.evaluate(row).not();
+            }
+            default:
+                Condition condition = compileColumnCondition(operatorNode);
+                if (condition == UNKNOWN_CONDITION) {
+                    LOG.debug("Operator {} can not be evaluated by PXF", operator);
+                }
+                return condition;
+        }
+    }
+
+    private Condition compileColumnCondition(OperatorNode operatorNode) {
+        Operator operator = operatorNode.getOperator();
+        if (!(operatorNode.getLeft() instanceof ColumnIndexOperandNode)) {
+            return UNKNOWN_CONDITION;
+        }
+        int index = operatorNode.getColumnIndexOperand().index();
+        if (index < 0 || index >= columnDescriptors.size()) {
+            return UNKNOWN_CONDITION;
+        }
+        if (operator == Operator.IS_NULL || operator == Operator.IS_NOT_NULL) {
+            boolean isNull = operator == Operator.IS_NULL;
+            return row -> {
+                Object value = row.apply(index);
+                return value == UNKNOWN_VALUE ? Result.UNKNOWN : Result.of((value == null) == isNull);
+            };
+        }
+
+        ColumnType type = ColumnType.of(columnDescriptors.get(index));
+        OperandNode operand = operatorNode.getValueOperand();
+        if (type == null || operand == null) {
+            return UNKNOWN_CONDITION;
+        }
+        switch (operator) {
+            case LIKE:
+                return compileLike(index, type, operand);
+            case IN:
+                return compileIn(index, type, operand);
+            case EQUALS:
+            case NOT_EQUALS:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUAL:
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUAL:
+                return compileComparison(index, type, operator, operand);
+            default:
+                return UNKNOWN_CONDITION;
+        }
+    }
+
+    private Condition compileComparison(int index, ColumnType type, Operator operator, OperandNode operand) {
+        if (!(operand instanceof ScalarOperandNode)
+                || (!type.ordered && operator != Operator.EQUALS && operator != Operator.NOT_EQUALS)) {
+            return UNKNOWN_CONDITION;
+        }
+        Comparable<Object> constant = type.convert(((ScalarOperandNode) operand).getValue());
+        if (constant == null) {
+            return UNKNOWN_CONDITION;
+        }
+        return row -> {
+            Comparable<Object> value = getValue(row, index, type);
+            if (value == null) {
+                return Result.UNKNOWN;
+            }
+            int comparison = value.compareTo(constant);
+            switch (operator) {
+                case EQUALS:
+                    return Result.of(comparison == 0);
+                case NOT_EQUALS:
+                    return Result.of(comparison != 0);
+                case LESS_THAN:
+                    return Result.of(comparison < 0);
+                case LESS_THAN_OR_EQUAL:
+                    return Result.of(comparison <= 0);
+                case GREATER_THAN:
+                    return Result.of(comparison > 0);
+                default:
+                    return Result.of(comparison >= 0);
+            }
+        };
+    }
+
+    private Condition compileIn(int index, ColumnType type, OperandNode operand) {
+        if (!(operand instanceof CollectionOperandNode)) {
+            return UNKNOWN_CONDITION;
+        }
+        List<Comparable<Object>> constants = new ArrayList<>();
+        for (String data : ((CollectionOperandNode) operand).getData()) {
+            Comparable<Object> constant = type.convert(data);
+            if (constant == null) {
+                // the list may contain the value of the row, so no row can be rejected
+                return UNKNOWN_CONDITION;
+            }
+            constants.add(constant);
+        }
+        return row -> {
+            Comparable<Object> value = getValue(row, index, type);
+            if (value == null) {
+                return Result.UNKNOWN;
+            }
+            for (Comparable<Object> constant : constants) {
+                if (value.compareTo(constant) == 0) {
+                    return Result.TRUE;
+                }
+            }
+            return Result.FALSE;
+        };
+    }
+
+    private Condition compileLike(int index, ColumnType type, OperandNode operand) {
+        // padded character columns are matched with their trailing spaces
+        if (type != ColumnType.TEXT || !(operand instanceof ScalarOperandNode)) {
+            return UNKNOWN_CONDITION;
+        }
+        Pattern pattern = toPattern(((ScalarOperandNode) operand).getValue());
+        if (pattern == null) {
+            return UNKNOWN_CONDITION;
+        }
+        return row -> {
+            Comparable<Object> value = getValue(row, index, type);
+            return value == null ? Result.UNKNOWN : Result.of(pattern.matcher(value.toString()).matches());
+        };
+    }
+
+    private Comparable<Object> getValue(IntFunction<Object> row, int index, ColumnType type) {
+        Object value = row.apply(index);
+        if (value == null || value == UNKNOWN_VALUE) {
+            return null;
+        }
+        Comparable<Object> converted = type.convert(value);
+        if (converted != null && !type.fits(converted, columnDescriptors.get(index))) {
+            return null;
+        }
+        return converted;
+    }
+
+    /**
+     * Translates a LIKE pattern with the default backslash escape character
+     * to a regular expression
+     *
+     * @param like the LIKE pattern
+     * @return the regular expression, or null if the pattern is not valid
+     */
+    static Pattern toPattern(String like) {
+        StringBuilder regex = new StringBuilder(like.length() + 8);
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < like.length(); i++) {
+            char c = like.charAt(i);
+            if (c == '\\') {
+                if (++i == like.length()) {
+                    return null;
+                }
+                literal.append(like.charAt(i));
+            } else if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * The types of the columns that PXF compares the same way Greenplum does,
+     * and the conversion of the values of the rows and of the filter
+     * constants to comparable Java values
+     */
+    private enum ColumnType {
+        SMALLINT(true) {
+            @Override
+            Object toComparable(Object value) {
+                return toLong(value, Short.MIN_VALUE, Short.MAX_VALUE);
+            }
+        },
+        INTEGER(true) {
+            @Override
+            Object toComparable(Object value) {
+                return toLong(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            }
+        },
+        BIGINT(true) {
+            @Override
+            Object toComparable(Object value) {
+                return toLong(value, Long.MIN_VALUE, Long.MAX_VALUE);
+            }
+        },
+        NUMERIC(true) {
+            @Override
+            Object toComparable(Object value) {
+                if (value instanceof BigDecimal) {
+                    return value;
+                } else if (isIntegral(value)) {
+                    return BigDecimal.valueOf(((Number) value).longValue());
+                }
+                // NaN is not supported by BigDecimal and is never compared
+                return value instanceof String ? new BigDecimal((String) value) : null;
+            }
+
+            @Override
+            boolean fits(Object value, ColumnDescriptor column) {
+                // values with more digits than the scale of the column are
+                // rounded by Greenplum, they are left for Greenplum to compare
+                Integer[] modifiers = column.columnTypeModifiers();
+                if (ArrayUtils.isEmpty(modifiers)) {
+                    return true;
+                }
+                int scale = modifiers.length > 1 && modifiers[1] != null ? modifiers[1] : 0;
+                return ((BigDecimal) value).stripTrailingZeros().scale() <= scale;
+            }
+        },
+        TEXT(false) {
+            @Override
+            Object toComparable(Object value) {
+                return value instanceof String ? value : null;
+            }
+
+            @Override
+            boolean fits(Object value, ColumnDescriptor column) {
+                return fitsLength((String) value, column);
+            }
+        },
+        BPCHAR(false) {
+            @Override
+            Object toComparable(Object value) {
+                // trailing spaces are not significant for character columns
+                return value instanceof String ? StringUtils.stripEnd((String) value, " ") : null;
+            }
+
+            @Override
+            boolean fits(Object value, ColumnDescriptor column) {
+                return fitsLength((String) value, column);
+            }
+        },
+        BOOLEAN(false) {
+            @Override
+            Object toComparable(Object value) {
+                if (value instanceof Boolean) {
+                    return value;
+                } else if (!(value instanceof String)) {
+                    return null;
+                }
+                switch (((String) value).toLowerCase()) {
+                    case "t":
+                    case "true":
+                    case "y":
+                    case "yes":
+                    case "on":
+                    case "1":
+                        return Boolean.TRUE;
+                    case "f":
+                    case "false":
+                    case "n":
+                    case "no":
+                    case "off":
+                    case "0":
+                        return Boolean.FALSE;
+                    default:
+                        return null;
+                }
+            }
+        },
+        DATE(true) {
+            @Override
+            Object toComparable(Object value) {
+                if (value instanceof LocalDate) {
+                    return value;
+                } else if (value instanceof java.sql.Date) {
+                    return ((java.sql.Date) value).toLocalDate();
+                }
+                // only ISO dates are read the same way with any DateStyle
+                return value instanceof String ? LocalDate.parse((String) value) : null;
+            }
+        },
+        TIMESTAMP(true) {
+            @Override
+            Object toComparable(Object value) {
+                if (value instanceof LocalDateTime) {
+                    return value;
+                } else if (value instanceof java.sql.Timestamp) {
+                    return ((java.sql.Timestamp) value).toLocalDateTime();
+                } else if (!(value instanceof String)) {
+                    return null;
+                }
+                String timestamp = (String) value;
+                if (timestamp.length() > 10 && timestamp.charAt(10) == ' ') {
+                    timestamp = timestamp.substring(0, 10) + 'T' + timestamp.substring(11);
+                }
+                return LocalDateTime.parse(timestamp);
+            }
+
+            @Override
+            boolean fits(Object value, ColumnDescriptor column) {
+                // Greenplum rounds the fractional seconds to the precision
+                // of the column, microseconds by default
+                Integer precision = ArrayUtils.isEmpty(column.columnTypeModifiers()) ? null : column.columnTypeModifiers()[0];
+                int digits = precision == null ? 6 : Math.min(precision, 6);
+                return ((LocalDateTime) value).getNano() % (int) Math.pow(10, 9 - digits) == 0;
+            }
+        };
+
+        private final boolean ordered;
+
+        ColumnType(boolean ordered) {
+            this.ordered = ordered;
+        }
+
+        /**
+         * Converts a value of a row or of the filter to a comparable value
+         *
+         * @param value the value
+         * @return the comparable value, or null if the value is not supported
+         */
+        abstract Object toComparable(Object value);
+
+        /**
+         * Returns whether Greenplum stores the value of the row as it is in
+         * the column
+         *
+         * @param value  the comparable value
+         * @param column the column
+         * @return true if the value is stored as it is, false otherwise
+         */
+        boolean fits(Object value, ColumnDescriptor column) {
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        Comparable<Object> convert(Object value) {
+            try {
+                return (Comparable<Object>) toComparable(value);
+            } catch (NumberFormatException | DateTimeParseException e) {
+                return null;
+            }
+        }
+
+        static ColumnType of(ColumnDescriptor column) {
+            DataType dataType = column.getDataType();
+            switch (dataType) {
+                case SMALLINT:
+                    return SMALLINT;
+                case INTEGER:
+                    return INTEGER;
+                case BIGINT:
+                    return BIGINT;
+                case NUMERIC:
+                    return NUMERIC;
+                case TEXT:
+                case VARCHAR:
+                    return TEXT;
+                case BPCHAR:
+                    return BPCHAR;
+                case BOOLEAN:
+                    return BOOLEAN;
+                case DATE:
+                    return DATE;
+                case TIMESTAMP:
+                    return TIMESTAMP;
+                default:
+                    // floating-point values, times with time zones and the
+                    // other types are compared by Greenplum
+                    return null;
+            }
+        }
+
+        private static Object toLong(Object value, long min, long max) {
+            long result;
+            if (isIntegral(value)) {
+                result = ((Number) value).longValue();
+            } else if (value instanceof String) {
+                result = Long.parseLong((String) value);
+            } else {
+                return null;
+            }
+            return result < min || result > max ? null : result;
+        }
+
+        private static boolean isIntegral(Object value) {
+            return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+        }
+
+        private static boolean fitsLength(String value, ColumnDescriptor column) {
+            // Greenplum truncates the trailing spaces of the values longer
+            // than the length of the column
+            Integer[] modifiers = column.columnTypeModifiers();
+            return ArrayUtils.isEmpty(modifiers) || modifiers[0] == null
+                    || value.codePointCount(0, value.length()) <= modifiers[0];
+        }
+    }
+}
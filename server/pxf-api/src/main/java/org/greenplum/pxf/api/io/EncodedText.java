@@ -0,0 +1,73 @@
+package org.greenplum.pxf.api.io;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.nio.charset.Charset;
+
+/**
+ * A text value that keeps its encoded bytes, so that a value shared by many
+ * records, like an entry of a dictionary, is encoded only once no matter how
+ * many times it is written.
+ */
+public final class EncodedText {
+
+    private final String value;
+    private volatile Encoding encoding;
+
+    /**
+     * Creates a new text value
+     *
+     * @param value the value
+     */
+    public EncodedText(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the value encoded with the given charset, without the null
+     * terminator. The encoded bytes are kept for the last charset used.
+     *
+     * @param charset the charset
+     * @return the encoded value, must not be modified
+     */
+    public byte[] getBytes(Charset charset) {
+        Encoding current = encoding;
+        if (current == null || !current.charset.equals(charset)) {
+            current = new Encoding(charset, value.getBytes(charset));
+            encoding = current;
+        }
+        return current.bytes;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    private static final class Encoding {
+        private final Charset charset;
+        private final byte[] bytes;
+
+        Encoding(Charset charset, byte[] bytes) {
+            this.charset = charset;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -55,7 +55,7 @@ public class GPDBWritable implements Writable {
     /*
      * Enum of the Database type
      */
-    private enum DBType {
+    enum DBType {
         BIGINT(8, 8),
         BOOLEAN(1, 1),
         FLOAT8(8, 8),
@@ -87,8 +87,8 @@ public class GPDBWritable implements Writable {
     /*
      * Constants
      */
-    private static final int PREV_VERSION = 1;
-    private static final int VERSION = 2; /* for backward compatibility */
+    static final int PREV_VERSION = 1;
+    static final int VERSION = 2; /* for backward compatibility */
 
     @Getter
     private int[] colType;
@@ -343,32 +343,7 @@ public class GPDBWritable implements Writable {
 
         for (int i = 0; i < numCol; i++) {
             /* Get the enum type */
-            DBType coldbtype;
-            switch (DataType.get(colType[i])) {
-                case BIGINT:
-                    coldbtype = DBType.BIGINT;
-                    break;
-                case BOOLEAN:
-                    coldbtype = DBType.BOOLEAN;
-                    break;
-                case FLOAT8:
-                    coldbtype = DBType.FLOAT8;
-                    break;
-                case INTEGER:
-                    coldbtype = DBType.INTEGER;
-                    break;
-                case REAL:
-                    coldbtype = DBType.REAL;
-                    break;
-                case SMALLINT:
-                    coldbtype = DBType.SMALLINT;
-                    break;
-                case BYTEA:
-                    coldbtype = DBType.BYTEA;
-                    break;
-                default:
-                    coldbtype = DBType.TEXT;
-            }
+            DBType coldbtype = getDBType(colType[i]);
             enumType[i] = (byte) (coldbtype.ordinal());
 
             /* Get the actual value, and set the null bit */
@@ -474,6 +449,33 @@ public class GPDBWritable implements Writable {
         out.write(padbytes, 0, endpadding);
     }
 
+    /**
+     * Helper to get the serialized type of a column type
+     *
+     * @param type the type OID of the column
+     * @return the serialized type, types not listed in DBType are serialized as text
+     */
+    static DBType getDBType(int type) {
+        switch (DataType.get(type)) {
+            case BIGINT:
+                return DBType.BIGINT;
+            case BOOLEAN:
+                return DBType.BOOLEAN;
+            case FLOAT8:
+                return DBType.FLOAT8;
+            case INTEGER:
+                return DBType.INTEGER;
+            case REAL:
+                return DBType.REAL;
+            case SMALLINT:
+                return DBType.SMALLINT;
+            case BYTEA:
+                return DBType.BYTEA;
+            default:
+                return DBType.TEXT;
+        }
+    }
+
     /**
      * Private helper to convert boolean array to byte array
      */
@@ -492,9 +494,9 @@ public class GPDBWritable implements Writable {
     }
 
     /**
-     * Private helper to determine the size of the null byte array
+     * Helper to determine the size of the null byte array
      */
-    private static int getNullByteArraySize(int colCnt) {
+    static int getNullByteArraySize(int colCnt) {
         return (colCnt / 8) + (colCnt % 8 != 0 ? 1 : 0);
     }
 
@@ -781,13 +783,21 @@ public class GPDBWritable implements Writable {
      */
     private void checkType(DataType inTyp, int idx, boolean isSet)
             throws TypeMismatchException {
+        checkType(colType, inTyp, idx, isSet);
+    }
+
+    /**
+     * Helper to check the type mismatch for the given column types
+     */
+    static void checkType(int[] colType, DataType inTyp, int idx, boolean isSet)
+            throws TypeMismatchException {
         if (idx < 0 || idx >= colType.length) {
             throw new TypeMismatchException("Column index is out of range");
         }
 
         int exTyp = colType[idx];
 
-        if (isTextForm(exTyp)) {
+        if (DataType.isTextForm(exTyp)) {
             if (inTyp != DataType.TEXT) {
                 throw new TypeMismatchException(formErrorMsg(inTyp.getOID(), DataType.TEXT.getOID(), isSet));
             }
@@ -796,7 +806,7 @@ public class GPDBWritable implements Writable {
         }
     }
 
-    private String formErrorMsg(int inTyp, int colTyp, boolean isSet) {
+    private static String formErrorMsg(int inTyp, int colTyp, boolean isSet) {
         return isSet
                 ? "Cannot set " + getTypeName(inTyp) + " to a " + getTypeName(colTyp) + " column"
                 : "Cannot get " + getTypeName(inTyp) + " from a " + getTypeName(colTyp) + " column";
@@ -831,11 +841,12 @@ public class GPDBWritable implements Writable {
      * the C code uses (see gphdfs/src/protocol_formatter/common.c).
      */
     private void initializeEightByteAlignment() {
+        alignmentOfEightBytes = getEightByteAlignment();
+    }
+
+    static int getEightByteAlignment() {
         String alignment = System.getProperty("greenplum.alignment");
-        if (alignment == null) {
-            return;
-        }
-        alignmentOfEightBytes = Integer.parseInt(alignment);
+        return alignment == null ? 8 : Integer.parseInt(alignment);
     }
 
     /**
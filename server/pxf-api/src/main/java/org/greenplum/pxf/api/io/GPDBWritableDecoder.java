@@ -0,0 +1,230 @@
+package org.greenplum.pxf.api.io;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.greenplum.pxf.api.model.ColumnBuffer;
+import org.greenplum.pxf.api.model.ColumnarBatch;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Deserializes records in the {@link GPDBWritable} format straight into
+ * the {@link ColumnBuffer}s of a batch, without building a
+ * {@link GPDBWritable} object and boxed values for every record. The column
+ * types are taken from the first record, all the records of the stream
+ * have the same columns. The batch and its buffers are reused, so a batch
+ * is only valid until the next batch is read.
+ */
+public class GPDBWritableDecoder {
+
+    private static final int EOF = -1;
+
+    private final Charset databaseEncoding;
+    private final int eightByteAlignment;
+    private GPDBWritable.DBType[] colDBType;
+    private ColumnBuffer[] columns;
+    private ColumnarBatch batch;
+    private byte[] nullBytes;
+
+    /**
+     * Creates a decoder of records with text in the given encoding
+     *
+     * @param databaseEncoding the encoding of the text columns
+     */
+    public GPDBWritableDecoder(Charset databaseEncoding) {
+        this.databaseEncoding = databaseEncoding;
+        this.eightByteAlignment = GPDBWritable.getEightByteAlignment();
+    }
+
+    /**
+     * Reads up to the given number of records from the input into the
+     * batch.
+     *
+     * @param input     the input to read from
+     * @param batchSize the maximum number of records to read
+     * @return the batch, or null if the end of the stream was reached before any record was read
+     * @throws IOException if the input is malformed or reading from it failed
+     */
+    public ColumnarBatch readBatch(DataInput input, int batchSize) throws IOException {
+        int row = 0;
+        if (columns != null) {
+            startBatch(batchSize);
+        }
+        while (row < batchSize && readRecord(input, row, batchSize)) {
+            row++;
+        }
+        if (row == 0) {
+            return null;
+        }
+        batch.setSize(row);
+        return batch;
+    }
+
+    private void startBatch(int batchSize) {
+        for (ColumnBuffer column : columns) {
+            column.ensureCapacity(batchSize);
+            column.reset();
+        }
+    }
+
+    /**
+     * Reads a record into the given row of the batch, the layout of the
+     * record is described in {@link GPDBWritable}.
+     *
+     * @return false if the end of the stream was reached
+     */
+    private boolean readRecord(DataInput input, int row, int batchSize) throws IOException {
+        int pktlen;
+        try {
+            pktlen = input.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        if (pktlen == EOF) {
+            return false;
+        }
+
+        int version = input.readShort();
+        int curOffset = 4 + 2;
+        if (version != GPDBWritable.VERSION && version != GPDBWritable.PREV_VERSION) {
+            throw new IOException("Current GPDBWritable version(" +
+                    GPDBWritable.VERSION + ") does not match input version(" +
+                    version + ")");
+        }
+        byte errorFlag = 0;
+        if (version == GPDBWritable.VERSION) {
+            errorFlag = input.readByte();
+            curOffset += 1;
+        }
+
+        int colCnt = input.readShort();
+        curOffset += 2;
+        if (columns == null) {
+            createColumns(input, colCnt, batchSize);
+        } else {
+            readColumnTypes(input, colCnt);
+        }
+        curOffset += colCnt;
+
+        input.readFully(nullBytes);
+        curOffset += nullBytes.length;
+
+        for (int i = 0; i < colCnt; i++) {
+            ColumnBuffer column = columns[i];
+            if (((nullBytes[i / 8] >> (7 - i % 8)) & 0x01) == 1) {
+                column.setNull(row);
+                continue;
+            }
+            GPDBWritable.DBType dbType = colDBType[i];
+            curOffset = skipPadding(input, curOffset, dbType.getAlignment());
+            switch (dbType) {
+                case BIGINT:
+                    column.setLong(row, input.readLong());
+                    break;
+                case BOOLEAN:
+                    column.setLong(row, input.readBoolean() ? 1 : 0);
+                    break;
+                case FLOAT8:
+                    column.setDouble(row, input.readDouble());
+                    break;
+                case INTEGER:
+                    column.setLong(row, input.readInt());
+                    break;
+                case REAL:
+                    column.setDouble(row, input.readFloat());
+                    break;
+                case SMALLINT:
+                    column.setLong(row, input.readShort());
+                    break;
+                case BYTEA: {
+                    int length = input.readInt();
+                    column.readBytes(row, input, length);
+                    curOffset += 4 + length;
+                    break;
+                }
+                default: {
+                    // text is null terminated
+                    int length = input.readInt();
+                    column.readBytes(row, input, length - 1);
+                    input.readByte();
+                    curOffset += 4 + length;
+                    break;
+                }
+            }
+            if (!dbType.isVarLength()) {
+                curOffset += dbType.getTypeLength();
+            }
+        }
+        skipPadding(input, curOffset, 8);
+
+        if (errorFlag != 0) {
+            throw new IOException("Received error value " + errorFlag + " from format");
+        }
+        return true;
+    }
+
+    /**
+     * Creates the columns of the batch from the types of the first record
+     */
+    private void createColumns(DataInput input, int colCnt, int batchSize) throws IOException {
+        colDBType = new GPDBWritable.DBType[colCnt];
+        readColumnTypes(input, colCnt);
+        columns = new ColumnBuffer[colCnt];
+        for (int i = 0; i < colCnt; i++) {
+            columns[i] = new ColumnBuffer(toDataType(colDBType[i]), databaseEncoding, batchSize);
+        }
+        nullBytes = new byte[GPDBWritable.getNullByteArraySize(colCnt)];
+        batch = new ColumnarBatch(columns);
+    }
+
+    private void readColumnTypes(DataInput input, int colCnt) throws IOException {
+        if (colCnt != colDBType.length) {
+            throw new IOException(String.format("Record has %d columns, expected %d", colCnt, colDBType.length));
+        }
+        GPDBWritable.DBType[] dbTypes = GPDBWritable.DBType.values();
+        for (int i = 0; i < colCnt; i++) {
+            int enumType = input.readByte();
+            if (enumType < 0 || enumType >= dbTypes.length) {
+                throw new IOException("Unknown GPDBWritable.DBType ordinal value");
+            }
+            if (colDBType[i] == null) {
+                colDBType[i] = dbTypes[enumType];
+            } else if (colDBType[i] != dbTypes[enumType]) {
+                throw new IOException(String.format("Column %d has type %s, expected %s", i, dbTypes[enumType], colDBType[i]));
+            }
+        }
+    }
+
+    private int skipPadding(DataInput input, int curOffset, int alignment) throws IOException {
+        int commonAlignment = alignment == 8 ? eightByteAlignment : alignment;
+        int aligned = (curOffset + (commonAlignment - 1)) & -commonAlignment;
+        for (int i = curOffset; i < aligned; i++) {
+            input.readByte();
+        }
+        return aligned;
+    }
+
+    private static DataType toDataType(GPDBWritable.DBType dbType) {
+        return DataType.valueOf(dbType.name());
+    }
+}
@@ -0,0 +1,418 @@
+package org.greenplum.pxf.api.io;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Serializes records of a given schema in the {@link GPDBWritable} format
+ * directly into a growable buffer, without building a {@link GPDBWritable}
+ * object for every record. The values of the record are written in the order
+ * of the columns, between {@link #beginRecord()} and {@link #endRecord()}.
+ * <p>
+ * The buffer holds the records written since the last {@link #reset()}, each
+ * record is available as a {@link Writable} that writes the serialized record
+ * with a single call. The encoder, its buffer and the writables are reused
+ * for all the records, so the writables of a record are only valid until the
+ * next {@link #reset()}.
+ */
+public class GPDBWritableEncoder {
+
+    private static final int INITIAL_CAPACITY = 8192;
+    private static final int HEADER_LENGTH = 4 + 2 + 1 + 2;
+
+    private final int[] colType;
+    private final GPDBWritable.DBType[] colDBType;
+    private final int nullBytesLength;
+    private final int eightByteAlignment;
+    private final Charset databaseEncoding;
+    private final boolean isUtf8;
+    private CharsetEncoder charsetEncoder;
+
+    private ByteBuffer buffer;
+    private int recordStart = -1;
+    private int column;
+    private int recordCount;
+    private int[] recordEnds = new int[16];
+    private EncodedRecord[] records = new EncodedRecord[16];
+
+    /**
+     * Creates an encoder for records of the given schema
+     *
+     * @param columnType       the table column types
+     * @param databaseEncoding the encoding of the text columns
+     */
+    public GPDBWritableEncoder(int[] columnType, Charset databaseEncoding) {
+        this.colType = columnType;
+        this.colDBType = new GPDBWritable.DBType[columnType.length];
+        for (int i = 0; i < columnType.length; i++) {
+            colDBType[i] = GPDBWritable.getDBType(columnType[i]);
+        }
+        this.nullBytesLength = GPDBWritable.getNullByteArraySize(columnType.length);
+        this.eightByteAlignment = GPDBWritable.getEightByteAlignment();
+        this.databaseEncoding = databaseEncoding;
+        this.isUtf8 = StandardCharsets.UTF_8.equals(databaseEncoding);
+        this.buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Starts a new record, the values of all the columns must be written
+     * before the record is ended.
+     */
+    public void beginRecord() {
+        if (recordStart != -1) {
+            throw new IllegalStateException("The previous record was not ended");
+        }
+        recordStart = buffer.position();
+        column = 0;
+        ensureCapacity(HEADER_LENGTH + colType.length + nullBytesLength);
+        buffer.putInt(0); // total length, set when the record is ended
+        buffer.putShort((short) GPDBWritable.VERSION);
+        buffer.put((byte) 0); // error flag
+        buffer.putShort((short) colType.length);
+        for (GPDBWritable.DBType dbType : colDBType) {
+            buffer.put((byte) dbType.ordinal());
+        }
+        for (int i = 0; i < nullBytesLength; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Writes a null value for the next column
+     *
+     * @param type the type of the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeNull(DataType type) throws GPDBWritable.TypeMismatchException {
+        checkType(type);
+        int nullByte = recordStart + HEADER_LENGTH + colType.length + column / 8;
+        buffer.put(nullByte, (byte) (buffer.get(nullByte) | (1 << (7 - column % 8))));
+        column++;
+    }
+
+    public void writeBoolean(boolean value) throws GPDBWritable.TypeMismatchException {
+        startValue(DataType.BOOLEAN);
+        buffer.put(value ? (byte) 1 : (byte) 0);
+    }
+
+    public void writeShort(short value) throws GPDBWritable.TypeMismatchException {
+        startValue(DataType.SMALLINT);
+        buffer.putShort(value);
+    }
+
+    public void writeInt(int value) throws GPDBWritable.TypeMismatchException {
+        startValue(DataType.INTEGER);
+        buffer.putInt(value);
+    }
+
+    public void writeLong(long value) throws GPDBWritable.TypeMismatchException {
+        startValue(DataType.BIGINT);
+        buffer.putLong(value);
+    }
+
+    public void writeFloat(float value) throws GPDBWritable.TypeMismatchException {
+        startValue(DataType.REAL);
+        buffer.putFloat(value);
+    }
+
+    public void writeDouble(double value) throws GPDBWritable.TypeMismatchException {
+        startValue(DataType.FLOAT8);
+        buffer.putDouble(value);
+    }
+
+    public void writeBytes(byte[] value) throws GPDBWritable.TypeMismatchException {
+        writeBytes(value, 0, value.length);
+    }
+
+    /**
+     * Writes a bytea value for the next column from a range of an array
+     *
+     * @param bytes  the array holding the value
+     * @param start  the start of the value in the array
+     * @param length the length of the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeBytes(byte[] bytes, int start, int length) throws GPDBWritable.TypeMismatchException {
+        startValue(DataType.BYTEA);
+        ensureCapacity(4 + length);
+        buffer.putInt(length);
+        buffer.put(bytes, start, length);
+    }
+
+    /**
+     * Writes a text value for the next column, the value is encoded in the
+     * database encoding and is null terminated.
+     *
+     * @param value the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeString(String value) throws GPDBWritable.TypeMismatchException {
+        startValue(DataType.TEXT);
+        int lengthPosition = buffer.position();
+        buffer.putInt(0); // length, set when the value is encoded
+        if (isUtf8) {
+            encodeUtf8(value);
+        } else {
+            encode(value);
+        }
+        ensureCapacity(1);
+        buffer.put((byte) 0);
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - 4);
+    }
+
+    /**
+     * Writes a text value for the next column from its UTF-8 bytes. ASCII
+     * values are copied as they are when the database encoding is UTF-8,
+     * other values are decoded first, so that malformed input is replaced
+     * the same way {@link #writeString(String)} does.
+     *
+     * @param bytes  the array holding the UTF-8 bytes of the value
+     * @param start  the start of the value in the array
+     * @param length the length of the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeUtf8(byte[] bytes, int start, int length) throws GPDBWritable.TypeMismatchException {
+        if (!isUtf8 || !isAscii(bytes, start, length)) {
+            writeString(new String(bytes, start, length, StandardCharsets.UTF_8));
+            return;
+        }
+        startValue(DataType.TEXT);
+        ensureCapacity(4 + length + 1);
+        buffer.putInt(length + 1);
+        buffer.put(bytes, start, length);
+        buffer.put((byte) 0);
+    }
+
+    /**
+     * Writes a text value for the next column with the bytes the value keeps
+     * for the database encoding, so that a value shared by many records is
+     * only encoded once.
+     *
+     * @param value the value
+     * @throws GPDBWritable.TypeMismatchException the column type does not match
+     */
+    public void writeString(EncodedText value) throws GPDBWritable.TypeMismatchException {
+        startValue(DataType.TEXT);
+        byte[] bytes = value.getBytes(databaseEncoding);
+        ensureCapacity(4 + bytes.length + 1);
+        buffer.putInt(bytes.length + 1);
+        buffer.put(bytes);
+        buffer.put((byte) 0);
+    }
+
+    /**
+     * Ends the current record, the record is then available with
+     * {@link #getRecord(int)}.
+     */
+    public void endRecord() {
+        if (column != colType.length) {
+            throw new IllegalStateException("Record has " + column + " values but the schema size is " + colType.length);
+        }
+        pad(8);
+        buffer.putInt(recordStart, buffer.position() - recordStart);
+        if (recordCount == recordEnds.length) {
+            recordEnds = Arrays.copyOf(recordEnds, recordCount * 2);
+            records = Arrays.copyOf(records, recordCount * 2);
+        }
+        recordEnds[recordCount++] = buffer.position();
+        recordStart = -1;
+    }
+
+    /**
+     * Discards the values written for the current record, if any, for example
+     * when a value of the record cannot be serialized.
+     */
+    public void discardRecord() {
+        if (recordStart != -1) {
+            buffer.position(recordStart);
+            recordStart = -1;
+        }
+    }
+
+    /**
+     * Discards all the records, the buffer is reused for the next records.
+     */
+    public void reset() {
+        buffer.clear();
+        recordStart = -1;
+        recordCount = 0;
+    }
+
+    /**
+     * @return the number of records written since the last reset
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the serialized record at the given index. The returned object
+     * is reused after the next {@link #reset()}.
+     *
+     * @param index the index of the record since the last reset
+     * @return the serialized record
+     */
+    public Writable getRecord(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " is out of range, " + recordCount + " records");
+        }
+        EncodedRecord record = records[index];
+        if (record == null) {
+            record = new EncodedRecord(index);
+            records[index] = record;
+        }
+        return record;
+    }
+
+    private void startValue(DataType type) throws GPDBWritable.TypeMismatchException {
+        checkType(type);
+        GPDBWritable.DBType dbType = colDBType[column];
+        pad(dbType.getAlignment());
+        ensureCapacity(dbType.isVarLength() ? 4 : dbType.getTypeLength());
+        column++;
+    }
+
+    private void checkType(DataType type) throws GPDBWritable.TypeMismatchException {
+        if (recordStart == -1) {
+            throw new IllegalStateException("The record was not started");
+        }
+        GPDBWritable.checkType(colType, type, column, true);
+    }
+
+    /*
+     * Pads the record with zeros up to the given alignment, relative to the
+     * beginning of the record, matching GPDBWritable#write
+     */
+    private void pad(int alignment) {
+        if (alignment == 8) {
+            alignment = eightByteAlignment;
+        }
+        int offset = buffer.position() - recordStart;
+        int padding = ((offset + (alignment - 1)) & -alignment) - offset;
+        ensureCapacity(padding);
+        for (int i = 0; i < padding; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /*
+     * Encodes the value in UTF-8 straight into the buffer, unpaired
+     * surrogates are replaced with '?' as String#getBytes does
+     */
+    private void encodeUtf8(String value) {
+        int length = value.length();
+        ensureCapacity(length * 3);
+        byte[] array = buffer.array();
+        int pos = buffer.arrayOffset() + buffer.position();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                array[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                array[pos++] = (byte) (0xc0 | (c >> 6));
+                array[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    array[pos++] = (byte) (0xf0 | (codePoint >> 18));
+                    array[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    array[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    array[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else {
+                    array[pos++] = (byte) '?';
+                }
+            } else {
+                array[pos++] = (byte) (0xe0 | (c >> 12));
+                array[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                array[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        buffer.position(pos - buffer.arrayOffset());
+    }
+
+    private static boolean isAscii(byte[] bytes, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void encode(String value) {
+        if (charsetEncoder == null) {
+            charsetEncoder = databaseEncoding.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        // room for the encoded characters and for the bytes written when the encoder is flushed
+        ensureCapacity((int) Math.ceil(value.length() * (double) charsetEncoder.maxBytesPerChar()) + 16);
+        charsetEncoder.reset();
+        CharBuffer chars = CharBuffer.wrap(value);
+        charsetEncoder.encode(chars, buffer, true);
+        charsetEncoder.flush(buffer);
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.remaining() >= length) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < length) {
+            capacity *= 2;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    /**
+     * A record serialized in the buffer of the encoder
+     */
+    private class EncodedRecord implements Writable {
+        private final int index;
+
+        EncodedRecord(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            int start = index == 0 ? 0 : recordEnds[index - 1];
+            out.write(buffer.array(), buffer.arrayOffset() + start, recordEnds[index] - start);
+        }
+
+        @Override
+        public void readFields(DataInput in) {
+            throw new UnsupportedOperationException("EncodedRecord.readFields() is not implemented");
+        }
+    }
+}
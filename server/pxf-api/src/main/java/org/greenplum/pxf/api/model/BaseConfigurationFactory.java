@@ -1,5 +1,10 @@
 package org.greenplum.pxf.api.model;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.EqualsAndHashCode;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -8,6 +13,7 @@ import org.greenplum.pxf.api.configuration.PxfServerProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
@@ -16,7 +22,13 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.hadoop.fs.CommonConfigurationKeysPublic.HADOOP_SECURITY_AUTH_TO_LOCAL;
 
@@ -27,13 +39,30 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
 
     private final File serversConfigDirectory;
 
+    /**
+     * Parsed configurations keyed by the parameters of initConfiguration. The
+     * cached configurations are never handed out, callers get copies of them.
+     */
+    private final Cache<ConfigurationCacheKey, CachedConfiguration> configurationCache;
+
     @Autowired
-    public BaseConfigurationFactory(PxfServerProperties pxfServerProperties) {
-        this(new File(String.format("%s%sservers", pxfServerProperties.getBase(), File.separator)));
+    public BaseConfigurationFactory(PxfServerProperties pxfServerProperties,
+                                    @Value("${pxf.configuration-cache.expiration:10m}") Duration expiration) {
+        this(new File(String.format("%s%sservers", pxfServerProperties.getBase(), File.separator)), expiration);
     }
 
     BaseConfigurationFactory(File serversConfigDirectory) {
+        this(serversConfigDirectory, Duration.ofMinutes(10));
+    }
+
+    BaseConfigurationFactory(File serversConfigDirectory, Duration expiration) {
         this.serversConfigDirectory = serversConfigDirectory;
+        long expirationMillis = expiration.toMillis();
+        LOG.info("Creating Configuration Cache with entry expiration of {} ms", expirationMillis);
+        this.configurationCache = CacheBuilder.newBuilder()
+                .expireAfterAccess(expirationMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
     }
 
     /**
@@ -41,9 +70,65 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
      */
     @Override
     public Configuration initConfiguration(String configDirectory, String serverName, String userName, Map<String, String> additionalProperties) {
+        ConfigurationCacheKey key = new ConfigurationCacheKey(configDirectory, serverName, userName,
+                additionalProperties == null ? null : new HashMap<>(additionalProperties));
+
+        // peek at the entry without recording a cache hit to see whether it is still valid
+        CachedConfiguration cachedConfiguration = configurationCache.asMap().get(key);
+        if (cachedConfiguration != null && cachedConfiguration.isModified()) {
+            LOG.debug("Configuration files for server {} have changed, discarding cached configuration", serverName);
+            configurationCache.asMap().remove(key, cachedConfiguration);
+        }
+
+        try {
+            cachedConfiguration = configurationCache.get(key,
+                    () -> loadConfiguration(configDirectory, serverName, userName, additionalProperties));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+
+        // the copy gets the already parsed properties of the cached configuration
+        Configuration configuration = new Configuration(cachedConfiguration.configuration);
+        allowSystemProps(configuration);
+        return configuration;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidateConfiguration(String serverName) {
+        if (StringUtils.isBlank(serverName)) {
+            LOG.debug("Discarding cached configurations for all servers");
+            configurationCache.invalidateAll();
+        } else {
+            LOG.debug("Discarding cached configurations for server {}", serverName);
+            configurationCache.asMap().keySet().removeIf(key -> StringUtils.equals(serverName, key.serverName));
+        }
+    }
+
+    /**
+     * @return the cache of parsed configurations
+     */
+    public Cache<?, ?> getConfigurationCache() {
+        return configurationCache;
+    }
+
+    /**
+     * Builds and parses the configuration for the given server and user.
+     *
+     * @param configDirectory      name of the configuration directory
+     * @param serverName           name of the server
+     * @param userName             name of the user
+     * @param additionalProperties additional properties to be added to the configuration
+     * @return the parsed configuration and the files it was read from
+     */
+    private CachedConfiguration loadConfiguration(String configDirectory, String serverName, String userName, Map<String, String> additionalProperties) {
         // start with built-in Hadoop configuration that loads core-site.xml
         LOG.debug("Initializing configuration for server {}", serverName);
         Configuration configuration = new Configuration();
+        List<File> watchedFiles = new ArrayList<>();
         // while implementing multiple kerberized support we noticed that non-kerberized hadoop
         // access was trying to use SASL-client authentication. Setting the fallback to simple auth
         // allows us to still access non-kerberized hadoop clusters when there exists at least one
@@ -66,10 +151,13 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
 
         if (p.isAbsolute()) {
             File f = p.toFile();
+            watchedFiles.add(f);
             if (f.exists() && f.isDirectory() && f.canRead()) {
                 serverDirectories = new File[]{f};
             }
         } else {
+            // a directory for the server might be created later
+            watchedFiles.add(serversConfigDirectory);
             serverDirectories = serversConfigDirectory
                     .listFiles(f ->
                             f.isDirectory() &&
@@ -87,7 +175,8 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
         } else {
             // add all site files as URL resources to the configuration, no resources will be added from the classpath
             LOG.debug("Using directory {} for server {} configuration", serverDirectories[0], serverName);
-            processServerResources(configuration, serverName, serverDirectories[0]);
+            watchedFiles.add(serverDirectories[0]);
+            processServerResources(configuration, serverName, serverDirectories[0], watchedFiles);
         }
 
         // add additional properties, if provided
@@ -98,17 +187,10 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
 
         // add user configuration
         if (!ArrayUtils.isEmpty(serverDirectories)) {
-            processUserResource(configuration, serverName, userName, serverDirectories[0]);
+            processUserResource(configuration, serverName, userName, serverDirectories[0], watchedFiles);
         }
 
-        try {
-            // We need to set the restrict system properties to false so
-            // variables in the configuration get replaced by system property
-            // values
-            configuration.setRestrictSystemProps(false);
-        } catch (NoSuchMethodError e) {
-            // Expected exception for MapR
-        }
+        allowSystemProps(configuration);
 
         // Starting with Hadoop 2.10.0, the "DEFAULT" rule will throw an
         // exception when no rules are applied while getting the principal
@@ -118,16 +200,34 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
         // short name, i.e. gpadmin/_HOST@REALM will map to gpadmin
         configuration.set(HADOOP_SECURITY_AUTH_TO_LOCAL, "RULE:[1:$1] RULE:[2:$1] DEFAULT");
 
-        return configuration;
+        long start = System.nanoTime();
+        // parse all the resources now, so that the copies handed out do not need to
+        configuration.size();
+        LOG.debug("Parsed configuration for server {} and user {} in {} ms", serverName, userName,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return new CachedConfiguration(configuration, watchedFiles);
     }
 
-    private void processServerResources(Configuration configuration, String serverName, File directory) {
+    private void allowSystemProps(Configuration configuration) {
+        try {
+            // We need to set the restrict system properties to false so
+            // variables in the configuration get replaced by system property
+            // values
+            configuration.setRestrictSystemProps(false);
+        } catch (NoSuchMethodError e) {
+            // Expected exception for MapR
+        }
+    }
+
+    private void processServerResources(Configuration configuration, String serverName, File directory, List<File> watchedFiles) {
         // add all *-site.xml files inside the server config directory as configuration resources
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath(), "*-site.xml")) {
             for (Path path : stream) {
                 URL resourceURL = path.toUri().toURL();
                 LOG.debug("Adding configuration resource for server {} from {}", serverName, resourceURL);
                 configuration.addResource(resourceURL);
+                watchedFiles.add(path.toFile());
                 // store the path to the resource in the configuration in case plugins need to access the files again
                 configuration.set(String.format("%s.%s", PXF_CONFIG_RESOURCE_PATH_PROPERTY, path.getFileName().toString()), resourceURL.toString());
             }
@@ -140,10 +240,12 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
         }
     }
 
-    private void processUserResource(Configuration configuration, String serverName, String userName, File directory) {
+    private void processUserResource(Configuration configuration, String serverName, String userName, File directory, List<File> watchedFiles) {
         // add user config file as configuration resource
         try {
             Path path = Paths.get(String.format("%s/%s-user.xml", directory.toPath(), userName));
+            // the user file might be created later
+            watchedFiles.add(path.toFile());
             if (Files.exists(path)) {
                 Configuration userConfiguration = new Configuration(false);
                 URL resourceURL = path.toUri().toURL();
@@ -157,4 +259,50 @@ public class BaseConfigurationFactory implements ConfigurationFactory {
                     userName, serverName, directory.getAbsolutePath()), e);
         }
     }
+
+    @EqualsAndHashCode
+    private static class ConfigurationCacheKey {
+        private final String configDirectory;
+        private final String serverName;
+        private final String userName;
+        private final Map<String, String> additionalProperties;
+
+        private ConfigurationCacheKey(String configDirectory, String serverName, String userName, Map<String, String> additionalProperties) {
+            this.configDirectory = configDirectory;
+            this.serverName = serverName;
+            this.userName = userName;
+            this.additionalProperties = additionalProperties;
+        }
+    }
+
+    /**
+     * A parsed configuration along with the modification times of the files
+     * and directories it has been built from.
+     */
+    private static class CachedConfiguration {
+        private final Configuration configuration;
+        private final File[] files;
+        private final long[] lastModifiedTimes;
+
+        private CachedConfiguration(Configuration configuration, List<File> watchedFiles) {
+            this.configuration = configuration;
+            this.files = watchedFiles.toArray(new File[0]);
+            this.lastModifiedTimes = new long[files.length];
+            for (int i = 0; i < files.length; i++) {
+                lastModifiedTimes[i] = files[i].lastModified();
+            }
+        }
+
+        /**
+         * @return true if any of the files has been modified, created or deleted since the configuration was parsed
+         */
+        private boolean isModified() {
+            for (int i = 0; i < files.length; i++) {
+                if (files[i].lastModified() != lastModifiedTimes[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
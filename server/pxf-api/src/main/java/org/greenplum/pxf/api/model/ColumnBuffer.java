@@ -0,0 +1,229 @@
+package org.greenplum.pxf.api.model;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.greenplum.pxf.api.io.DataType;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable {@link ColumnValues} that the values of a column are decoded
+ * into, one row at a time. The values are kept in primitive arrays sized to
+ * the batch: BOOLEAN, SMALLINT, INTEGER and BIGINT values as longs, REAL and
+ * FLOAT8 values as doubles, and BYTEA and text values as ranges of a single
+ * byte array, the text being encoded with the database encoding.
+ * {@link #reset()} makes the buffer ready for the next batch without
+ * allocating new arrays.
+ */
+public class ColumnBuffer implements ColumnValues {
+
+    private static final int INITIAL_BYTES_PER_ROW = 16;
+
+    private final DataType dataType;
+    private final Charset databaseEncoding;
+    private boolean[] isNull;
+    private boolean noNulls = true;
+    private long[] longs;
+    private double[] doubles;
+    private int[] starts;
+    private int[] lengths;
+    private byte[] bytes;
+    private int bytesUsed;
+
+    /**
+     * Creates a buffer for the given number of rows
+     *
+     * @param dataType         the Greenplum type of the values
+     * @param databaseEncoding the encoding of the text values
+     * @param capacity         the number of rows
+     */
+    public ColumnBuffer(DataType dataType, Charset databaseEncoding, int capacity) {
+        this.dataType = dataType;
+        this.databaseEncoding = databaseEncoding;
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Makes sure that the buffer holds at least the given number of rows,
+     * the values of the rows are kept.
+     *
+     * @param capacity the number of rows
+     */
+    public void ensureCapacity(int capacity) {
+        if (isNull != null && isNull.length >= capacity) {
+            return;
+        }
+        isNull = isNull == null ? new boolean[capacity] : Arrays.copyOf(isNull, capacity);
+        switch (dataType) {
+            case BOOLEAN:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                longs = longs == null ? new long[capacity] : Arrays.copyOf(longs, capacity);
+                break;
+            case REAL:
+            case FLOAT8:
+                doubles = doubles == null ? new double[capacity] : Arrays.copyOf(doubles, capacity);
+                break;
+            default:
+                starts = starts == null ? new int[capacity] : Arrays.copyOf(starts, capacity);
+                lengths = lengths == null ? new int[capacity] : Arrays.copyOf(lengths, capacity);
+                if (bytes == null) {
+                    bytes = new byte[capacity * INITIAL_BYTES_PER_ROW];
+                }
+        }
+    }
+
+    /**
+     * Discards the values of all the rows
+     */
+    public void reset() {
+        noNulls = true;
+        bytesUsed = 0;
+    }
+
+    public void setNull(int row) {
+        isNull[row] = true;
+        noNulls = false;
+    }
+
+    public void setLong(int row, long value) {
+        isNull[row] = false;
+        longs[row] = value;
+    }
+
+    public void setDouble(int row, double value) {
+        isNull[row] = false;
+        doubles[row] = value;
+    }
+
+    /**
+     * Reads the bytes of the value of the row from the given input
+     *
+     * @param row    the row in the batch
+     * @param input  the input to read from
+     * @param length the number of bytes of the value
+     * @throws IOException if reading from the input failed
+     */
+    public void readBytes(int row, DataInput input, int length) throws IOException {
+        if (bytesUsed + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, bytesUsed + length));
+        }
+        input.readFully(bytes, bytesUsed, length);
+        isNull[row] = false;
+        starts[row] = bytesUsed;
+        lengths[row] = length;
+        bytesUsed += length;
+    }
+
+    @Override
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    @Override
+    public boolean isRepeating() {
+        return false;
+    }
+
+    @Override
+    public boolean noNulls() {
+        return noNulls;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return !noNulls && isNull[row];
+    }
+
+    @Override
+    public long getLong(int row) {
+        if (longs == null) {
+            return ColumnValues.super.getLong(row);
+        }
+        return longs[row];
+    }
+
+    @Override
+    public double getDouble(int row) {
+        if (doubles == null) {
+            return ColumnValues.super.getDouble(row);
+        }
+        return doubles[row];
+    }
+
+    @Override
+    public boolean hasUtf8Bytes() {
+        return dataType != DataType.BYTEA && bytes != null && StandardCharsets.UTF_8.equals(databaseEncoding);
+    }
+
+    @Override
+    public byte[] getBytes(int row) {
+        if (bytes == null) {
+            return ColumnValues.super.getBytes(row);
+        }
+        return bytes;
+    }
+
+    @Override
+    public int getStart(int row) {
+        if (starts == null) {
+            return ColumnValues.super.getStart(row);
+        }
+        return starts[row];
+    }
+
+    @Override
+    public int getLength(int row) {
+        if (lengths == null) {
+            return ColumnValues.super.getLength(row);
+        }
+        return lengths[row];
+    }
+
+    @Override
+    public Object getObject(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        switch (dataType) {
+            case BOOLEAN:
+                return longs[row] != 0;
+            case SMALLINT:
+                return (short) longs[row];
+            case INTEGER:
+                return (int) longs[row];
+            case BIGINT:
+                return longs[row];
+            case REAL:
+                return (float) doubles[row];
+            case FLOAT8:
+                return doubles[row];
+            case BYTEA:
+                return Arrays.copyOfRange(bytes, starts[row], starts[row] + lengths[row]);
+            default:
+                return new String(bytes, starts[row], lengths[row], databaseEncoding);
+        }
+    }
+}
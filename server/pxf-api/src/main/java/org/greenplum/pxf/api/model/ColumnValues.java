@@ -0,0 +1,142 @@
+package org.greenplum.pxf.api.model;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.greenplum.pxf.api.io.DataType;
+
+/**
+ * The values of one column for the rows of a batch, as resolved by a
+ * {@link ReadColumnarResolver}, or as received from Greenplum for a
+ * {@link WriteColumnarResolver}. The values are read straight from the
+ * primitive vectors of the batch, depending on the {@link DataType} of the
+ * column:
+ * <ul>
+ * <li>BOOLEAN, SMALLINT, INTEGER and BIGINT values with {@link #getLong(int)},
+ * a non-zero value is true</li>
+ * <li>REAL and FLOAT8 values with {@link #getDouble(int)}</li>
+ * <li>BYTEA values with {@link #getBytes(int)}, {@link #getStart(int)} and
+ * {@link #getLength(int)}</li>
+ * <li>text values with the same methods as BYTEA when
+ * {@link #hasUtf8Bytes()} is true, they are then the UTF-8 encoded text,
+ * otherwise the text is the string value of {@link #getObject(int)}</li>
+ * </ul>
+ * {@link #getObject(int)} returns the value of any type, as the resolver
+ * would set it in a {@link org.greenplum.pxf.api.OneField}. When the column
+ * is repeating, only the row 0 is valid.
+ */
+public interface ColumnValues {
+
+    /**
+     * @return the Greenplum type of the values
+     */
+    DataType getDataType();
+
+    /**
+     * @return true if all the rows have the value of the row 0
+     */
+    boolean isRepeating();
+
+    /**
+     * @return true if none of the values is null
+     */
+    boolean noNulls();
+
+    /**
+     * @param row the row in the batch
+     * @return true if the value of the row is null
+     */
+    boolean isNull(int row);
+
+    default long getLong(int row) {
+        throw new UnsupportedOperationException(getDataType() + " values are not longs");
+    }
+
+    default double getDouble(int row) {
+        throw new UnsupportedOperationException(getDataType() + " values are not doubles");
+    }
+
+    /**
+     * @return true if the text values are available as UTF-8 bytes
+     */
+    default boolean hasUtf8Bytes() {
+        return false;
+    }
+
+    /**
+     * Returns the array holding the bytes of the value of the row, the
+     * bytes of the value start at {@link #getStart(int)}.
+     *
+     * @param row the row in the batch
+     * @return the array holding the bytes of the value
+     */
+    default byte[] getBytes(int row) {
+        throw new UnsupportedOperationException(getDataType() + " values are not bytes");
+    }
+
+    default int getStart(int row) {
+        throw new UnsupportedOperationException(getDataType() + " values are not bytes");
+    }
+
+    default int getLength(int row) {
+        throw new UnsupportedOperationException(getDataType() + " values are not bytes");
+    }
+
+    /**
+     * @param row the row in the batch
+     * @return the value of the row
+     */
+    Object getObject(int row);
+
+    /**
+     * Returns the values of a column that is null for all the rows, for
+     * example a column that is not projected, or is missing in the file.
+     *
+     * @param dataType the Greenplum type of the column
+     * @return the null values
+     */
+    static ColumnValues nullValues(DataType dataType) {
+        return new ColumnValues() {
+            @Override
+            public DataType getDataType() {
+                return dataType;
+            }
+
+            @Override
+            public boolean isRepeating() {
+                return true;
+            }
+
+            @Override
+            public boolean noNulls() {
+                return false;
+            }
+
+            @Override
+            public boolean isNull(int row) {
+                return true;
+            }
+
+            @Override
+            public Object getObject(int row) {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package org.greenplum.pxf.api.model;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A batch of rows in columnar form, with the {@link ColumnValues} of every
+ * column of the table, in the order of the columns. Resolvers re-use the
+ * batch and its columns between batches, so consumers must finish
+ * processing a batch before the next one is resolved.
+ */
+public class ColumnarBatch {
+
+    private final ColumnValues[] columns;
+
+    /**
+     * The number of rows in the batch
+     */
+    @Getter
+    @Setter
+    private int size;
+
+    public ColumnarBatch(ColumnValues[] columns) {
+        this.columns = columns;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public ColumnValues getColumn(int index) {
+        return columns[index];
+    }
+}
@@ -46,4 +46,14 @@ public interface ConfigurationFactory {
      * @return configuration object
      */
     Configuration initConfiguration(String configDirectory, String serverName, String userName, Map<String, String> additionalProperties);
+
+    /**
+     * Discards any configurations cached for the given server, so that the
+     * configuration files are read again on the next request. Configurations
+     * for all servers are discarded when the server name is blank.
+     *
+     * @param serverName name of the server
+     */
+    default void invalidateConfiguration(String serverName) {
+    }
 }
@@ -27,6 +27,10 @@ public class GreenplumCSV {
     private String newline;
     @Getter
     private Character delimiter;
+    @Getter
+    private boolean delimiterSpecified;
+    @Getter
+    private boolean valueOfNullSpecified;
 
     private int newlineLength;
 
@@ -38,12 +42,12 @@ public class GreenplumCSV {
         withEscapeChar(ESCAPE);
         withNewline(NEWLINE);
         withDelimiter(DELIMITER);
-        withValueOfNull(VALUE_OF_NULL);
+        this.valueOfNull = VALUE_OF_NULL;
     }
 
     /**
      * Set value of null string for parsing CSV. If the string input for customization is
-     * null, it will be ignored.
+     * null, it will be ignored. A value set here is reported by {@link #isValueOfNullSpecified()}.
      *
      * @param valueOfNull the null character to be set
      * @return GreenplumCSV object for builder pattern
@@ -51,6 +55,7 @@ public class GreenplumCSV {
     public GreenplumCSV withValueOfNull(String valueOfNull) {
         if (valueOfNull != null) {
             this.valueOfNull = valueOfNull;
+            this.valueOfNullSpecified = true;
         }
         return this;
     }
@@ -149,7 +154,8 @@ public class GreenplumCSV {
     /**
      * Set delimiter character for parsing CSV with customized character. Will raise
      * IlligalArugmentException if the input cannot be converted to char type.
-     * Empty string input will be ignored.
+     * Empty string input will be ignored. A delimiter set here is reported by
+     * {@link #isDelimiterSpecified()}.
      *
      * @param delimiterString the delimiter to be set
      * @return GreenplumCSV object for builder pattern
@@ -157,9 +163,11 @@ public class GreenplumCSV {
     public GreenplumCSV withDelimiter(String delimiterString) {
         if (StringUtils.equalsIgnoreCase("OFF", delimiterString)) {
             delimiter = null;
+            delimiterSpecified = true;
         } else if (StringUtils.isNotEmpty(delimiterString)) {
             validateSingleCharacter(delimiterString, "DELIMITER");
             withDelimiter(delimiterString.charAt(0));
+            delimiterSpecified = true;
         }
         return this;
     }
@@ -0,0 +1,36 @@
+package org.greenplum.pxf.api.model;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Interface for accessors that skip the blocks and pages of a fragment that
+ * do not match the pushed down filter, and report what they skipped so that
+ * the service can expose it as metrics once the fragment is read.
+ */
+public interface PruningAccessor extends Accessor {
+
+    /**
+     * Returns the blocks and pages read and skipped for the fragment. Called
+     * after {@link #closeForRead()}.
+     *
+     * @return the statistics of the fragment, or null if the fragment was not opened
+     */
+    PruningStats getPruningStats();
+}
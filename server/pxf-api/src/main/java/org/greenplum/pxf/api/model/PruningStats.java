@@ -0,0 +1,62 @@
+package org.greenplum.pxf.api.model;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Counts the blocks (row groups, stripes) and the pages of a fragment that
+ * an accessor read, and those it skipped because they cannot contain records
+ * that match the pushed down filter, as well as the rows that were read but
+ * not sent because they do not match the filter.
+ */
+@Getter
+@ToString
+public class PruningStats {
+
+    private long blocksRead;
+    private long blocksSkipped;
+    private long pagesSkipped;
+    private long rowsFiltered;
+
+    public void addBlocksRead(long count) {
+        blocksRead += count;
+    }
+
+    public void addBlocksSkipped(long count) {
+        blocksSkipped += count;
+    }
+
+    public void addPagesSkipped(long count) {
+        pagesSkipped += count;
+    }
+
+    public void addRowsFiltered(long count) {
+        rowsFiltered += count;
+    }
+
+    public void add(PruningStats other) {
+        blocksRead += other.blocksRead;
+        blocksSkipped += other.blocksSkipped;
+        pagesSkipped += other.pagesSkipped;
+        rowsFiltered += other.rowsFiltered;
+    }
+}
@@ -612,6 +612,64 @@ public class RequestContext {
         return profileScheme;
     }
 
+    /**
+     * Returns a shallow copy of this context. The copy gets its own map of
+     * options, so that per-fragment changes made to the copy (data source,
+     * fragment metadata, profile, plugins, etc.) are not visible to this
+     * context, while the heavy objects, such as the configuration, the plugin
+     * configuration and the column descriptors are shared.
+     *
+     * @return a copy of this context
+     */
+    public RequestContext copy() {
+        RequestContext copy = new RequestContext();
+        copy.requestType = requestType;
+        copy.accessor = accessor;
+        copy.aggType = aggType;
+        copy.config = config;
+        copy.configuration = configuration;
+        copy.dataSource = dataSource;
+        copy.fragmenter = fragmenter;
+        copy.fragmentIndex = fragmentIndex;
+        copy.fragmentMetadata = fragmentMetadata;
+        copy.filterString = filterString;
+        copy.metadata = metadata;
+        copy.outputFormat = outputFormat;
+        copy.gpCommandCount = gpCommandCount;
+        copy.gpSessionId = gpSessionId;
+        copy.host = host;
+        copy.token = token;
+        copy.statsMaxFragments = statsMaxFragments;
+        copy.statsSampleRatio = statsSampleRatio;
+        copy.numAttrsProjected = numAttrsProjected;
+        copy.pluginConf = pluginConf;
+        copy.port = port;
+        copy.profile = profile;
+        copy.profileScheme = profileScheme;
+        copy.protocol = protocol;
+        copy.resolver = resolver;
+        copy.format = format;
+        copy.greenplumCSV = greenplumCSV;
+        copy.recordkeyColumn = recordkeyColumn;
+        copy.remoteLogin = remoteLogin;
+        copy.remoteSecret = remoteSecret;
+        copy.segmentId = segmentId;
+        copy.schemaName = schemaName;
+        copy.tableName = tableName;
+        copy.transactionId = transactionId;
+        copy.serverName = serverName;
+        copy.totalSegments = totalSegments;
+        copy.tupleDescription = tupleDescription;
+        copy.user = user;
+        copy.dataEncoding = dataEncoding;
+        copy.databaseEncoding = databaseEncoding;
+        copy.clientApiVersion = clientApiVersion;
+        copy.additionalConfigProps = additionalConfigProps;
+        copy.clientPort = clientPort;
+        copy.options.putAll(options);
+        return copy;
+    }
+
     /**
      * Infers the format name from the profile.
      * Introduced for backwards compatibility. Can be removed after
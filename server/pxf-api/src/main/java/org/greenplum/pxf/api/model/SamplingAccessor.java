@@ -0,0 +1,61 @@
+package org.greenplum.pxf.api.model;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Interface for accessors that take part in the sampling of the data for
+ * ANALYZE, as requested by {@link RequestContext#getStatsSampleRatio()}, so
+ * that the records that are not part of the sample are skipped before they
+ * are resolved.
+ * <p>
+ * Accessors that read the data in blocks (row groups, stripes) can skip
+ * whole blocks when the fragment is opened, and report the ratio of the data
+ * they read with {@link #getReadRatio()}. The bridge then samples the
+ * remaining records with the adjusted ratio.
+ * <p>
+ * Accessors that return a single record per {@link org.greenplum.pxf.api.OneRow}
+ * let the bridge skip the records that are not part of the sample with
+ * {@link #skipNextObject()}. Accessors that return batches of records are
+ * only used with vectorized resolvers, their batches are sampled after
+ * resolution.
+ */
+public interface SamplingAccessor extends Accessor {
+
+    /**
+     * Returns the ratio of the records of the fragment read by the accessor
+     * after skipping blocks of data for sampling. Called after
+     * {@link #openForRead()}.
+     *
+     * @return the ratio of the records read, 1 when the accessor reads all the records
+     */
+    default float getReadRatio() {
+        return 1.0f;
+    }
+
+    /**
+     * Skips the next record without returning it, the record is not resolved.
+     *
+     * @return true if a record was skipped, false when the fragment is exhausted
+     * @throws Exception if skipping the record failed
+     */
+    default boolean skipNextObject() throws Exception {
+        return readNextObject() != null;
+    }
+}
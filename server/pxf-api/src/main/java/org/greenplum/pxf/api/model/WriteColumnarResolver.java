@@ -0,0 +1,41 @@
+package org.greenplum.pxf.api.model;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.greenplum.pxf.api.OneRow;
+
+/**
+ * A {@link WriteVectorizedResolver} that also resolves batches in columnar
+ * form, so that the values received from Greenplum are written to the
+ * vectors of the batch straight from the column buffers they were decoded
+ * into, without a {@link org.greenplum.pxf.api.OneField} for every value.
+ */
+public interface WriteColumnarResolver extends WriteVectorizedResolver {
+
+    /**
+     * Constructs a batch of records represented by {@link OneRow} from the
+     * columns of the given batch.
+     *
+     * @param batch the columns of the records, the number of records is at most {@link #getBatchSize()}
+     * @return the constructed {@link OneRow} which is a batch, or null if the batch is empty
+     * @throws Exception if constructing of a row batch from the columns failed
+     */
+    OneRow setColumnsForBatch(ColumnarBatch batch) throws Exception;
+}
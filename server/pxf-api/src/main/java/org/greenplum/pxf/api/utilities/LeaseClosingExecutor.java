@@ -0,0 +1,47 @@
+package org.greenplum.pxf.api.utilities;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes the resources removed from the caches of the {@link LeaseManager}s
+ * of the PXF server. Closing a connection or a client can take a while, so it
+ * is done by a few daemon threads shared by all the lease managers, which are
+ * terminated when idle and shut down with the application context.
+ */
+@Component
+public class LeaseClosingExecutor implements Executor, DisposableBean {
+
+    private static final int MAX_THREADS = 4;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final String THREAD_NAME_PREFIX = "pxf-lease-closing-";
+
+    private final ThreadPoolExecutor executor;
+
+    public LeaseClosingExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+        threadFactory.setDaemon(true);
+        executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @Override
+    public void destroy() {
+        // the resources already removed are still closed, the daemon threads do not delay the exit
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,215 @@
+package org.greenplum.pxf.api.utilities;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalListeners;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Shares resources that are expensive to create, such as connections and
+ * clients, between all the fragments and requests. A resource is created once
+ * per key and is closed when it has not been used for the configured
+ * expiration time, or when it is invalidated, typically when the profile is
+ * reloaded.
+ * <p>
+ * Resources are handed out as {@link Lease}s, a resource removed from the
+ * cache is closed only after all its leases are closed. Resources are closed
+ * by the given executor, so that the threads using the cache do not wait for
+ * them to close.
+ *
+ * @param <K> the type of the keys identifying the resources
+ * @param <R> the type of the resources
+ */
+public class LeaseManager<K, R> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaseManager.class);
+
+    private final String name;
+    private final Cache<K, SharedResource<R>> resources;
+    private final ResourceCloser<R> resourceCloser;
+
+    /**
+     * Creates a new lease manager
+     *
+     * @param name            the name of the resources, used in log and error messages
+     * @param expiration      the time after which an unused resource is closed
+     * @param resourceCloser  closes a resource
+     * @param closingExecutor the executor closing the resources removed from the cache
+     */
+    public LeaseManager(String name, Duration expiration, ResourceCloser<R> resourceCloser, Executor closingExecutor) {
+        this.name = name;
+        this.resourceCloser = resourceCloser;
+        long expirationMillis = expiration.toMillis();
+        LOG.info("Creating {} cache with entry expiration of {} ms", name, expirationMillis);
+        this.resources = CacheBuilder.newBuilder()
+                .expireAfterAccess(expirationMillis, TimeUnit.MILLISECONDS)
+                .removalListener(RemovalListeners.asynchronous((RemovalListener<K, SharedResource<R>>) notification -> {
+                            LOG.debug("Removed {} for {} with cause {}", name, notification.getKey(), notification.getCause());
+                            notification.getValue().evict();
+                        },
+                        closingExecutor))
+                .build();
+    }
+
+    /**
+     * Returns a lease on the shared resource for the given key, creating the
+     * resource if needed. The lease must be closed once the caller is done
+     * with the resource.
+     *
+     * @param key             the key of the resource
+     * @param resourceCreator creates the resource if there is none for the key
+     * @return a lease on the shared resource
+     * @throws IOException if the resource can not be created
+     */
+    public Lease<R> lease(K key, ResourceCreator<R> resourceCreator) throws IOException {
+        while (true) {
+            SharedResource<R> sharedResource;
+            try {
+                sharedResource = resources.get(key, () -> {
+                    LOG.debug("Creating {} for {}", name, key);
+                    return new SharedResource<>(this, resourceCreator.create());
+                });
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(String.format("Could not obtain %s for %s : %s", name, key, cause.getMessage()), cause);
+            }
+            if (sharedResource.acquire()) {
+                return new Lease<>(sharedResource);
+            }
+            // the resource has just been evicted, make sure it is gone and get a new one
+            resources.asMap().remove(key, sharedResource);
+        }
+    }
+
+    /**
+     * Closes all the resources, resources that are in use are closed once
+     * they are released.
+     */
+    public void invalidateAll() {
+        resources.invalidateAll();
+        resources.cleanUp();
+    }
+
+    /**
+     * Closes the resources with keys matching the given filter, resources
+     * that are in use are closed once they are released.
+     *
+     * @param keyFilter the filter for the keys of the resources to close
+     */
+    public void invalidateIf(Predicate<K> keyFilter) {
+        resources.asMap().keySet().removeIf(keyFilter);
+        resources.cleanUp();
+    }
+
+    private void close(R resource) {
+        try {
+            resourceCloser.close(resource);
+        } catch (Exception e) {
+            LOG.warn("Ignoring error encountered while closing {}", name, e);
+        }
+    }
+
+    /**
+     * A lease on a shared resource. Closing the lease does not close the
+     * resource, unless it has been removed from the cache.
+     *
+     * @param <R> the type of the resource
+     */
+    public static class Lease<R> implements Closeable {
+        private final SharedResource<R> sharedResource;
+        private boolean closed;
+
+        private Lease(SharedResource<R> sharedResource) {
+            this.sharedResource = sharedResource;
+        }
+
+        /**
+         * @return the shared resource
+         */
+        public R getResource() {
+            return sharedResource.resource;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                sharedResource.release();
+            }
+        }
+    }
+
+    /**
+     * A resource with the number of its active leases
+     */
+    private static class SharedResource<R> {
+        private final LeaseManager<?, R> manager;
+        private final R resource;
+        private int leases;
+        private boolean evicted;
+
+        private SharedResource(LeaseManager<?, R> manager, R resource) {
+            this.manager = manager;
+            this.resource = resource;
+        }
+
+        private synchronized boolean acquire() {
+            if (evicted) {
+                return false;
+            }
+            leases++;
+            return true;
+        }
+
+        private synchronized void release() {
+            leases--;
+            if (evicted && leases == 0) {
+                manager.close(resource);
+            }
+        }
+
+        private synchronized void evict() {
+            if (evicted) {
+                return;
+            }
+            evicted = true;
+            if (leases == 0) {
+                manager.close(resource);
+            }
+        }
+    }
+
+    /**
+     * Creates a resource
+     *
+     * @param <R> the type of the resource
+     */
+    @FunctionalInterface
+    public interface ResourceCreator<R> {
+        R create() throws IOException;
+    }
+
+    /**
+     * Closes a resource
+     *
+     * @param <R> the type of the resource
+     */
+    @FunctionalInterface
+    public interface ResourceCloser<R> {
+        void close(R resource) throws Exception;
+    }
+}
@@ -23,6 +23,16 @@ class PxfServerPropertiesTest {
         assertThat(properties.getTomcat().getMaxHeaderCount()).isEqualTo(30000);
         assertThat(properties.getTomcat().isDisableUploadTimeout()).isTrue();
         assertThat(properties.getTomcat().getConnectionUploadTimeout()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(properties.getFragmentPrefetch()).isNotNull();
+        assertThat(properties.getFragmentPrefetch().getDepth()).isEqualTo(0);
+        assertThat(properties.getFragmentPrefetch().getPoolSize()).isEqualTo(16);
+        assertThat(properties.getFragmentPrefetch().getQueueCapacity()).isEqualTo(256);
+        assertThat(properties.getFragmentSharing()).isNotNull();
+        assertThat(properties.getFragmentSharing().isEnabled()).isFalse();
+        assertThat(properties.getFragmentSharing().getHosts()).isEmpty();
+        assertThat(properties.getFragmentSharing().getLocalHost()).isNull();
+        assertThat(properties.getFragmentSharing().getTimeout()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(properties.getFragmentSharing().getExpiration()).isEqualTo(Duration.ofMinutes(1));
     }
 
     @Test
@@ -37,6 +47,18 @@ class PxfServerPropertiesTest {
         assertThat(properties.getTomcat().getMaxHeaderCount()).isEqualTo(50);
     }
 
+    @Test
+    public void testFragmentPrefetchDepthBinding() {
+        bind("pxf.fragment-prefetch.depth", "4");
+        assertThat(properties.getFragmentPrefetch().getDepth()).isEqualTo(4);
+    }
+
+    @Test
+    public void testFragmentSharingHostsBinding() {
+        bind("pxf.fragment-sharing.hosts", "sdw1,sdw2:5999");
+        assertThat(properties.getFragmentSharing().getHosts()).containsExactly("sdw1", "sdw2:5999");
+    }
+
     @Test
     public void testTomcatDisableUploadTimeoutBinding() {
         bind("pxf.tomcat.disable-upload-timeout", "false");
@@ -0,0 +1,232 @@
+package org.greenplum.pxf.api.filter;
+
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.greenplum.pxf.api.filter.FilterEvaluator.Result.FALSE;
+import static org.greenplum.pxf.api.filter.FilterEvaluator.Result.TRUE;
+import static org.greenplum.pxf.api.filter.FilterEvaluator.Result.UNKNOWN;
+import static org.greenplum.pxf.api.filter.FilterEvaluator.UNKNOWN_VALUE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilterEvaluatorTest {
+
+    private List<ColumnDescriptor> columnDescriptors;
+
+    @BeforeEach
+    public void setup() {
+        columnDescriptors = new ArrayList<>();
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        columnDescriptors.add(new ColumnDescriptor("cdate", DataType.DATE.getOID(), 1, "date", null));
+        columnDescriptors.add(new ColumnDescriptor("amt", DataType.FLOAT8.getOID(), 2, "float8", null));
+        columnDescriptors.add(new ColumnDescriptor("grade", DataType.TEXT.getOID(), 3, "text", null));
+        columnDescriptors.add(new ColumnDescriptor("b", DataType.BOOLEAN.getOID(), 4, "bool", null));
+        columnDescriptors.add(new ColumnDescriptor("price", DataType.NUMERIC.getOID(), 5, "numeric", new Integer[]{10, 2}));
+        columnDescriptors.add(new ColumnDescriptor("code", DataType.BPCHAR.getOID(), 6, "bpchar", new Integer[]{4}));
+        columnDescriptors.add(new ColumnDescriptor("ts", DataType.TIMESTAMP.getOID(), 7, "timestamp", null));
+    }
+
+    @Test
+    public void testComparisons() throws Exception {
+        // id = 5
+        assertEquals(TRUE, evaluate("a0c23s1d5o5", 5));
+        assertEquals(FALSE, evaluate("a0c23s1d5o5", 6));
+        assertEquals(TRUE, evaluate("a0c23s1d5o5", "5"));
+        assertEquals(FALSE, evaluate("a0c23s1d5o5", 6L));
+        // id <> 5
+        assertEquals(TRUE, evaluate("a0c23s1d5o6", 6));
+        // id < 5, id > 5, id <= 5, id >= 5
+        assertEquals(TRUE, evaluate("a0c23s1d5o1", 4));
+        assertEquals(FALSE, evaluate("a0c23s1d5o2", 5));
+        assertEquals(TRUE, evaluate("a0c23s1d5o3", 5));
+        assertEquals(FALSE, evaluate("a0c23s1d5o4", -12));
+        // 5 > id is transposed to id < 5
+        assertEquals(TRUE, evaluate("c23s1d5a0o2", 4));
+    }
+
+    @Test
+    public void testValuesThatDoNotParseAreUnknown() throws Exception {
+        assertEquals(UNKNOWN, evaluate("a0c23s1d5o5", "five"));
+        assertEquals(UNKNOWN, evaluate("a0c23s1d5o5", " 5"));
+        assertEquals(UNKNOWN, evaluate("a0c23s1d5o5", "3000000000"));
+        assertEquals(UNKNOWN, evaluate("a0c23s1d5o5", 5.0d));
+        // the constant does not parse either
+        assertEquals(UNKNOWN, evaluate("a0c25s4dfiveo5", 5));
+    }
+
+    @Test
+    public void testNullsAndUnknownValuesAreUnknown() throws Exception {
+        assertEquals(UNKNOWN, evaluate("a0c23s1d5o5", (Object) null));
+        assertEquals(UNKNOWN, evaluate("a0c23s1d5o5", UNKNOWN_VALUE));
+        // id IS NULL, id IS NOT NULL
+        assertEquals(TRUE, evaluate("a0o8", (Object) null));
+        assertEquals(FALSE, evaluate("a0o8", 1));
+        assertEquals(FALSE, evaluate("a0o9", (Object) null));
+        assertEquals(UNKNOWN, evaluate("a0o9", UNKNOWN_VALUE));
+    }
+
+    @Test
+    public void testText() throws Exception {
+        // grade = 'A'
+        assertEquals(TRUE, evaluate("a3c25s1dAo5", null, null, null, "A"));
+        assertEquals(FALSE, evaluate("a3c25s1dAo5", null, null, null, "a"));
+        assertEquals(FALSE, evaluate("a3c25s1dAo5", null, null, null, "A "));
+        // grade <> 'A'
+        assertEquals(TRUE, evaluate("a3c25s1dAo6", null, null, null, "B"));
+        // grade > 'A' depends on the collation
+        assertEquals(UNKNOWN, evaluate("a3c25s1dAo2", null, null, null, "B"));
+    }
+
+    @Test
+    public void testPaddedCharacters() throws Exception {
+        // code = 'ab  '
+        assertEquals(TRUE, evaluate("a6c1042s4dab  o5", null, null, null, null, null, null, "ab"));
+        assertEquals(TRUE, evaluate("a6c1042s4dab  o5", null, null, null, null, null, null, "ab "));
+        assertEquals(FALSE, evaluate("a6c1042s4dab  o5", null, null, null, null, null, null, "abc"));
+        // longer than the column
+        assertEquals(UNKNOWN, evaluate("a6c1042s4dab  o5", null, null, null, null, null, null, "abcde"));
+        // LIKE matches the padding of the column
+        assertEquals(UNKNOWN, evaluate("a6c25s2da%o7", null, null, null, null, null, null, "ab"));
+    }
+
+    @Test
+    public void testLike() throws Exception {
+        // grade LIKE 'A%'
+        assertEquals(TRUE, evaluate("a3c25s2dA%o7", null, null, null, "Apple"));
+        assertEquals(TRUE, evaluate("a3c25s2dA%o7", null, null, null, "A"));
+        assertEquals(FALSE, evaluate("a3c25s2dA%o7", null, null, null, "apple"));
+        // grade LIKE '_.b'
+        assertEquals(TRUE, evaluate("a3c25s3d_.bo7", null, null, null, "a.b"));
+        assertEquals(FALSE, evaluate("a3c25s3d_.bo7", null, null, null, "axb"));
+        // grade LIKE '10\%' matches a literal percent sign
+        assertEquals(TRUE, evaluate("a3c25s4d10\\%o7", null, null, null, "10%"));
+        assertEquals(FALSE, evaluate("a3c25s4d10\\%o7", null, null, null, "100"));
+        // multi-line values
+        assertEquals(TRUE, evaluate("a3c25s3d%x%o7", null, null, null, "a\nx\nb"));
+    }
+
+    @Test
+    public void testToPattern() {
+        assertEquals("\\Qab\\E.*", FilterEvaluator.toPattern("ab%").pattern());
+        assertEquals(".\\Q%\\E", FilterEvaluator.toPattern("_\\%").pattern());
+        assertNull(FilterEvaluator.toPattern("ab\\"));
+    }
+
+    @Test
+    public void testIn() throws Exception {
+        // id IN (1, 2, 3)
+        assertEquals(TRUE, evaluate("a0m1007s1d1s1d2s1d3o10", 2));
+        assertEquals(FALSE, evaluate("a0m1007s1d1s1d2s1d3o10", 4));
+        assertEquals(UNKNOWN, evaluate("a0m1007s1d1s1d2s1d3o10", (Object) null));
+        // grade IN ('x', 'y')
+        assertEquals(TRUE, evaluate("a3m1009s1dxs1dyo10", null, null, null, "y"));
+        assertEquals(FALSE, evaluate("a3m1009s1dxs1dyo10", null, null, null, "z"));
+    }
+
+    @Test
+    public void testNumeric() throws Exception {
+        // price = 10.5
+        assertEquals(TRUE, evaluate("a5c1700s4d10.5o5", null, null, null, null, null, "10.50"));
+        assertEquals(TRUE, evaluate("a5c1700s4d10.5o5", null, null, null, null, null, new BigDecimal("10.5")));
+        assertEquals(FALSE, evaluate("a5c1700s4d10.5o5", null, null, null, null, null, 10));
+        // rounded by Greenplum to the scale of the column
+        assertEquals(UNKNOWN, evaluate("a5c1700s4d10.5o5", null, null, null, null, null, "10.499"));
+        assertEquals(UNKNOWN, evaluate("a5c1700s4d10.5o5", null, null, null, null, null, "NaN"));
+    }
+
+    @Test
+    public void testDatesAndTimestamps() throws Exception {
+        // cdate > '2008-02-01'
+        assertEquals(TRUE, evaluate("a1c1082s10d2008-02-01o2", null, "2008-02-02"));
+        assertEquals(FALSE, evaluate("a1c1082s10d2008-02-01o2", null, Date.valueOf("2008-01-31")));
+        assertEquals(UNKNOWN, evaluate("a1c1082s10d2008-02-01o2", null, "02/02/2008"));
+        // ts >= '2020-01-01 10:00:00'
+        String filter = "a7c1114s19d2020-01-01 10:00:00o4";
+        assertEquals(TRUE, evaluate(filter, null, null, null, null, null, null, null, "2020-01-01 10:00:00.5"));
+        assertEquals(FALSE, evaluate(filter, null, null, null, null, null, null, null, "2020-01-01T09:59:59"));
+        assertEquals(TRUE, evaluate(filter, null, null, null, null, null, null, null, Timestamp.valueOf("2020-01-01 10:00:00")));
+        // rounded by Greenplum to microseconds
+        assertEquals(UNKNOWN, evaluate(filter, null, null, null, null, null, null, null, "2020-01-01 09:59:59.9999999"));
+    }
+
+    @Test
+    public void testBoolean() throws Exception {
+        // b = true
+        assertEquals(TRUE, evaluate("a4c16s4dtrueo5", null, null, null, null, true));
+        assertEquals(TRUE, evaluate("a4c16s4dtrueo5", null, null, null, null, "t"));
+        assertEquals(FALSE, evaluate("a4c16s4dtrueo5", null, null, null, null, "f"));
+        assertEquals(UNKNOWN, evaluate("a4c16s4dtrueo5", null, null, null, null, "maybe"));
+    }
+
+    @Test
+    public void testFloatingPointIsUnknown() throws Exception {
+        // amt > 1200
+        FilterEvaluator evaluator = new FilterEvaluator(new FilterParser().parse("a2c20s4d1200o2"), columnDescriptors);
+        assertFalse(evaluator.canReject());
+        assertEquals(UNKNOWN, evaluator.evaluate(row(null, null, 1000d)));
+    }
+
+    @Test
+    public void testLogicalOperators() throws Exception {
+        // id = 1 AND grade = 'A'
+        String and = "a0c23s1d1o5a3c25s1dAo5l0";
+        assertEquals(TRUE, evaluate(and, 1, null, null, "A"));
+        assertEquals(FALSE, evaluate(and, 1, null, null, "B"));
+        assertEquals(FALSE, evaluate(and, 2, null, null, UNKNOWN_VALUE));
+        assertEquals(UNKNOWN, evaluate(and, 1, null, null, UNKNOWN_VALUE));
+
+        // id = 1 OR grade = 'A'
+        String or = "a0c23s1d1o5a3c25s1dAo5l1";
+        assertEquals(TRUE, evaluate(or, 2, null, null, "A"));
+        assertEquals(FALSE, evaluate(or, 2, null, null, "B"));
+        assertEquals(TRUE, evaluate(or, 1, null, null, UNKNOWN_VALUE));
+        assertEquals(UNKNOWN, evaluate(or, 2, null, null, UNKNOWN_VALUE));
+
+        // NOT (id = 1)
+        assertEquals(FALSE, evaluate("a0c23s1d1o5l2", 1));
+        assertEquals(TRUE, evaluate("a0c23s1d1o5l2", 2));
+        assertEquals(UNKNOWN, evaluate("a0c23s1d1o5l2", (Object) null));
+    }
+
+    @Test
+    public void testUnsupportedConditionsInLogicalOperators() throws Exception {
+        // id = 1 AND amt > 1200: the supported condition still rejects rows
+        String and = "a0c23s1d1o5a2c20s4d1200o2l0";
+        assertTrue(evaluator(and).canReject());
+        assertEquals(FALSE, evaluate(and, 2, null, 2000d));
+        assertEquals(UNKNOWN, evaluate(and, 1, null, 2000d));
+
+        // id = 1 OR amt > 1200 is never false
+        assertFalse(evaluator("a0c23s1d1o5a2c20s4d1200o2l1").canReject());
+        // NOT (amt > 1200) is never false
+        assertFalse(evaluator("a2c20s4d1200o2l2").canReject());
+        // NOT (id = 1 AND amt > 1200) is false only when both are true
+        assertTrue(evaluator("a0c23s1d1o5a2c20s4d1200o2l0l2").canReject());
+        assertEquals(UNKNOWN, evaluate("a0c23s1d1o5a2c20s4d1200o2l0l2", 1, null, 2000d));
+        assertEquals(TRUE, evaluate("a0c23s1d1o5a2c20s4d1200o2l0l2", 2, null, 2000d));
+    }
+
+    private FilterEvaluator evaluator(String filter) throws Exception {
+        return new FilterEvaluator(new FilterParser().parse(filter), columnDescriptors);
+    }
+
+    private FilterEvaluator.Result evaluate(String filter, Object... values) throws Exception {
+        return evaluator(filter).evaluate(row(values));
+    }
+
+    private IntFunction<Object> row(Object... values) {
+        return index -> index < values.length ? values[index] : null;
+    }
+}
@@ -0,0 +1,206 @@
+package org.greenplum.pxf.api.io;
+
+import org.greenplum.pxf.api.model.ColumnValues;
+import org.greenplum.pxf.api.model.ColumnarBatch;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GPDBWritableDecoderTest {
+
+    private static final int[] SCHEMA = {
+            DataType.BOOLEAN.getOID(),
+            DataType.BYTEA.getOID(),
+            DataType.BIGINT.getOID(),
+            DataType.SMALLINT.getOID(),
+            DataType.INTEGER.getOID(),
+            DataType.TEXT.getOID(),
+            DataType.REAL.getOID(),
+            DataType.FLOAT8.getOID(),
+            DataType.NUMERIC.getOID()
+    };
+
+    @Test
+    public void testBatchMatchesGPDBWritable() throws Exception {
+        GPDBWritable[] records = new GPDBWritable[5];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = buildGPDBWritable(StandardCharsets.UTF_8, i);
+        }
+
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+        ColumnarBatch batch = decoder.readBatch(input(records), 10);
+
+        assertEquals(5, batch.getSize());
+        assertEquals(SCHEMA.length, batch.getColumnCount());
+        assertEquals(DataType.BOOLEAN, batch.getColumn(0).getDataType());
+        assertEquals(DataType.BYTEA, batch.getColumn(1).getDataType());
+        assertEquals(DataType.TEXT, batch.getColumn(8).getDataType());
+        for (int i = 0; i < records.length; i++) {
+            assertRow(records[i], batch, i);
+        }
+        assertTrue(batch.getColumn(5).hasUtf8Bytes());
+        assertFalse(batch.getColumn(1).hasUtf8Bytes());
+    }
+
+    @Test
+    public void testNulls() throws Exception {
+        GPDBWritable withNulls = new GPDBWritable(SCHEMA, StandardCharsets.UTF_8);
+        withNulls.setBytes(1, new byte[]{1, 2, 3});
+        withNulls.setInt(4, 3);
+        withNulls.setDouble(7, 6.7d);
+
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+        ColumnarBatch batch = decoder.readBatch(input(buildGPDBWritable(StandardCharsets.UTF_8, 0), withNulls), 10);
+
+        assertEquals(2, batch.getSize());
+        assertRow(withNulls, batch, 1);
+        assertFalse(batch.getColumn(0).noNulls());
+        assertFalse(batch.getColumn(0).isNull(0));
+        assertTrue(batch.getColumn(0).isNull(1));
+        assertTrue(batch.getColumn(1).noNulls());
+        assertTrue(batch.getColumn(5).isNull(1));
+        assertNull(batch.getColumn(5).getObject(1));
+    }
+
+    @Test
+    public void testBatchesAreReused() throws Exception {
+        GPDBWritable[] records = new GPDBWritable[7];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = buildGPDBWritable(StandardCharsets.UTF_8, i);
+        }
+        DataInputStream input = input(records);
+
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+        ColumnarBatch first = decoder.readBatch(input, 3);
+        assertEquals(3, first.getSize());
+        for (int i = 0; i < 3; i++) {
+            assertRow(records[i], first, i);
+        }
+
+        ColumnarBatch second = decoder.readBatch(input, 3);
+        assertSame(first, second);
+        assertEquals(3, second.getSize());
+        for (int i = 0; i < 3; i++) {
+            assertRow(records[3 + i], second, i);
+        }
+
+        ColumnarBatch last = decoder.readBatch(input, 3);
+        assertEquals(1, last.getSize());
+        assertRow(records[6], last, 0);
+
+        assertNull(decoder.readBatch(input, 3));
+    }
+
+    @Test
+    public void testEmptyInput() throws Exception {
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+        assertNull(decoder.readBatch(input(), 10));
+    }
+
+    @Test
+    public void testDatabaseEncoding() throws Exception {
+        String text = "Привет, мир";
+        Charset charset = Charset.forName("windows-1251");
+        GPDBWritable record = new GPDBWritable(SCHEMA, charset);
+        record.setString(5, text);
+
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(charset);
+        ColumnarBatch batch = decoder.readBatch(input(record), 10);
+
+        ColumnValues column = batch.getColumn(5);
+        assertFalse(column.hasUtf8Bytes());
+        assertEquals(text, column.getObject(0));
+        assertArrayEquals(text.getBytes(charset),
+                Arrays.copyOfRange(column.getBytes(0), column.getStart(0), column.getStart(0) + column.getLength(0)));
+    }
+
+    @Test
+    public void testSchemaMismatch() throws Exception {
+        GPDBWritable other = new GPDBWritable(new int[]{DataType.INTEGER.getOID()}, StandardCharsets.UTF_8);
+        other.setInt(0, 1);
+
+        GPDBWritableDecoder decoder = new GPDBWritableDecoder(StandardCharsets.UTF_8);
+        DataInputStream input = input(buildGPDBWritable(StandardCharsets.UTF_8, 0), other);
+        Exception e = assertThrows(IOException.class, () -> decoder.readBatch(input, 10));
+        assertEquals("Record has 1 columns, expected 9", e.getMessage());
+    }
+
+    private void assertRow(GPDBWritable expected, ColumnarBatch batch, int row) throws IOException {
+        for (int column = 0; column < SCHEMA.length; column++) {
+            ColumnValues values = batch.getColumn(column);
+            Object value = getValue(expected, column);
+            if (value == null) {
+                assertTrue(values.isNull(row), "column " + column);
+            } else if (value instanceof byte[]) {
+                assertFalse(values.isNull(row), "column " + column);
+                assertArrayEquals((byte[]) value, (byte[]) values.getObject(row), "column " + column);
+            } else {
+                assertFalse(values.isNull(row), "column " + column);
+                assertEquals(value, values.getObject(row), "column " + column);
+            }
+        }
+        if (expected.getLong(2) != null) {
+            assertEquals(expected.getLong(2).longValue(), batch.getColumn(2).getLong(row));
+            assertEquals(expected.getDouble(7).doubleValue(), batch.getColumn(7).getDouble(row));
+        }
+    }
+
+    private Object getValue(GPDBWritable writable, int column) throws IOException {
+        switch (column) {
+            case 0:
+                return writable.getBoolean(column);
+            case 1:
+                return writable.getBytes(column);
+            case 2:
+                return writable.getLong(column);
+            case 3:
+                return writable.getShort(column);
+            case 4:
+                return writable.getInt(column);
+            case 6:
+                return writable.getFloat(column);
+            case 7:
+                return writable.getDouble(column);
+            default:
+                return writable.getString(column);
+        }
+    }
+
+    private GPDBWritable buildGPDBWritable(Charset charset, int index) throws IOException {
+        GPDBWritable writable = new GPDBWritable(SCHEMA, charset);
+        writable.setBoolean(0, index % 2 == 0);
+        writable.setBytes(1, new byte[]{(byte) index, (byte) (index + 1)});
+        writable.setLong(2, 123456789000000000L + index);
+        writable.setShort(3, (short) (10 + index));
+        writable.setInt(4, 100 + index);
+        writable.setString(5, "row-" + index);
+        writable.setFloat(6, index + 0.5f);
+        writable.setDouble(7, index + Math.PI);
+        writable.setString(8, "12345.678" + index);
+        return writable;
+    }
+
+    private DataInputStream input(GPDBWritable... records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        for (GPDBWritable record : records) {
+            record.write(output);
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
@@ -0,0 +1,221 @@
+package org.greenplum.pxf.api.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GPDBWritableEncoderTest {
+
+    private static final int[] SCHEMA = {
+            DataType.BOOLEAN.getOID(),
+            DataType.BYTEA.getOID(),
+            DataType.BIGINT.getOID(),
+            DataType.SMALLINT.getOID(),
+            DataType.INTEGER.getOID(),
+            DataType.TEXT.getOID(),
+            DataType.REAL.getOID(),
+            DataType.FLOAT8.getOID(),
+            DataType.NUMERIC.getOID()
+    };
+
+    @Test
+    public void testRecordMatchesGPDBWritable() throws Exception {
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, StandardCharsets.UTF_8);
+        encodeRecord(encoder, "text-value", "9876.54321");
+
+        assertArrayEquals(serialize(buildGPDBWritable(StandardCharsets.UTF_8, "text-value", "9876.54321")),
+                serialize(encoder.getRecord(0)));
+    }
+
+    @Test
+    public void testNullsMatchGPDBWritable() throws Exception {
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, StandardCharsets.UTF_8);
+        encoder.beginRecord();
+        encoder.writeNull(DataType.BOOLEAN);
+        encoder.writeBytes(new byte[]{1, 2, 3});
+        encoder.writeNull(DataType.BIGINT);
+        encoder.writeNull(DataType.SMALLINT);
+        encoder.writeInt(3);
+        encoder.writeNull(DataType.TEXT);
+        encoder.writeNull(DataType.REAL);
+        encoder.writeDouble(6.7d);
+        encoder.writeNull(DataType.TEXT);
+        encoder.endRecord();
+
+        GPDBWritable expected = new GPDBWritable(SCHEMA, StandardCharsets.UTF_8);
+        expected.setBytes(1, new byte[]{1, 2, 3});
+        expected.setInt(4, 3);
+        expected.setDouble(7, 6.7d);
+
+        assertArrayEquals(serialize(expected), serialize(encoder.getRecord(0)));
+    }
+
+    @Test
+    public void testMultiByteStrings() throws Exception {
+        // 2, 3 and 4 byte UTF-8 sequences and an unpaired surrogate
+        String text = "Qué será, 中文, 😀 \uD800";
+        for (Charset charset : new Charset[]{StandardCharsets.UTF_8, Charset.forName("windows-1251"), Charset.forName("GB18030")}) {
+            GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, charset);
+            encodeRecord(encoder, text, "1");
+
+            assertArrayEquals(serialize(buildGPDBWritable(charset, text, "1")), serialize(encoder.getRecord(0)),
+                    charset.name());
+        }
+    }
+
+    @Test
+    public void testEncodedTextMatchesString() throws Exception {
+        EncodedText text = new EncodedText("Qué será, 中文, 😀 \uD800");
+        for (Charset charset : new Charset[]{StandardCharsets.UTF_8, Charset.forName("windows-1251"), StandardCharsets.UTF_8}) {
+            GPDBWritableEncoder expected = new GPDBWritableEncoder(SCHEMA, charset);
+            encodeRecord(expected, text.toString(), "1");
+            GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, charset);
+            encoder.beginRecord();
+            encoder.writeBoolean(true);
+            encoder.writeBytes(new byte[]{0, 1});
+            encoder.writeLong(1L);
+            encoder.writeShort((short) 2);
+            encoder.writeInt(3);
+            encoder.writeString(text);
+            encoder.writeFloat(4.5f);
+            encoder.writeDouble(6.7d);
+            encoder.writeString(new EncodedText("1"));
+            encoder.endRecord();
+
+            assertArrayEquals(serialize(expected.getRecord(0)), serialize(encoder.getRecord(0)), charset.name());
+        }
+        // the bytes are kept for the charset
+        assertSame(text.getBytes(StandardCharsets.UTF_8), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUtf8BytesMatchString() throws Exception {
+        // ASCII, multi-byte and malformed UTF-8 input
+        for (String text : new String[]{"text-value", "Qué será, 中文, 😀"}) {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            byte[] padded = new byte[utf8.length + 4];
+            System.arraycopy(utf8, 0, padded, 2, utf8.length);
+            padded[padded.length - 1] = (byte) 0xc3;
+            for (Charset charset : new Charset[]{StandardCharsets.UTF_8, Charset.forName("windows-1251")}) {
+                assertUtf8MatchesString(charset, padded, 2, utf8.length);
+                assertUtf8MatchesString(charset, padded, 2, padded.length - 2);
+            }
+        }
+    }
+
+    @Test
+    public void testRecordsAreReadBack() throws Exception {
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, StandardCharsets.UTF_8);
+        // enough records to grow the buffer
+        for (int i = 0; i < 1000; i++) {
+            encodeRecord(encoder, "value-" + i, String.valueOf(i));
+        }
+
+        assertEquals(1000, encoder.getRecordCount());
+        for (int i = 0; i < 1000; i++) {
+            GPDBWritable record = new GPDBWritable(serialize(encoder.getRecord(i)), StandardCharsets.UTF_8);
+            assertEquals("value-" + i, record.getString(5));
+            assertEquals(String.valueOf(i), record.getString(8));
+        }
+    }
+
+    @Test
+    public void testDiscardAndReset() throws Exception {
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, StandardCharsets.UTF_8);
+        encodeRecord(encoder, "first", "1");
+        encoder.beginRecord();
+        encoder.writeBoolean(false);
+        encoder.discardRecord();
+        encodeRecord(encoder, "second", "2");
+
+        assertEquals(2, encoder.getRecordCount());
+        assertEquals("second", new GPDBWritable(serialize(encoder.getRecord(1)), StandardCharsets.UTF_8).getString(5));
+
+        encoder.reset();
+        encodeRecord(encoder, "third", "3");
+        assertEquals(1, encoder.getRecordCount());
+        assertEquals("third", new GPDBWritable(serialize(encoder.getRecord(0)), StandardCharsets.UTF_8).getString(5));
+    }
+
+    @Test
+    public void testTypeMismatch() {
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, StandardCharsets.UTF_8);
+        encoder.beginRecord();
+
+        Exception e = assertThrows(GPDBWritable.TypeMismatchException.class, () -> encoder.writeInt(1));
+        assertEquals("Cannot set INTEGER to a BOOLEAN column", e.getMessage());
+    }
+
+    @Test
+    public void testIncompleteRecord() throws Exception {
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, StandardCharsets.UTF_8);
+        encoder.beginRecord();
+        encoder.writeBoolean(true);
+
+        assertThrows(IllegalStateException.class, encoder::endRecord);
+    }
+
+    private void encodeRecord(GPDBWritableEncoder encoder, String text, String numeric) throws IOException {
+        encoder.beginRecord();
+        encoder.writeBoolean(true);
+        encoder.writeBytes(new byte[]{0, 1});
+        encoder.writeLong(1L);
+        encoder.writeShort((short) 2);
+        encoder.writeInt(3);
+        encoder.writeString(text);
+        encoder.writeFloat(4.5f);
+        encoder.writeDouble(6.7d);
+        encoder.writeString(numeric);
+        encoder.endRecord();
+    }
+
+    private void assertUtf8MatchesString(Charset charset, byte[] bytes, int start, int length) throws IOException {
+        String text = new String(bytes, start, length, StandardCharsets.UTF_8);
+        GPDBWritableEncoder expected = new GPDBWritableEncoder(SCHEMA, charset);
+        encodeRecord(expected, text, "1");
+
+        GPDBWritableEncoder encoder = new GPDBWritableEncoder(SCHEMA, charset);
+        encoder.beginRecord();
+        encoder.writeBoolean(true);
+        encoder.writeBytes(new byte[]{9, 0, 1, 9}, 1, 2);
+        encoder.writeLong(1L);
+        encoder.writeShort((short) 2);
+        encoder.writeInt(3);
+        encoder.writeUtf8(bytes, start, length);
+        encoder.writeFloat(4.5f);
+        encoder.writeDouble(6.7d);
+        encoder.writeString("1");
+        encoder.endRecord();
+
+        assertArrayEquals(serialize(expected.getRecord(0)), serialize(encoder.getRecord(0)), charset.name() + ": " + text);
+    }
+
+    private GPDBWritable buildGPDBWritable(Charset charset, String text, String numeric) throws IOException {
+        GPDBWritable writable = new GPDBWritable(SCHEMA, charset);
+        writable.setBoolean(0, true);
+        writable.setBytes(1, new byte[]{0, 1});
+        writable.setLong(2, 1L);
+        writable.setShort(3, (short) 2);
+        writable.setInt(4, 3);
+        writable.setString(5, text);
+        writable.setFloat(6, 4.5f);
+        writable.setDouble(7, 6.7d);
+        writable.setString(8, numeric);
+        return writable;
+    }
+
+    private byte[] serialize(Writable writable) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writable.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
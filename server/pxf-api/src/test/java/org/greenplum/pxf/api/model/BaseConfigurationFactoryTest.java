@@ -3,12 +3,16 @@ package org.greenplum.pxf.api.model;
 import org.apache.hadoop.conf.Configuration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -17,8 +21,10 @@ import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_CONFIG_RESOUR
 import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_CONFIG_SERVER_DIRECTORY_PROPERTY;
 import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_SESSION_USER_PROPERTY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -198,4 +204,68 @@ public class BaseConfigurationFactoryTest {
         assertEquals("dummy", configuration.get(PXF_SESSION_USER_PROPERTY));
     }
 
+    @Test
+    public void testConfigurationIsCachedAndCopied() {
+        Configuration configuration1 = factory.initConfiguration("default", "default", "dummy", additionalProperties);
+        configuration1.set("test.blue", "changed");
+        Configuration configuration2 = factory.initConfiguration("default", "default", "dummy", additionalProperties);
+
+        assertNotSame(configuration1, configuration2);
+        assertEquals("blue", configuration2.get("test.blue"));
+        assertEquals("uservalue", configuration2.get("test.user.key"));
+        assertEquals(1, factory.getConfigurationCache().stats().missCount());
+        assertEquals(1, factory.getConfigurationCache().stats().hitCount());
+    }
+
+    @Test
+    public void testConfigurationIsCachedPerUserAndAdditionalProperties() {
+        factory.initConfiguration("default", "default", "dummy", additionalProperties);
+        Configuration configuration = factory.initConfiguration("default", "default", "other", additionalProperties);
+        assertEquals("other", configuration.get(PXF_SESSION_USER_PROPERTY));
+        assertNull(configuration.get("test.user.key"));
+
+        additionalProperties.put("test.blue", "additional");
+        configuration = factory.initConfiguration("default", "default", "dummy", additionalProperties);
+        assertEquals("additional", configuration.get("test.blue"));
+        assertEquals(3, factory.getConfigurationCache().stats().missCount());
+    }
+
+    @Test
+    public void testCachedConfigurationIsReloadedWhenFilesChange(@TempDir File tempDir) throws IOException {
+        File serverDirectory = new File(tempDir, "s1");
+        assertTrue(serverDirectory.mkdir());
+        Path siteFile = writeProperty(serverDirectory, "test-site.xml", "test.key", "one");
+        factory = new BaseConfigurationFactory(tempDir);
+
+        assertEquals("one", factory.initConfiguration("s1", "s1", "dummy", null).get("test.key"));
+
+        writeProperty(serverDirectory, "test-site.xml", "test.key", "two");
+        siteFile.toFile().setLastModified(siteFile.toFile().lastModified() + 2000);
+        assertEquals("two", factory.initConfiguration("s1", "s1", "dummy", null).get("test.key"));
+
+        // a new user file is picked up as well
+        Path userFile = writeProperty(serverDirectory, "dummy-user.xml", "test.key", "three");
+        serverDirectory.setLastModified(serverDirectory.lastModified() + 2000);
+        userFile.toFile().setLastModified(userFile.toFile().lastModified() + 2000);
+        assertEquals("three", factory.initConfiguration("s1", "s1", "dummy", null).get("test.key"));
+        assertEquals(3, factory.getConfigurationCache().stats().loadCount());
+    }
+
+    @Test
+    public void testInvalidateConfiguration() {
+        factory.initConfiguration("default", "default", "dummy", additionalProperties);
+        factory.initConfiguration("default", "other-server", "dummy", additionalProperties);
+        assertEquals(2, factory.getConfigurationCache().size());
+
+        factory.invalidateConfiguration("other-server");
+        assertEquals(1, factory.getConfigurationCache().size());
+
+        factory.invalidateConfiguration(null);
+        assertEquals(0, factory.getConfigurationCache().size());
+    }
+
+    private Path writeProperty(File directory, String fileName, String name, String value) throws IOException {
+        String xml = String.format("<configuration><property><name>%s</name><value>%s</value></property></configuration>", name, value);
+        return Files.write(new File(directory, fileName).toPath(), xml.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -7,6 +7,8 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -232,4 +234,29 @@ public class RequestContextTest {
         context.setConfig("foo/bar");
         assertEquals("foo/bar", context.getConfig());
     }
+
+    @Test
+    public void testCopyIsIndependentOfOriginal() {
+        context.setServerName("s3");
+        context.setProfile("s3:parquet");
+        context.setDataSource("bucket/file1");
+        context.setFragmentIndex(3);
+        context.addOption("VECTORIZE", "true");
+
+        RequestContext copy = context.copy();
+        assertNotSame(context, copy);
+        assertEquals("s3", copy.getServerName());
+        assertEquals("s3:parquet", copy.getProfile());
+        assertEquals("bucket/file1", copy.getDataSource());
+        assertEquals(3, copy.getFragmentIndex());
+        assertEquals("true", copy.getOption("vectorize"));
+        assertSame(context.getTupleDescription(), copy.getTupleDescription());
+
+        copy.setDataSource("bucket/file2");
+        copy.setFragmentIndex(4);
+        copy.addOption("FOO", "bar");
+        assertEquals("bucket/file1", context.getDataSource());
+        assertEquals(3, context.getFragmentIndex());
+        assertFalse(context.getOptions().containsKey("FOO"));
+    }
 }
@@ -0,0 +1,110 @@
+package org.greenplum.pxf.api.utilities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LeaseManagerTest {
+
+    private List<Resource> createdResources;
+    private LeaseManager<String, Resource> leaseManager;
+
+    @BeforeEach
+    public void setup() {
+        createdResources = new ArrayList<>();
+        leaseManager = new LeaseManager<>("test resource", Duration.ofHours(1), Resource::close, Runnable::run);
+    }
+
+    @Test
+    public void testResourceIsSharedForSameKey() throws Exception {
+        LeaseManager.Lease<Resource> lease1 = leaseManager.lease("k1", this::createResource);
+        LeaseManager.Lease<Resource> lease2 = leaseManager.lease("k1", this::createResource);
+        LeaseManager.Lease<Resource> lease3 = leaseManager.lease("k2", this::createResource);
+
+        assertEquals(2, createdResources.size());
+        assertSame(lease1.getResource(), lease2.getResource());
+        assertNotSame(lease1.getResource(), lease3.getResource());
+    }
+
+    @Test
+    public void testInvalidateClosesIdleResources() throws Exception {
+        leaseManager.lease("k1", this::createResource).close();
+        leaseManager.lease("k2", this::createResource).close();
+
+        leaseManager.invalidateIf("k1"::equals);
+        assertTrue(createdResources.get(0).closed);
+        assertFalse(createdResources.get(1).closed);
+
+        leaseManager.invalidateAll();
+        assertTrue(createdResources.get(1).closed);
+
+        // a new resource is created after the invalidation
+        leaseManager.lease("k1", this::createResource).close();
+        assertEquals(3, createdResources.size());
+    }
+
+    @Test
+    public void testInvalidateClosesResourceInUseOnceReleased() throws Exception {
+        LeaseManager.Lease<Resource> lease1 = leaseManager.lease("k1", this::createResource);
+        LeaseManager.Lease<Resource> lease2 = leaseManager.lease("k1", this::createResource);
+
+        leaseManager.invalidateAll();
+        lease1.close();
+        // closing a lease more than once has no effect
+        lease1.close();
+        assertFalse(lease1.getResource().closed);
+
+        lease2.close();
+        assertTrue(lease2.getResource().closed);
+    }
+
+    @Test
+    public void testCreationFailure() {
+        Exception e = assertThrows(IOException.class, () -> leaseManager.lease("k1", () -> {
+            throw new IOException("server is down");
+        }));
+        assertEquals("server is down", e.getMessage());
+
+        e = assertThrows(IOException.class, () -> leaseManager.lease("k1", () -> {
+            throw new IllegalStateException("bad configuration");
+        }));
+        assertEquals("Could not obtain test resource for k1 : bad configuration", e.getMessage());
+    }
+
+    @Test
+    public void testCloseFailureIsIgnored() throws Exception {
+        leaseManager = new LeaseManager<>("test resource", Duration.ofHours(1), resource -> {
+            throw new IOException("already closed");
+        }, Runnable::run);
+        leaseManager.lease("k1", this::createResource).close();
+
+        leaseManager.invalidateAll();
+        leaseManager.lease("k1", this::createResource).close();
+        assertEquals(2, createdResources.size());
+    }
+
+    private Resource createResource() {
+        Resource resource = new Resource();
+        createdResources.add(resource);
+        return resource;
+    }
+
+    private static class Resource {
+        private boolean closed;
+
+        private void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.greenplum.pxf.api.io;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.greenplum.pxf.benchmarks.SyntheticTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization of records in the GPDBWritable format, used for
+ * the data sent to Greenplum, and their deserialization, used for the data
+ * received from Greenplum. The score is the number of records per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GPDBWritableBenchmark {
+
+    private GPDBWritable[] writables;
+    private byte[] serialized;
+    private ByteArrayOutputStream bytes;
+    private DataOutputStream output;
+
+    @Setup
+    public void setup() throws IOException {
+        int[] columnTypes = SyntheticTable.getColumnTypeOids();
+        writables = new GPDBWritable[SyntheticTable.BATCH_SIZE];
+        bytes = new ByteArrayOutputStream();
+        output = new DataOutputStream(bytes);
+        for (int row = 0; row < writables.length; row++) {
+            writables[row] = toGPDBWritable(columnTypes, SyntheticTable.getValues(row));
+            writables[row].write(output);
+        }
+        serialized = bytes.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SyntheticTable.BATCH_SIZE)
+    public int write() throws IOException {
+        bytes.reset();
+        for (GPDBWritable writable : writables) {
+            writable.write(output);
+        }
+        return bytes.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SyntheticTable.BATCH_SIZE)
+    public void readFields(Blackhole blackhole) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(serialized));
+        for (int row = 0; row < SyntheticTable.BATCH_SIZE; row++) {
+            // a new object for every record, as GPDBWritableRecordReader does
+            GPDBWritable writable = new GPDBWritable(StandardCharsets.UTF_8);
+            writable.readFields(input);
+            blackhole.consume(writable);
+        }
+    }
+
+    private static GPDBWritable toGPDBWritable(int[] columnTypes, Object[] values) throws IOException {
+        GPDBWritable writable = new GPDBWritable(columnTypes, StandardCharsets.UTF_8);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            switch (SyntheticTable.COLUMN_TYPES[i]) {
+                case BIGINT:
+                    writable.setLong(i, (Long) value);
+                    break;
+                case BOOLEAN:
+                    writable.setBoolean(i, (Boolean) value);
+                    break;
+                case SMALLINT:
+                    writable.setShort(i, (Short) value);
+                    break;
+                case INTEGER:
+                    writable.setInt(i, (Integer) value);
+                    break;
+                case FLOAT8:
+                    writable.setDouble(i, (Double) value);
+                    break;
+                case REAL:
+                    writable.setFloat(i, (Float) value);
+                    break;
+                default:
+                    writable.setString(i, (String) value);
+            }
+        }
+        return writable;
+    }
+}
@@ -0,0 +1,176 @@
+package org.greenplum.pxf.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.commons.io.FileUtils;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The synthetic Greenplum table used by the benchmarks. The table has a
+ * column for the most common Greenplum types, the values of a row are derived
+ * from the row number so that every run of the benchmarks works with the same
+ * data. The values of the name column are null for every 16th row and contain
+ * the delimiter for every 3rd row, so that null handling and quoting are part
+ * of the measurements.
+ */
+public final class SyntheticTable {
+
+    /**
+     * The number of rows processed by a single benchmark operation
+     */
+    public static final int BATCH_SIZE = 1024;
+
+    public static final String[] COLUMN_NAMES = {
+            "id", "flag", "qty", "num", "price", "ratio", "name", "amount", "created"
+    };
+
+    public static final DataType[] COLUMN_TYPES = {
+            DataType.BIGINT,
+            DataType.BOOLEAN,
+            DataType.SMALLINT,
+            DataType.INTEGER,
+            DataType.FLOAT8,
+            DataType.REAL,
+            DataType.TEXT,
+            DataType.NUMERIC,
+            DataType.TIMESTAMP
+    };
+
+    public static final int NAME_COLUMN = 6;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime START_TIMESTAMP = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private SyntheticTable() {
+    }
+
+    /**
+     * @return the column descriptors of the table, as sent by Greenplum
+     */
+    public static List<ColumnDescriptor> getColumnDescriptors() {
+        List<ColumnDescriptor> columnDescriptors = new ArrayList<>(COLUMN_TYPES.length);
+        for (int i = 0; i < COLUMN_TYPES.length; i++) {
+            Integer[] typeModifiers = COLUMN_TYPES[i] == DataType.NUMERIC ? new Integer[]{38, 18} : null;
+            columnDescriptors.add(new ColumnDescriptor(COLUMN_NAMES[i], COLUMN_TYPES[i].getOID(), i,
+                    COLUMN_TYPES[i].name().toLowerCase(), typeModifiers));
+        }
+        return columnDescriptors;
+    }
+
+    /**
+     * @return the type OIDs of the columns of the table
+     */
+    public static int[] getColumnTypeOids() {
+        return Arrays.stream(COLUMN_TYPES).mapToInt(DataType::getOID).toArray();
+    }
+
+    /**
+     * Returns the values of a row, in the Java types produced by the
+     * resolvers: NUMERIC and TIMESTAMP values are strings.
+     *
+     * @param row the row number
+     * @return the values of the row
+     */
+    public static Object[] getValues(int row) {
+        return new Object[]{
+                (long) row,
+                row % 2 == 0,
+                (short) (row % Short.MAX_VALUE),
+                row * 31,
+                row * 1.25d,
+                row / 8f,
+                getName(row),
+                BigDecimal.valueOf(row * 1000L + 67, 2).toPlainString(),
+                START_TIMESTAMP.plusSeconds(row).format(TIMESTAMP_FORMATTER)
+        };
+    }
+
+    /**
+     * @param row the row number
+     * @return the fields of the row, as produced by the resolvers
+     */
+    public static List<OneField> getRecord(int row) {
+        Object[] values = getValues(row);
+        List<OneField> record = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            record.add(new OneField(COLUMN_TYPES[i].getOID(), values[i]));
+        }
+        return record;
+    }
+
+    /**
+     * @param firstRow the number of the first row
+     * @param count    the number of rows
+     * @return the fields of the given rows
+     */
+    public static List<List<OneField>> getRecords(int firstRow, int count) {
+        List<List<OneField>> records = new ArrayList<>(count);
+        for (int row = firstRow; row < firstRow + count; row++) {
+            records.add(getRecord(row));
+        }
+        return Collections.unmodifiableList(records);
+    }
+
+    /**
+     * Creates the temporary directory for the files read by a benchmark
+     *
+     * @param prefix the prefix of the name of the directory
+     * @return the path of the directory
+     * @throws IOException when the directory cannot be created
+     */
+    public static Path createTempDirectory(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    /**
+     * Deletes a directory created by {@link #createTempDirectory(String)}
+     * and the files in it
+     *
+     * @param directory the path of the directory
+     * @throws IOException when the directory cannot be deleted
+     */
+    public static void deleteDirectory(Path directory) throws IOException {
+        if (directory != null) {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    private static String getName(int row) {
+        if (row % 16 == 0) {
+            return null;
+        }
+        return row % 3 == 0
+                ? "customer " + row + ", segment " + row % 7
+                : "customer " + row;
+    }
+}
@@ -0,0 +1,138 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.benchmarks.SyntheticTable;
+import org.greenplum.pxf.plugins.hdfs.avro.AvroUtilities;
+import org.greenplum.pxf.plugins.hdfs.utilities.PgUtilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of Avro records into the fields sent to Greenplum.
+ * The Avro file is written to a temporary directory with the schema and the
+ * records generated by the Avro write path of PXF, its records are read in
+ * memory so that only the resolver is measured. The score is the number of
+ * records per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvroResolverBenchmark {
+
+    private static final int ROWS = 8 * SyntheticTable.BATCH_SIZE;
+
+    private Path directory;
+    private List<OneRow> rows;
+    private AvroResolver resolver;
+
+    @Setup
+    public void setup() throws Exception {
+        directory = SyntheticTable.createTempDirectory("pxf-avro-benchmark");
+        File file = directory.resolve("data.avro").toFile();
+
+        // the resolver generates the schema from the table columns when writing
+        RequestContext writeContext = createContext(RequestContext.RequestType.WRITE_BRIDGE, null);
+        AvroResolver writeResolver = createResolver(writeContext);
+        Schema schema = (Schema) writeContext.getMetadata();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.create(schema, file);
+            for (int row = 0; row < ROWS; row++) {
+                writer.append((GenericRecord) writeResolver.setFields(SyntheticTable.getRecord(row)).getData());
+            }
+        }
+
+        rows = new ArrayList<>(ROWS);
+        try (DataFileReader<GenericRecord> reader = new DataFileReader<>(file, new GenericDatumReader<>())) {
+            for (GenericRecord record : reader) {
+                rows.add(new OneRow(null, record));
+            }
+            resolver = createResolver(createContext(RequestContext.RequestType.READ_BRIDGE, reader.getSchema()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticTable.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getFields(Blackhole blackhole) throws Exception {
+        for (OneRow row : rows) {
+            blackhole.consume(resolver.getFields(row));
+        }
+    }
+
+    private static RequestContext createContext(RequestContext.RequestType requestType, Schema schema) {
+        Configuration configuration = new Configuration();
+        configuration.set("pxf.fs.basePath", "/");
+
+        RequestContext context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("benchmark-user");
+        context.setAccessor("avro");
+        context.setConfiguration(configuration);
+        context.setRequestType(requestType);
+        context.setTupleDescription(SyntheticTable.getColumnDescriptors());
+        context.setMetadata(schema);
+        return context;
+    }
+
+    private static AvroResolver createResolver(RequestContext context) {
+        PgUtilities pgUtilities = new PgUtilities();
+        AvroUtilities avroUtilities = new AvroUtilities();
+        avroUtilities.setPgUtilities(pgUtilities);
+        AvroResolver resolver = new AvroResolver(avroUtilities, pgUtilities);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+        return resolver;
+    }
+}
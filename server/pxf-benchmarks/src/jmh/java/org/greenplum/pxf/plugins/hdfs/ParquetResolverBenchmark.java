@@ -0,0 +1,152 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.benchmarks.SyntheticTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of Parquet records into the fields sent to
+ * Greenplum, and the resolution of the fields received from Greenplum into
+ * Parquet records. The Parquet file is written to a temporary directory from
+ * the records built by the resolver, its records are read in memory so that
+ * only the resolver is measured. The score is the number of records per
+ * second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParquetResolverBenchmark {
+
+    private static final int ROWS = 8 * SyntheticTable.BATCH_SIZE;
+
+    private java.nio.file.Path directory;
+    private List<OneRow> rows;
+    private List<List<OneField>> records;
+    private ParquetResolver resolver;
+
+    @Setup
+    public void setup() throws IOException {
+        Configuration configuration = new Configuration();
+        directory = SyntheticTable.createTempDirectory("pxf-parquet-benchmark");
+        Path file = new Path(directory.resolve("data.parquet").toUri());
+
+        RequestContext context = new RequestContext();
+        context.setConfiguration(configuration);
+        context.setTupleDescription(SyntheticTable.getColumnDescriptors());
+        context.setMetadata(getSchema());
+        resolver = new ParquetResolver();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        records = SyntheticTable.getRecords(0, ROWS);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+                .withConf(configuration)
+                .withType(getSchema())
+                .build()) {
+            for (List<OneField> record : records) {
+                writer.write((Group) resolver.setFields(record).getData());
+            }
+        }
+
+        rows = new ArrayList<>(ROWS);
+        try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), file)
+                .withConf(configuration)
+                .build()) {
+            Group group;
+            while ((group = reader.read()) != null) {
+                rows.add(new OneRow(null, group));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticTable.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getFields(Blackhole blackhole) {
+        for (OneRow row : rows) {
+            blackhole.consume(resolver.getFields(row));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void setFields(Blackhole blackhole) throws IOException {
+        for (List<OneField> record : records) {
+            blackhole.consume(resolver.setFields(record));
+        }
+    }
+
+    /*
+     * The schema generated by ParquetFileAccessor for the synthetic table
+     */
+    private static MessageType getSchema() {
+        return Types.buildMessage()
+                .optional(PrimitiveTypeName.INT64).named("id")
+                .optional(PrimitiveTypeName.BOOLEAN).named("flag")
+                .optional(PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.intType(16, true)).named("qty")
+                .optional(PrimitiveTypeName.INT32).named("num")
+                .optional(PrimitiveTypeName.DOUBLE).named("price")
+                .optional(PrimitiveTypeName.FLOAT).named("ratio")
+                .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("name")
+                .optional(PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY).length(16)
+                .as(LogicalTypeAnnotation.decimalType(18, 38)).named("amount")
+                .optional(PrimitiveTypeName.INT96).named("created")
+                .named("greenplum_pxf_schema");
+    }
+}
@@ -0,0 +1,140 @@
+package org.greenplum.pxf.plugins.hdfs.orc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.OrcFile;
+import org.apache.orc.Reader;
+import org.apache.orc.RecordReader;
+import org.apache.orc.TypeDescription;
+import org.apache.orc.Writer;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.benchmarks.SyntheticTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of ORC batches into the fields sent to Greenplum.
+ * The ORC file is written to a temporary directory by the ORC write path of
+ * PXF, its batches are read in memory so that only the resolver is measured.
+ * The score is the number of records per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ORCVectorizedResolverBenchmark {
+
+    private static final int BATCHES = 8;
+    private static final int ROWS = BATCHES * SyntheticTable.BATCH_SIZE;
+
+    private java.nio.file.Path directory;
+    private List<OneRow> batches;
+    private ORCVectorizedResolver resolver;
+
+    @Setup
+    public void setup() throws IOException {
+        Configuration configuration = new Configuration();
+        TypeDescription schema = ORCSchemaBuilder.buildSchema(SyntheticTable.getColumnDescriptors());
+        directory = SyntheticTable.createTempDirectory("pxf-orc-benchmark");
+        Path file = new Path(directory.resolve("data.orc").toUri());
+
+        writeFile(configuration, schema, file);
+
+        Reader fileReader = OrcFile.createReader(file, OrcFile.readerOptions(configuration)
+                .filesystem(file.getFileSystem(configuration)));
+        batches = new ArrayList<>(BATCHES);
+        try (RecordReader recordReader = fileReader.rows(fileReader.options().schema(schema))) {
+            VectorizedRowBatch batch = schema.createRowBatch(SyntheticTable.BATCH_SIZE);
+            while (recordReader.nextBatch(batch)) {
+                batches.add(new OneRow(batch));
+                batch = schema.createRowBatch(SyntheticTable.BATCH_SIZE);
+            }
+        }
+        if (batches.size() != BATCHES) {
+            throw new IllegalStateException(String.format("Expected %d batches but read %d", BATCHES, batches.size()));
+        }
+
+        RequestContext context = new RequestContext();
+        context.setConfiguration(configuration);
+        context.setTupleDescription(SyntheticTable.getColumnDescriptors());
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setMetadata(schema);
+        resolver = new ORCVectorizedResolver();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticTable.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getFieldsForBatch(Blackhole blackhole) {
+        for (OneRow batch : batches) {
+            blackhole.consume(resolver.getFieldsForBatch(batch));
+        }
+    }
+
+    private static void writeFile(Configuration configuration, TypeDescription schema, Path file) throws IOException {
+        OrcFile.WriterOptions writerOptions = OrcFile.writerOptions(configuration)
+                .setSchema(schema)
+                .useUTCTimestamp(true);
+
+        RequestContext context = new RequestContext();
+        context.setConfiguration(configuration);
+        context.setTupleDescription(SyntheticTable.getColumnDescriptors());
+        context.setRequestType(RequestContext.RequestType.WRITE_BRIDGE);
+        context.setMetadata(writerOptions);
+        ORCVectorizedResolver writeResolver = new ORCVectorizedResolver();
+        writeResolver.setRequestContext(context);
+        writeResolver.afterPropertiesSet();
+
+        try (Writer writer = OrcFile.createWriter(file, writerOptions)) {
+            for (int row = 0; row < ROWS; row += SyntheticTable.BATCH_SIZE) {
+                OneRow batch = writeResolver.setFieldsForBatch(SyntheticTable.getRecords(row, SyntheticTable.BATCH_SIZE));
+                writer.addRowBatch((VectorizedRowBatch) batch.getData());
+            }
+        }
+    }
+}
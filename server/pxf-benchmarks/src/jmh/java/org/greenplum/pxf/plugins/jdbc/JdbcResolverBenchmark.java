@@ -0,0 +1,134 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.benchmarks.SyntheticTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of the rows of a JDBC result set into the fields
+ * sent to Greenplum. The rows are held by an in-memory result set, so that
+ * neither the network nor an external database are measured, only the
+ * resolver and the getters of the result set. The score is the number of
+ * records per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JdbcResolverBenchmark {
+
+    private static final int ROWS = 8 * SyntheticTable.BATCH_SIZE;
+    private static final int[] SQL_TYPES = {
+            Types.BIGINT,
+            Types.BOOLEAN,
+            Types.SMALLINT,
+            Types.INTEGER,
+            Types.DOUBLE,
+            Types.REAL,
+            Types.VARCHAR,
+            Types.NUMERIC,
+            Types.TIMESTAMP
+    };
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private CachedRowSet resultSet;
+    private OneRow row;
+    private JdbcResolver resolver;
+
+    @Setup
+    public void setup() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(SQL_TYPES.length);
+        for (int i = 0; i < SQL_TYPES.length; i++) {
+            metaData.setColumnName(i + 1, SyntheticTable.COLUMN_NAMES[i]);
+            metaData.setColumnType(i + 1, SQL_TYPES[i]);
+        }
+
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        for (int row = 0; row < ROWS; row++) {
+            Object[] values = SyntheticTable.getValues(row);
+            resultSet.moveToInsertRow();
+            for (int i = 0; i < values.length; i++) {
+                resultSet.updateObject(i + 1, toJdbcValue(SQL_TYPES[i], values[i]));
+            }
+            resultSet.insertRow();
+            resultSet.moveToCurrentRow();
+        }
+        row = new OneRow(null, resultSet);
+
+        // the resolver is initialized the way JdbcResolverTest does it, the connection is not used to read the rows
+        resolver = new JdbcResolver(null, null, null);
+        resolver.columns = SyntheticTable.getColumnDescriptors();
+        resolver.isDateWideRange = false;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getFields(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            List<OneField> fields = resolver.getFields(row);
+            blackhole.consume(fields);
+        }
+    }
+
+    private static Object toJdbcValue(int sqlType, Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (sqlType) {
+            case Types.NUMERIC:
+                return new BigDecimal((String) value);
+            case Types.TIMESTAMP:
+                return Timestamp.valueOf(LocalDateTime.parse((String) value, TIMESTAMP_FORMATTER));
+            default:
+                return value;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.greenplum.pxf.plugins.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.LineRecordReader;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.benchmarks.SyntheticTable;
+import org.greenplum.pxf.plugins.hdfs.utilities.PgUtilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of JSON records into the fields sent to Greenplum.
+ * The JSON file, with one record per line, is written to a temporary
+ * directory and its lines are read in memory, as JsonAccessor reads them, so
+ * that only the resolver is measured. The score is the number of records per
+ * second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonResolverBenchmark {
+
+    private static final int ROWS = 8 * SyntheticTable.BATCH_SIZE;
+
+    private Path directory;
+    private List<OneRow> rows;
+    private JsonResolver resolver;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = SyntheticTable.createTempDirectory("pxf-json-benchmark");
+        Path file = directory.resolve("data.json");
+        writeFile(file);
+
+        Configuration configuration = new Configuration();
+        rows = new ArrayList<>(ROWS);
+        FileSplit split = new FileSplit(new org.apache.hadoop.fs.Path(file.toUri()), 0, Files.size(file), (String[]) null);
+        LineRecordReader reader = new LineRecordReader(configuration, split);
+        try {
+            LongWritable key = reader.createKey();
+            Text line = reader.createValue();
+            while (reader.next(key, line)) {
+                rows.add(new OneRow(null, new Text(line)));
+            }
+        } finally {
+            reader.close();
+        }
+
+        RequestContext context = new RequestContext();
+        context.setConfiguration(configuration);
+        context.setTupleDescription(SyntheticTable.getColumnDescriptors());
+        resolver = new JsonResolver(new PgUtilities());
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticTable.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getFields(Blackhole blackhole) throws Exception {
+        for (OneRow row : rows) {
+            blackhole.consume(resolver.getFields(row));
+        }
+    }
+
+    private static void writeFile(Path file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int row = 0; row < ROWS; row++) {
+                Object[] values = SyntheticTable.getValues(row);
+                Map<String, Object> record = new LinkedHashMap<>();
+                for (int i = 0; i < values.length; i++) {
+                    // numeric values are JSON numbers, not strings
+                    Object value = values[i] != null && SyntheticTable.COLUMN_TYPES[i] == DataType.NUMERIC
+                            ? new BigDecimal((String) values[i])
+                            : values[i];
+                    record.put(SyntheticTable.COLUMN_NAMES[i], value);
+                }
+                writer.write(mapper.writeValueAsString(record));
+                writer.write('\n');
+            }
+        }
+    }
+}
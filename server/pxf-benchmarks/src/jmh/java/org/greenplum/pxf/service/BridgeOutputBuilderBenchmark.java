@@ -0,0 +1,103 @@
+package org.greenplum.pxf.service;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.benchmarks.SyntheticTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of the fields produced by the resolvers into the
+ * output sent to Greenplum, and the serialization of the output, for both
+ * output formats. The records are converted one at a time, as ReadBridge
+ * does, and in batches, as ReadVectorizedBridge does. The score is the number
+ * of records per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BridgeOutputBuilderBenchmark {
+
+    @Param({"TEXT", "GPDBWritable"})
+    public OutputFormat outputFormat;
+
+    private List<List<OneField>> records;
+    private BridgeOutputBuilder outputBuilder;
+    private ByteArrayOutputStream bytes;
+    private DataOutputStream output;
+
+    @Setup
+    public void setup() {
+        RequestContext context = new RequestContext();
+        context.setTupleDescription(SyntheticTable.getColumnDescriptors());
+        context.setOutputFormat(outputFormat);
+        context.setDatabaseEncoding(StandardCharsets.UTF_8);
+
+        records = SyntheticTable.getRecords(0, SyntheticTable.BATCH_SIZE);
+        outputBuilder = new BridgeOutputBuilder(context);
+        bytes = new ByteArrayOutputStream();
+        output = new DataOutputStream(bytes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SyntheticTable.BATCH_SIZE)
+    public int makeOutput() throws Exception {
+        bytes.reset();
+        for (List<OneField> record : records) {
+            for (Writable writable : outputBuilder.makeOutput(record)) {
+                writable.write(output);
+            }
+        }
+        return bytes.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SyntheticTable.BATCH_SIZE)
+    public int makeVectorizedOutput() throws Exception {
+        bytes.reset();
+        for (Writable writable : outputBuilder.makeVectorizedOutput(records)) {
+            writable.write(output);
+        }
+        return bytes.size();
+    }
+}
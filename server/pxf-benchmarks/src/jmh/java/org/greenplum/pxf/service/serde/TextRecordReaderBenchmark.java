@@ -0,0 +1,118 @@
+package org.greenplum.pxf.service.serde;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.model.GreenplumCSV;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.benchmarks.SyntheticTable;
+import org.greenplum.pxf.plugins.hdfs.utilities.PgUtilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the deserialization of the CSV and TEXT data sent by Greenplum
+ * when writing to an external table. Every operation reads the rows of one
+ * request with a new reader, the score is the number of records per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextRecordReaderBenchmark {
+
+    private static final int ROWS = 16 * SyntheticTable.BATCH_SIZE;
+
+    @Param({"CSV", "TEXT"})
+    public String format;
+
+    private RequestContext context;
+    private PgUtilities pgUtilities;
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        GreenplumCSV greenplumCSV = new GreenplumCSV();
+        if (format.equals("TEXT")) {
+            greenplumCSV.withDelimiter('\t').withEscapeChar('\\').withValueOfNull("\\N");
+        }
+
+        context = new RequestContext();
+        context.setTupleDescription(SyntheticTable.getColumnDescriptors());
+        context.setDatabaseEncoding(StandardCharsets.UTF_8);
+        context.setGreenplumCSV(greenplumCSV);
+        pgUtilities = new PgUtilities();
+
+        StringBuilder builder = new StringBuilder();
+        for (int row = 0; row < ROWS; row++) {
+            builder.append(toLine(greenplumCSV, SyntheticTable.getValues(row)));
+        }
+        data = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readRecord(Blackhole blackhole) throws Exception {
+        TextRecordReader reader = new TextRecordReader(context, pgUtilities);
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(data));
+        List<OneField> record;
+        while ((record = reader.readRecord(input)) != null) {
+            blackhole.consume(record);
+        }
+    }
+
+    /*
+     * Serializes the values the way Greenplum does: booleans as t and f, and
+     * the values are only quoted when they contain special characters
+     */
+    private static String toLine(GreenplumCSV greenplumCSV, Object[] values) {
+        StringJoiner line = new StringJoiner(String.valueOf(greenplumCSV.getDelimiter()), "", greenplumCSV.getNewline());
+        for (Object value : values) {
+            if (value == null) {
+                line.add(greenplumCSV.getValueOfNull());
+            } else if (value instanceof Boolean) {
+                line.add((Boolean) value ? "t" : "f");
+            } else {
+                line.add(greenplumCSV.toCsvField(value.toString(), true, true, true));
+            }
+        }
+        return line.toString();
+    }
+}
@@ -20,11 +20,8 @@ package org.greenplum.pxf.plugins.hbase;
  */
 
 
-import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.TableName;
-import org.apache.hadoop.hbase.client.Connection;
-import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
@@ -39,14 +36,19 @@ import org.greenplum.pxf.api.filter.TreeTraverser;
 import org.greenplum.pxf.api.filter.TreeVisitor;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.Accessor;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.Reloader;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.SamplingAccessor;
+import org.greenplum.pxf.api.utilities.SpringContext;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseColumnDescriptor;
+import org.greenplum.pxf.plugins.hbase.utilities.HBaseConnectionManager;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseTupleDescription;
-import org.greenplum.pxf.plugins.hbase.utilities.HBaseUtilities;
 
 import java.io.IOException;
 import java.util.EnumSet;
+import java.util.Objects;
 
 /**
  * Accessor for HBase.
@@ -58,8 +60,11 @@ import java.util.EnumSet;
  * <p>
  * The class supports filters using the {@link HBaseFilterBuilder}.
  * Regions can be filtered out according to input from {@link HBaseFilterBuilder}.
+ * <p>
+ * The HBase connections are shared between fragments and requests, they are
+ * managed by the {@link HBaseConnectionManager}.
  */
-public class HBaseAccessor extends BasePlugin implements Accessor {
+public class HBaseAccessor extends BasePlugin implements Accessor, Reloader, SamplingAccessor {
 
     static final EnumSet<Operator> SUPPORTED_OPERATORS =
             EnumSet.of(
@@ -88,8 +93,9 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
     private static final TreeTraverser TRAVERSER = new TreeTraverser();
     private static final String UNSUPPORTED_ERR_MESSAGE = "HBase accessor does not support write operation.";
 
+    private final HBaseConnectionManager connectionManager;
     private HBaseTupleDescription tupleDescription;
-    private Connection connection;
+    private HBaseConnectionManager.ConnectionLease connectionLease;
     private Table table;
     private SplitBoundary split;
     private TreeVisitor pruner;
@@ -120,6 +126,23 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
         }
     }
 
+    /**
+     * Creates a new instance with the default (singleton) instance of
+     * HBaseConnectionManager.
+     */
+    public HBaseAccessor() {
+        this(SpringContext.getBean(HBaseConnectionManager.class));
+    }
+
+    /**
+     * Creates a new instance with the given HBaseConnectionManager
+     *
+     * @param connectionManager HBase connection manager instance
+     */
+    HBaseAccessor(HBaseConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
     /**
      * Initializes HBaseAccessor based on GPDB table description and
      * initializes the scan start and end keys of the HBase table to default values.
@@ -153,8 +176,15 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
      */
     @Override
     public void closeForRead() throws Exception {
-        table.close();
-        HBaseUtilities.closeConnection(null, connection);
+        try {
+            if (table != null) {
+                table.close();
+            }
+        } finally {
+            if (connectionLease != null) {
+                connectionLease.close();
+            }
+        }
     }
 
     /**
@@ -202,12 +232,32 @@ public class HBaseAccessor extends BasePlugin implements Accessor {
         return new OneRow(null, result);
     }
 
+    @Override
+    public void reloadAll() {
+        if (Objects.nonNull(connectionManager)) {
+            connectionManager.reloadCache();
+        } else {
+            throw new PxfRuntimeException("Failed to reload profile. Connection manager is null.");
+        }
+    }
+
+    @Override
+    public void reload(String server) {
+        if (Objects.isNull(connectionManager)) {
+            throw new PxfRuntimeException("Failed to reload profile. Connection manager is null.");
+        } else if (server == null || server.isBlank()) {
+            throw new PxfRuntimeException("Failed to reload profile. Parameter server is blank.");
+        } else {
+            connectionManager.reloadCacheIf(descriptor -> server.equals(descriptor.getServer()));
+        }
+    }
+
     /**
-     * Load hbase table object using ConnectionFactory
+     * Load hbase table object using the shared connection for the server
      */
     private void openTable() throws IOException {
-        connection = ConnectionFactory.createConnection(HBaseConfiguration.create(configuration));
-        table = connection.getTable(TableName.valueOf(context.getDataSource()));
+        connectionLease = connectionManager.getConnection(configuration);
+        table = connectionLease.getConnection().getTable(TableName.valueOf(context.getDataSource()));
     }
 
     /**
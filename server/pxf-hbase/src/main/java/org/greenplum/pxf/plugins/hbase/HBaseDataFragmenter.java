@@ -26,11 +26,12 @@ import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.TableNotFoundException;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
-import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.RegionLocator;
 import org.greenplum.pxf.api.model.BaseFragmenter;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.FragmentStats;
+import org.greenplum.pxf.api.utilities.SpringContext;
+import org.greenplum.pxf.plugins.hbase.utilities.HBaseConnectionManager;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseLookupTable;
 import org.greenplum.pxf.plugins.hbase.utilities.HBaseUtilities;
 
@@ -50,7 +51,24 @@ import java.util.Map;
  */
 public class HBaseDataFragmenter extends BaseFragmenter {
 
-    private Connection connection;
+    private final HBaseConnectionManager connectionManager;
+
+    /**
+     * Creates a new instance with the default (singleton) instance of
+     * HBaseConnectionManager.
+     */
+    public HBaseDataFragmenter() {
+        this(SpringContext.getBean(HBaseConnectionManager.class));
+    }
+
+    /**
+     * Creates a new instance with the given HBaseConnectionManager
+     *
+     * @param connectionManager HBase connection manager instance
+     */
+    HBaseDataFragmenter(HBaseConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
 
     @Override
     public void afterPropertiesSet() {
@@ -77,36 +95,35 @@ public class HBaseDataFragmenter extends BaseFragmenter {
      */
     @Override
     public List<Fragment> getFragments() throws Exception {
-        connection = ConnectionFactory.createConnection(configuration);
-        Admin hbaseAdmin = connection.getAdmin();
-        if (!HBaseUtilities.isTableAvailable(hbaseAdmin, context.getDataSource())) {
-            HBaseUtilities.closeConnection(hbaseAdmin, connection);
-            throw new TableNotFoundException(context.getDataSource());
+        try (HBaseConnectionManager.ConnectionLease connectionLease = connectionManager.getConnection(configuration);
+             Admin hbaseAdmin = connectionLease.getConnection().getAdmin()) {
+            if (!HBaseUtilities.isTableAvailable(hbaseAdmin, context.getDataSource())) {
+                throw new TableNotFoundException(context.getDataSource());
+            }
+
+            Map<String, byte[]> userData = prepareUserData(connectionLease.getConnection());
+            addTableFragments(connectionLease.getConnection(), userData);
         }
 
-        Map<String, byte[]> userData = prepareUserData();
-        addTableFragments(userData);
-
-        HBaseUtilities.closeConnection(hbaseAdmin, connection);
-
         return fragments;
     }
 
     /**
      * Serializes lookup table mapping into byte array.
      *
+     * @param connection HBase connection
      * @return serialized lookup table mapping
      * @throws IOException when connection to lookup table fails
      *                     or serialization fails
      */
-    private Map<String, byte[]> prepareUserData() throws Exception {
-        HBaseLookupTable lookupTable = new HBaseLookupTable(configuration);
+    private Map<String, byte[]> prepareUserData(Connection connection) throws Exception {
+        HBaseLookupTable lookupTable = new HBaseLookupTable(connection);
         Map<String, byte[]> mappings = lookupTable.getMappings(context.getDataSource());
         lookupTable.close();
         return mappings;
     }
 
-    private void addTableFragments(Map<String, byte[]> userData) throws IOException {
+    private void addTableFragments(Connection connection, Map<String, byte[]> userData) throws IOException {
         RegionLocator regionLocator = connection.getRegionLocator(TableName.valueOf(context.getDataSource()));
         List<HRegionLocation> locations = regionLocator.getAllRegionLocations();
 
@@ -0,0 +1,145 @@
+package org.greenplum.pxf.plugins.hbase.utilities;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.utilities.LeaseClosingExecutor;
+import org.greenplum.pxf.api.utilities.LeaseManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_SERVER_NAME_PROPERTY;
+
+/**
+ * Manages HBase connections shared by all fragments and requests. An HBase
+ * connection is heavyweight (ZooKeeper session, region location cache,
+ * thread pools), so a connection is created once per server configuration
+ * and user identity and is closed when it has not been used for the
+ * configured expiration time, or when the profile is reloaded.
+ * <p>
+ * Connections are handed out as {@link ConnectionLease}s, a connection
+ * removed from the cache is closed only after all its leases are closed.
+ */
+@Component
+public class HBaseConnectionManager {
+
+    /**
+     * Properties that determine which cluster a connection talks to and how
+     */
+    private static final String CONNECTION_PROPERTIES_REGEX = "^(hbase|zookeeper|hadoop\\.security)\\..*";
+
+    private final LeaseManager<ConnectionDescriptor, Connection> connections;
+    private final ConnectionCreator connectionCreator;
+
+    @Autowired
+    public HBaseConnectionManager(@Value("${pxf.hbase.connection-cache.expiration:1h}") Duration expiration,
+                                  LeaseClosingExecutor connectionClosingExecutor) {
+        this(expiration, ConnectionFactory::createConnection, connectionClosingExecutor);
+    }
+
+    HBaseConnectionManager(Duration expiration, ConnectionCreator connectionCreator, Executor connectionClosingExecutor) {
+        this.connectionCreator = connectionCreator;
+        this.connections = new LeaseManager<>("HBase connection", expiration, Connection::close, connectionClosingExecutor);
+    }
+
+    /**
+     * Returns a lease on the shared connection for the server of the given
+     * configuration and the current user, creating the connection if needed.
+     * The lease must be closed once the caller is done with the connection.
+     *
+     * @param configuration the server configuration
+     * @return a lease on the shared connection
+     * @throws IOException if the connection can not be created
+     */
+    public ConnectionLease getConnection(Configuration configuration) throws IOException {
+        ConnectionDescriptor descriptor = new ConnectionDescriptor(
+                configuration.get(PXF_SERVER_NAME_PROPERTY),
+                UserGroupInformation.getCurrentUser().getUserName(),
+                configuration.getValByRegex(CONNECTION_PROPERTIES_REGEX));
+
+        return new ConnectionLease(connections.lease(descriptor,
+                () -> connectionCreator.create(HBaseConfiguration.create(configuration))));
+    }
+
+    /**
+     * Closes all the connections, connections that are in use are closed
+     * once they are released.
+     */
+    public void reloadCache() {
+        connections.invalidateAll();
+    }
+
+    /**
+     * Closes the connections matching the given filter, connections that are
+     * in use are closed once they are released.
+     *
+     * @param descriptorFilter the filter for the connections to close
+     */
+    public void reloadCacheIf(Predicate<ConnectionDescriptor> descriptorFilter) {
+        connections.invalidateIf(descriptorFilter);
+    }
+
+    /**
+     * Identifies a shared connection
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class ConnectionDescriptor {
+        private final String server;
+        private final String user;
+        @ToString.Exclude
+        private final Map<String, String> properties;
+
+        ConnectionDescriptor(String server, String user, Map<String, String> properties) {
+            this.server = server;
+            this.user = user;
+            this.properties = properties;
+        }
+    }
+
+    /**
+     * A lease on a shared connection. Closing the lease does not close the
+     * connection, unless it has been removed from the cache.
+     */
+    public static class ConnectionLease implements Closeable {
+        private final LeaseManager.Lease<Connection> lease;
+
+        private ConnectionLease(LeaseManager.Lease<Connection> lease) {
+            this.lease = lease;
+        }
+
+        /**
+         * @return the shared connection
+         */
+        public Connection getConnection() {
+            return lease.getResource();
+        }
+
+        @Override
+        public void close() {
+            lease.close();
+        }
+    }
+
+    /**
+     * Creates HBase connections, wraps the calls to the ConnectionFactory
+     */
+    @FunctionalInterface
+    interface ConnectionCreator {
+        Connection create(Configuration configuration) throws IOException;
+    }
+}
@@ -22,13 +22,11 @@ package org.greenplum.pxf.plugins.hbase.utilities;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.ClusterStatus;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
-import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.Result;
@@ -74,13 +72,14 @@ public class HBaseLookupTable implements Closeable {
 
     /**
      * Constructs a connector to HBase lookup table. Requires calling
-     * {@link #close()} to close {@link HBaseAdmin} instance.
+     * {@link #close()} to close {@link HBaseAdmin} instance. The connection
+     * is not closed, it is owned by the caller.
      *
-     * @param conf HBase configuration
+     * @param connection HBase connection
      * @throws IOException when initializing HBaseAdmin fails
      */
-    public HBaseLookupTable(Configuration conf) throws Exception {
-        connection = ConnectionFactory.createConnection(conf);
+    public HBaseLookupTable(Connection connection) throws Exception {
+        this.connection = connection;
         admin = connection.getAdmin();
         ClusterStatus cs = admin.getClusterStatus();
         LOG.debug("HBase cluster has " + cs.getServersSize()
@@ -202,7 +201,6 @@ public class HBaseLookupTable implements Closeable {
 
     private void closeLookupTable() throws IOException {
         lookupTable.close();
-        HBaseUtilities.closeConnection(admin, connection);
     }
 
     private String lowerCase(byte[] key) {
@@ -22,7 +22,6 @@ package org.greenplum.pxf.plugins.hbase.utilities;
 
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
-import org.apache.hadoop.hbase.client.Connection;
 
 import java.io.IOException;
 
@@ -41,20 +40,4 @@ public class HBaseUtilities {
         return hbaseAdmin.isTableAvailable(name) &&
                 hbaseAdmin.isTableEnabled(name);
     }
-
-    /**
-     * Closes HBase admin and connection if they are openForWrite.
-     *
-     * @param hbaseAdmin HBase admin
-     * @param hbaseConnection HBase connection
-     * @throws IOException if an I/O error occurs when connecting to HBase
-     */
-    public static void closeConnection(Admin hbaseAdmin, Connection hbaseConnection) throws IOException {
-        if (hbaseAdmin != null) {
-            hbaseAdmin.close();
-        }
-        if (hbaseConnection != null) {
-            hbaseConnection.close();
-        }
-    }
 }
@@ -21,13 +21,12 @@ package org.greenplum.pxf.plugins.hbase;
 
 
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Connection;
-import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.plugins.hbase.utilities.HBaseConnectionManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -51,6 +50,7 @@ public class HBaseAccessorTest {
     Scan scanDetails;
     Configuration hbaseConfiguration;
     Connection hbaseConnection;
+    HBaseConnectionManager connectionManager;
     HBaseAccessor accessor;
 
     /*
@@ -79,7 +79,7 @@ public class HBaseAccessorTest {
     @Test
     public void construction() {
         prepareConstruction();
-        HBaseAccessor accessor = new HBaseAccessor();
+        HBaseAccessor accessor = new HBaseAccessor(connectionManager);
         accessor.setRequestContext(context);
         accessor.afterPropertiesSet();
     }
@@ -98,7 +98,7 @@ public class HBaseAccessorTest {
         prepareTableOpen();
         prepareEmptyScanner();
 
-        accessor = new HBaseAccessor();
+        accessor = new HBaseAccessor(connectionManager);
         accessor.setRequestContext(context);
         accessor.afterPropertiesSet();
 
@@ -118,6 +118,7 @@ public class HBaseAccessorTest {
         context.setConfig("default");
         context.setUser("test-user");
         context.setFragmentMetadata(new HBaseFragmentMetadata(new byte[0], new byte[0], new HashMap<>()));
+        connectionManager = mock(HBaseConnectionManager.class);
     }
 
     /*
@@ -129,11 +130,13 @@ public class HBaseAccessorTest {
         context.setDataSource(tableName);
 
         hbaseConfiguration = mock(Configuration.class);
-        when(HBaseConfiguration.create()).thenReturn(hbaseConfiguration);
+        context.setConfiguration(hbaseConfiguration);
 
-        // Make sure we mock static functions in ConnectionFactory
+        // The shared connection is provided by the connection manager
         hbaseConnection = mock(Connection.class);
-        when(ConnectionFactory.createConnection(hbaseConfiguration)).thenReturn(hbaseConnection);
+        HBaseConnectionManager.ConnectionLease connectionLease = mock(HBaseConnectionManager.ConnectionLease.class);
+        when(connectionManager.getConnection(hbaseConfiguration)).thenReturn(connectionLease);
+        when(connectionLease.getConnection()).thenReturn(hbaseConnection);
         table = mock(Table.class);
         when(hbaseConnection.getTable(TableName.valueOf(tableName))).thenReturn(table);
     }
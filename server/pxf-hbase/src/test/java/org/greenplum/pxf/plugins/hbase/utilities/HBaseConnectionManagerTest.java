@@ -0,0 +1,108 @@
+package org.greenplum.pxf.plugins.hbase.utilities;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Connection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_SERVER_NAME_PROPERTY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class HBaseConnectionManagerTest {
+
+    private List<Connection> createdConnections;
+    private HBaseConnectionManager connectionManager;
+
+    @BeforeEach
+    public void setup() {
+        createdConnections = new ArrayList<>();
+        connectionManager = new HBaseConnectionManager(Duration.ofHours(1), configuration -> {
+            Connection connection = mock(Connection.class);
+            createdConnections.add(connection);
+            return connection;
+        }, Runnable::run);
+    }
+
+    @Test
+    public void testConnectionIsSharedForSameServerAndUser() throws Exception {
+        HBaseConnectionManager.ConnectionLease lease1 = connectionManager.getConnection(getConfiguration("s1", "zk1"));
+        HBaseConnectionManager.ConnectionLease lease2 = connectionManager.getConnection(getConfiguration("s1", "zk1"));
+        lease1.close();
+        lease2.close();
+        HBaseConnectionManager.ConnectionLease lease3 = connectionManager.getConnection(getConfiguration("s1", "zk1"));
+
+        assertEquals(1, createdConnections.size());
+        assertSame(lease1.getConnection(), lease2.getConnection());
+        assertSame(lease1.getConnection(), lease3.getConnection());
+        verify(createdConnections.get(0), never()).close();
+    }
+
+    @Test
+    public void testConnectionIsNotSharedForDifferentConfigurations() throws Exception {
+        HBaseConnectionManager.ConnectionLease lease1 = connectionManager.getConnection(getConfiguration("s1", "zk1"));
+        HBaseConnectionManager.ConnectionLease lease2 = connectionManager.getConnection(getConfiguration("s2", "zk1"));
+        HBaseConnectionManager.ConnectionLease lease3 = connectionManager.getConnection(getConfiguration("s1", "zk2"));
+
+        assertEquals(3, createdConnections.size());
+        assertNotSame(lease1.getConnection(), lease2.getConnection());
+        assertNotSame(lease1.getConnection(), lease3.getConnection());
+    }
+
+    @Test
+    public void testReloadClosesIdleConnections() throws Exception {
+        connectionManager.getConnection(getConfiguration("s1", "zk1")).close();
+        connectionManager.getConnection(getConfiguration("s2", "zk1")).close();
+
+        connectionManager.reloadCacheIf(descriptor -> "s1".equals(descriptor.getServer()));
+        verify(createdConnections.get(0)).close();
+        verify(createdConnections.get(1), never()).close();
+
+        connectionManager.reloadCache();
+        verify(createdConnections.get(1)).close();
+
+        // a new connection is created after the reload
+        connectionManager.getConnection(getConfiguration("s1", "zk1")).close();
+        assertEquals(3, createdConnections.size());
+    }
+
+    @Test
+    public void testReloadClosesConnectionInUseOnceReleased() throws Exception {
+        HBaseConnectionManager.ConnectionLease lease = connectionManager.getConnection(getConfiguration("s1", "zk1"));
+
+        connectionManager.reloadCache();
+        verify(lease.getConnection(), never()).close();
+
+        lease.close();
+        // closing the lease more than once has no effect
+        lease.close();
+        verify(lease.getConnection()).close();
+    }
+
+    @Test
+    public void testConnectionFailure() {
+        connectionManager = new HBaseConnectionManager(Duration.ofHours(1), configuration -> {
+            throw new IOException("zookeeper is down");
+        }, Runnable::run);
+
+        Exception e = assertThrows(IOException.class, () -> connectionManager.getConnection(getConfiguration("s1", "zk1")));
+        assertEquals("zookeeper is down", e.getMessage());
+    }
+
+    private Configuration getConfiguration(String server, String quorum) {
+        Configuration configuration = new Configuration(false);
+        configuration.set(PXF_SERVER_NAME_PROPERTY, server);
+        configuration.set("hbase.zookeeper.quorum", quorum);
+        return configuration;
+    }
+}
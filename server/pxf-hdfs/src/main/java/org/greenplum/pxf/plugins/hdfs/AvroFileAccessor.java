@@ -37,6 +37,7 @@ import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.model.SamplingAccessor;
 import org.greenplum.pxf.api.utilities.SpringContext;
 import org.greenplum.pxf.plugins.hdfs.avro.AvroUtilities;
 
@@ -45,7 +46,7 @@ import java.io.IOException;
 /**
  * A PXF Accessor for Avro File records
  */
-public class AvroFileAccessor extends HdfsSplittableDataAccessor {
+public class AvroFileAccessor extends HdfsSplittableDataAccessor implements SamplingAccessor {
 
     private static final String COMPRESSION_CODEC_OPTION = "COMPRESSION_CODEC";
     private static final String CODEC_COMPRESSION_LEVEL_OPTION = "CODEC_LEVEL";
@@ -58,7 +59,7 @@ public class AvroFileAccessor extends HdfsSplittableDataAccessor {
     private AvroWrapper<GenericRecord> avroWrapper;
     private DataFileWriter<GenericRecord> writer;
     private long rowsWritten, rowsRead;
-    private Schema schema;
+    protected Schema schema;
     private final AvroUtilities avroUtilities;
 
     /**
@@ -0,0 +1,52 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.greenplum.pxf.api.model.ProtocolHandler;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of ProtocolHandler for Avro profiles. Switches reads to
+ * the vectorized Avro accessor / resolver when requested by the user with
+ * the VECTORIZE option.
+ */
+public class AvroProtocolHandler implements ProtocolHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AvroProtocolHandler.class);
+    private static final String AVRO_VECTORIZED_ACCESSOR = AvroVectorizedAccessor.class.getName();
+    private static final String AVRO_VECTORIZED_RESOLVER = AvroVectorizedResolver.class.getName();
+    static final String OPTION_VECTORIZE = "VECTORIZE";
+
+    @Override
+    public String getFragmenterClassName(RequestContext context) {
+        return context.getFragmenter(); // default to fragmenter defined by the profile
+    }
+
+    @Override
+    public String getAccessorClassName(RequestContext context) {
+        // default to accessor defined by the profile, switch to vectorized if requested by the user
+        String accessor = useVectorizedAvro(context) ? AVRO_VECTORIZED_ACCESSOR : context.getAccessor();
+        LOG.debug("Determined to use {} accessor", accessor);
+        return accessor;
+    }
+
+    @Override
+    public String getResolverClassName(RequestContext context) {
+        // default to resolver defined by the profile, switch to vectorized if requested by the user
+        String resolver = useVectorizedAvro(context) ? AVRO_VECTORIZED_RESOLVER : context.getResolver();
+        LOG.debug("Determined to use {} resolver", resolver);
+        return resolver;
+    }
+
+    /**
+     * Determines whether the user has requested to use the vectorized Avro
+     * accessor / resolver. Vectorization only applies to reads.
+     *
+     * @param context request context
+     * @return true if vectorized Avro accessor and resolver will need to be used
+     */
+    private boolean useVectorizedAvro(RequestContext context) {
+        return context.getRequestType() == RequestContext.RequestType.READ_BRIDGE
+                && context.getOption(OPTION_VECTORIZE, false);
+    }
+}
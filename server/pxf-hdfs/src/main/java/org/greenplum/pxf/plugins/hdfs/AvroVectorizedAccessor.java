@@ -0,0 +1,133 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.mapred.FsInput;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.BadRecordException;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.avro.AvroColumnBatch;
+import org.greenplum.pxf.plugins.hdfs.avro.AvroUtilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Avro file accessor that reads batches of records in columnar form.
+ * Unit of operation is an {@link AvroColumnBatch}: the blocks of the file
+ * are decoded straight into primitive column vectors of the projected
+ * fields, the other fields are skipped by the decoder without being
+ * materialized, and no GenericRecord is created per record. Only primitive
+ * fields, and unions of null and a primitive type, are supported for the
+ * projected columns, other fields need to be read with
+ * {@link AvroFileAccessor}.
+ * Write operations are inherited from {@link AvroFileAccessor}.
+ */
+public class AvroVectorizedAccessor extends AvroFileAccessor {
+
+    private DataFileReader<Object> fileReader;
+    private AvroColumnBatch batch;
+    private BinaryDecoder decoder;
+    private long splitEnd;
+    private long recordsRemainingInBlock;
+    private int batchIndex;
+    private long totalRowsRead;
+
+    /**
+     * Constructs a new instance of the AvroVectorizedAccessor
+     */
+    public AvroVectorizedAccessor() {
+        super();
+    }
+
+    AvroVectorizedAccessor(AvroUtilities avroUtilities) {
+        super(avroUtilities);
+    }
+
+    /**
+     * Opens the file of the split and plans the decoding of its records for
+     * the schema the file was written with.
+     *
+     * @return true if the resource is successfully opened
+     * @throws IOException if opening the resource failed
+     */
+    @Override
+    public boolean openForRead() throws IOException {
+        List<Schema.Field> fields = schema.getFields();
+        if (fields.size() != context.getColumns()) {
+            throw new BadRecordException(String.format("Avro record has %d fields but GPDB table has %d columns.", fields.size(), context.getColumns()));
+        }
+        List<Schema.Field> projectedFields = new ArrayList<>();
+        for (ColumnDescriptor columnDescriptor : context.getTupleDescription()) {
+            if (columnDescriptor.isProjected()) {
+                projectedFields.add(fields.get(columnDescriptor.columnIndex()));
+            }
+        }
+
+        Path file = new Path(context.getDataSource());
+        fileReader = new DataFileReader<>(new FsInput(file, jobConf), new GenericDatumReader<>());
+        try {
+            batch = new AvroColumnBatch(fileReader.getSchema(), projectedFields, AvroColumnBatch.DEFAULT_SIZE);
+            // position the reader at the first block that starts in the split
+            fileReader.sync(fileSplit.getStart());
+        } catch (RuntimeException | IOException e) {
+            fileReader.close();
+            throw e;
+        }
+        splitEnd = fileSplit.getStart() + fileSplit.getLength();
+        recordsRemainingInBlock = 0;
+        return true;
+    }
+
+    /**
+     * Reads the next batch for the current fragment. A batch never spans
+     * more than one block of the file.
+     *
+     * @return the next batch in OneRow format, the key is the batch number, and data is the batch
+     * @throws IOException when reading of the next batch fails
+     */
+    @Override
+    public OneRow readNextObject() throws IOException {
+        while (recordsRemainingInBlock == 0) {
+            // the blocks that start after the end of the split belong to the next split
+            if (!fileReader.hasNext() || fileReader.pastSync(splitEnd)) {
+                return null;
+            }
+            ByteBuffer block = fileReader.nextBlock();
+            recordsRemainingInBlock = fileReader.getBlockCount();
+            decoder = DecoderFactory.get().binaryDecoder(block.array(),
+                    block.arrayOffset() + block.position(), block.remaining(), decoder);
+        }
+
+        int rowsRead = batch.read(decoder, recordsRemainingInBlock);
+        recordsRemainingInBlock -= rowsRead;
+        totalRowsRead += rowsRead;
+        return new OneRow(new LongWritable(batchIndex++), batch);
+    }
+
+    /**
+     * Closes the resource for read.
+     *
+     * @throws IOException if closing the resource failed
+     */
+    @Override
+    public void closeForRead() throws IOException {
+        if (fileReader != null) {
+            fileReader.close();
+        }
+        LOG.debug("TXID [{}] Segment {}: reader closed for user {}, read a TOTAL of {} rows from {} on server {}",
+                context.getTransactionId(),
+                context.getSegmentId(),
+                context.getUser(),
+                totalRowsRead,
+                context.getDataSource(),
+                context.getServerName());
+    }
+}
@@ -0,0 +1,250 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.ReadVectorizedResolver;
+import org.greenplum.pxf.api.model.Resolver;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.api.utilities.SpringContext;
+import org.greenplum.pxf.plugins.hdfs.avro.AvroColumnBatch;
+import org.greenplum.pxf.plugins.hdfs.avro.AvroColumnVector;
+import org.greenplum.pxf.plugins.hdfs.avro.AvroTypeConverter;
+import org.greenplum.pxf.plugins.hdfs.utilities.PgUtilities;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves an {@link AvroColumnBatch} produced by
+ * {@link AvroVectorizedAccessor} into lists of OneFields. The conversion of
+ * every column is picked once per fragment from the Avro type of the column
+ * and the Greenplum type, and it produces the same values as
+ * {@link AvroResolver} does for the same fields.
+ */
+public class AvroVectorizedResolver extends BasePlugin implements ReadVectorizedResolver, Resolver {
+
+    private static final String UNSUPPORTED_ERR_MESSAGE = "Current operation is not supported";
+
+    private final AvroTypeConverter avroTypeConverter;
+    private final PgUtilities pgUtilities;
+    private List<ColumnDescriptor> columnDescriptors;
+    private ValueConverter[] converters;
+    private int[] typeOids;
+    private List<List<OneField>> cachedBatch;
+
+    /**
+     * Constructs a new instance of the AvroVectorizedResolver
+     */
+    public AvroVectorizedResolver() {
+        this(SpringContext.getBean(PgUtilities.class));
+    }
+
+    AvroVectorizedResolver(PgUtilities pgUtilities) {
+        this.pgUtilities = pgUtilities;
+        this.avroTypeConverter = AvroTypeConverter.getInstance();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        columnDescriptors = context.getTupleDescription();
+    }
+
+    /**
+     * Returns the resolved list of lists of OneFields given an
+     * AvroColumnBatch
+     *
+     * @param batch unresolved batch
+     * @return the resolved batch mapped to the Greenplum type
+     */
+    @Override
+    public List<List<OneField>> getFieldsForBatch(OneRow batch) {
+        AvroColumnBatch columnBatch = (AvroColumnBatch) batch.getData();
+        ensureConvertersAreInitialized(columnBatch);
+        int batchSize = columnBatch.size;
+        List<List<OneField>> resolvedBatch = prepareResolvedBatch(batchSize);
+
+        // index to the projected columns
+        int columnIndex = 0;
+        for (ColumnDescriptor columnDescriptor : columnDescriptors) {
+            if (!columnDescriptor.isProjected()) {
+                for (int row = 0; row < batchSize; row++) {
+                    resolvedBatch.get(row).add(new OneField(columnDescriptor.columnTypeCode(), null));
+                }
+                continue;
+            }
+
+            AvroColumnVector vector = columnBatch.cols[columnIndex];
+            ValueConverter converter = converters[columnIndex];
+            int typeOid = typeOids[columnIndex];
+            if (vector.noNulls) {
+                for (int row = 0; row < batchSize; row++) {
+                    resolvedBatch.get(row).add(new OneField(typeOid, converter.convert(vector, row)));
+                }
+            } else {
+                for (int row = 0; row < batchSize; row++) {
+                    Object value = vector.isNull[row] ? null : converter.convert(vector, row);
+                    resolvedBatch.get(row).add(new OneField(typeOid, value));
+                }
+            }
+            columnIndex++;
+        }
+        return resolvedBatch;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<OneField> getFields(OneRow row) {
+        throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OneRow setFields(List<OneField> record) {
+        throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+    }
+
+    /**
+     * Builds the converters for the projected columns from the schemas of
+     * the column vectors, the first batch of the fragment determines them.
+     */
+    private void ensureConvertersAreInitialized(AvroColumnBatch batch) {
+        if (converters != null) return;
+
+        converters = new ValueConverter[batch.cols.length];
+        typeOids = new int[converters.length];
+        int i = 0;
+        for (ColumnDescriptor columnDescriptor : columnDescriptors) {
+            if (columnDescriptor.isProjected()) {
+                Schema schema = batch.cols[i].schema;
+                DataType gpdbColType = columnDescriptor.getDataType();
+                converters[i] = createConverter(schema, gpdbColType);
+                typeOids[i] = getDataType(schema, gpdbColType).getOID();
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Returns the Greenplum type of the values of a primitive Avro field, the
+     * same way {@link AvroResolver} maps them.
+     */
+    private DataType getDataType(Schema schema, DataType gpdbColType) {
+        LogicalType logicalType = schema.getLogicalType();
+        switch (schema.getType()) {
+            case BOOLEAN:
+                return DataType.BOOLEAN;
+            case INT:
+                return logicalType != null ? gpdbColType : DataType.INTEGER;
+            case LONG:
+                return logicalType != null ? gpdbColType : DataType.BIGINT;
+            case FLOAT:
+                return DataType.REAL;
+            case DOUBLE:
+                return DataType.FLOAT8;
+            case STRING:
+                return logicalType == LogicalTypes.uuid() ? DataType.UUID : DataType.TEXT;
+            case ENUM:
+                return DataType.TEXT;
+            default: // BYTES and FIXED
+                return gpdbColType == DataType.TEXT ? DataType.BYTEA : gpdbColType;
+        }
+    }
+
+    /**
+     * Creates the conversion of the values of a primitive Avro field to the
+     * values of the Greenplum column, the same way {@link AvroResolver}
+     * converts them.
+     */
+    private ValueConverter createConverter(Schema schema, DataType gpdbColType) {
+        LogicalType logicalType = schema.getLogicalType();
+        switch (schema.getType()) {
+            case BOOLEAN:
+                return (vector, row) -> vector.longVector[row] != 0;
+            case INT:
+                if (logicalType == LogicalTypes.date()) {
+                    return (vector, row) -> avroTypeConverter.dateFromInt((int) vector.longVector[row], schema, logicalType);
+                } else if (logicalType == LogicalTypes.timeMillis()) {
+                    return (vector, row) -> avroTypeConverter.timeMillis((int) vector.longVector[row], schema, logicalType);
+                }
+                return (vector, row) -> (int) vector.longVector[row];
+            case LONG:
+                if (logicalType == LogicalTypes.timeMicros()) {
+                    return (vector, row) -> avroTypeConverter.timeMicros(vector.longVector[row], schema, logicalType);
+                } else if (logicalType == LogicalTypes.timestampMillis()) {
+                    return (vector, row) -> avroTypeConverter.timestampMillis(vector.longVector[row], schema, logicalType);
+                } else if (logicalType == LogicalTypes.timestampMicros()) {
+                    return (vector, row) -> avroTypeConverter.timestampMicros(vector.longVector[row], schema, logicalType);
+                } else if (logicalType == LogicalTypes.localTimestampMillis()) {
+                    return (vector, row) -> avroTypeConverter.localTimestampMillis(vector.longVector[row], schema, logicalType);
+                } else if (logicalType == LogicalTypes.localTimestampMicros()) {
+                    return (vector, row) -> avroTypeConverter.localTimestampMicros(vector.longVector[row], schema, logicalType);
+                }
+                return (vector, row) -> vector.longVector[row];
+            case FLOAT:
+                return (vector, row) -> (float) vector.doubleVector[row];
+            case DOUBLE:
+                return (vector, row) -> vector.doubleVector[row];
+            case STRING:
+                if (gpdbColType.isArrayType()) {
+                    return (vector, row) -> pgUtilities.escapeArrayElement((String) vector.objectVector[row]);
+                }
+                return (vector, row) -> vector.objectVector[row];
+            case ENUM:
+                return (vector, row) -> vector.objectVector[row];
+            default: // BYTES and FIXED
+                boolean fixed = schema.getType() == Schema.Type.FIXED;
+                if (logicalType != null && logicalType.getName().equalsIgnoreCase("decimal")) {
+                    return (vector, row) -> avroTypeConverter.convertToDecimal(toAvroValue(fixed, schema, vector, row), schema, logicalType);
+                }
+                DataType dataType = getDataType(schema, gpdbColType);
+                if (dataType == DataType.BYTEA) {
+                    return (vector, row) -> vector.objectVector[row];
+                } else if (dataType == DataType.BYTEAARRAY) {
+                    return (vector, row) -> pgUtilities.encodeAndEscapeByteaHex(ByteBuffer.wrap((byte[]) vector.objectVector[row]));
+                }
+                return (vector, row) -> toAvroValue(fixed, schema, vector, row);
+        }
+    }
+
+    /**
+     * Wraps the bytes of a BYTES or FIXED value the way the generic Avro
+     * reader returns them.
+     */
+    private static Object toAvroValue(boolean fixed, Schema schema, AvroColumnVector vector, int row) {
+        byte[] bytes = (byte[]) vector.objectVector[row];
+        return fixed ? new GenericData.Fixed(schema, bytes) : ByteBuffer.wrap(bytes);
+    }
+
+    private List<List<OneField>> prepareResolvedBatch(int batchSize) {
+        if (cachedBatch == null || cachedBatch.size() != batchSize) {
+            cachedBatch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                cachedBatch.add(new ArrayList<>(columnDescriptors.size()));
+            }
+        } else {
+            // clear does not reclaim back the internal arrays of the arraylists
+            cachedBatch.forEach(List::clear);
+        }
+        return cachedBatch;
+    }
+
+    /**
+     * Converts the non-null value of a row of a column vector
+     */
+    @FunctionalInterface
+    private interface ValueConverter {
+        Object convert(AvroColumnVector vector, int row);
+    }
+}
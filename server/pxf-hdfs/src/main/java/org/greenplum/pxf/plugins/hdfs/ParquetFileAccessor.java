@@ -21,26 +21,28 @@ package org.greenplum.pxf.plugins.hdfs;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.common.type.HiveDecimal;
 import org.apache.hadoop.mapred.FileSplit;
-import org.apache.hadoop.mapreduce.RecordWriter;
-import org.apache.parquet.HadoopReadOptions;
-import org.apache.parquet.ParquetReadOptions;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.page.PageReadStore;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.filter2.compat.FilterCompat;
-import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetInputFormat;
 import org.apache.parquet.hadoop.ParquetOutputFormat;
-import org.apache.parquet.hadoop.ParquetReader;
-import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
-import org.apache.parquet.hadoop.metadata.FileMetaData;
-import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
 import org.apache.parquet.schema.GroupType;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.MessageType;
@@ -59,17 +61,25 @@ import org.greenplum.pxf.api.filter.TreeVisitor;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.PruningAccessor;
+import org.greenplum.pxf.api.model.PruningStats;
+import org.greenplum.pxf.api.model.SamplingAccessor;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.api.utilities.SpringContext;
 import org.greenplum.pxf.plugins.hdfs.filter.BPCharOperatorTransformer;
 import org.greenplum.pxf.plugins.hdfs.parquet.*;
 import org.greenplum.pxf.plugins.hdfs.utilities.DecimalOverflowOption;
 import org.greenplum.pxf.plugins.hdfs.utilities.DecimalUtilities;
 import org.greenplum.pxf.plugins.hdfs.utilities.HdfsUtilities;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.BitSet;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -86,7 +96,6 @@ import static org.apache.parquet.hadoop.ParquetOutputFormat.DICTIONARY_PAGE_SIZE
 import static org.apache.parquet.hadoop.ParquetOutputFormat.ENABLE_DICTIONARY;
 import static org.apache.parquet.hadoop.ParquetOutputFormat.PAGE_SIZE;
 import static org.apache.parquet.hadoop.ParquetOutputFormat.WRITER_VERSION;
-import static org.apache.parquet.hadoop.api.ReadSupport.PARQUET_READ_SCHEMA;
 import static org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
 import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.DEFAULT_USE_LOCAL_PXF_TIMEZONE_READ;
 import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.USE_LOCAL_PXF_TIMEZONE_READ_NAME;
@@ -95,12 +104,22 @@ import static org.greenplum.pxf.plugins.hdfs.parquet.ParquetIntervalUtilities.IN
 /**
  * Parquet file accessor.
  * Unit of operation is record.
+ * When sampling the data for ANALYZE, only a sample of the row groups of the
+ * split is read.
+ * When reading with a filter, the row groups and pages that cannot match the
+ * filter are skipped and reported with {@link #getPruningStats()}. The
+ * skipped pages are only counted when the pruning metrics are enabled, as
+ * counting them reads the offset indexes of the columns.
+ * When writing, a new part file is started once the current file reaches
+ * MAX_FILE_SIZE bytes or MAX_FILE_ROWS rows, if any of them is set.
  */
-public class ParquetFileAccessor extends BasePlugin implements Accessor {
+public class ParquetFileAccessor extends BasePlugin implements Accessor, SamplingAccessor, PruningAccessor {
 
     private static final int DEFAULT_ROWGROUP_SIZE = 8 * 1024 * 1024;
     private static final CompressionCodecName DEFAULT_COMPRESSION = CompressionCodecName.SNAPPY;
     public static final String USE_INT64_TIMESTAMPS_NAME = "USE_INT64_TIMESTAMPS";
+    public static final String MAX_FILE_SIZE_OPTION = "MAX_FILE_SIZE";
+    public static final String MAX_FILE_ROWS_OPTION = "MAX_FILE_ROWS";
     public static final String USE_LOCAL_PXF_TIMEZONE_WRITE_NAME = "USE_LOCAL_PXF_TIMEZONE_WRITE";
     public static final String USE_LOGICAL_TYPE_INTERVAL = "USE_LOGICAL_TYPE_INTERVAL";
     public static final String USE_LOGICAL_TYPE_TIME = "USE_LOGICAL_TYPE_TIME";
@@ -137,14 +156,35 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
     );
 
     private static final TreeTraverser TRAVERSER = new TreeTraverser();
+    private static final String[] PRUNING_PROPERTIES = {
+            ParquetInputFormat.STATS_FILTERING_ENABLED,
+            ParquetInputFormat.DICTIONARY_FILTERING_ENABLED,
+            ParquetInputFormat.BLOOM_FILTERING_ENABLED,
+            ParquetInputFormat.COLUMN_INDEX_FILTERING_ENABLED
+    };
     private static final TreeVisitor IN_OPERATOR_TRANSFORMER = new InOperatorTransformer();
-
-    private ParquetReader<Group> fileReader;
+    static final String PRUNING_METRICS_ENABLED_PROPERTY = "pxf.metrics.pruning.enabled";
+
+    private final ParquetFooterCache footerCache;
+    private final boolean countPagesSkipped;
+    private ParquetRowGroupReader rowGroupReader;
+    private PruningStats pruningStats;
+    private FilterCompat.Filter recordFilter;
+    private boolean filterRecords;
+    private MessageType readSchema;
+    private MessageColumnIO columnIO;
+    private RecordReader<Group> recordReader;
+    private long rowsRemainingInRowGroup;
+    private float readRatio = 1.0f;
     private CompressionCodecName codecName;
-    private RecordWriter<Void, Group> recordWriter;
-    private GroupWriteSupport groupWriteSupport;
+    private ParquetWriter<Object> fileWriter;
+    private MessageType writeSchema;
     private FileSystem fs;
     private Path file;
+    private String filePrefix;
+    private long maxFileSize, maxFileRows;
+    private long rowsInFile;
+    private int filesWritten;
     private boolean enableDictionary;
     private int pageSize, rowGroupSize, dictionarySize;
     private long rowsRead, totalRowsRead, totalRowsWritten;
@@ -156,6 +196,24 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
     private boolean useLogicalTypeTime;
     private boolean useLogicalTypeUUID;
 
+    public ParquetFileAccessor() {
+        this(SpringContext.getNullableBean(ParquetFooterCache.class),
+                isPruningMetricsEnabled(SpringContext.getNullableBean(Environment.class)));
+    }
+
+    /**
+     * Creates a new instance of the accessor that reads the footers of the
+     * files through the given cache, or without caching them if there is no
+     * cache.
+     *
+     * @param footerCache       the cache of the Parquet footers
+     * @param countPagesSkipped true to count the pages skipped by the record filter
+     */
+    ParquetFileAccessor(ParquetFooterCache footerCache, boolean countPagesSkipped) {
+        this.footerCache = footerCache != null ? footerCache : new ParquetFooterCache(DataSize.ofBytes(0), Duration.ZERO);
+        this.countPagesSkipped = countPagesSkipped;
+    }
+
     /**
      * Opens the resource for read.
      *
@@ -166,25 +224,23 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
         file = new Path(context.getDataSource());
         FileSplit fileSplit = HdfsUtilities.parseFileSplit(context.getDataSource(), context.getFragmentMetadata());
 
-        // Read the original schema from the parquet file
-        MessageType originalSchema = getSchema(file, fileSplit);
+        // Read the footer of the parquet file with the row groups of the split
+        ParquetMetadata footer = getFooter(file, fileSplit);
+        MessageType originalSchema = footer.getFileMetaData().getSchema();
         // Get a map of the column name to Types for the given schema
         Map<String, Type> originalFieldsMap = getOriginalFieldsMap(originalSchema);
         // Get the read schema. This is either the full set or a subset (in
         // case of column projection) of the greenplum schema.
-        MessageType readSchema = buildReadSchema(originalFieldsMap, originalSchema);
+        readSchema = buildReadSchema(originalFieldsMap, originalSchema);
         // Get the record filter in case of predicate push-down
-        FilterCompat.Filter recordFilter = getRecordFilter(context.getFilterString(), originalFieldsMap);
+        recordFilter = getRecordFilter(context.getFilterString(), originalFieldsMap);
+        filterRecords = configuration.getBoolean(ParquetInputFormat.RECORD_FILTERING_ENABLED, true);
 
-        // add column projection
-        configuration.set(PARQUET_READ_SCHEMA, readSchema.toString());
+        rowGroupReader = openRowGroupReader(file, footer, recordFilter, readSchema);
+        columnIO = new ColumnIOFactory(footer.getFileMetaData().getCreatedBy())
+                .getColumnIO(readSchema, originalSchema, true);
+        rowsRemainingInRowGroup = 0;
 
-        fileReader = ParquetReader.builder(new GroupReadSupport(), file)
-                .withConf(configuration)
-                // Create reader for a given split, read a range in file
-                .withFileRange(fileSplit.getStart(), fileSplit.getStart() + fileSplit.getLength())
-                .withFilter(recordFilter)
-                .build();
         context.setMetadata(readSchema);
         return true;
     }
@@ -198,7 +254,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
     @Override
     public OneRow readNextObject() throws IOException {
         final long then = System.nanoTime();
-        Group group = fileReader.read();
+        Group group = readNextGroup();
         final long nanos = System.nanoTime() - then;
         totalReadTimeInNanos += nanos;
 
@@ -220,11 +276,19 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
         totalRowsRead += rowsRead;
 
         logReadStats(totalRowsRead, totalReadTimeInNanos);
-        if (fileReader != null) {
-            fileReader.close();
+        if (rowGroupReader != null) {
+            rowGroupReader.close();
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getReadRatio() {
+        return readRatio;
+    }
+
     /**
      * Opens the resource for write.
      * Uses compression codec based on user input which
@@ -238,7 +302,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
 
         HcfsType hcfsType = HcfsType.getHcfsType(context);
         // skip codec extension in filePrefix, because we add it in this accessor
-        String filePrefix = hcfsType.getUriForWrite(context);
+        filePrefix = hcfsType.getUriForWrite(context);
         String compressCodec = context.getOption("COMPRESSION_CODEC");
         codecName = getCodecName(compressCodec, DEFAULT_COMPRESSION);
 
@@ -254,18 +318,22 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
         useLogicalTypeInterval = context.getOption(USE_LOGICAL_TYPE_INTERVAL, DEFAULT_USE_NEW_ANNOTATIONS);
         useLogicalTypeTime = context.getOption(USE_LOGICAL_TYPE_TIME, DEFAULT_USE_NEW_ANNOTATIONS);
         useLogicalTypeUUID = context.getOption(USE_LOGICAL_TYPE_UUID, DEFAULT_USE_NEW_ANNOTATIONS);
+        maxFileSize = context.getOption(MAX_FILE_SIZE_OPTION, 0L, true);
+        maxFileRows = context.getOption(MAX_FILE_ROWS_OPTION, 0L, true);
+        if (maxFileSize > 0 && maxFileSize < rowGroupSize) {
+            // a file holds at least one full row group, so that the files do not end with a partial row group
+            rowGroupSize = (int) maxFileSize;
+        }
         LOG.debug("{}-{}: Parquet options: PAGE_SIZE = {}, ROWGROUP_SIZE = {}, DICTIONARY_PAGE_SIZE = {}, " +
-                        "PARQUET_VERSION = {}, ENABLE_DICTIONARY = {}, USE_INT64_TIMESTAMPS = {}, USE_LOCAL_PXF_TIMEZONE_WRITE = {}",
+                        "PARQUET_VERSION = {}, ENABLE_DICTIONARY = {}, USE_INT64_TIMESTAMPS = {}, USE_LOCAL_PXF_TIMEZONE_WRITE = {}, " +
+                        "MAX_FILE_SIZE = {}, MAX_FILE_ROWS = {}",
                 context.getTransactionId(), context.getSegmentId(), pageSize, rowGroupSize, dictionarySize,
-                parquetVersion, enableDictionary, useInt64Timestamps, useLocalPxfTimezoneWrite);
+                parquetVersion, enableDictionary, useInt64Timestamps, useLocalPxfTimezoneWrite, maxFileSize, maxFileRows);
 
         // fs is the dependency for both readSchemaFile and createParquetWriter
-        String fileName = filePrefix + codecName.getExtension() + ".parquet";
-        LOG.debug("{}-{}: Creating file {}", context.getTransactionId(),
-                context.getSegmentId(), fileName);
+        String fileName = getPartFileName(0);
         file = new Path(fileName);
         fs = FileSystem.get(URI.create(fileName), configuration);
-        HdfsUtilities.validateFile(file, fs);
 
         // Read schema file, if given
         String schemaFile = context.getOption("SCHEMA");
@@ -274,7 +342,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
         LOG.debug("{}-{}: Schema fields = {}", context.getTransactionId(),
                 context.getSegmentId(), schema.getFields());
         GroupWriteSupport.setSchema(schema, configuration);
-        groupWriteSupport = new GroupWriteSupport();
+        writeSchema = schema;
 
         // We get the parquet schema and set it to the metadata in the request context
         // to avoid computing the schema again in the Resolver
@@ -292,11 +360,40 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
      */
     @Override
     public boolean writeNextObject(OneRow onerow) throws IOException, InterruptedException {
-        recordWriter.write(null, (Group) onerow.getData());
-        totalRowsWritten++;
+        writeRecord(onerow.getData());
         return true;
     }
 
+    /**
+     * Writes a record to the current file, a new part file is started first
+     * if the current one is full.
+     *
+     * @param record the record, of the type of the {@link #createWriteSupport(MessageType) write support}
+     * @throws IOException writing to the resource failed
+     */
+    protected void writeRecord(Object record) throws IOException {
+        if (isFileFull()) {
+            fileWriter.close();
+            file = new Path(getPartFileName(filesWritten));
+            createParquetWriter();
+        }
+        fileWriter.write(record);
+        rowsInFile++;
+        totalRowsWritten++;
+    }
+
+    /**
+     * Returns the write support that writes the records to a new file. The
+     * records are the {@link Group}s built by {@link ParquetResolver}.
+     *
+     * @param schema the schema of the file
+     * @return the write support for the file
+     */
+    protected WriteSupport<?> createWriteSupport(MessageType schema) {
+        // the schema is read from the configuration
+        return new GroupWriteSupport();
+    }
+
     /**
      * Closes the resource for write.
      *
@@ -305,13 +402,14 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
     @Override
     public void closeForWrite() throws IOException, InterruptedException {
 
-        if (recordWriter != null) {
-            recordWriter.close(null);
+        if (fileWriter != null) {
+            fileWriter.close();
         }
-        LOG.debug("{}-{}: writer closed, wrote a TOTAL of {} rows to {} on server {}",
+        LOG.debug("{}-{}: writer closed, wrote a TOTAL of {} rows in {} files to {} on server {}",
                 context.getTransactionId(),
                 context.getSegmentId(),
                 totalRowsWritten,
+                filesWritten,
                 context.getDataSource(),
                 context.getServerName());
     }
@@ -323,7 +421,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
      * @param originalFieldsMap a map of field names to types
      * @return the parquet record filter for the given filter string
      */
-    private FilterCompat.Filter getRecordFilter(String filterString, Map<String, Type> originalFieldsMap) {
+    protected FilterCompat.Filter getRecordFilter(String filterString, Map<String, Type> originalFieldsMap) {
         if (StringUtils.isBlank(filterString)) {
             return FilterCompat.NOOP;
         }
@@ -363,39 +461,172 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
     }
 
     /**
-     * Reads the original schema from the parquet file.
+     * Selects the row groups to read to sample the data of the split for
+     * ANALYZE, and keeps track of the ratio of the records they hold.
+     *
+     * @param rowGroups the row groups of the split
+     * @return the sampled row groups, or null when all the row groups need to be read
+     */
+    protected List<BlockMetaData> getSampledRowGroups(List<BlockMetaData> rowGroups) {
+        BitSet sampled = HdfsUtilities.getSampledBlocks(rowGroups.size(), context.getStatsSampleRatio());
+        if (sampled == null) {
+            return null;
+        }
+
+        List<BlockMetaData> result = sampled.stream()
+                .mapToObj(rowGroups::get)
+                .collect(Collectors.toList());
+        long totalRows = rowGroups.stream().mapToLong(BlockMetaData::getRowCount).sum();
+        long sampledRows = result.stream().mapToLong(BlockMetaData::getRowCount).sum();
+        readRatio = totalRows == 0 ? 1.0f : (float) sampledRows / totalRows;
+        LOG.debug("{}-{}: Sampling {} out of {} RowGroups with {} out of {} records",
+                context.getTransactionId(), context.getSegmentId(),
+                result.size(), rowGroups.size(), sampledRows, totalRows);
+        return result;
+    }
+
+    /**
+     * Reads the next record of the row groups left after filtering them with
+     * the record filter, skipping the records that do not match the filter.
+     *
+     * @return the next record or null when all the row groups are exhausted
+     * @throws IOException if unable to read
+     */
+    private Group readNextGroup() throws IOException {
+        while (true) {
+            if (rowsRemainingInRowGroup == 0) {
+                PageReadStore rowGroup = rowGroupReader.readNextRowGroup();
+                if (rowGroup == null) {
+                    return null;
+                }
+                rowsRemainingInRowGroup = rowGroup.getRowCount();
+                recordReader = columnIO.getRecordReader(rowGroup, new ParquetRecordConverter(readSchema),
+                        filterRecords ? recordFilter : FilterCompat.NOOP);
+                continue;
+            }
+
+            Group group = recordReader.read();
+            rowsRemainingInRowGroup--;
+            if (recordReader.shouldSkipCurrentRecord()) {
+                continue;
+            }
+            if (group == null) {
+                // the filtered record reader reached the end of the row group
+                rowsRemainingInRowGroup = 0;
+                continue;
+            }
+            return group;
+        }
+    }
+
+    /**
+     * Returns the footer of the parquet file with the row groups of the
+     * split, the footer of the whole file is read once and cached.
      *
      * @param parquetFile the path to the parquet file
      * @param fileSplit   the file split we are accessing
-     * @return the original schema from the parquet file
-     * @throws IOException when there's an IOException while reading the schema
+     * @return the footer with the original schema and the row groups of the split
+     * @throws IOException when there's an IOException while reading the footer
      */
-    private MessageType getSchema(Path parquetFile, FileSplit fileSplit) throws IOException {
-
+    protected ParquetMetadata getFooter(Path parquetFile, FileSplit fileSplit) throws IOException {
         final long then = System.nanoTime();
-        ParquetMetadataConverter.MetadataFilter filter = ParquetMetadataConverter.range(
+        ParquetMetadata footer = ParquetFooterCache.getSplitFooter(footerCache.getFooter(parquetFile, configuration),
                 fileSplit.getStart(), fileSplit.getStart() + fileSplit.getLength());
-        ParquetReadOptions parquetReadOptions = HadoopReadOptions
-                .builder(configuration)
-                .withMetadataFilter(filter)
-                .build();
-        HadoopInputFile inputFile = HadoopInputFile.fromPath(parquetFile, configuration);
-        try (ParquetFileReader parquetFileReader =
-                     ParquetFileReader.open(inputFile, parquetReadOptions)) {
-            FileMetaData metadata = parquetFileReader.getFileMetaData();
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("{}-{}: Reading file {} with {} records in {} RowGroups",
-                        context.getTransactionId(), context.getSegmentId(),
-                        parquetFile.getName(), parquetFileReader.getRecordCount(),
-                        parquetFileReader.getRowGroups().size());
-            }
-            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - then);
-            LOG.debug("{}-{}: Read schema in {} ms", context.getTransactionId(),
-                    context.getSegmentId(), millis);
-            return metadata.getSchema();
-        } catch (Exception e) {
-            throw new IOException(e);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{}-{}: Reading file {} with {} records in {} RowGroups",
+                    context.getTransactionId(), context.getSegmentId(), parquetFile.getName(),
+                    footer.getBlocks().stream().mapToLong(BlockMetaData::getRowCount).sum(),
+                    footer.getBlocks().size());
+        }
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - then);
+        LOG.debug("{}-{}: Read footer in {} ms", context.getTransactionId(),
+                context.getSegmentId(), millis);
+        return footer;
+    }
+
+    /**
+     * Opens a reader of the row groups of the given footer that match the
+     * record filter, or of a sample of them when sampling the data for
+     * ANALYZE, that reads the requested columns of the read schema.
+     *
+     * @param parquetFile  the path to the parquet file
+     * @param footer       the footer with the row groups of the split
+     * @param recordFilter the record filter
+     * @param readSchema   the requested schema
+     * @return the reader of the row groups
+     * @throws IOException when the file can not be opened
+     */
+    protected ParquetRowGroupReader openRowGroupReader(Path parquetFile, ParquetMetadata footer,
+                                                       FilterCompat.Filter recordFilter, MessageType readSchema)
+            throws IOException {
+        ParquetFileReader fileReader = openFileReader(parquetFile, footer, recordFilter);
+        pruningStats = new PruningStats();
+        pruningStats.addBlocksSkipped(footer.getBlocks().size() - fileReader.getRowGroups().size());
+        List<BlockMetaData> sampledRowGroups = context.getStatsSampleRatio() > 0
+                ? getSampledRowGroups(fileReader.getRowGroups())
+                : null;
+        if (sampledRowGroups != null) {
+            // reopen the file with the sampled row groups only
+            fileReader.close();
+            fileReader = openFileReader(parquetFile, new ParquetMetadata(footer.getFileMetaData(), sampledRowGroups), recordFilter);
+        }
+        // add column projection
+        fileReader.setRequestedSchema(readSchema);
+        return new ParquetRowGroupReader(fileReader, readSchema, pruningStats, countPagesSkipped);
+    }
+
+    /**
+     * Returns the row groups and pages of the split read and skipped because
+     * of the record filter.
+     *
+     * @return the statistics of the split, or null if the split was not opened
+     */
+    @Override
+    public PruningStats getPruningStats() {
+        return pruningStats;
+    }
+
+    /**
+     * Returns whether the pruning metrics are reported, like the metrics
+     * reporter of the service does, so that the pages skipped are only
+     * counted when they are reported.
+     *
+     * @param environment the environment of the service, or null if there is none
+     * @return true if the pruning metrics are enabled
+     */
+    private static boolean isPruningMetricsEnabled(Environment environment) {
+        return environment != null && environment.getProperty(PRUNING_METRICS_ENABLED_PROPERTY, Boolean.class, Boolean.FALSE);
+    }
+
+    /**
+     * Opens a reader of the row groups of the given footer, the row groups
+     * and pages that do not match the record filter are skipped.
+     *
+     * @param parquetFile  the path to the parquet file
+     * @param footer       the footer with the row groups to read
+     * @param recordFilter the record filter
+     * @return the reader of the row groups
+     * @throws IOException when the file can not be opened
+     */
+    @SuppressWarnings("deprecation")
+    private ParquetFileReader openFileReader(Path parquetFile, ParquetMetadata footer, FilterCompat.Filter recordFilter)
+            throws IOException {
+        // the configuration of the request is shared by the fragments read in parallel,
+        // so the reader of this file gets its own copy to carry its record filter
+        Configuration readerConfiguration = new Configuration(configuration);
+        // row groups are pruned with their statistics, dictionaries and bloom filters,
+        // and pages with the column indexes, unless disabled in the server configuration
+        for (String property : PRUNING_PROPERTIES) {
+            readerConfiguration.setBoolean(property, readerConfiguration.getBoolean(property, true));
+        }
+        // the reader takes the filter from the configuration when it is given a footer
+        if (recordFilter instanceof FilterCompat.FilterPredicateCompat) {
+            ParquetInputFormat.setFilterPredicate(readerConfiguration,
+                    ((FilterCompat.FilterPredicateCompat) recordFilter).getFilterPredicate());
+        } else {
+            readerConfiguration.unset(ParquetInputFormat.FILTER_PREDICATE);
         }
+        return new ParquetFileReader(readerConfiguration, parquetFile, footer);
     }
 
     /**
@@ -405,7 +636,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
      * @param originalSchema the original schema of the parquet file
      * @return a map of field names to types
      */
-    private Map<String, Type> getOriginalFieldsMap(MessageType originalSchema) {
+    protected Map<String, Type> getOriginalFieldsMap(MessageType originalSchema) {
         Map<String, Type> originalFields = new HashMap<>(originalSchema.getFieldCount() * 2);
 
         // We need to add the original name and lower cased name to
@@ -428,7 +659,7 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
      * @param originalFields a map of field names to types
      * @param originalSchema the original read schema
      */
-    private MessageType buildReadSchema(Map<String, Type> originalFields, MessageType originalSchema) {
+    protected MessageType buildReadSchema(Map<String, Type> originalFields, MessageType originalSchema) {
         List<Type> projectedFields = context.getTupleDescription().stream()
                 .filter(ColumnDescriptor::isProjected)
                 .map(c -> {
@@ -443,15 +674,53 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
         return new MessageType(originalSchema.getName(), projectedFields);
     }
 
-    private void createParquetWriter() throws IOException, InterruptedException {
+    private void createParquetWriter() throws IOException {
+        LOG.debug("{}-{}: Creating file {}", context.getTransactionId(),
+                context.getSegmentId(), file);
+        HdfsUtilities.validateFile(file, fs);
+
         configuration.setInt(PAGE_SIZE, pageSize);
         configuration.setInt(DICTIONARY_PAGE_SIZE, dictionarySize);
         configuration.setBoolean(ENABLE_DICTIONARY, enableDictionary);
         configuration.set(WRITER_VERSION, parquetVersion.toString());
         configuration.setLong(BLOCK_SIZE, rowGroupSize);
 
-        recordWriter = new ParquetOutputFormat<>(groupWriteSupport)
-                .getRecordWriter(configuration, file, codecName, ParquetFileWriter.Mode.CREATE);
+        @SuppressWarnings("unchecked")
+        WriteSupport<Object> writeSupport = (WriteSupport<Object>) createWriteSupport(writeSchema);
+        fileWriter = new RecordWriterBuilder(file, writeSupport)
+                .withConf(configuration)
+                .withWriteMode(ParquetFileWriter.Mode.CREATE)
+                .withCompressionCodec(codecName)
+                .withPageSize(pageSize)
+                .withDictionaryPageSize(dictionarySize)
+                .withDictionaryEncoding(enableDictionary)
+                .withWriterVersion(parquetVersion)
+                .withRowGroupSize(rowGroupSize)
+                .withValidation(ParquetOutputFormat.getValidation(configuration))
+                .build();
+        filesWritten++;
+        rowsInFile = 0;
+    }
+
+    /**
+     * Returns whether the current file reached the maximum size or number of
+     * rows, the size includes the data buffered for the current row group
+     */
+    private boolean isFileFull() {
+        return (maxFileRows > 0 && rowsInFile >= maxFileRows) ||
+                (maxFileSize > 0 && rowsInFile > 0 && fileWriter.getDataSize() >= maxFileSize);
+    }
+
+    /**
+     * Returns the name of the given part file, the first file keeps the name
+     * of a file written without MAX_FILE_SIZE and MAX_FILE_ROWS
+     *
+     * @param part the number of the part, starting at 0
+     * @return the name of the part file
+     */
+    private String getPartFileName(int part) {
+        String partPrefix = part == 0 ? filePrefix : filePrefix + "_" + part;
+        return partPrefix + codecName.getExtension() + ".parquet";
     }
 
     /**
@@ -705,4 +974,27 @@ public class ParquetFileAccessor extends BasePlugin implements Accessor {
             }
         }
     }
+
+    /**
+     * Builds a writer for the records of the given write support
+     */
+    private static class RecordWriterBuilder extends ParquetWriter.Builder<Object, RecordWriterBuilder> {
+
+        private final WriteSupport<Object> writeSupport;
+
+        RecordWriterBuilder(Path file, WriteSupport<Object> writeSupport) {
+            super(file);
+            this.writeSupport = writeSupport;
+        }
+
+        @Override
+        protected RecordWriterBuilder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<Object> getWriteSupport(Configuration conf) {
+            return writeSupport;
+        }
+    }
 }
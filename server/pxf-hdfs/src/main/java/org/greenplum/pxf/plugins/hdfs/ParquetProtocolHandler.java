@@ -0,0 +1,53 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.greenplum.pxf.api.model.ProtocolHandler;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of ProtocolHandler for Parquet profiles. Switches reads and
+ * writes to the vectorized Parquet accessor / resolver when requested by the
+ * user with the VECTORIZE option.
+ */
+public class ParquetProtocolHandler implements ProtocolHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParquetProtocolHandler.class);
+    private static final String PARQUET_VECTORIZED_ACCESSOR = ParquetVectorizedAccessor.class.getName();
+    private static final String PARQUET_VECTORIZED_RESOLVER = ParquetVectorizedResolver.class.getName();
+    static final String OPTION_VECTORIZE = "VECTORIZE";
+
+    @Override
+    public String getFragmenterClassName(RequestContext context) {
+        return context.getFragmenter(); // default to fragmenter defined by the profile
+    }
+
+    @Override
+    public String getAccessorClassName(RequestContext context) {
+        // default to accessor defined by the profile, switch to vectorized if requested by the user
+        String accessor = useVectorizedParquet(context) ? PARQUET_VECTORIZED_ACCESSOR : context.getAccessor();
+        LOG.debug("Determined to use {} accessor", accessor);
+        return accessor;
+    }
+
+    @Override
+    public String getResolverClassName(RequestContext context) {
+        // default to resolver defined by the profile, switch to vectorized if requested by the user
+        String resolver = useVectorizedParquet(context) ? PARQUET_VECTORIZED_RESOLVER : context.getResolver();
+        LOG.debug("Determined to use {} resolver", resolver);
+        return resolver;
+    }
+
+    /**
+     * Determines whether the user has requested to use the vectorized Parquet
+     * accessor / resolver. Vectorization applies to reads and writes.
+     *
+     * @param context request context
+     * @return true if vectorized Parquet accessor and resolver will need to be used
+     */
+    private boolean useVectorizedParquet(RequestContext context) {
+        return (context.getRequestType() == RequestContext.RequestType.READ_BRIDGE
+                || context.getRequestType() == RequestContext.RequestType.WRITE_BRIDGE)
+                && context.getOption(OPTION_VECTORIZE, false);
+    }
+}
@@ -24,10 +24,12 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.simple.SimpleGroupFactory;
 import org.apache.parquet.schema.*;
+import org.greenplum.pxf.api.EncodedTextField;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.EncodedText;
 import org.greenplum.pxf.api.model.BasePlugin;
 import org.greenplum.pxf.api.model.Resolver;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
@@ -207,6 +209,13 @@ public class ParquetResolver extends BasePlugin implements Resolver {
             field.val = null;
         } else {
             // repetitionCount can only be 1
+            EncodedText dictionaryValue = group instanceof ParquetGroup
+                    ? ((ParquetGroup) group).getDictionaryValue(columnIndex)
+                    : null;
+            if (dictionaryValue != null) {
+                // text value shared by the records with the same dictionary entry
+                return new EncodedTextField(converter.getDataType().getOID(), dictionaryValue);
+            }
             field.type = converter.getDataType().getOID();
             field.val = converter.read(group, columnIndex, 0);
         }
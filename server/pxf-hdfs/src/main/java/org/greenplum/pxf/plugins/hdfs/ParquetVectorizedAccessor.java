@@ -0,0 +1,198 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReadStore;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.UnsupportedTypeException;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnBatch;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetConfig;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetRecordWriteSupport;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetRowGroupReader;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTypeConverterFactory;
+import org.greenplum.pxf.plugins.hdfs.utilities.DecimalOverflowOption;
+import org.greenplum.pxf.plugins.hdfs.utilities.DecimalUtilities;
+import org.greenplum.pxf.plugins.hdfs.utilities.HdfsUtilities;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.DEFAULT_USE_LOCAL_PXF_TIMEZONE_READ;
+import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.PXF_PARQUET_WRITE_DECIMAL_OVERFLOW_PROPERTY_NAME;
+import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.USE_LOCAL_PXF_TIMEZONE_READ_NAME;
+
+/**
+ * Parquet file accessor that reads batches of rows in columnar form.
+ * Unit of operation is a {@link ParquetColumnBatch}: column chunks of the
+ * projected columns are decoded into primitive column vectors without
+ * assembling a record per row. Only flat schemas of primitive columns are
+ * supported, LIST columns need to be read with {@link ParquetFileAccessor}.
+ * When sampling the data for ANALYZE, only a sample of the row groups of the
+ * split is read.
+ * When writing, unit of operation is a batch of records resolved by
+ * {@link ParquetVectorizedResolver}, the values of the records are converted
+ * and passed to the column writers of the file without building a
+ * {@link org.apache.parquet.example.data.Group} per record.
+ */
+public class ParquetVectorizedAccessor extends ParquetFileAccessor {
+
+    private ParquetRowGroupReader rowGroupReader;
+    private MessageType readSchema;
+    private List<ColumnDescriptor> readColumns;
+    private ColumnReader[] columnReaders;
+    private GroupConverter rootConverter;
+    private String createdBy;
+    private ParquetColumnBatch batch;
+    private long rowsRemainingInRowGroup;
+    private int batchIndex;
+    private long totalRowsRead;
+    private long totalReadTimeInNanos;
+
+    /**
+     * Opens the resource for read.
+     *
+     * @throws IOException if opening the resource failed
+     */
+    @Override
+    public boolean openForRead() throws IOException {
+        Path file = new Path(context.getDataSource());
+        FileSplit fileSplit = HdfsUtilities.parseFileSplit(context.getDataSource(), context.getFragmentMetadata());
+
+        // Read the footer of the parquet file with the row groups of the split
+        ParquetMetadata footer = getFooter(file, fileSplit);
+        MessageType originalSchema = footer.getFileMetaData().getSchema();
+        // Get a map of the column name to Types for the given schema
+        Map<String, Type> originalFieldsMap = getOriginalFieldsMap(originalSchema);
+        // Get the read schema with column projection
+        readSchema = buildReadSchema(originalFieldsMap, originalSchema);
+        validateReadSchema(readSchema);
+        // Get the record filter in case of predicate push-down, it will be
+        // used to skip row groups and pages that do not match the filter
+        FilterCompat.Filter recordFilter = getRecordFilter(context.getFilterString(), originalFieldsMap);
+
+        final long then = System.nanoTime();
+        rowGroupReader = openRowGroupReader(file, footer, recordFilter, readSchema);
+        totalReadTimeInNanos += System.nanoTime() - then;
+
+        createdBy = footer.getFileMetaData().getCreatedBy();
+        rootConverter = new GroupRecordConverter(readSchema).getRootConverter();
+        readColumns = readSchema.getColumns();
+        columnReaders = new ColumnReader[readColumns.size()];
+        batch = new ParquetColumnBatch(readSchema, ParquetColumnBatch.DEFAULT_SIZE);
+        rowsRemainingInRowGroup = 0;
+
+        context.setMetadata(readSchema);
+        return true;
+    }
+
+    /**
+     * Reads the next batch for the current fragment. A batch never spans
+     * more than one row group.
+     *
+     * @return the next batch in OneRow format, the key is the batch number, and data is the batch
+     * @throws IOException when reading of the next batch fails
+     */
+    @Override
+    public OneRow readNextObject() throws IOException {
+        final long then = System.nanoTime();
+        try {
+            while (rowsRemainingInRowGroup == 0) {
+                PageReadStore rowGroup = rowGroupReader.readNextRowGroup();
+                if (rowGroup == null) {
+                    return null; // all row groups are exhausted
+                }
+                rowsRemainingInRowGroup = rowGroup.getRowCount();
+                ColumnReadStore columnReadStore = new ColumnReadStoreImpl(rowGroup, rootConverter, readSchema, createdBy);
+                for (int i = 0; i < columnReaders.length; i++) {
+                    columnReaders[i] = columnReadStore.getColumnReader(readColumns.get(i));
+                }
+            }
+
+            int rowsRead = batch.read(columnReaders, rowsRemainingInRowGroup);
+            rowsRemainingInRowGroup -= rowsRead;
+            totalRowsRead += rowsRead;
+            return new OneRow(new LongWritable(batchIndex++), batch);
+        } finally {
+            totalReadTimeInNanos += System.nanoTime() - then;
+        }
+    }
+
+    /**
+     * Closes the resource for read.
+     *
+     * @throws IOException if closing the resource failed
+     */
+    @Override
+    public void closeForRead() throws IOException {
+        logReadStats(totalRowsRead, totalReadTimeInNanos);
+        if (rowGroupReader != null) {
+            rowGroupReader.close();
+        }
+    }
+
+    /**
+     * Writes the records of a batch.
+     *
+     * @param onerow the batch of records to be written
+     * @return true if the write succeeded
+     * @throws IOException writing to the resource failed
+     */
+    @Override
+    public boolean writeNextObject(OneRow onerow) throws IOException {
+        @SuppressWarnings("unchecked")
+        List<List<OneField>> records = (List<List<OneField>>) onerow.getData();
+        for (List<OneField> record : records) {
+            writeRecord(record);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the write support that converts the fields of the records
+     * while it writes them, the same way {@link ParquetResolver} does.
+     *
+     * @param schema the schema of the file
+     * @return the write support for the file
+     */
+    @Override
+    protected WriteSupport<?> createWriteSupport(MessageType schema) {
+        DecimalOverflowOption decimalOverflowOption = DecimalOverflowOption.valueOf(configuration.get(PXF_PARQUET_WRITE_DECIMAL_OVERFLOW_PROPERTY_NAME, DecimalOverflowOption.ROUND.name()).toUpperCase());
+        ParquetConfig parquetConfig = ParquetConfig.builder()
+                .useLocalPxfTimezoneWrite(context.getOption(USE_LOCAL_PXF_TIMEZONE_WRITE_NAME, DEFAULT_USE_LOCAL_PXF_TIMEZONE_WRITE))
+                .useLocalPxfTimezoneRead(context.getOption(USE_LOCAL_PXF_TIMEZONE_READ_NAME, DEFAULT_USE_LOCAL_PXF_TIMEZONE_READ))
+                .decimalUtilities(new DecimalUtilities(decimalOverflowOption, true))
+                .build();
+        return new ParquetRecordWriteSupport(schema, context.getTupleDescription(), new ParquetTypeConverterFactory(parquetConfig));
+    }
+
+    /**
+     * Makes sure that every column in the read schema is a non-repeated
+     * primitive, which is the only kind of column that can be decoded into a
+     * column vector.
+     *
+     * @param schema the read schema
+     */
+    private void validateReadSchema(MessageType schema) {
+        for (Type type : schema.getFields()) {
+            if (!type.isPrimitive() || type.isRepetition(Type.Repetition.REPEATED)) {
+                throw new UnsupportedTypeException(String.format(
+                        "Column %s of type %s is not supported for vectorized Parquet reads, set VECTORIZE=false to read it",
+                        type.getName(), type));
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.parquet.schema.MessageType;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
+import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.ReadVectorizedResolver;
+import org.greenplum.pxf.api.model.Resolver;
+import org.greenplum.pxf.api.model.WriteVectorizedResolver;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnBatch;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetConfig;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTypeConverterFactory;
+import org.greenplum.pxf.plugins.hdfs.parquet.converters.ParquetTypeConverter;
+import org.greenplum.pxf.plugins.hdfs.utilities.DecimalOverflowOption;
+import org.greenplum.pxf.plugins.hdfs.utilities.DecimalUtilities;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.greenplum.pxf.plugins.hdfs.ParquetFileAccessor.DEFAULT_USE_LOCAL_PXF_TIMEZONE_WRITE;
+import static org.greenplum.pxf.plugins.hdfs.ParquetFileAccessor.USE_LOCAL_PXF_TIMEZONE_WRITE_NAME;
+import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.DEFAULT_USE_LOCAL_PXF_TIMEZONE_READ;
+import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.PXF_PARQUET_WRITE_DECIMAL_OVERFLOW_PROPERTY_NAME;
+import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.USE_LOCAL_PXF_TIMEZONE_READ_NAME;
+
+/**
+ * Resolves a {@link ParquetColumnBatch} produced by
+ * {@link ParquetVectorizedAccessor} into lists of OneFields. Values are
+ * converted column by column with the same {@link ParquetTypeConverter}s
+ * that {@link ParquetResolver} uses, so the Greenplum representation of every
+ * type is identical for both read paths.
+ * When writing, batches of records are passed to
+ * {@link ParquetVectorizedAccessor} as they are, the accessor converts the
+ * values while it writes them to the column writers of the file.
+ */
+public class ParquetVectorizedResolver extends BasePlugin implements ReadVectorizedResolver, WriteVectorizedResolver, Resolver {
+
+    private static final String UNSUPPORTED_ERR_MESSAGE = "Current operation is not supported";
+
+    private List<ColumnDescriptor> columnDescriptors;
+    private ParquetTypeConverterFactory parquetTypeConverterFactory;
+    private ParquetTypeConverter[] converters;
+    private int[] typeOids;
+    private List<List<OneField>> cachedBatch;
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        columnDescriptors = context.getTupleDescription();
+        DecimalOverflowOption decimalOverflowOption = DecimalOverflowOption.valueOf(configuration.get(PXF_PARQUET_WRITE_DECIMAL_OVERFLOW_PROPERTY_NAME, DecimalOverflowOption.ROUND.name()).toUpperCase());
+        ParquetConfig parquetConfig = ParquetConfig.builder()
+                .useLocalPxfTimezoneWrite(context.getOption(USE_LOCAL_PXF_TIMEZONE_WRITE_NAME, DEFAULT_USE_LOCAL_PXF_TIMEZONE_WRITE))
+                .useLocalPxfTimezoneRead(context.getOption(USE_LOCAL_PXF_TIMEZONE_READ_NAME, DEFAULT_USE_LOCAL_PXF_TIMEZONE_READ))
+                .decimalUtilities(new DecimalUtilities(decimalOverflowOption, true))
+                .build();
+        parquetTypeConverterFactory = new ParquetTypeConverterFactory(parquetConfig);
+    }
+
+    /**
+     * Returns the resolved list of lists of OneFields given a
+     * ParquetColumnBatch
+     *
+     * @param batch unresolved batch
+     * @return the resolved batch mapped to the Greenplum type
+     */
+    @Override
+    public List<List<OneField>> getFieldsForBatch(OneRow batch) {
+        ensureConvertersAreInitialized();
+        ParquetColumnBatch columnBatch = (ParquetColumnBatch) batch.getData();
+        int batchSize = columnBatch.size;
+        List<List<OneField>> resolvedBatch = prepareResolvedBatch(batchSize);
+
+        // index to the projected columns
+        int columnIndex = 0;
+        for (ColumnDescriptor columnDescriptor : columnDescriptors) {
+            if (!columnDescriptor.isProjected()) {
+                for (int row = 0; row < batchSize; row++) {
+                    resolvedBatch.get(row).add(new OneField(columnDescriptor.columnTypeCode(), null));
+                }
+                continue;
+            }
+
+            ParquetColumnVector vector = columnBatch.cols[columnIndex];
+            ParquetTypeConverter converter = converters[columnIndex];
+            int typeOid = typeOids[columnIndex];
+            if (vector.noNulls) {
+                for (int row = 0; row < batchSize; row++) {
+                    resolvedBatch.get(row).add(new OneField(typeOid, converter.read(vector, row)));
+                }
+            } else {
+                for (int row = 0; row < batchSize; row++) {
+                    Object value = vector.isNull[row] ? null : converter.read(vector, row);
+                    resolvedBatch.get(row).add(new OneField(typeOid, value));
+                }
+            }
+            columnIndex++;
+        }
+        return resolvedBatch;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return ParquetColumnBatch.DEFAULT_SIZE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OneRow setFieldsForBatch(List<List<OneField>> records) {
+        if (CollectionUtils.isEmpty(records)) {
+            return null; // this will end bridge iterations
+        }
+        // make sure provided record set can fit into a single batch, we do not want to produce multiple batches here
+        if (records.size() > getBatchSize()) {
+            throw new PxfRuntimeException(String.format("Provided set of %d records is greater than the batch size of %d",
+                    records.size(), getBatchSize()));
+        }
+        return new OneRow(null, records);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<OneField> getFields(OneRow row) {
+        throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OneRow setFields(List<OneField> record) {
+        throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+    }
+
+    /**
+     * Builds the converters for the projected columns from the read schema
+     * that the accessor stored in the request context.
+     */
+    private void ensureConvertersAreInitialized() {
+        if (converters != null) return;
+        if (!(context.getMetadata() instanceof MessageType))
+            throw new PxfRuntimeException("No Parquet schema detected in request context");
+
+        MessageType readSchema = (MessageType) context.getMetadata();
+        converters = new ParquetTypeConverter[readSchema.getFieldCount()];
+        typeOids = new int[converters.length];
+        int i = 0;
+        for (ColumnDescriptor columnDescriptor : columnDescriptors) {
+            if (columnDescriptor.isProjected()) {
+                converters[i] = parquetTypeConverterFactory.create(readSchema.getType(i), columnDescriptor.getDataType());
+                typeOids[i] = converters[i].getDataType().getOID();
+                i++;
+            }
+        }
+    }
+
+    private List<List<OneField>> prepareResolvedBatch(int batchSize) {
+        if (cachedBatch == null || cachedBatch.size() != batchSize) {
+            cachedBatch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                cachedBatch.add(new ArrayList<>(columnDescriptors.size()));
+            }
+        } else {
+            // clear does not reclaim back the internal arrays of the arraylists
+            cachedBatch.forEach(List::clear);
+        }
+        return cachedBatch;
+    }
+}
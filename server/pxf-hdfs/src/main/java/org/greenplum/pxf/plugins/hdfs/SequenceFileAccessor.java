@@ -38,6 +38,7 @@ import org.apache.hadoop.mapred.SequenceFileInputFormat;
 import org.apache.hadoop.mapred.SequenceFileRecordReader;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.SamplingAccessor;
 
 import java.io.IOException;
 import java.util.EnumSet;
@@ -45,7 +46,7 @@ import java.util.EnumSet;
 /**
  * A PXF Accessor for reading and writing Sequence File records
  */
-public class SequenceFileAccessor extends HdfsSplittableDataAccessor {
+public class SequenceFileAccessor extends HdfsSplittableDataAccessor implements SamplingAccessor {
 
     private FileContext fc;
     private Path file;
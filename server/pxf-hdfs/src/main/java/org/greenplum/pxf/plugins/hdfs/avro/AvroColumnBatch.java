@@ -0,0 +1,264 @@
+package org.greenplum.pxf.plugins.hdfs.avro;
+
+import org.apache.avro.JsonProperties;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
+import org.greenplum.pxf.api.error.UnsupportedTypeException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A batch of records decoded from the blocks of an Avro file in columnar
+ * form. The batch holds one {@link AvroColumnVector} per projected field, and
+ * it is re-used between reads, so consumers must finish processing a batch
+ * before the next one is read.
+ * <p>
+ * The decoding of a record is planned once for the schema of the file: every
+ * field of the file schema gets a decoder that either reads the value into
+ * the vector of a projected field, or skips the value without materializing
+ * it. Records are decoded straight from the binary encoding, no
+ * {@link org.apache.avro.generic.GenericRecord} is created.
+ */
+public class AvroColumnBatch {
+
+    public static final int DEFAULT_SIZE = 1024;
+
+    public final AvroColumnVector[] cols;
+
+    /**
+     * The number of rows in the current batch
+     */
+    public int size;
+
+    private final int capacity;
+    private final FieldDecoder[] fieldDecoders;
+    private final AvroColumnVector[] missingCols;
+
+    /**
+     * Creates a batch for the given projected fields of the table schema
+     *
+     * @param fileSchema      the schema the records of the file were written with
+     * @param projectedFields the projected fields of the table schema, in the order of the columns
+     * @param capacity        the maximum number of records in a batch
+     * @throws UnsupportedTypeException if a projected field is not of a primitive type
+     */
+    public AvroColumnBatch(Schema fileSchema, List<Schema.Field> projectedFields, int capacity) {
+        this.capacity = capacity;
+        this.cols = new AvroColumnVector[projectedFields.size()];
+
+        Map<String, AvroColumnVector> vectorsByFileField = new HashMap<>();
+        List<AvroColumnVector> missing = new ArrayList<>();
+        for (int i = 0; i < cols.length; i++) {
+            Schema.Field field = projectedFields.get(i);
+            Schema.Field fileField = getFileField(fileSchema, field);
+            if (fileField == null) {
+                // Avro fills the field with its default value, only null defaults are supported
+                if (field.defaultVal() != JsonProperties.NULL_VALUE) {
+                    throw new PxfRuntimeException(String.format(
+                            "Field %s does not exist in the file schema and its default value is not null, set VECTORIZE=false to read it",
+                            field.name()));
+                }
+                cols[i] = new AvroColumnVector(field.name(), field.schema(), capacity);
+                missing.add(cols[i]);
+                continue;
+            }
+            cols[i] = new AvroColumnVector(fileField.name(), fileField.schema(), capacity);
+            validateFieldType(field, cols[i]);
+            vectorsByFileField.put(fileField.name(), cols[i]);
+        }
+        this.missingCols = missing.toArray(new AvroColumnVector[0]);
+
+        List<Schema.Field> fileFields = fileSchema.getFields();
+        Map<Schema, FieldDecoder> skippers = new IdentityHashMap<>();
+        this.fieldDecoders = new FieldDecoder[fileFields.size()];
+        for (int i = 0; i < fieldDecoders.length; i++) {
+            Schema.Field fileField = fileFields.get(i);
+            AvroColumnVector vector = vectorsByFileField.get(fileField.name());
+            fieldDecoders[i] = vector != null ? vector::read : createSkipper(fileField.schema(), skippers);
+        }
+    }
+
+    /**
+     * Decodes up to {@code capacity} records from the decoder into the
+     * column vectors of this batch.
+     *
+     * @param in               the decoder positioned at the next record of the current block
+     * @param recordsAvailable the number of records left in the current block
+     * @return the number of records read into the batch
+     * @throws IOException if the records can not be decoded
+     */
+    public int read(Decoder in, long recordsAvailable) throws IOException {
+        size = (int) Math.min(capacity, recordsAvailable);
+        for (AvroColumnVector col : cols) {
+            col.noNulls = true;
+        }
+        for (int row = 0; row < size; row++) {
+            for (FieldDecoder fieldDecoder : fieldDecoders) {
+                fieldDecoder.decode(in, row);
+            }
+        }
+        for (AvroColumnVector col : missingCols) {
+            for (int row = 0; row < size; row++) {
+                col.setNull(row);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the field of the file schema that the field of the table
+     * schema is read from, matching names and aliases the way Avro schema
+     * resolution does.
+     */
+    private Schema.Field getFileField(Schema fileSchema, Schema.Field field) {
+        Schema.Field fileField = fileSchema.getField(field.name());
+        if (fileField != null) {
+            return fileField;
+        }
+        for (String alias : field.aliases()) {
+            fileField = fileSchema.getField(alias);
+            if (fileField != null) {
+                return fileField;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes sure that the field is read with the same type from the file as
+     * the one of the table schema, type promotions are left to the row based
+     * read path.
+     */
+    private void validateFieldType(Schema.Field field, AvroColumnVector vector) {
+        Schema fieldSchema = AvroColumnVector.getValueSchema(field.schema());
+        if (fieldSchema == null || fieldSchema.getType() != vector.schema.getType()
+                || !Objects.equals(fieldSchema.getLogicalType(), vector.schema.getLogicalType())) {
+            throw new PxfRuntimeException(String.format(
+                    "Field %s of type %s is read from a file field of type %s, set VECTORIZE=false to read it",
+                    field.name(), fieldSchema, vector.schema));
+        }
+    }
+
+    /**
+     * Creates a decoder that skips the values of the given schema. Skippers
+     * of named schemas are shared, so that recursive records are supported.
+     *
+     * @param schema   the schema of the values to skip
+     * @param skippers the skippers created so far
+     * @return the skipper
+     */
+    private static FieldDecoder createSkipper(Schema schema, Map<Schema, FieldDecoder> skippers) {
+        FieldDecoder skipper = skippers.get(schema);
+        if (skipper != null) {
+            return skipper;
+        }
+        switch (schema.getType()) {
+            case NULL:
+                return (in, row) -> {
+                };
+            case BOOLEAN:
+                return (in, row) -> in.readBoolean();
+            case INT:
+                return (in, row) -> in.readInt();
+            case LONG:
+                return (in, row) -> in.readLong();
+            case FLOAT:
+                return (in, row) -> in.skipFixed(4);
+            case DOUBLE:
+                return (in, row) -> in.skipFixed(8);
+            case STRING:
+                return (in, row) -> in.skipString();
+            case BYTES:
+                return (in, row) -> in.skipBytes();
+            case FIXED:
+                int size = schema.getFixedSize();
+                return (in, row) -> in.skipFixed(size);
+            case ENUM:
+                return (in, row) -> in.readEnum();
+            case ARRAY:
+                ArraySkipper arraySkipper = new ArraySkipper();
+                skippers.put(schema, arraySkipper);
+                arraySkipper.elementSkipper = createSkipper(schema.getElementType(), skippers);
+                return arraySkipper;
+            case MAP:
+                MapSkipper mapSkipper = new MapSkipper();
+                skippers.put(schema, mapSkipper);
+                mapSkipper.valueSkipper = createSkipper(schema.getValueType(), skippers);
+                return mapSkipper;
+            case UNION:
+                List<Schema> types = schema.getTypes();
+                FieldDecoder[] branchSkippers = new FieldDecoder[types.size()];
+                for (int i = 0; i < branchSkippers.length; i++) {
+                    branchSkippers[i] = createSkipper(types.get(i), skippers);
+                }
+                return (in, row) -> branchSkippers[in.readIndex()].decode(in, row);
+            case RECORD:
+                RecordSkipper recordSkipper = new RecordSkipper();
+                // registered before the fields so that the record can refer to itself
+                skippers.put(schema, recordSkipper);
+                List<Schema.Field> fields = schema.getFields();
+                FieldDecoder[] fieldSkippers = new FieldDecoder[fields.size()];
+                for (int i = 0; i < fieldSkippers.length; i++) {
+                    fieldSkippers[i] = createSkipper(fields.get(i).schema(), skippers);
+                }
+                recordSkipper.fieldSkippers = fieldSkippers;
+                return recordSkipper;
+            default:
+                throw new UnsupportedTypeException("Unsupported Avro type " + schema.getType());
+        }
+    }
+
+    /**
+     * Decodes or skips the value of a field of a record
+     */
+    @FunctionalInterface
+    private interface FieldDecoder {
+        void decode(Decoder in, int row) throws IOException;
+    }
+
+    private static class ArraySkipper implements FieldDecoder {
+        private FieldDecoder elementSkipper;
+
+        @Override
+        public void decode(Decoder in, int row) throws IOException {
+            // blocks written with their size in bytes are skipped at once
+            for (long count = in.skipArray(); count != 0; count = in.skipArray()) {
+                for (long i = 0; i < count; i++) {
+                    elementSkipper.decode(in, row);
+                }
+            }
+        }
+    }
+
+    private static class MapSkipper implements FieldDecoder {
+        private FieldDecoder valueSkipper;
+
+        @Override
+        public void decode(Decoder in, int row) throws IOException {
+            for (long count = in.skipMap(); count != 0; count = in.skipMap()) {
+                for (long i = 0; i < count; i++) {
+                    in.skipString();
+                    valueSkipper.decode(in, row);
+                }
+            }
+        }
+    }
+
+    private static class RecordSkipper implements FieldDecoder {
+        private FieldDecoder[] fieldSkippers;
+
+        @Override
+        public void decode(Decoder in, int row) throws IOException {
+            for (FieldDecoder fieldSkipper : fieldSkippers) {
+                fieldSkipper.decode(in, row);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.greenplum.pxf.plugins.hdfs.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+import org.greenplum.pxf.api.error.UnsupportedTypeException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A vector of values for a single primitive Avro field, decoded for a batch
+ * of records. Values are stored in an array that depends on the type of the
+ * field:
+ * <ul>
+ *     <li>BOOLEAN, INT and LONG values are stored in {@link #longVector}</li>
+ *     <li>FLOAT and DOUBLE values are stored in {@link #doubleVector}</li>
+ *     <li>STRING and ENUM values are stored as Strings in {@link #objectVector}</li>
+ *     <li>BYTES and FIXED values are stored as byte arrays in {@link #objectVector}</li>
+ * </ul>
+ * Only the vector that matches the type is allocated. A field can also be a
+ * union of the null type and one of the types above.
+ */
+public class AvroColumnVector {
+
+    /**
+     * The schema of the non-null values of the field
+     */
+    public final Schema schema;
+    public final long[] longVector;
+    public final double[] doubleVector;
+    public final Object[] objectVector;
+    public final boolean[] isNull;
+
+    /**
+     * True if none of the values in the current batch are null
+     */
+    public boolean noNulls;
+
+    private final boolean union;
+    private final int nullIndex;
+    private final ValueReader valueReader;
+
+    /**
+     * Creates a vector for the values of a field with the given schema
+     *
+     * @param fieldName   the name of the field
+     * @param fieldSchema the schema of the field in the file
+     * @param capacity    the maximum number of values in a batch
+     * @throws UnsupportedTypeException if the field is not of a primitive type
+     */
+    public AvroColumnVector(String fieldName, Schema fieldSchema, int capacity) {
+        this.isNull = new boolean[capacity];
+        this.noNulls = true;
+
+        Schema valueSchema = getValueSchema(fieldSchema);
+        if (valueSchema == null) {
+            throw unsupported(fieldName, fieldSchema);
+        }
+        this.union = fieldSchema.getType() == Schema.Type.UNION;
+        Integer nullIndex = union ? fieldSchema.getIndexNamed(Schema.Type.NULL.getName()) : null;
+        this.nullIndex = nullIndex != null ? nullIndex : -1;
+        this.schema = valueSchema;
+
+        switch (valueSchema.getType()) {
+            case BOOLEAN:
+            case INT:
+            case LONG:
+                longVector = new long[capacity];
+                doubleVector = null;
+                objectVector = null;
+                break;
+            case FLOAT:
+            case DOUBLE:
+                longVector = null;
+                doubleVector = new double[capacity];
+                objectVector = null;
+                break;
+            case STRING:
+            case ENUM:
+            case BYTES:
+            case FIXED:
+                longVector = null;
+                doubleVector = null;
+                objectVector = new Object[capacity];
+                break;
+            default:
+                throw unsupported(fieldName, fieldSchema);
+        }
+        this.valueReader = createValueReader();
+    }
+
+    /**
+     * Decodes the value of the field for the given row
+     *
+     * @param in  the decoder positioned at the value of the field
+     * @param row the index of the row in the batch
+     * @throws IOException if the value can not be decoded
+     */
+    void read(Decoder in, int row) throws IOException {
+        if (union && in.readIndex() == nullIndex) {
+            setNull(row);
+            return;
+        }
+        isNull[row] = false;
+        valueReader.read(in, row);
+    }
+
+    /**
+     * Sets the value of the field for the given row to null
+     *
+     * @param row the index of the row in the batch
+     */
+    void setNull(int row) {
+        isNull[row] = true;
+        noNulls = false;
+        if (objectVector != null) {
+            objectVector[row] = null;
+        }
+    }
+
+    /**
+     * Returns the schema of the non-null values of a field, that is the
+     * schema of the field itself, or its only non-null type if the field is a
+     * union.
+     *
+     * @param fieldSchema the schema of the field
+     * @return the schema of the non-null values, or null for unions of several non-null types
+     */
+    static Schema getValueSchema(Schema fieldSchema) {
+        if (fieldSchema.getType() != Schema.Type.UNION) {
+            return fieldSchema;
+        }
+        Schema valueSchema = null;
+        for (Schema type : fieldSchema.getTypes()) {
+            if (type.getType() == Schema.Type.NULL) {
+                continue;
+            }
+            if (valueSchema != null) {
+                return null;
+            }
+            valueSchema = type;
+        }
+        return valueSchema;
+    }
+
+    /**
+     * Picks the decoding of the values once for the type of the field, so
+     * that there is no type dispatch per value.
+     */
+    private ValueReader createValueReader() {
+        switch (schema.getType()) {
+            case BOOLEAN:
+                return (in, row) -> longVector[row] = in.readBoolean() ? 1 : 0;
+            case INT:
+                return (in, row) -> longVector[row] = in.readInt();
+            case LONG:
+                return (in, row) -> longVector[row] = in.readLong();
+            case FLOAT:
+                return (in, row) -> doubleVector[row] = in.readFloat();
+            case DOUBLE:
+                return (in, row) -> doubleVector[row] = in.readDouble();
+            case STRING:
+                return (in, row) -> objectVector[row] = in.readString();
+            case ENUM:
+                // the symbols are shared by all the values of the field
+                List<String> symbols = schema.getEnumSymbols();
+                return (in, row) -> objectVector[row] = symbols.get(in.readEnum());
+            case BYTES:
+                // a new buffer of the exact length is allocated for each value
+                return (in, row) -> objectVector[row] = in.readBytes(null).array();
+            default:
+                int size = schema.getFixedSize();
+                return (in, row) -> {
+                    byte[] bytes = new byte[size];
+                    in.readFixed(bytes);
+                    objectVector[row] = bytes;
+                };
+        }
+    }
+
+    private static UnsupportedTypeException unsupported(String fieldName, Schema fieldSchema) {
+        return new UnsupportedTypeException(String.format(
+                "Field %s of type %s is not supported for vectorized Avro reads, set VECTORIZE=false to read it",
+                fieldName, fieldSchema));
+    }
+
+    @FunctionalInterface
+    private interface ValueReader {
+        void read(Decoder in, int row) throws IOException;
+    }
+}
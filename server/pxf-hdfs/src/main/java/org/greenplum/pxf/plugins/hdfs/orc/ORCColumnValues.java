@@ -0,0 +1,135 @@
+package org.greenplum.pxf.plugins.hdfs.orc;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ListColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.orc.TypeDescription;
+import org.greenplum.pxf.api.GreenplumDateTime;
+import org.greenplum.pxf.api.error.UnsupportedTypeException;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.ColumnValues;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Exposes a column vector of an ORC VectorizedRowBatch as
+ * {@link ColumnValues}. The values are the same as the ones the readers of
+ * {@link ORCVectorizedMappingFunctions} produce for the column, the
+ * primitive values are read straight from the vector. The vector is set for
+ * every batch, a null vector has only null values.
+ */
+class ORCColumnValues implements ColumnValues {
+
+    private final TypeDescription.Category category;
+    private final DataType dataType;
+    private ColumnVector vector;
+
+    ORCColumnValues(TypeDescription.Category category, DataType dataType) {
+        this.category = category;
+        this.dataType = dataType;
+    }
+
+    void setVector(ColumnVector vector) {
+        this.vector = vector;
+    }
+
+    @Override
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    @Override
+    public boolean isRepeating() {
+        return vector == null || vector.isRepeating;
+    }
+
+    @Override
+    public boolean noNulls() {
+        // the nulls of lists are always checked, as ORCVectorizedMappingFunctions#serializeListRow does
+        return vector != null && vector.noNulls && category != TypeDescription.Category.LIST;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return vector == null || ((!vector.noNulls || category == TypeDescription.Category.LIST) && vector.isNull[row]);
+    }
+
+    @Override
+    public long getLong(int row) {
+        return ((LongColumnVector) vector).vector[row];
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return ((DoubleColumnVector) vector).vector[row];
+    }
+
+    @Override
+    public boolean hasUtf8Bytes() {
+        return category == TypeDescription.Category.STRING
+                || category == TypeDescription.Category.VARCHAR
+                || category == TypeDescription.Category.CHAR;
+    }
+
+    @Override
+    public byte[] getBytes(int row) {
+        return ((BytesColumnVector) vector).vector[row];
+    }
+
+    @Override
+    public int getStart(int row) {
+        return ((BytesColumnVector) vector).start[row];
+    }
+
+    @Override
+    public int getLength(int row) {
+        return ((BytesColumnVector) vector).length[row];
+    }
+
+    @Override
+    public Object getObject(int row) {
+        switch (category) {
+            case BOOLEAN:
+                return getLong(row) == 1;
+            case BYTE:
+            case SHORT:
+                return (short) getLong(row);
+            case INT:
+                return (int) getLong(row);
+            case LONG:
+                return getLong(row);
+            case FLOAT:
+                return (float) getDouble(row);
+            case DOUBLE:
+                return getDouble(row);
+            case STRING:
+            case VARCHAR:
+            case CHAR:
+                return new String(getBytes(row), getStart(row), getLength(row), StandardCharsets.UTF_8);
+            case BINARY:
+                return Arrays.copyOfRange(getBytes(row), getStart(row), getStart(row) + getLength(row));
+            case DATE:
+                return Date.valueOf(LocalDate.ofEpochDay(getLong(row)));
+            case TIMESTAMP:
+                return ORCVectorizedMappingFunctions.timestampToString(((TimestampColumnVector) vector).asScratchTimestamp(row),
+                        GreenplumDateTime.DATETIME_FORMATTER);
+            case TIMESTAMP_INSTANT:
+                return ORCVectorizedMappingFunctions.timestampToString(((TimestampColumnVector) vector).asScratchTimestamp(row),
+                        GreenplumDateTime.DATETIME_WITH_TIMEZONE_FORMATTER);
+            case DECIMAL:
+                return ((DecimalColumnVector) vector).vector[row];
+            case LIST:
+                return ORCVectorizedMappingFunctions.serializeListRow((ListColumnVector) vector, row, dataType.getOID());
+            default:
+                throw new UnsupportedTypeException(
+                        String.format("ORC type '%s' is not supported for reading.", category.getName()));
+        }
+    }
+}
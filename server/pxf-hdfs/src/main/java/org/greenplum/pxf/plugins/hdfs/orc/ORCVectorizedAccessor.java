@@ -13,6 +13,7 @@ import org.apache.orc.OrcConf;
 import org.apache.orc.OrcFile;
 import org.apache.orc.Reader;
 import org.apache.orc.RecordReader;
+import org.apache.orc.StripeInformation;
 import org.apache.orc.TypeDescription;
 import org.apache.orc.Writer;
 import org.greenplum.pxf.api.OneRow;
@@ -20,6 +21,7 @@ import org.greenplum.pxf.api.filter.*;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.SamplingAccessor;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.greenplum.pxf.api.utilities.Utilities;
 import org.greenplum.pxf.plugins.hdfs.HcfsType;
@@ -31,13 +33,18 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
-public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
+/**
+ * ORC file accessor that reads batches of rows. When sampling the data for
+ * ANALYZE, only a sample of the stripes of the split is read.
+ */
+public class ORCVectorizedAccessor extends BasePlugin implements Accessor, SamplingAccessor {
 
     static final EnumSet<DataType> SUPPORTED_DATATYPES =
             EnumSet.of(
@@ -95,6 +102,14 @@ public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
     private RecordReader recordReader;
     private VectorizedRowBatch batch;
     private List<ColumnDescriptor> columnDescriptors;
+    /**
+     * The first row and the end row (exclusive) of the sampled stripes, null
+     * when all the stripes of the split are read
+     */
+    private long[] sampledStripeStarts;
+    private long[] sampledStripeEnds;
+    private int sampledStripeIndex;
+    private float readRatio = 1.0f;
 
     /**
      * A POJO capturing the state and the context of ORC file writing operation.
@@ -130,12 +145,17 @@ public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
         // Get the record filter in case of predicate push-down
         SearchArgument searchArgument = getSearchArgument(context.getFilterString(), schema);
 
+        // Restrict the range to the sampled stripes when sampling for ANALYZE
+        long[] range = context.getStatsSampleRatio() > 0
+                ? sampleStripes(fileReader.getStripes(), fileSplit)
+                : new long[]{fileSplit.getStart(), fileSplit.getLength()};
+
         // Build the reader options
         Reader.Options options = fileReader
                 .options()
                 .schema(readSchema)
                 .positionalEvolutionLevel(0)
-                .range(fileSplit.getStart(), fileSplit.getLength())
+                .range(range[0], range[1])
                 .searchArgument(searchArgument, new String[]{});
 
         // Read the row data
@@ -157,13 +177,41 @@ public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
     @Override
     public OneRow readNextObject() throws IOException {
         final Instant start = Instant.now();
-        final boolean hasNextBatch = recordReader.nextBatch(batch);
-        totalReadTimeInNanos += Duration.between(start, Instant.now()).toNanos();
-        if (hasNextBatch) {
-            totalRowsRead += batch.size;
-            return new OneRow(new LongWritable(batchIndex++), batch);
+        try {
+            while (true) {
+                if (sampledStripeStarts != null) {
+                    // skip the stripes that are not part of the sample
+                    long row = recordReader.getRowNumber();
+                    long sampledRow = getNextSampledRow(row);
+                    if (sampledRow < 0) {
+                        return null; // all sampled stripes are exhausted
+                    }
+                    if (sampledRow != row) {
+                        recordReader.seekToRow(sampledRow);
+                    }
+                }
+                if (!recordReader.nextBatch(batch)) {
+                    return null; // all batches are exhausted
+                }
+                // a batch never spans more than one stripe, but the search
+                // argument can make the reader move on to the next stripe
+                long firstRow = recordReader.getRowNumber() - batch.size;
+                if (sampledStripeStarts == null || getNextSampledRow(firstRow) == firstRow) {
+                    totalRowsRead += batch.size;
+                    return new OneRow(new LongWritable(batchIndex++), batch);
+                }
+            }
+        } finally {
+            totalReadTimeInNanos += Duration.between(start, Instant.now()).toNanos();
         }
-        return null; // all batches are exhausted
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getReadRatio() {
+        return readRatio;
     }
 
     @Override
@@ -231,6 +279,71 @@ public class ORCVectorizedAccessor extends BasePlugin implements Accessor {
         }
     }
 
+    /**
+     * Selects the stripes of the split to read to sample the data for ANALYZE.
+     * The stripes of the split are the stripes that start within the range of
+     * the split.
+     *
+     * @param stripes   the stripes of the file
+     * @param fileSplit the split
+     * @return the start and the length of the range to read
+     */
+    private long[] sampleStripes(List<StripeInformation> stripes, FileSplit fileSplit) {
+        long splitEnd = fileSplit.getStart() + fileSplit.getLength();
+        List<StripeInformation> splitStripes = new ArrayList<>();
+        List<Long> splitStripeStarts = new ArrayList<>();
+        long row = 0;
+        for (StripeInformation stripe : stripes) {
+            if (stripe.getOffset() >= fileSplit.getStart() && stripe.getOffset() < splitEnd) {
+                splitStripes.add(stripe);
+                splitStripeStarts.add(row);
+            }
+            row += stripe.getNumberOfRows();
+        }
+
+        BitSet sampled = HdfsUtilities.getSampledBlocks(splitStripes.size(), context.getStatsSampleRatio());
+        if (sampled == null) {
+            return new long[]{fileSplit.getStart(), fileSplit.getLength()};
+        }
+
+        sampledStripeStarts = new long[sampled.cardinality()];
+        sampledStripeEnds = new long[sampledStripeStarts.length];
+        long totalRows = splitStripes.stream().mapToLong(StripeInformation::getNumberOfRows).sum();
+        long sampledRows = 0;
+        int i = 0;
+        for (int index = sampled.nextSetBit(0); index >= 0; index = sampled.nextSetBit(index + 1)) {
+            StripeInformation stripe = splitStripes.get(index);
+            sampledStripeStarts[i] = splitStripeStarts.get(index);
+            sampledStripeEnds[i++] = splitStripeStarts.get(index) + stripe.getNumberOfRows();
+            sampledRows += stripe.getNumberOfRows();
+        }
+        readRatio = totalRows == 0 ? 1.0f : (float) sampledRows / totalRows;
+        LOG.debug("Sampling {} out of {} stripes with {} out of {} rows",
+                sampledStripeStarts.length, splitStripes.size(), sampledRows, totalRows);
+
+        // only read the range between the first and the last sampled stripes
+        long firstOffset = splitStripes.get(sampled.nextSetBit(0)).getOffset();
+        long lastOffset = splitStripes.get(sampled.length() - 1).getOffset();
+        return new long[]{firstOffset, lastOffset - firstOffset + 1};
+    }
+
+    /**
+     * Returns the first row, starting at the given row, that belongs to a
+     * sampled stripe.
+     *
+     * @param row the row number in the file
+     * @return the row number, or -1 when there are no more sampled stripes
+     */
+    private long getNextSampledRow(long row) {
+        while (sampledStripeIndex < sampledStripeStarts.length && sampledStripeEnds[sampledStripeIndex] <= row) {
+            sampledStripeIndex++;
+        }
+        if (sampledStripeIndex == sampledStripeStarts.length) {
+            return -1;
+        }
+        return Math.max(row, sampledStripeStarts[sampledStripeIndex]);
+    }
+
     /**
      * Given a filter string, builds the SearchArgument object to perform
      * predicated pushdown for ORC
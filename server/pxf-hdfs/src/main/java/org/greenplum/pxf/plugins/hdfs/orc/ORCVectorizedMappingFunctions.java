@@ -589,7 +589,7 @@ class ORCVectorizedMappingFunctions {
      * @param formatter the formatter to use
      * @return the string representation of the timestamp
      */
-    private static String timestampToString(Timestamp timestamp, DateTimeFormatter formatter) {
+    static String timestampToString(Timestamp timestamp, DateTimeFormatter formatter) {
         Instant instant = timestamp.toInstant();
         String timestampString = instant
                 .atZone(ZoneId.systemDefault())
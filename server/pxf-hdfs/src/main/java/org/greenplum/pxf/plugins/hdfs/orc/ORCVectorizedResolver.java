@@ -1,20 +1,25 @@
 package org.greenplum.pxf.plugins.hdfs.orc;
 
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.orc.OrcFile;
 import org.apache.orc.TypeDescription;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.function.PentaConsumer;
-import org.greenplum.pxf.api.model.ReadVectorizedResolver;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.function.TriFunction;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.ColumnValues;
+import org.greenplum.pxf.api.model.ColumnarBatch;
+import org.greenplum.pxf.api.model.ReadColumnarResolver;
 import org.greenplum.pxf.api.model.Resolver;
-import org.greenplum.pxf.api.model.WriteVectorizedResolver;
+import org.greenplum.pxf.api.model.WriteColumnarResolver;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.greenplum.pxf.plugins.hdfs.utilities.DecimalOverflowOption;
 import org.greenplum.pxf.plugins.hdfs.utilities.DecimalUtilities;
@@ -58,7 +63,9 @@ import static org.greenplum.pxf.api.io.DataType.VARCHARARRAY;
 import static org.greenplum.pxf.plugins.hdfs.orc.ORCVectorizedAccessor.MAP_BY_POSITION_OPTION;
 
 /**
- * Resolves ORC VectorizedRowBatch into lists of List<OneField>. Currently,
+ * Resolves ORC VectorizedRowBatch into lists of List<OneField>, or into a
+ * {@link ColumnarBatch} that exposes the column vectors of the batch for
+ * their values to be serialized without a OneField per value. Currently,
  * Timestamp and Timestamp with TimeZone are not supported. The supported
  * scalar mapping is as follows:
  * <p>
@@ -100,7 +107,7 @@ import static org.greenplum.pxf.plugins.hdfs.orc.ORCVectorizedAccessor.MAP_BY_PO
  * | array<binary>     | BYTEA[]        | 1001          |
  * ------------------------------------------------------
  */
-public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedResolver, WriteVectorizedResolver, Resolver {
+public class ORCVectorizedResolver extends BasePlugin implements ReadColumnarResolver, WriteColumnarResolver, Resolver {
 
     private static final String UNSUPPORTED_ERR_MESSAGE = "Current operation is not supported";
     private static final String PXF_ORC_WRITE_DECIMAL_OVERFLOW_PROPERTY_NAME = "pxf.orc.write.decimal.overflow";
@@ -143,6 +150,13 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
     private List<ColumnDescriptor> columnDescriptors;
 
     private List<List<OneField>> cachedBatch;
+    private ColumnarBatch columnarBatch;
+
+    /**
+     * The columns of the columnar batch, indexed by the columns of the
+     * ORC schema, set for every batch.
+     */
+    private ORCColumnValues[] orcColumns;
     private VectorizedRowBatch vectorizedRowBatch;
     private DecimalUtilities decimalUtilities;
 
@@ -218,6 +232,31 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
         return resolvedBatch;
     }
 
+    /**
+     * Returns the columns of the given VectorizedRowBatch, mapped to the
+     * Greenplum columns the same way {@link #getFieldsForBatch(OneRow)} does.
+     * The columnar batch and its columns are created for the first batch
+     * and re-used for the next ones.
+     *
+     * @param batch unresolved batch
+     * @return the batch in columnar form
+     */
+    @Override
+    public ColumnarBatch getColumnsForBatch(OneRow batch) {
+        ensureReadFunctionsAreInitialized();
+        VectorizedRowBatch vectorizedBatch = (VectorizedRowBatch) batch.getData();
+        if (columnarBatch == null) {
+            columnarBatch = createColumnarBatch();
+        }
+        for (int i = 0; i < orcColumns.length; i++) {
+            if (orcColumns[i] != null) {
+                orcColumns[i].setVector(vectorizedBatch.cols[i]);
+            }
+        }
+        columnarBatch.setSize(vectorizedBatch.size);
+        return columnarBatch;
+    }
+
     @Override
     public int getBatchSize() {
         return VectorizedRowBatch.DEFAULT_SIZE;
@@ -236,13 +275,7 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
             throw new PxfRuntimeException(String.format("Provided set of %d records is greater than the batch size of %d",
                     records.size(), getBatchSize()));
         }
-        ensureWriteFunctionsAreInitialized();
-        // reuse the batch object between iterations, create a new the first time and reset on subsequent calls
-        if (vectorizedRowBatch == null) {
-            vectorizedRowBatch = orcSchema.createRowBatch(getBatchSize());
-        } else {
-            vectorizedRowBatch.reset();
-        }
+        prepareRowBatch();
 
         // iterate over incoming rows
         int rowIndex = 0;
@@ -267,6 +300,113 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
         return new OneRow(vectorizedRowBatch);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Primitive values are copied from the column buffers straight into the
+     * column vectors of the same kind, the other values go through the same
+     * write functions as in {@link #setFieldsForBatch(List)}.
+     */
+    @Override
+    public OneRow setColumnsForBatch(ColumnarBatch batch) {
+        int batchSize = batch.getSize();
+        if (batchSize == 0) {
+            return null; // this will end bridge iterations
+        }
+        // make sure provided record set can fit into a single batch, we do not want to produce multiple batches here
+        if (batchSize > getBatchSize()) {
+            throw new PxfRuntimeException(String.format("Provided set of %d records is greater than the batch size of %d",
+                    batchSize, getBatchSize()));
+        }
+        prepareRowBatch();
+
+        List<TypeDescription> columnTypeDescriptions = orcSchema.getChildren();
+        for (int columnIndex = 0; columnIndex < batch.getColumnCount(); columnIndex++) {
+            ColumnValues values = batch.getColumn(columnIndex);
+            ColumnVector columnVector = vectorizedRowBatch.cols[columnIndex];
+            TypeDescription.Category category = columnTypeDescriptions.get(columnIndex).getCategory();
+            DataType dataType = values.getDataType();
+            if (category == TypeDescription.Category.BOOLEAN ? dataType == BOOLEAN : isLongCategory(category) && isIntegralType(dataType)) {
+                long[] vector = ((LongColumnVector) columnVector).vector;
+                for (int row = 0; row < batchSize; row++) {
+                    if (values.isNull(row)) {
+                        setNull(columnVector, row);
+                    } else {
+                        vector[row] = values.getLong(row);
+                    }
+                }
+            } else if ((category == TypeDescription.Category.FLOAT || category == TypeDescription.Category.DOUBLE)
+                    && (dataType == REAL || dataType == FLOAT8)) {
+                double[] vector = ((DoubleColumnVector) columnVector).vector;
+                for (int row = 0; row < batchSize; row++) {
+                    if (values.isNull(row)) {
+                        setNull(columnVector, row);
+                    } else {
+                        vector[row] = values.getDouble(row);
+                    }
+                }
+            } else if ((category == TypeDescription.Category.BINARY && dataType == BYTEA)
+                    || (isStringCategory(category) && dataType == TEXT && values.hasUtf8Bytes())) {
+                // the buffers are re-used for the next batch, the bytes are copied into the vector
+                BytesColumnVector bytesColumnVector = (BytesColumnVector) columnVector;
+                bytesColumnVector.initBuffer();
+                for (int row = 0; row < batchSize; row++) {
+                    if (values.isNull(row)) {
+                        setNull(columnVector, row);
+                    } else {
+                        bytesColumnVector.setVal(row, values.getBytes(row), values.getStart(row), values.getLength(row));
+                    }
+                }
+            } else {
+                String columnName = orcSchema.getFieldNames().get(columnIndex);
+                for (int row = 0; row < batchSize; row++) {
+                    if (values.isNull(row)) {
+                        setNull(columnVector, row);
+                    } else {
+                        writeFunctions[columnIndex].accept(columnName, columnVector, row, values.getObject(row), decimalUtilities);
+                    }
+                }
+            }
+        }
+        vectorizedRowBatch.size = batchSize;
+        return new OneRow(vectorizedRowBatch);
+    }
+
+    private static void setNull(ColumnVector columnVector, int row) {
+        columnVector.noNulls = false;
+        columnVector.isNull[row] = true;
+    }
+
+    private static boolean isLongCategory(TypeDescription.Category category) {
+        return category == TypeDescription.Category.SHORT
+                || category == TypeDescription.Category.INT
+                || category == TypeDescription.Category.LONG;
+    }
+
+    private static boolean isIntegralType(DataType dataType) {
+        return dataType == SMALLINT || dataType == INTEGER || dataType == BIGINT;
+    }
+
+    private static boolean isStringCategory(TypeDescription.Category category) {
+        return category == TypeDescription.Category.STRING
+                || category == TypeDescription.Category.VARCHAR
+                || category == TypeDescription.Category.CHAR;
+    }
+
+    /**
+     * Makes the batch of the column vectors ready for writing, the batch is
+     * created the first time and reset for the next batches.
+     */
+    private void prepareRowBatch() {
+        ensureWriteFunctionsAreInitialized();
+        // reuse the batch object between iterations, create a new the first time and reset on subsequent calls
+        if (vectorizedRowBatch == null) {
+            vectorizedRowBatch = orcSchema.createRowBatch(getBatchSize());
+        } else {
+            vectorizedRowBatch.reset();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -408,6 +548,42 @@ public class ORCVectorizedResolver extends BasePlugin implements ReadVectorizedR
         }
     }
 
+    /**
+     * Creates the columns of the Greenplum table, the projected columns that
+     * exist in the ORC schema read the vectors of the batch, the other ones
+     * only have null values.
+     */
+    private ColumnarBatch createColumnarBatch() {
+        orcColumns = new ORCColumnValues[orcSchema.getChildren().size()];
+        ColumnValues[] columns = new ColumnValues[columnDescriptors.size()];
+        // index to the projected columns
+        int columnIndex = 0;
+        for (int i = 0; i < columns.length; i++) {
+            ColumnDescriptor columnDescriptor = columnDescriptors.get(i);
+            if (!columnDescriptor.isProjected()) {
+                columns[i] = ColumnValues.nullValues(DataType.get(columnDescriptor.columnTypeCode()));
+                continue;
+            }
+            TypeDescription orcColumn = positionalAccess
+                    ? columnIndex < orcSchema.getChildren().size() ? orcSchema.getChildren().get(columnIndex) : null
+                    : readFields.get(columnDescriptor.columnName());
+            if (orcColumn == null) {
+                // the column is missing in the underlying ORC file, see getFieldsForBatch
+                columns[i] = ColumnValues.nullValues(DataType.get(columnDescriptor.columnTypeCode()));
+            } else if (orcColumn.getCategory().isPrimitive() || orcColumn.getCategory() == TypeDescription.Category.LIST) {
+                orcColumns[columnIndex] = new ORCColumnValues(orcSchema.getChildren().get(columnIndex).getCategory(),
+                        DataType.get(typeOidMappings[columnIndex]));
+                columns[i] = orcColumns[columnIndex];
+                columnIndex++;
+            } else {
+                throw new UnsupportedTypeException(
+                        String.format("Unable to resolve column '%s' with category '%s'. Only primitive and lists of primitive types are supported.",
+                                orcSchema.getFieldNames().get(columnIndex), orcColumn.getCategory()));
+            }
+        }
+        return new ColumnarBatch(columns);
+    }
+
     private List<List<OneField>> prepareResolvedBatch(int batchSize) {
 
         if (cachedBatch == null) {
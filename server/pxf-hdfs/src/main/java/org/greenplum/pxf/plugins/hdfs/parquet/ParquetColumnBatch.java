@@ -0,0 +1,54 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.List;
+
+/**
+ * A batch of rows decoded from a Parquet row group in columnar form. The
+ * batch holds one {@link ParquetColumnVector} per column of the read schema,
+ * and it is re-used between reads, so consumers must finish processing a
+ * batch before the next one is read.
+ */
+public class ParquetColumnBatch {
+
+    public static final int DEFAULT_SIZE = 1024;
+
+    public final ParquetColumnVector[] cols;
+
+    /**
+     * The number of rows in the current batch
+     */
+    public int size;
+
+    private final int capacity;
+
+    public ParquetColumnBatch(MessageType readSchema, int capacity) {
+        List<ColumnDescriptor> columns = readSchema.getColumns();
+        this.capacity = capacity;
+        this.cols = new ParquetColumnVector[columns.size()];
+        for (int i = 0; i < cols.length; i++) {
+            ColumnDescriptor column = columns.get(i);
+            cols[i] = new ParquetColumnVector(column.getPrimitiveType().getPrimitiveTypeName(),
+                    column.getMaxDefinitionLevel(), capacity);
+        }
+    }
+
+    /**
+     * Decodes up to {@code capacity} rows from the column readers into the
+     * column vectors of this batch.
+     *
+     * @param columnReaders the readers for the columns of the current row group
+     * @param rowsAvailable the number of rows left in the current row group
+     * @return the number of rows read into the batch
+     */
+    public int read(ColumnReader[] columnReaders, long rowsAvailable) {
+        size = (int) Math.min(capacity, rowsAvailable);
+        for (int i = 0; i < cols.length; i++) {
+            cols[i].read(columnReaders[i], size);
+        }
+        return size;
+    }
+}
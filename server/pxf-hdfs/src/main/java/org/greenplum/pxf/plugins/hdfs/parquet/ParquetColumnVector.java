@@ -0,0 +1,116 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * A vector of values for a single primitive Parquet column, decoded for a
+ * batch of rows. Values are stored in a primitive array that depends on the
+ * physical type of the column:
+ * <ul>
+ *     <li>BOOLEAN, INT32 and INT64 values are stored in {@link #longVector}</li>
+ *     <li>FLOAT and DOUBLE values are stored in {@link #doubleVector}</li>
+ *     <li>BINARY, FIXED_LEN_BYTE_ARRAY and INT96 values are stored in {@link #binaryVector}</li>
+ * </ul>
+ * Only the vector that matches the physical type is allocated.
+ */
+public class ParquetColumnVector {
+
+    public final PrimitiveTypeName primitiveTypeName;
+    public final long[] longVector;
+    public final double[] doubleVector;
+    public final Binary[] binaryVector;
+    public final boolean[] isNull;
+
+    /**
+     * True if none of the values in the current batch are null
+     */
+    public boolean noNulls;
+
+    private final int maxDefinitionLevel;
+
+    public ParquetColumnVector(PrimitiveTypeName primitiveTypeName, int maxDefinitionLevel, int capacity) {
+        this.primitiveTypeName = primitiveTypeName;
+        this.maxDefinitionLevel = maxDefinitionLevel;
+        this.isNull = new boolean[capacity];
+        this.noNulls = true;
+
+        switch (primitiveTypeName) {
+            case BOOLEAN:
+            case INT32:
+            case INT64:
+                longVector = new long[capacity];
+                doubleVector = null;
+                binaryVector = null;
+                break;
+            case FLOAT:
+            case DOUBLE:
+                longVector = null;
+                doubleVector = new double[capacity];
+                binaryVector = null;
+                break;
+            default:
+                longVector = null;
+                doubleVector = null;
+                binaryVector = new Binary[capacity];
+        }
+    }
+
+    /**
+     * Decodes the next {@code size} values from the column reader into this
+     * vector. The type dispatch happens once per batch, not once per value.
+     *
+     * @param reader the column reader positioned at the next value to read
+     * @param size   the number of values to read
+     */
+    public void read(ColumnReader reader, int size) {
+        noNulls = true;
+        switch (primitiveTypeName) {
+            case BOOLEAN:
+                for (int i = 0; i < size; i++) {
+                    if (isDefined(reader, i)) longVector[i] = reader.getBoolean() ? 1 : 0;
+                    reader.consume();
+                }
+                break;
+            case INT32:
+                for (int i = 0; i < size; i++) {
+                    if (isDefined(reader, i)) longVector[i] = reader.getInteger();
+                    reader.consume();
+                }
+                break;
+            case INT64:
+                for (int i = 0; i < size; i++) {
+                    if (isDefined(reader, i)) longVector[i] = reader.getLong();
+                    reader.consume();
+                }
+                break;
+            case FLOAT:
+                for (int i = 0; i < size; i++) {
+                    if (isDefined(reader, i)) doubleVector[i] = reader.getFloat();
+                    reader.consume();
+                }
+                break;
+            case DOUBLE:
+                for (int i = 0; i < size; i++) {
+                    if (isDefined(reader, i)) doubleVector[i] = reader.getDouble();
+                    reader.consume();
+                }
+                break;
+            default:
+                for (int i = 0; i < size; i++) {
+                    binaryVector[i] = isDefined(reader, i) ? reader.getBinary() : null;
+                    reader.consume();
+                }
+        }
+    }
+
+    private boolean isDefined(ColumnReader reader, int rowIndex) {
+        boolean defined = reader.getCurrentDefinitionLevel() == maxDefinitionLevel;
+        isNull[rowIndex] = !defined;
+        if (!defined) {
+            noNulls = false;
+        }
+        return defined;
+    }
+}
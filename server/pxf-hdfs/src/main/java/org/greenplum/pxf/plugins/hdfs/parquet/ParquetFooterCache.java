@@ -0,0 +1,164 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.HadoopReadOptions;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the parsed footers of Parquet files, so that the footer of a file is
+ * read once and then shared by all the fragments and queries that read the
+ * file, instead of being read and parsed again for every fragment.
+ * <p>
+ * A footer is cached for the path, the length and the modification time of
+ * the file, so a file that is rewritten gets its footer read again. The cache
+ * is bounded by the estimated in-memory size of the footers, and footers are
+ * removed when they have not been used for the configured expiration time.
+ * With a size of 0 the cache is disabled and footers are read directly.
+ */
+@Component
+public class ParquetFooterCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParquetFooterCache.class);
+
+    // estimated sizes of the parsed metadata, the statistics of a column chunk take most of the memory
+    private static final int FOOTER_BASE_SIZE = 1024;
+    private static final int COLUMN_SIZE = 128;
+    private static final int ROW_GROUP_BASE_SIZE = 64;
+    private static final int COLUMN_CHUNK_SIZE = 256;
+
+    private final Cache<FooterKey, ParquetMetadata> footers;
+    private final boolean enabled;
+
+    @Autowired
+    public ParquetFooterCache(@Value("${pxf.parquet.footer-cache.size:64MB}") DataSize size,
+                              @Value("${pxf.parquet.footer-cache.expiration:10m}") Duration expiration) {
+        enabled = size.toBytes() > 0;
+        long expirationMillis = expiration.toMillis();
+        LOG.info("Creating Parquet Footer Cache of {} bytes with entry expiration of {} ms", size.toBytes(), expirationMillis);
+        footers = CacheBuilder.newBuilder()
+                .maximumWeight(size.toBytes())
+                .weigher((Weigher<FooterKey, ParquetMetadata>) (key, footer) -> estimateSize(footer))
+                .expireAfterAccess(expirationMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Returns the footer of the given file with all its row groups, reading
+     * it from the file if it is not cached yet
+     *
+     * @param file          the path of the Parquet file
+     * @param configuration the server configuration
+     * @return the footer of the file
+     * @throws IOException if the footer can not be read
+     */
+    public ParquetMetadata getFooter(Path file, Configuration configuration) throws IOException {
+        if (!enabled) {
+            // the status of the file is only needed for the cache key
+            return readFooter(HadoopInputFile.fromPath(file, configuration), configuration);
+        }
+        FileStatus status = file.getFileSystem(configuration).getFileStatus(file);
+        FooterKey key = new FooterKey(status.getPath().toString(), status.getLen(), status.getModificationTime());
+        try {
+            return footers.get(key, () -> readFooter(HadoopInputFile.fromStatus(status, configuration), configuration));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(String.format("Could not read footer of %s : %s", file, cause.getMessage()), cause);
+        }
+    }
+
+    /**
+     * Removes all the footers from the cache
+     */
+    public void invalidateAll() {
+        footers.invalidateAll();
+    }
+
+    /**
+     * Returns a footer with the row groups of the given footer that belong to
+     * the split from start to end. A row group belongs to the split that
+     * contains its midpoint, like with {@link ParquetMetadataConverter#range}.
+     *
+     * @param footer the footer with all the row groups of the file
+     * @param start  the start of the split
+     * @param end    the end of the split, exclusive
+     * @return the footer of the split
+     */
+    public static ParquetMetadata getSplitFooter(ParquetMetadata footer, long start, long end) {
+        List<BlockMetaData> rowGroups = footer.getBlocks().stream()
+                .filter(rowGroup -> {
+                    long midpoint = rowGroup.getStartingPos() + rowGroup.getCompressedSize() / 2;
+                    return midpoint >= start && midpoint < end;
+                })
+                .collect(Collectors.toList());
+        return new ParquetMetadata(footer.getFileMetaData(), rowGroups);
+    }
+
+    private ParquetMetadata readFooter(HadoopInputFile inputFile, Configuration configuration) throws IOException {
+        final long then = System.nanoTime();
+        HadoopReadOptions options = HadoopReadOptions.builder(configuration)
+                .withMetadataFilter(ParquetMetadataConverter.NO_FILTER)
+                .build();
+        try (ParquetFileReader reader = ParquetFileReader.open(inputFile, options)) {
+            ParquetMetadata footer = reader.getFooter();
+            LOG.debug("Read footer of {} with {} row groups in {} ms", inputFile, footer.getBlocks().size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - then));
+            return footer;
+        }
+    }
+
+    /**
+     * Returns the estimated size in memory of the given footer
+     */
+    private static int estimateSize(ParquetMetadata footer) {
+        long size = FOOTER_BASE_SIZE + (long) COLUMN_SIZE * footer.getFileMetaData().getSchema().getColumns().size();
+        for (BlockMetaData rowGroup : footer.getBlocks()) {
+            size += ROW_GROUP_BASE_SIZE + (long) COLUMN_CHUNK_SIZE * rowGroup.getColumns().size();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Identifies a version of a file
+     */
+    @EqualsAndHashCode
+    @ToString
+    private static class FooterKey {
+        private final String path;
+        private final long length;
+        private final long modificationTime;
+
+        FooterKey(String path, long length, long modificationTime) {
+            this.path = path;
+            this.length = length;
+            this.modificationTime = modificationTime;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.parquet.example.data.simple.SimpleGroup;
+import org.apache.parquet.schema.GroupType;
+import org.greenplum.pxf.api.io.EncodedText;
+
+/**
+ * A record read from a Parquet file that also keeps, for the text columns
+ * read from a dictionary, the decoded entry of the dictionary. The entries
+ * are shared by all the records of the row group that have the same value,
+ * so the value is decoded and encoded once per dictionary entry instead of
+ * once per record.
+ */
+public class ParquetGroup extends SimpleGroup {
+
+    private EncodedText[] dictionaryValues;
+
+    public ParquetGroup(GroupType schema) {
+        super(schema);
+    }
+
+    /**
+     * Returns the dictionary entry of the value of the given field
+     *
+     * @param fieldIndex the index of the field
+     * @return the dictionary entry, or null if the value was not read from a dictionary
+     */
+    public EncodedText getDictionaryValue(int fieldIndex) {
+        return dictionaryValues == null ? null : dictionaryValues[fieldIndex];
+    }
+
+    void setDictionaryValue(int fieldIndex, EncodedText value) {
+        if (dictionaryValues == null) {
+            dictionaryValues = new EncodedText[getType().getFieldCount()];
+        }
+        dictionaryValues[fieldIndex] = value;
+    }
+}
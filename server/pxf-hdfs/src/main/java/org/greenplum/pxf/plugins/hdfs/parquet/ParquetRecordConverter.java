@@ -0,0 +1,191 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.greenplum.pxf.api.io.EncodedText;
+
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+
+/**
+ * Assembles the records of a Parquet file into {@link ParquetGroup}s, like
+ * {@link org.apache.parquet.example.data.simple.convert.GroupRecordConverter}
+ * does for simple groups.
+ * <p>
+ * The top level text columns read from dictionary encoded pages are not
+ * decoded for every record: every entry of the dictionary of the column
+ * chunk is decoded once, when it is first used, and shared by all the records
+ * with the same value through {@link ParquetGroup#getDictionaryValue(int)}.
+ * The converter is created for a row group, since every column chunk has its
+ * own dictionary.
+ */
+public class ParquetRecordConverter extends RecordMaterializer<Group> {
+
+    private final RecordConverter root;
+
+    public ParquetRecordConverter(MessageType schema) {
+        this.root = new RecordConverter(null, 0, schema);
+    }
+
+    @Override
+    public Group getCurrentRecord() {
+        return root.getCurrentRecord();
+    }
+
+    @Override
+    public GroupConverter getRootConverter() {
+        return root;
+    }
+
+    /**
+     * Returns whether the values of the given top level field are decoded
+     * once per dictionary entry. Those are the text values, which are read
+     * as strings by {@link org.greenplum.pxf.plugins.hdfs.parquet.converters.BinaryParquetTypeConverter}.
+     */
+    private static boolean isDictionaryText(Type field) {
+        if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+            return false;
+        }
+        PrimitiveType primitiveType = field.asPrimitiveType();
+        LogicalTypeAnnotation annotation = primitiveType.getLogicalTypeAnnotation();
+        return primitiveType.getPrimitiveTypeName() == BINARY &&
+                (annotation instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation ||
+                        annotation instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation ||
+                        annotation instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation);
+    }
+
+    /**
+     * Assembles a record or a nested group
+     */
+    private static class RecordConverter extends GroupConverter {
+        private final RecordConverter parent;
+        private final int index;
+        private final GroupType schema;
+        private final Converter[] converters;
+        private Group current;
+
+        RecordConverter(RecordConverter parent, int index, GroupType schema) {
+            this.parent = parent;
+            this.index = index;
+            this.schema = schema;
+            this.converters = new Converter[schema.getFieldCount()];
+            for (int i = 0; i < converters.length; i++) {
+                Type field = schema.getType(i);
+                if (!field.isPrimitive()) {
+                    converters[i] = new RecordConverter(this, i, field.asGroupType());
+                } else if (parent == null && isDictionaryText(field)) {
+                    converters[i] = new DictionaryTextConverter(this, i);
+                } else {
+                    converters[i] = new ValueConverter(this, i);
+                }
+            }
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return converters[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+            current = parent == null ? new ParquetGroup(schema) : parent.getCurrentRecord().addGroup(index);
+        }
+
+        @Override
+        public void end() {
+        }
+
+        Group getCurrentRecord() {
+            return current;
+        }
+    }
+
+    /**
+     * Adds the values of a primitive field to the current group
+     */
+    private static class ValueConverter extends PrimitiveConverter {
+        final RecordConverter parent;
+        final int index;
+
+        ValueConverter(RecordConverter parent, int index) {
+            this.parent = parent;
+            this.index = index;
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            parent.getCurrentRecord().add(index, value);
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            parent.getCurrentRecord().add(index, value);
+        }
+
+        @Override
+        public void addDouble(double value) {
+            parent.getCurrentRecord().add(index, value);
+        }
+
+        @Override
+        public void addFloat(float value) {
+            parent.getCurrentRecord().add(index, value);
+        }
+
+        @Override
+        public void addInt(int value) {
+            parent.getCurrentRecord().add(index, value);
+        }
+
+        @Override
+        public void addLong(long value) {
+            parent.getCurrentRecord().add(index, value);
+        }
+    }
+
+    /**
+     * Adds the values of a top level text field to the current record, and
+     * the decoded dictionary entry when the value is read from a dictionary
+     */
+    private static class DictionaryTextConverter extends ValueConverter {
+        private Dictionary dictionary;
+        private EncodedText[] entries;
+
+        DictionaryTextConverter(RecordConverter parent, int index) {
+            super(parent, index);
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            this.dictionary = dictionary;
+            this.entries = new EncodedText[dictionary.getMaxId() + 1];
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            Binary value = dictionary.decodeToBinary(dictionaryId);
+            EncodedText entry = entries[dictionaryId];
+            if (entry == null) {
+                entry = new EncodedText(value.toStringUsingUTF8());
+                entries[dictionaryId] = entry;
+            }
+            ParquetGroup record = (ParquetGroup) parent.getCurrentRecord();
+            record.add(index, value);
+            record.setDictionaryValue(index, entry);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.error.UnsupportedTypeException;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.parquet.converters.ParquetTypeConverter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Writes records of Greenplum fields to a Parquet file. The values are
+ * converted with the same {@link ParquetTypeConverter}s that
+ * {@link org.greenplum.pxf.plugins.hdfs.ParquetResolver} uses, but instead of
+ * filling a {@link org.apache.parquet.example.data.Group} per record that is
+ * then traversed again by the writer, every value is passed to the column
+ * writers of the file as soon as it is converted.
+ */
+public class ParquetRecordWriteSupport extends WriteSupport<List<OneField>> {
+
+    private final MessageType schema;
+    private final List<ColumnDescriptor> columnDescriptors;
+    private final List<ParquetTypeConverter> schemaConverters;
+    private final ParquetWriteGroup root;
+    private RecordConsumer recordConsumer;
+
+    /**
+     * Creates the write support for the given Parquet schema
+     *
+     * @param schema                      the schema of the file
+     * @param columnDescriptors           the Greenplum columns of the records
+     * @param parquetTypeConverterFactory the factory of the converters of the columns
+     */
+    public ParquetRecordWriteSupport(MessageType schema, List<ColumnDescriptor> columnDescriptors,
+                                     ParquetTypeConverterFactory parquetTypeConverterFactory) {
+        this.schema = schema;
+        this.columnDescriptors = columnDescriptors;
+        this.schemaConverters = new ArrayList<>();
+        int i = 0;
+        for (ColumnDescriptor columnDescriptor : columnDescriptors) {
+            if (columnDescriptor.isProjected()) {
+                schemaConverters.add(
+                        parquetTypeConverterFactory.create(schema.getType(i), columnDescriptor.getDataType()));
+                i++;
+            }
+        }
+        this.root = new ParquetWriteGroup(schema);
+    }
+
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(schema, new HashMap<>());
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.recordConsumer = recordConsumer;
+    }
+
+    @Override
+    public void write(List<OneField> record) {
+        recordConsumer.startMessage();
+        root.start(recordConsumer);
+        for (int columnIndex = 0; columnIndex < record.size(); columnIndex++) {
+            Object val = record.get(columnIndex).val;
+            if (val == null) {
+                continue;
+            }
+            try {
+                schemaConverters.get(columnIndex).write(root, columnIndex, val);
+            } catch (UnsupportedTypeException ex) {
+                throw new UnsupportedTypeException(ex.getMessage().replaceAll("(?<=\\s)" + columnIndex + "(?=\\s)", columnDescriptors.get(columnIndex).columnName()));
+            }
+        }
+        root.end();
+        recordConsumer.endMessage();
+    }
+}
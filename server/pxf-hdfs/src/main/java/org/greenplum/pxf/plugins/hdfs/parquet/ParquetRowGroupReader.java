@@ -0,0 +1,153 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.schema.MessageType;
+import org.greenplum.pxf.api.model.PruningStats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * Reads the row groups of a Parquet file one after the other, skipping the
+ * pages of the requested columns that cannot contain rows matching the
+ * record filter of the file reader, as given by the column indexes of the
+ * file, and counting the row groups and pages that are read and skipped.
+ * <p>
+ * The row groups that do not match the filter according to their statistics,
+ * dictionaries or bloom filters are removed when the file reader is opened,
+ * the row groups without any matching page are skipped while reading.
+ * <p>
+ * Counting the skipped pages reads the offset indexes of the requested
+ * columns, so the pages are only counted when requested.
+ */
+public class ParquetRowGroupReader implements Closeable {
+
+    private final ParquetFileReader fileReader;
+    private final List<BlockMetaData> rowGroups;
+    private final Set<ColumnPath> requestedColumns;
+    private final PruningStats pruningStats;
+    private final boolean countPagesSkipped;
+    private int rowGroupIndex;
+
+    /**
+     * Creates a reader of the row groups of the given file reader
+     *
+     * @param fileReader        the file reader with the requested schema set
+     * @param readSchema        the requested schema
+     * @param pruningStats      the statistics updated with the row groups and pages read and skipped
+     * @param countPagesSkipped true to count the pages skipped, false to only count the row groups
+     */
+    public ParquetRowGroupReader(ParquetFileReader fileReader, MessageType readSchema, PruningStats pruningStats,
+                                 boolean countPagesSkipped) {
+        this.fileReader = fileReader;
+        this.rowGroups = fileReader.getRowGroups();
+        this.requestedColumns = new HashSet<>();
+        for (ColumnDescriptor column : readSchema.getColumns()) {
+            requestedColumns.add(ColumnPath.get(column.getPath()));
+        }
+        this.pruningStats = pruningStats;
+        this.countPagesSkipped = countPagesSkipped;
+    }
+
+    /**
+     * Reads the pages of the next row group with rows that match the filter
+     *
+     * @return the pages of the row group, or null when all the row groups are read
+     * @throws IOException if the row group can not be read
+     */
+    public PageReadStore readNextRowGroup() throws IOException {
+        while (rowGroupIndex < rowGroups.size()) {
+            BlockMetaData rowGroup = rowGroups.get(rowGroupIndex);
+            // the reader returns null when no page of the row group matches the filter
+            PageReadStore pages = fileReader.readFilteredRowGroup(rowGroupIndex++);
+            if (pages == null || pages.getRowCount() == 0) {
+                pruningStats.addBlocksSkipped(1);
+                if (countPagesSkipped) {
+                    pruningStats.addPagesSkipped(countSkippedPages(rowGroup, new long[0]));
+                }
+                continue;
+            }
+            pruningStats.addBlocksRead(1);
+            if (countPagesSkipped && pages.getRowCount() < rowGroup.getRowCount()) {
+                Optional<PrimitiveIterator.OfLong> rowIndexes = pages.getRowIndexes();
+                if (rowIndexes.isPresent()) {
+                    pruningStats.addPagesSkipped(countSkippedPages(rowGroup, toRanges(rowIndexes.get())));
+                }
+            }
+            return pages;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileReader.close();
+    }
+
+    /**
+     * Counts the pages of the requested columns of the row group that do not
+     * contain any of the given rows, using the offset indexes of the columns.
+     *
+     * @param rowGroup the row group
+     * @param ranges   the first and last index of the ranges of rows read, one after the other
+     * @return the number of pages skipped
+     */
+    private long countSkippedPages(BlockMetaData rowGroup, long[] ranges) throws IOException {
+        long skipped = 0;
+        for (ColumnChunkMetaData column : rowGroup.getColumns()) {
+            if (!requestedColumns.contains(column.getPath())) {
+                continue;
+            }
+            OffsetIndex offsetIndex = fileReader.readOffsetIndex(column);
+            if (offsetIndex == null) {
+                continue;
+            }
+            int range = 0;
+            for (int page = 0; page < offsetIndex.getPageCount(); page++) {
+                long firstRow = offsetIndex.getFirstRowIndex(page);
+                long lastRow = offsetIndex.getLastRowIndex(page, rowGroup.getRowCount());
+                // skip the ranges that end before the page
+                while (range < ranges.length && ranges[range + 1] < firstRow) {
+                    range += 2;
+                }
+                if (range == ranges.length || ranges[range] > lastRow) {
+                    skipped++;
+                }
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Collapses the ascending row indexes into ranges of consecutive rows
+     */
+    private static long[] toRanges(PrimitiveIterator.OfLong rowIndexes) {
+        long[] ranges = new long[16];
+        int length = 0;
+        while (rowIndexes.hasNext()) {
+            long row = rowIndexes.nextLong();
+            if (length > 0 && ranges[length - 1] == row - 1) {
+                ranges[length - 1] = row;
+            } else {
+                if (length == ranges.length) {
+                    ranges = Arrays.copyOf(ranges, length * 2);
+                }
+                ranges[length++] = row;
+                ranges[length++] = row;
+            }
+        }
+        return Arrays.copyOf(ranges, length);
+    }
+}
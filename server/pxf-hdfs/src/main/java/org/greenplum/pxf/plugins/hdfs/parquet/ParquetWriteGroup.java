@@ -0,0 +1,151 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.NanoTime;
+import org.apache.parquet.example.data.simple.SimpleGroup;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.GroupType;
+
+/**
+ * A group that passes the values added to it straight to the
+ * {@link RecordConsumer} of a Parquet writer, which shreds them into the
+ * column writers, instead of keeping them until the whole record is written.
+ * Fields have to be added in the order of the schema, and all the values of
+ * a repeated field one after the other, the way the
+ * {@link org.greenplum.pxf.plugins.hdfs.parquet.converters.ParquetTypeConverter}s
+ * fill a record. A group added with {@link #addGroup(int)} is complete once
+ * the next value is added to its parent, or once the parent ends. The values
+ * cannot be read back from the group.
+ */
+class ParquetWriteGroup extends SimpleGroup {
+
+    private final GroupType schema;
+    private final ParquetWriteGroup[] children;
+    private RecordConsumer consumer;
+    private int currentField;
+    private ParquetWriteGroup openChild;
+
+    ParquetWriteGroup(GroupType schema) {
+        super(schema);
+        this.schema = schema;
+        this.children = new ParquetWriteGroup[schema.getFieldCount()];
+    }
+
+    /**
+     * Starts writing the group to the given consumer, the caller has already
+     * started the group or the message in the consumer
+     *
+     * @param consumer the consumer of the values of the group
+     */
+    void start(RecordConsumer consumer) {
+        this.consumer = consumer;
+        this.currentField = -1;
+        this.openChild = null;
+    }
+
+    /**
+     * Ends the field that is being written, the caller ends the group or the
+     * message in the consumer
+     */
+    void end() {
+        closeChild();
+        if (currentField >= 0) {
+            consumer.endField(schema.getFieldName(currentField), currentField);
+            currentField = -1;
+        }
+    }
+
+    @Override
+    public void add(int fieldIndex, int value) {
+        startField(fieldIndex);
+        consumer.addInteger(value);
+    }
+
+    @Override
+    public void add(int fieldIndex, long value) {
+        startField(fieldIndex);
+        consumer.addLong(value);
+    }
+
+    @Override
+    public void add(int fieldIndex, String value) {
+        add(fieldIndex, Binary.fromString(value));
+    }
+
+    @Override
+    public void add(int fieldIndex, boolean value) {
+        startField(fieldIndex);
+        consumer.addBoolean(value);
+    }
+
+    @Override
+    public void add(int fieldIndex, NanoTime value) {
+        add(fieldIndex, value.toBinary());
+    }
+
+    @Override
+    public void add(int fieldIndex, Binary value) {
+        startField(fieldIndex);
+        consumer.addBinary(value);
+    }
+
+    @Override
+    public void add(int fieldIndex, float value) {
+        startField(fieldIndex);
+        consumer.addFloat(value);
+    }
+
+    @Override
+    public void add(int fieldIndex, double value) {
+        startField(fieldIndex);
+        consumer.addDouble(value);
+    }
+
+    @Override
+    public void add(int fieldIndex, Group value) {
+        throw new UnsupportedOperationException("Nested groups are written with addGroup");
+    }
+
+    @Override
+    public Group addGroup(int fieldIndex) {
+        startField(fieldIndex);
+        ParquetWriteGroup child = children[fieldIndex];
+        if (child == null) {
+            child = new ParquetWriteGroup(schema.getType(fieldIndex).asGroupType());
+            children[fieldIndex] = child;
+        }
+        consumer.startGroup();
+        child.start(consumer);
+        openChild = child;
+        return child;
+    }
+
+    /**
+     * Starts the given field, unless more values are added to the field
+     * being written, and completes the group added last
+     */
+    private void startField(int fieldIndex) {
+        closeChild();
+        if (fieldIndex == currentField) {
+            return;
+        }
+        if (fieldIndex < currentField) {
+            throw new IllegalStateException(String.format("Field %s was added after field %s",
+                    schema.getFieldName(fieldIndex), schema.getFieldName(currentField)));
+        }
+        if (currentField >= 0) {
+            consumer.endField(schema.getFieldName(currentField), currentField);
+        }
+        consumer.startField(schema.getFieldName(fieldIndex), fieldIndex);
+        currentField = fieldIndex;
+    }
+
+    private void closeChild() {
+        if (openChild != null) {
+            openChild.end();
+            consumer.endGroup();
+            openChild = null;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.bson.io.BasicOutputBuffer;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.utilities.Utilities;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetIntervalUtilities;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetUUIDUtilities;
 import org.greenplum.pxf.plugins.hdfs.utilities.PgUtilities;
 
@@ -76,18 +77,27 @@ public class BinaryParquetTypeConverter implements ParquetTypeConverter {
 
     @Override
     public Object read(Group group, int columnIndex, int repeatIndex) {
+        return readValue(group.getBinary(columnIndex, repeatIndex));
+    }
+
+    @Override
+    public Object read(ParquetColumnVector vector, int rowIndex) {
+        return readValue(vector.binaryVector[rowIndex]);
+    }
+
+    private Object readValue(Binary value) {
         if (detectedDataType == DataType.BYTEA) {
-            return group.getBinary(columnIndex, repeatIndex).getBytes();
+            return value.getBytes();
         } else if (detectedDataType == DataType.JSONB) {
-            return readBSON(group.getBinary(columnIndex, repeatIndex).getBytes());
+            return readBSON(value.getBytes());
         } else if (detectedDataType == DataType.INTERVAL) {
             // we don't write intervals as binary, so only reading is supported for compatibility with external sources
-            return ParquetIntervalUtilities.read(group.getBinary(columnIndex, repeatIndex).getBytes());
+            return ParquetIntervalUtilities.read(value.getBytes());
         } else if (detectedDataType == DataType.UUID) {
             // we don't write uuids as binary, so only reading is supported for compatibility with external sources
-            return ParquetUUIDUtilities.readUUID(group.getBinary(columnIndex, repeatIndex).getBytes());
+            return ParquetUUIDUtilities.readUUID(value.getBytes());
         } else {
-            return group.getString(columnIndex, repeatIndex);
+            return value.toStringUsingUTF8();
         }
     }
 
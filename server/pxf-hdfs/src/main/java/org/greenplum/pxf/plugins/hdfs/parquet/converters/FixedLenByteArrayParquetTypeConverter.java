@@ -8,6 +8,7 @@ import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.Type;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetFixedLenByteArrayUtilities;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetIntervalUtilities;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetUUIDUtilities;
@@ -55,15 +56,24 @@ public class FixedLenByteArrayParquetTypeConverter implements ParquetTypeConvert
 
     @Override
     public Object read(Group group, int columnIndex, int repeatIndex) {
+        return readValue(group.getBinary(columnIndex, repeatIndex));
+    }
+
+    @Override
+    public Object read(ParquetColumnVector vector, int rowIndex) {
+        return readValue(vector.binaryVector[rowIndex]);
+    }
+
+    private Object readValue(Binary value) {
         if (detectedDataType == DataType.NUMERIC) {
             int scale = ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) type.getLogicalTypeAnnotation()).getScale();
-            return new BigDecimal(new BigInteger(group.getBinary(columnIndex, repeatIndex).getBytes()), scale);
+            return new BigDecimal(new BigInteger(value.getBytes()), scale);
         } else if (detectedDataType == DataType.INTERVAL) {
-            return ParquetIntervalUtilities.read(group.getBinary(columnIndex, repeatIndex).getBytes());
+            return ParquetIntervalUtilities.read(value.getBytes());
         } else if (detectedDataType == DataType.UUID) {
-            return ParquetUUIDUtilities.readUUID(group.getBinary(columnIndex, repeatIndex).getBytes());
+            return ParquetUUIDUtilities.readUUID(value.getBytes());
         } else {
-            return group.getBinary(columnIndex, repeatIndex).getBytes();
+            return value.getBytes();
         }
     }
 
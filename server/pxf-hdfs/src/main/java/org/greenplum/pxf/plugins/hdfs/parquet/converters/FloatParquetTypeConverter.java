@@ -3,6 +3,7 @@ package org.greenplum.pxf.plugins.hdfs.parquet.converters;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.parquet.example.data.Group;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 
 public class FloatParquetTypeConverter implements ParquetTypeConverter {
 
@@ -16,6 +17,11 @@ public class FloatParquetTypeConverter implements ParquetTypeConverter {
         return group.getFloat(columnIndex, repeatIndex);
     }
 
+    @Override
+    public Object read(ParquetColumnVector vector, int rowIndex) {
+        return (float) vector.doubleVector[rowIndex];
+    }
+
     @Override
     public void write(Group group, int columnIndex, Object fieldValue) {
         group.add(columnIndex, (Float) fieldValue);
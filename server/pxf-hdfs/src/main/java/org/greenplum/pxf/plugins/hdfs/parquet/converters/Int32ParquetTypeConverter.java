@@ -7,6 +7,7 @@ import org.apache.parquet.schema.Type;
 import org.greenplum.pxf.api.GreenplumDateTime;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTimestampUtilities;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -99,9 +100,17 @@ public class Int32ParquetTypeConverter implements ParquetTypeConverter {
     }
 
     @Override
-    @SuppressWarnings("deprecation")
     public Object read(Group group, int columnIndex, int repeatIndex) {
-        int value = group.getInteger(columnIndex, repeatIndex);
+        return readValue(group.getInteger(columnIndex, repeatIndex));
+    }
+
+    @Override
+    public Object read(ParquetColumnVector vector, int rowIndex) {
+        return readValue((int) vector.longVector[rowIndex]);
+    }
+
+    @SuppressWarnings("deprecation")
+    private Object readValue(int value) {
         if (detectedDataType == DataType.DATE) {
             return new org.apache.hadoop.hive.serde2.io.DateWritable(value).get(true);
         } else if (detectedDataType == DataType.NUMERIC) {
@@ -7,6 +7,7 @@ import org.apache.parquet.schema.Type;
 import org.greenplum.pxf.api.GreenplumDateTime;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTimestampUtilities;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -51,7 +52,15 @@ public class Int64ParquetTypeConverter implements ParquetTypeConverter {
 
     @Override
     public Object read(Group group, int columnIndex, int repeatIndex) {
-        long value = group.getLong(columnIndex, repeatIndex);
+        return readValue(group.getLong(columnIndex, repeatIndex));
+    }
+
+    @Override
+    public Object read(ParquetColumnVector vector, int rowIndex) {
+        return readValue(vector.longVector[rowIndex]);
+    }
+
+    private Object readValue(long value) {
         if (detectedDataType == DataType.NUMERIC) {
             return bigDecimalFromLong((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) type.getLogicalTypeAnnotation(), value);
         } else if (detectedDataType == DataType.TIMESTAMP || detectedDataType == DataType.TIMESTAMP_WITH_TIME_ZONE) {
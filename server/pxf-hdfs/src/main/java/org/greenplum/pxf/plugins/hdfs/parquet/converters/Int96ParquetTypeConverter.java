@@ -3,6 +3,7 @@ package org.greenplum.pxf.plugins.hdfs.parquet.converters;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.parquet.example.data.Group;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 import org.greenplum.pxf.plugins.hdfs.parquet.ParquetTimestampUtilities;
 
 import static org.greenplum.pxf.plugins.hdfs.ParquetResolver.TIMESTAMP_PATTERN;
@@ -27,6 +28,11 @@ public class Int96ParquetTypeConverter implements ParquetTypeConverter {
         return ParquetTimestampUtilities.bytesToTimestamp(group.getInt96(columnIndex, repeatIndex).getBytes(), useLocalPxfTimezoneRead);
     }
 
+    @Override
+    public String read(ParquetColumnVector vector, int rowIndex) {
+        return ParquetTimestampUtilities.bytesToTimestamp(vector.binaryVector[rowIndex].getBytes(), useLocalPxfTimezoneRead);
+    }
+
     @Override
     public void write(Group group, int columnIndex, Object fieldValue) {
         // SQL standard timestamp string value with or without time zone literals: https://www.postgresql.org/docs/9.4/datatype-datetime.html
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.parquet.example.data.Group;
+import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetColumnVector;
 
 import java.nio.charset.StandardCharsets;
 
@@ -17,6 +19,18 @@ public interface ParquetTypeConverter {
 
     Object read(Group group, int columnIndex, int repeatIndex);
 
+    /**
+     * Reads the value at the given row of a decoded column vector. Only
+     * primitive types support vectorized reads.
+     *
+     * @param vector   the decoded column vector
+     * @param rowIndex the index of the row in the batch
+     * @return the value converted to its Greenplum representation
+     */
+    default Object read(ParquetColumnVector vector, int rowIndex) {
+        throw new UnsupportedTypeException(String.format("Type %s is not supported for vectorized Parquet reads", getDataType()));
+    }
+
     void write(Group group, int columnIndex, Object fieldValue);
 
     default Object filterValue(String val) {
@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -56,6 +57,31 @@ public class HdfsUtilities {
         return new FileSplit(new Path(file), start, length, (String[]) null);
     }
 
+    /**
+     * Selects the blocks (row groups, stripes) of a fragment to read to sample
+     * the given ratio of the fragment for ANALYZE. The selected blocks are
+     * evenly spaced over the fragment. Returns null when all the blocks need
+     * to be read, in which case the records are only sampled by the bridge.
+     *
+     * @param numBlocks   the number of blocks in the fragment
+     * @param sampleRatio the ratio of the records to sample
+     * @return the indexes of the blocks to read, or null to read all the blocks
+     */
+    public static BitSet getSampledBlocks(int numBlocks, float sampleRatio) {
+        int sampledBlocks = (int) Math.ceil(sampleRatio * numBlocks);
+        if (sampleRatio <= 0 || sampledBlocks >= numBlocks) {
+            return null;
+        }
+
+        BitSet blocks = new BitSet(numBlocks);
+        for (int i = 0; i < sampledBlocks; i++) {
+            // pick the block in the middle of every interval of numBlocks / sampledBlocks blocks
+            blocks.set((int) ((2L * i + 1) * numBlocks / (2L * sampledBlocks)));
+        }
+        LOG.debug("Sampling {} out of {} blocks for ratio {}: {}", sampledBlocks, numBlocks, sampleRatio, blocks);
+        return blocks;
+    }
+
     /**
      * Validates that the destination file does not exist and creates parent directory, if missing.
      *
@@ -0,0 +1,248 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.UnsupportedTypeException;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.avro.AvroUtilities;
+import org.greenplum.pxf.plugins.hdfs.utilities.PgUtilities;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AvroVectorizedResolverTest {
+
+    private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"event\", \"fields\": [" +
+            "{\"name\": \"id\", \"type\": \"long\"}," +
+            "{\"name\": \"name\", \"type\": [\"null\", \"string\"], \"default\": null}," +
+            "{\"name\": \"status\", \"type\": {\"type\": \"enum\", \"name\": \"status_enum\", \"symbols\": [\"NEW\", \"DONE\"]}}," +
+            "{\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": \"string\"}}," +
+            "{\"name\": \"score\", \"type\": \"double\"}," +
+            "{\"name\": \"ratio\", \"type\": [\"float\", \"null\"]}," +
+            "{\"name\": \"attrs\", \"type\": {\"type\": \"map\", \"values\": \"long\"}}," +
+            "{\"name\": \"flag\", \"type\": \"boolean\"}," +
+            "{\"name\": \"day\", \"type\": {\"type\": \"int\", \"logicalType\": \"date\"}}," +
+            "{\"name\": \"ts\", \"type\": {\"type\": \"long\", \"logicalType\": \"timestamp-millis\"}}," +
+            "{\"name\": \"address\", \"type\": {\"type\": \"record\", \"name\": \"address_record\", \"fields\": [{\"name\": \"city\", \"type\": \"string\"}]}}," +
+            "{\"name\": \"amount\", \"type\": {\"type\": \"bytes\", \"logicalType\": \"decimal\", \"precision\": 10, \"scale\": 2}}," +
+            "{\"name\": \"payload\", \"type\": \"bytes\"}," +
+            "{\"name\": \"code\", \"type\": {\"type\": \"fixed\", \"name\": \"code_fixed\", \"size\": 2}}," +
+            "{\"name\": \"tail\", \"type\": \"int\"}" +
+            "]}");
+    private static final DataType[] COLUMN_TYPES = {DataType.BIGINT, DataType.TEXT, DataType.TEXT, DataType.TEXT,
+            DataType.FLOAT8, DataType.REAL, DataType.TEXT, DataType.BOOLEAN, DataType.DATE, DataType.TIMESTAMP,
+            DataType.TEXT, DataType.NUMERIC, DataType.BYTEA, DataType.BYTEA, DataType.INTEGER};
+    private static final int ROWS = 3000;
+
+    @TempDir
+    File temp;
+
+    private File file;
+    private List<ColumnDescriptor> columnDescriptors;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        file = writeFile();
+        columnDescriptors = new ArrayList<>();
+        List<Schema.Field> fields = SCHEMA.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            columnDescriptors.add(new ColumnDescriptor(fields.get(i).name(), COLUMN_TYPES[i].getOID(), i, COLUMN_TYPES[i].name(), null));
+        }
+    }
+
+    @Test
+    public void testVectorizedReadMatchesRowRead() throws Exception {
+        // the complex fields are not projected, they are skipped by the decoder
+        for (int i : new int[]{3, 6, 10}) {
+            columnDescriptors.get(i).setProjected(false);
+        }
+
+        List<List<OneField>> expected = readRows(0, file.length());
+        List<List<OneField>> actual = readVectorized(0, file.length());
+
+        assertEquals(ROWS, actual.size());
+        assertRowsEqual(expected, actual);
+    }
+
+    @Test
+    public void testVectorizedReadWithColumnProjection() throws Exception {
+        columnDescriptors.forEach(d -> d.setProjected(false));
+        columnDescriptors.get(1).setProjected(true);
+        columnDescriptors.get(14).setProjected(true);
+
+        List<List<OneField>> expected = readRows(0, file.length());
+        List<List<OneField>> actual = readVectorized(0, file.length());
+
+        assertEquals(ROWS, actual.size());
+        assertRowsEqual(expected, actual);
+        for (List<OneField> row : actual) {
+            assertNull(row.get(0).val);
+            assertEquals(columnDescriptors.size(), row.size());
+        }
+    }
+
+    @Test
+    public void testVectorizedReadOfSplits() throws Exception {
+        columnDescriptors.forEach(d -> d.setProjected(false));
+        columnDescriptors.get(0).setProjected(true);
+
+        long middle = file.length() / 2;
+        List<List<OneField>> actual = readVectorized(0, middle);
+        actual.addAll(readVectorized(middle, file.length() - middle));
+
+        // every record is read once, from the split its block starts in
+        assertEquals(ROWS, actual.size());
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals((long) i, actual.get(i).get(0).val);
+        }
+    }
+
+    @Test
+    public void testProjectedComplexFieldIsNotSupported() {
+        AvroVectorizedAccessor accessor = new AvroVectorizedAccessor(new AvroUtilities());
+        accessor.setRequestContext(getContext(0, file.length()));
+        accessor.afterPropertiesSet();
+        Exception e = assertThrows(UnsupportedTypeException.class, accessor::openForRead);
+        assertEquals("Field tags of type {\"type\":\"array\",\"items\":\"string\"} is not supported for vectorized Avro reads, set VECTORIZE=false to read it", e.getMessage());
+    }
+
+    @Test
+    public void testGetFieldsIsNotSupported() {
+        AvroVectorizedResolver resolver = new AvroVectorizedResolver(new PgUtilities());
+        assertThrows(UnsupportedOperationException.class, () -> resolver.getFields(new OneRow()));
+        assertThrows(UnsupportedOperationException.class, () -> resolver.setFields(new ArrayList<>()));
+    }
+
+    private List<List<OneField>> readRows(long start, long length) throws Exception {
+        RequestContext context = getContext(start, length);
+        AvroFileAccessor accessor = new AvroFileAccessor(new AvroUtilities());
+        AvroResolver resolver = new AvroResolver(new AvroUtilities(), new PgUtilities());
+        accessor.setRequestContext(context);
+        resolver.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.afterPropertiesSet();
+
+        List<List<OneField>> result = new ArrayList<>();
+        accessor.openForRead();
+        OneRow row;
+        while ((row = accessor.readNextObject()) != null) {
+            result.add(resolver.getFields(row));
+        }
+        accessor.closeForRead();
+        return result;
+    }
+
+    private List<List<OneField>> readVectorized(long start, long length) throws Exception {
+        RequestContext context = getContext(start, length);
+        AvroVectorizedAccessor accessor = new AvroVectorizedAccessor(new AvroUtilities());
+        AvroVectorizedResolver resolver = new AvroVectorizedResolver(new PgUtilities());
+        accessor.setRequestContext(context);
+        resolver.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.afterPropertiesSet();
+
+        List<List<OneField>> result = new ArrayList<>();
+        accessor.openForRead();
+        OneRow batch;
+        while ((batch = accessor.readNextObject()) != null) {
+            for (List<OneField> row : resolver.getFieldsForBatch(batch)) {
+                // the resolved batch is re-used between batches
+                result.add(new ArrayList<>(row));
+            }
+        }
+        accessor.closeForRead();
+        return result;
+    }
+
+    private void assertRowsEqual(List<List<OneField>> expected, List<List<OneField>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            for (int col = 0; col < columnDescriptors.size(); col++) {
+                if (!columnDescriptors.get(col).isProjected()) {
+                    continue;
+                }
+                OneField expectedField = expected.get(row).get(col);
+                OneField actualField = actual.get(row).get(col);
+                String message = "row " + row + ", column " + col;
+                assertEquals(expectedField.type, actualField.type, message);
+                if (expectedField.val instanceof byte[]) {
+                    assertArrayEquals((byte[]) expectedField.val, (byte[]) actualField.val, message);
+                } else if (expectedField.val instanceof GenericData.EnumSymbol) {
+                    assertEquals(expectedField.val.toString(), actualField.val, message);
+                } else {
+                    assertEquals(expectedField.val, actualField.val, message);
+                }
+            }
+        }
+    }
+
+    private RequestContext getContext(long start, long length) {
+        RequestContext context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setProfileScheme("localfile");
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setDataSource(file.getAbsolutePath());
+        context.setFragmentMetadata(new HcfsFragmentMetadata(start, length));
+        context.setTupleDescription(columnDescriptors);
+        context.setConfiguration(new Configuration());
+        return context;
+    }
+
+    private File writeFile() throws IOException {
+        File avroFile = new File(temp, "events.avro");
+        Schema amountSchema = SCHEMA.getField("amount").schema();
+        Conversions.DecimalConversion decimalConversion = new Conversions.DecimalConversion();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(SCHEMA))) {
+            // small blocks, so that the file has many blocks and batches end with the blocks
+            writer.setSyncInterval(2048);
+            writer.create(SCHEMA, avroFile);
+            for (int i = 0; i < ROWS; i++) {
+                GenericRecord address = new GenericData.Record(SCHEMA.getField("address").schema());
+                address.put("city", "city-" + i % 7);
+
+                GenericRecord record = new GenericData.Record(SCHEMA);
+                record.put("id", (long) i);
+                record.put("name", i % 5 == 0 ? null : "name-" + i);
+                record.put("status", new GenericData.EnumSymbol(SCHEMA.getField("status").schema(), i % 2 == 0 ? "NEW" : "DONE"));
+                record.put("tags", Arrays.asList("tag-" + i, "tag"));
+                record.put("score", i * 1.5);
+                record.put("ratio", i % 3 == 0 ? null : i / 4f);
+                record.put("attrs", Collections.singletonMap("key-" + i, (long) i));
+                record.put("flag", i % 2 == 0);
+                record.put("day", 18000 + i);
+                record.put("ts", 1600000000000L + i * 1000L);
+                record.put("address", address);
+                record.put("amount", decimalConversion.toBytes(BigDecimal.valueOf(i, 2), amountSchema, amountSchema.getLogicalType()));
+                record.put("payload", ByteBuffer.wrap(("payload-" + i).getBytes()));
+                record.put("code", new GenericData.Fixed(SCHEMA.getField("code").schema(), new byte[]{(byte) i, (byte) (i >> 8)}));
+                record.put("tail", -i);
+                writer.append(record);
+            }
+        }
+        return avroFile;
+    }
+}
@@ -1,20 +1,44 @@
 package org.greenplum.pxf.plugins.hdfs;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetInputFormat;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.PruningStats;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ParquetFileAccessorTest {
     ParquetFileAccessor accessor;
     RequestContext context;
     MessageType schema;
 
+    @TempDir
+    File temp;
+
     @BeforeEach
     public void setup() {
-        accessor = new ParquetFileAccessor();
+        accessor = new ParquetFileAccessor(null, true);
         context = new RequestContext();
         context.setConfig("default");
         context.setUser("test-user");
@@ -26,4 +50,112 @@ public class ParquetFileAccessorTest {
         accessor.setRequestContext(context);
         assertNull(context.getMetadata());
     }
+
+    @Test
+    public void testRowGroupsAndPagesArePruned() throws Exception {
+        Path file = writeSortedFile(10000);
+        // id = 5000
+        List<Integer> ids = readIds(file, "a0c23s4d5000o5", new Configuration());
+        assertEquals(Collections.singletonList(5000), ids);
+
+        PruningStats pruningStats = accessor.getPruningStats();
+        assertEquals(1, pruningStats.getBlocksRead());
+        assertTrue(pruningStats.getBlocksSkipped() > 1, "expected row groups to be skipped, got " + pruningStats);
+        // a row group has pages of 100 rows, and only one of them is read
+        assertTrue(pruningStats.getPagesSkipped() > 1, "expected pages to be skipped, got " + pruningStats);
+    }
+
+    @Test
+    public void testPagesAreNotCountedWhenPruningMetricsAreDisabled() throws Exception {
+        accessor = new ParquetFileAccessor(null, false);
+        Path file = writeSortedFile(10000);
+        // id = 5000
+        List<Integer> ids = readIds(file, "a0c23s4d5000o5", new Configuration());
+        assertEquals(Collections.singletonList(5000), ids);
+
+        PruningStats pruningStats = accessor.getPruningStats();
+        assertEquals(1, pruningStats.getBlocksRead());
+        assertTrue(pruningStats.getBlocksSkipped() > 1, "expected row groups to be skipped, got " + pruningStats);
+        assertEquals(0, pruningStats.getPagesSkipped());
+    }
+
+    @Test
+    public void testRecordFilterIsNotSetOnRequestConfiguration() throws Exception {
+        Path file = writeSortedFile(1000);
+        Configuration configuration = new Configuration();
+        // id = 500
+        List<Integer> ids = readIds(file, "a0c23s3d500o5", configuration);
+        assertEquals(Collections.singletonList(500), ids);
+
+        // the configuration is shared with the other fragments of the request
+        assertNull(configuration.get(ParquetInputFormat.FILTER_PREDICATE));
+    }
+
+    @Test
+    public void testPagesAreReadWhenColumnIndexFilteringIsDisabled() throws Exception {
+        Path file = writeSortedFile(10000);
+        Configuration configuration = new Configuration();
+        configuration.setBoolean(ParquetInputFormat.COLUMN_INDEX_FILTERING_ENABLED, false);
+        // id = 5000
+        List<Integer> ids = readIds(file, "a0c23s4d5000o5", configuration);
+        assertEquals(Collections.singletonList(5000), ids);
+
+        PruningStats pruningStats = accessor.getPruningStats();
+        assertEquals(1, pruningStats.getBlocksRead());
+        assertTrue(pruningStats.getBlocksSkipped() > 1, "expected row groups to be skipped, got " + pruningStats);
+        assertEquals(0, pruningStats.getPagesSkipped());
+    }
+
+    @Test
+    public void testNothingIsPrunedWithoutFilter() throws Exception {
+        Path file = writeSortedFile(10000);
+        List<Integer> ids = readIds(file, null, new Configuration());
+        assertEquals(10000, ids.size());
+
+        PruningStats pruningStats = accessor.getPruningStats();
+        assertTrue(pruningStats.getBlocksRead() > 1);
+        assertEquals(0, pruningStats.getBlocksSkipped());
+        assertEquals(0, pruningStats.getPagesSkipped());
+    }
+
+    private List<Integer> readIds(Path file, String filterString, Configuration configuration) throws Exception {
+        List<ColumnDescriptor> columnDescriptors = new ArrayList<>();
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        context.setProfileScheme("localfile");
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setDataSource(file.toUri().getPath());
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, new File(file.toUri().getPath()).length()));
+        context.setTupleDescription(columnDescriptors);
+        context.setConfiguration(configuration);
+        context.setFilterString(filterString);
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+
+        List<Integer> ids = new ArrayList<>();
+        assertTrue(accessor.openForRead());
+        OneRow row;
+        while ((row = accessor.readNextObject()) != null) {
+            ids.add(((Group) row.getData()).getInteger(0, 0));
+        }
+        accessor.closeForRead();
+        return ids;
+    }
+
+    private Path writeSortedFile(int rows) throws IOException {
+        MessageType fileSchema = MessageTypeParser.parseMessageType("message test { required int32 id; }");
+        Path file = new Path(temp.getAbsolutePath(), "sorted.parquet");
+        SimpleGroupFactory factory = new SimpleGroupFactory(fileSchema);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+                .withConf(new Configuration())
+                .withType(fileSchema)
+                .withDictionaryEncoding(false)
+                .withRowGroupSize(8 * 1024)
+                .withPageRowCountLimit(100)
+                .build()) {
+            for (int i = 0; i < rows; i++) {
+                writer.write(factory.newGroup().append("id", i));
+            }
+        }
+        return file;
+    }
 }
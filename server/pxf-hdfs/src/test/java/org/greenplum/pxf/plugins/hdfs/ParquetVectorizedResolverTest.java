@@ -0,0 +1,139 @@
+package org.greenplum.pxf.plugins.hdfs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.greenplum.pxf.plugins.hdfs.parquet.ParquetBaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParquetVectorizedResolverTest extends ParquetBaseTest {
+
+    private String path;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        path = Objects.requireNonNull(getClass().getClassLoader().getResource("parquet/parquet_types.parquet")).getPath();
+    }
+
+    @Test
+    public void testVectorizedReadMatchesRowRead() throws Exception {
+        List<List<OneField>> expected = readRows();
+        List<List<OneField>> actual = readVectorized();
+
+        assertEquals(25, actual.size());
+        assertRowsEqual(expected, actual);
+    }
+
+    @Test
+    public void testVectorizedReadWithColumnProjection() throws Exception {
+        columnDescriptors.forEach(d -> d.setProjected(false));
+        columnDescriptors.get(1).setProjected(true);
+        columnDescriptors.get(7).setProjected(true);
+        columnDescriptors.get(15).setProjected(true);
+
+        List<List<OneField>> expected = readRows();
+        List<List<OneField>> actual = readVectorized();
+
+        assertEquals(25, actual.size());
+        assertRowsEqual(expected, actual);
+        for (List<OneField> row : actual) {
+            assertNull(row.get(0).val);
+            assertEquals(columnDescriptors.size(), row.size());
+        }
+    }
+
+    @Test
+    public void testGetFieldsIsNotSupported() {
+        ParquetVectorizedResolver resolver = new ParquetVectorizedResolver();
+        assertThrows(UnsupportedOperationException.class, () -> resolver.getFields(new OneRow()));
+        assertThrows(UnsupportedOperationException.class, () -> resolver.setFields(new ArrayList<>()));
+    }
+
+    private List<List<OneField>> readRows() throws Exception {
+        RequestContext context = getContext();
+        ParquetFileAccessor accessor = new ParquetFileAccessor();
+        ParquetResolver resolver = new ParquetResolver();
+        accessor.setRequestContext(context);
+        resolver.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.afterPropertiesSet();
+
+        List<List<OneField>> result = new ArrayList<>();
+        accessor.openForRead();
+        OneRow row;
+        while ((row = accessor.readNextObject()) != null) {
+            result.add(resolver.getFields(row));
+        }
+        accessor.closeForRead();
+        return result;
+    }
+
+    private List<List<OneField>> readVectorized() throws Exception {
+        RequestContext context = getContext();
+        ParquetVectorizedAccessor accessor = new ParquetVectorizedAccessor();
+        ParquetVectorizedResolver resolver = new ParquetVectorizedResolver();
+        accessor.setRequestContext(context);
+        resolver.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.afterPropertiesSet();
+
+        List<List<OneField>> result = new ArrayList<>();
+        accessor.openForRead();
+        OneRow batch;
+        while ((batch = accessor.readNextObject()) != null) {
+            // the resolved batch is re-used between calls, copy the rows
+            for (List<OneField> row : resolver.getFieldsForBatch(batch)) {
+                result.add(new ArrayList<>(row));
+            }
+        }
+        accessor.closeForRead();
+        return result;
+    }
+
+    private RequestContext getContext() {
+        RequestContext context = new RequestContext();
+        context.setConfig("fakeConfig");
+        context.setServerName("fakeServerName");
+        context.setUser("test-user");
+        context.setProfileScheme("localfile");
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        context.setDataSource(path);
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, new File(path).length()));
+        context.setTupleDescription(columnDescriptors);
+        context.setConfiguration(new Configuration());
+        return context;
+    }
+
+    private void assertRowsEqual(List<List<OneField>> expected, List<List<OneField>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            List<OneField> expectedRow = expected.get(row);
+            List<OneField> actualRow = actual.get(row);
+            assertEquals(expectedRow.size(), actualRow.size());
+            for (int col = 0; col < expectedRow.size(); col++) {
+                ColumnDescriptor descriptor = columnDescriptors.get(col);
+                String message = String.format("row %d column %s", row, descriptor.columnName());
+                assertEquals(expectedRow.get(col).type, actualRow.get(col).type, message);
+                if (expectedRow.get(col).val instanceof byte[]) {
+                    assertArrayEquals((byte[]) expectedRow.get(col).val, (byte[]) actualRow.get(col).val, message);
+                } else {
+                    assertEquals(expectedRow.get(col).val, actualRow.get(col).val, message);
+                }
+            }
+        }
+    }
+}
@@ -198,6 +198,84 @@ public class ParquetWriteTest {
         assertEquals(32 * 1024 * 1024, configuration.getInt(BLOCK_SIZE, -1));
     }
 
+    @Test
+    public void testWriteRollsFilesOnMaxFileRows() throws Exception {
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        context.setDataSource(temp + "/out/rows/");
+        context.setTransactionId("XID-XYZ-123454");
+        context.addOption("MAX_FILE_ROWS", "10");
+
+        writeIntValues(25);
+
+        String prefix = HcfsType.FILE.getUriForWrite(context);
+        assertIntValues(new Path(prefix + ".snappy.parquet"), 0, 10);
+        assertIntValues(new Path(prefix + "_1.snappy.parquet"), 10, 10);
+        assertIntValues(new Path(prefix + "_2.snappy.parquet"), 20, 5);
+        Path nextFile = new Path(prefix + "_3.snappy.parquet");
+        assertFalse(nextFile.getFileSystem(configuration).exists(nextFile));
+    }
+
+    @Test
+    public void testWriteRollsFilesOnMaxFileSize() throws Exception {
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        context.setDataSource(temp + "/out/size/");
+        context.setTransactionId("XID-XYZ-123455");
+        context.addOption("MAX_FILE_SIZE", "20000");
+        context.addOption("ENABLE_DICTIONARY", "false");
+        context.addOption("COMPRESSION_CODEC", "uncompressed");
+
+        writeIntValues(20000);
+
+        // the row group size is capped to the file size
+        assertEquals(20000, configuration.getInt(BLOCK_SIZE, -1));
+
+        String prefix = HcfsType.FILE.getUriForWrite(context);
+        int rows = 0;
+        int part = 0;
+        Path partFile = new Path(prefix + ".parquet");
+        while (partFile.getFileSystem(configuration).exists(partFile)) {
+            try (ParquetReader<Group> fileReader = ParquetReader.builder(new GroupReadSupport(), partFile)
+                    .withConf(configuration)
+                    .build()) {
+                Group group;
+                while ((group = fileReader.read()) != null) {
+                    assertEquals(rows++, group.getInteger(0, 0));
+                }
+            }
+            partFile = new Path(prefix + "_" + ++part + ".parquet");
+        }
+        // 80000 bytes of values are written to files of 20000 bytes
+        assertTrue(part >= 4, "expected at least 4 files, got " + part);
+        assertEquals(20000, rows);
+    }
+
+    @Test
+    public void testWriteWithoutMaxFileSizeWritesOneFile() throws Exception {
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        context.setDataSource(temp + "/out/single/");
+        context.setTransactionId("XID-XYZ-123456");
+
+        writeIntValues(25);
+
+        String prefix = HcfsType.FILE.getUriForWrite(context);
+        assertIntValues(new Path(prefix + ".snappy.parquet"), 0, 25);
+        Path nextFile = new Path(prefix + "_1.snappy.parquet");
+        assertFalse(nextFile.getFileSystem(configuration).exists(nextFile));
+    }
+
+    @Test
+    public void testInvalidMaxFileRows() {
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        context.setDataSource(temp + "/out/");
+        context.setTransactionId("XID-XYZ-123453");
+        context.addOption("MAX_FILE_ROWS", "-1");
+
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        Exception e = assertThrows(IllegalArgumentException.class, () -> accessor.openForWrite());
+        assertEquals("Property MAX_FILE_ROWS has incorrect value -1 : must be a non-negative long", e.getMessage());
+    }
+
     @Test
     public void testSettingUseInt64TimestampsNameOption() throws Exception {
 
@@ -2749,6 +2827,181 @@ public class ParquetWriteTest {
         writeNumericValues(values, configurationOption, columnName, precision, scale);
     }
 
+    @Test
+    public void testVectorizedWriteMatchesRowWrite() throws Exception {
+        addMixedColumns();
+        List<List<OneField>> records = generateMixedRecords(2500);
+
+        Path rowFile = writeRows(temp + "/out/row/", records);
+        Path vectorizedFile = writeVectorized(temp + "/out/vectorized/", records);
+
+        validateFooter(vectorizedFile, 13, 2500);
+        assertEquals(readGroups(rowFile), readGroups(vectorizedFile));
+    }
+
+    @Test
+    public void testVectorizedWriteRollsFilesOnMaxFileRows() throws Exception {
+        addMixedColumns();
+        List<List<OneField>> records = generateMixedRecords(2500);
+        List<String> expectedGroups = readGroups(writeRows(temp + "/out/row/rows/", records));
+
+        context.addOption("MAX_FILE_ROWS", "1000");
+        writeVectorized(temp + "/out/vectorized/rows/", records);
+
+        // the files are rolled in the middle of the batches
+        String prefix = HcfsType.FILE.getUriForWrite(context);
+        List<String> groups = new ArrayList<>();
+        String[] files = {prefix + ".snappy.parquet", prefix + "_1.snappy.parquet", prefix + "_2.snappy.parquet"};
+        int[] rows = {1000, 1000, 500};
+        for (int i = 0; i < files.length; i++) {
+            validateFooter(new Path(files[i]), 13, rows[i]);
+            groups.addAll(readGroups(new Path(files[i])));
+        }
+        Path nextFile = new Path(prefix + "_3.snappy.parquet");
+        assertFalse(nextFile.getFileSystem(configuration).exists(nextFile));
+        assertEquals(expectedGroups, groups);
+    }
+
+    @Test
+    public void testVectorizedWriteMultiDimensionalList() {
+        columnDescriptors.add(new ColumnDescriptor("list_of_lists", DataType.INT4ARRAY.getOID(), 0, "list_of_lists", null));
+        context.setTransactionId("XID-XYZ-123491");
+        List<List<OneField>> records = Collections.singletonList(
+                Collections.singletonList(new OneField(DataType.INT4ARRAY.getOID(), "{{1,2,3},{4,5,6}}")));
+
+        Exception e = assertThrows(PxfRuntimeException.class, () -> writeVectorized(temp + "/out/vectorized/lists/", records));
+        assertEquals("Error parsing array element: {1,2,3} was not of expected type INT32", e.getMessage());
+    }
+
+    @Test
+    public void testVectorizedResolverBatches() throws Exception {
+        ParquetVectorizedResolver vectorizedResolver = new ParquetVectorizedResolver();
+        assertNull(vectorizedResolver.setFieldsForBatch(new ArrayList<>()));
+
+        List<List<OneField>> records = Collections.nCopies(vectorizedResolver.getBatchSize() + 1,
+                Collections.singletonList(new OneField(DataType.INTEGER.getOID(), 1)));
+        Exception e = assertThrows(PxfRuntimeException.class, () -> vectorizedResolver.setFieldsForBatch(records));
+        assertEquals("Provided set of 1025 records is greater than the batch size of 1024", e.getMessage());
+    }
+
+    private void addMixedColumns() {
+        context.setTransactionId("XID-XYZ-123490");
+        columnDescriptors.add(new ColumnDescriptor("dec", DataType.NUMERIC.getOID(), 0, "numeric", null));
+        columnDescriptors.add(new ColumnDescriptor("bpchar", DataType.BPCHAR.getOID(), 1, "bpchar", null));
+        columnDescriptors.add(new ColumnDescriptor("tm", DataType.TIMESTAMP.getOID(), 2, "timestamp", null));
+        columnDescriptors.add(new ColumnDescriptor("bin", DataType.BYTEA.getOID(), 3, "bytea", null));
+        columnDescriptors.add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 4, "text", null));
+        columnDescriptors.add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 5, "int4", null));
+        columnDescriptors.add(new ColumnDescriptor("big", DataType.BIGINT.getOID(), 6, "int8", null));
+        columnDescriptors.add(new ColumnDescriptor("flag", DataType.BOOLEAN.getOID(), 7, "bool", null));
+        columnDescriptors.add(new ColumnDescriptor("score", DataType.FLOAT8.getOID(), 8, "float8", null));
+        columnDescriptors.add(new ColumnDescriptor("ratio", DataType.REAL.getOID(), 9, "float4", null));
+        columnDescriptors.add(new ColumnDescriptor("day", DataType.DATE.getOID(), 10, "date", null));
+        columnDescriptors.add(new ColumnDescriptor("int_arr", DataType.INT4ARRAY.getOID(), 11, "int4[]", null));
+        columnDescriptors.add(new ColumnDescriptor("str_arr", DataType.TEXTARRAY.getOID(), 12, "text[]", null));
+    }
+
+    private List<List<OneField>> generateMixedRecords(int count) {
+        List<List<OneField>> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<OneField> record = new ArrayList<>();
+            record.add(new OneField(DataType.NUMERIC.getOID(), String.format("%d.%02d", i, i % 100)));
+            record.add(new OneField(DataType.BPCHAR.getOID(), StringUtils.repeat("d", i % 3)));
+            record.add(new OneField(DataType.TIMESTAMP.getOID(), String.format("2020-08-%02d 04:00:%02d", i % 28 + 1, i % 60)));
+            record.add(new OneField(DataType.BYTEA.getOID(), ("bytes-" + i).getBytes()));
+            record.add(new OneField(DataType.TEXT.getOID(), "text-" + i % 10));
+            record.add(new OneField(DataType.INTEGER.getOID(), i));
+            record.add(new OneField(DataType.BIGINT.getOID(), i * 1000000L));
+            record.add(new OneField(DataType.BOOLEAN.getOID(), i % 2 == 0));
+            record.add(new OneField(DataType.FLOAT8.getOID(), i * 1.5));
+            record.add(new OneField(DataType.REAL.getOID(), i / 4f));
+            record.add(new OneField(DataType.DATE.getOID(), String.format("2020-08-%02d", i % 28 + 1)));
+            record.add(new OneField(DataType.INT4ARRAY.getOID(), i % 7 == 0 ? "{}" : String.format("{NULL,%d,%d}", i, -i)));
+            record.add(new OneField(DataType.TEXTARRAY.getOID(), String.format("{a-%d,NULL,\"b c\"}", i)));
+            if (i % 100 == 99) {
+                // a record of nulls only
+                record.forEach(field -> field.val = null);
+            } else if (i % 3 == 0) {
+                record.get(i % record.size()).val = null;
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private Path writeRows(String path, List<List<OneField>> records) throws Exception {
+        context.setDataSource(path);
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        assertTrue(accessor.openForWrite());
+        for (List<OneField> record : records) {
+            assertTrue(accessor.writeNextObject(resolver.setFields(record)));
+        }
+        accessor.closeForWrite();
+        return new Path(HcfsType.FILE.getUriForWrite(context) + ".snappy.parquet");
+    }
+
+    private Path writeVectorized(String path, List<List<OneField>> records) throws Exception {
+        context.setDataSource(path);
+        ParquetVectorizedAccessor vectorizedAccessor = new ParquetVectorizedAccessor();
+        ParquetVectorizedResolver vectorizedResolver = new ParquetVectorizedResolver();
+        vectorizedAccessor.setRequestContext(context);
+        vectorizedAccessor.afterPropertiesSet();
+        vectorizedResolver.setRequestContext(context);
+        vectorizedResolver.afterPropertiesSet();
+
+        assertTrue(vectorizedAccessor.openForWrite());
+        int batchSize = vectorizedResolver.getBatchSize();
+        for (int start = 0; start < records.size(); start += batchSize) {
+            OneRow batch = vectorizedResolver.setFieldsForBatch(records.subList(start, Math.min(start + batchSize, records.size())));
+            assertTrue(vectorizedAccessor.writeNextObject(batch));
+        }
+        vectorizedAccessor.closeForWrite();
+        return new Path(HcfsType.FILE.getUriForWrite(context) + ".snappy.parquet");
+    }
+
+    private List<String> readGroups(Path parquetFile) throws IOException {
+        List<String> groups = new ArrayList<>();
+        try (ParquetReader<Group> fileReader = ParquetReader.builder(new GroupReadSupport(), parquetFile)
+                .withConf(configuration)
+                .build()) {
+            Group group;
+            while ((group = fileReader.read()) != null) {
+                groups.add(group.toString());
+            }
+        }
+        return groups;
+    }
+
+    private void writeIntValues(int count) throws Exception {
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        assertTrue(accessor.openForWrite());
+        for (int i = 0; i < count; i++) {
+            List<OneField> record = Collections.singletonList(new OneField(DataType.INTEGER.getOID(), i));
+            assertTrue(accessor.writeNextObject(resolver.setFields(record)));
+        }
+        accessor.closeForWrite();
+    }
+
+    private void assertIntValues(Path parquetFile, int start, int count) throws IOException {
+        validateFooter(parquetFile, 1, count);
+        try (ParquetReader<Group> fileReader = ParquetReader.builder(new GroupReadSupport(), parquetFile)
+                .withConf(configuration)
+                .build()) {
+            for (int i = start; i < start + count; i++) {
+                assertEquals(i, fileReader.read().getInteger(0, 0));
+            }
+            assertNull(fileReader.read());
+        }
+    }
+
     private MessageType validateFooter(Path parquetFile) throws IOException {
         return validateFooter(parquetFile, 1, 10);
     }
@@ -1,6 +1,8 @@
 package org.greenplum.pxf.plugins.hdfs.orc;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.Accessor;
@@ -13,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Objects;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -357,6 +360,46 @@ public class ORCFilterPushDownMultipleStripesTest extends ORCVectorizedBaseTest
         runTestScenario(2);
     }
 
+    @Test
+    public void testSampling() throws Exception {
+        // half of the stripes are sampled -> stripe 2
+        context.setStatsSampleRatio(0.5f);
+        ORCVectorizedAccessor accessor = new ORCVectorizedAccessor();
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        assertTrue(accessor.openForRead());
+        assertEquals(0.5f, accessor.getReadRatio());
+
+        int rows = 0;
+        OneRow batchOfRows;
+        while ((batchOfRows = accessor.readNextObject()) != null) {
+            VectorizedRowBatch batch = (VectorizedRowBatch) batchOfRows.getData();
+            assertEquals(-100, ((LongColumnVector) batch.cols[0]).vector[0]);
+            rows += batch.size;
+        }
+        assertEquals(1049, rows);
+        accessor.closeForRead();
+    }
+
+    @Test
+    public void testSamplingWithFilter() throws Exception {
+        context.setStatsSampleRatio(0.5f);
+
+        // byte1 < -4 -> stripe 2, which is sampled
+        context.setFilterString("a0c23s2d-4o1");
+        runTestScenario(2);
+
+        // byte1 > 101 -> stripe 1, which is not sampled
+        context.setFilterString("a0c23s3d101o2");
+        runTestScenario(0);
+    }
+
+    @Test
+    public void testSamplingAllStripes() throws Exception {
+        context.setStatsSampleRatio(0.9f);
+        runTestScenario(4);
+    }
+
     private void runTestScenario(int expectedBatches) throws Exception {
         OneRow batchOfRows;
         Accessor accessor = new ORCVectorizedAccessor();
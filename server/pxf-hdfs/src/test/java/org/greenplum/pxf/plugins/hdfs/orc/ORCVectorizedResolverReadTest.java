@@ -15,6 +15,8 @@ import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.ColumnValues;
+import org.greenplum.pxf.api.model.ColumnarBatch;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,12 +27,15 @@ import java.sql.Date;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -328,6 +333,73 @@ class ORCVectorizedResolverReadTest extends ORCVectorizedBaseTest {
         assertDataReturned(ORC_TYPES_DATASET, fields);
     }
 
+    @Test
+    public void testGetColumnsForBatchMatchesFields() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA);
+        context.setMetadata(schema);
+
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        OneRow batchOfRows = new OneRow(readOrcFile("orc_types.orc", 25, schema));
+        assertColumnsMatchFields(resolver.getFieldsForBatch(batchOfRows), resolver.getColumnsForBatch(batchOfRows));
+
+        // repeating vectors
+        batchOfRows = new OneRow(readOrcFile("orc_types_repeated.orc", 3, schema));
+        assertColumnsMatchFields(resolver.getFieldsForBatch(batchOfRows), resolver.getColumnsForBatch(batchOfRows));
+
+        // the read schema is a superset of the file schema
+        batchOfRows = new OneRow(readOrcFile("orc_types_unordered_subset.orc", 17, schema));
+        assertColumnsMatchFields(resolver.getFieldsForBatch(batchOfRows), resolver.getColumnsForBatch(batchOfRows));
+    }
+
+    @Test
+    public void testGetColumnsForBatchWithProjection() throws IOException {
+        IntStream.range(0, columnDescriptors.size()).forEach(idx ->
+                columnDescriptors
+                        .get(idx)
+                        .setProjected(idx == 1 || idx == 2 || idx == 5 || idx == 6 || idx == 7 || idx == 10 || idx == 14));
+        TypeDescription schema = TypeDescription.fromString("struct<t2:string,num1:int,tm:timestamp,tmtz: timestamp with local time zone,r:float,tn:tinyint,c1:char(3)>");
+        context.setMetadata(schema);
+
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        OneRow batchOfRows = new OneRow(readOrcFile("orc_types.orc", 25, schema));
+        ColumnarBatch columnarBatch = resolver.getColumnsForBatch(batchOfRows);
+        assertEquals(16, columnarBatch.getColumnCount());
+        assertEquals(25, columnarBatch.getSize());
+        assertColumnsMatchFields(resolver.getFieldsForBatch(batchOfRows), columnarBatch);
+    }
+
+    @Test
+    public void testGetColumnsForBatchCompound() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA_COMPOUND);
+        context.setMetadata(schema);
+        context.setTupleDescription(columnDescriptorsCompound);
+
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        OneRow batchOfRows = new OneRow(readOrcFile("orc_types_compound.orc", 6, schema));
+        assertColumnsMatchFields(resolver.getFieldsForBatch(batchOfRows), resolver.getColumnsForBatch(batchOfRows));
+    }
+
+    @Test
+    public void testGetColumnsForMultipleBatches() throws IOException {
+        TypeDescription schema = TypeDescription.fromString(ORC_TYPES_SCHEMA);
+        context.setMetadata(schema);
+
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        // the columnar batch is re-used, its columns read the vectors of the current batch
+        for (VectorizedRowBatch batch : readBatchesFromOrcFile("orc_types.orc", 24, 2, schema)) {
+            OneRow batchOfRows = new OneRow(batch);
+            assertColumnsMatchFields(resolver.getFieldsForBatch(batchOfRows), resolver.getColumnsForBatch(batchOfRows));
+        }
+    }
+
     @Test
     public void testUnsupportedFunctionality() {
         Exception e = assertThrows(UnsupportedOperationException.class, () -> resolver.getFields(new OneRow()));
@@ -337,6 +409,40 @@ class ORCVectorizedResolverReadTest extends ORCVectorizedBaseTest {
         assertEquals("Current operation is not supported", e.getMessage());
     }
 
+    private void assertColumnsMatchFields(List<List<OneField>> fieldsForBatch, ColumnarBatch columnarBatch) {
+        assertEquals(fieldsForBatch.size(), columnarBatch.getSize());
+        for (int col = 0; col < columnarBatch.getColumnCount(); col++) {
+            ColumnValues column = columnarBatch.getColumn(col);
+            for (int row = 0; row < columnarBatch.getSize(); row++) {
+                OneField field = fieldsForBatch.get(row).get(col);
+                int index = column.isRepeating() ? 0 : row;
+                String message = "row " + row + ", column " + col;
+
+                assertEquals(field.type, column.getDataType().getOID(), message);
+                if (field.val == null) {
+                    assertTrue(column.isNull(index), message);
+                    continue;
+                }
+                assertFalse(column.isNull(index), message);
+                Object value = column.getObject(index);
+                if (field.val instanceof byte[]) {
+                    assertArrayEquals((byte[]) field.val, (byte[]) value, message);
+                    assertArrayEquals((byte[]) field.val, Arrays.copyOfRange(column.getBytes(index),
+                            column.getStart(index), column.getStart(index) + column.getLength(index)), message);
+                } else {
+                    assertEquals(field.val, value, message);
+                }
+                if (field.val instanceof Integer || field.val instanceof Long || field.val instanceof Short) {
+                    assertEquals(((Number) field.val).longValue(), column.getLong(index), message);
+                } else if (field.val instanceof Float) {
+                    assertEquals(field.val, (float) column.getDouble(index), message);
+                } else if (field.val instanceof Double) {
+                    assertEquals(field.val, column.getDouble(index), message);
+                }
+            }
+        }
+    }
+
     private void assertDataReturned(Object[][] expected, List<List<OneField>> fieldsForBatch) {
         for (int rowNum = 0; rowNum < fieldsForBatch.size(); rowNum++) {
             List<OneField> row = fieldsForBatch.get(rowNum);
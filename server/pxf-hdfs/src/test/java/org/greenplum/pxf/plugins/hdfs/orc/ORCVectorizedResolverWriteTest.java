@@ -17,6 +17,8 @@ import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.error.UnsupportedTypeException;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.ColumnBuffer;
+import org.greenplum.pxf.api.model.ColumnarBatch;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +27,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -97,6 +102,22 @@ public class ORCVectorizedResolverWriteTest extends ORCVectorizedBaseTest {
         assertEquals("Provided set of 1025 records is greater than the batch size of 1024", e.getMessage());
     }
 
+    @Test
+    public void testColumnsReturnsNullOnEmptyBatch() throws IOException {
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+        fillEmptyRecords(0);
+        assertNull(resolver.setColumnsForBatch(toColumnarBatch(records, 0)));
+    }
+
+    @Test
+    public void testColumnsFailsOnBatchSizeMismatch() throws IOException {
+        fillEmptyRecords(1025);
+        ColumnarBatch batch = toColumnarBatch(records, 0);
+        Exception e = assertThrows(PxfRuntimeException.class, () -> resolver.setColumnsForBatch(batch));
+        assertEquals("Provided set of 1025 records is greater than the batch size of 1024", e.getMessage());
+    }
+
     @Test
     public void testFailsOnMissingSchema() {
         context.setMetadata(null);
@@ -306,6 +327,42 @@ public class ORCVectorizedResolverWriteTest extends ORCVectorizedBaseTest {
         }
     }
 
+    @Test
+    public void testResolvesColumnarBatch_WithNulls() throws IOException {
+        columnDescriptors = getAllColumns();
+        context.setTupleDescription(columnDescriptors);
+        when(mockWriterOptions.getSchema()).thenReturn(getSchemaForAllColumns());
+        when(mockWriterOptions.getUseUTCTimestamp()).thenReturn(true);
+        context.setMetadata(mockWriterOptions);
+
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        int numColumns = 32;
+        int numRows = 3;
+
+        // the batches come the way GPDBWritableRecordReader decodes them, every column that is not
+        // one of the primitive GPDBWritable types is received as text
+        for (int column = 0; column < numColumns; column++) {
+            for (NullPlacement placement : NullPlacement.values()) {
+                records = getRecordsWithNulls(column, placement);
+                VectorizedRowBatch batch = (VectorizedRowBatch) resolver.setColumnsForBatch(toColumnarBatch(records, numColumns)).getData();
+                boolean[] noNulls = new boolean[numColumns];
+                Arrays.fill(noNulls, true);
+                boolean[][] isNull = new boolean[numColumns][numRows];
+                if (!placement.equals(NullPlacement.NONE)) {
+                    noNulls[column] = false;
+                    for (int row = 0; row < numRows; row++) {
+                        if (row == placement.ordinal() || placement.equals(NullPlacement.ALL)) {
+                            isNull[column][row] = true;
+                        }
+                    }
+                }
+                assertBatch(batch, 3, numColumns, getAllColumnTypes(), noNulls, isNull);
+            }
+        }
+    }
+
     @Test
     public void testResolvesBatch_ListRequiresReallocation() {
         // getListWriteFunction has some logic that allows us to reallocate only if necessary. Try to test that here.
@@ -682,6 +739,44 @@ public class ORCVectorizedResolverWriteTest extends ORCVectorizedBaseTest {
         }
     }
 
+    private ColumnarBatch toColumnarBatch(List<List<OneField>> records, int numColumns) throws IOException {
+        ColumnBuffer[] columns = new ColumnBuffer[numColumns];
+        for (int column = 0; column < numColumns; column++) {
+            DataType dataType = DataType.get(records.get(0).get(column).type);
+            switch (dataType) {
+                case BOOLEAN:
+                case BYTEA:
+                case BIGINT:
+                case SMALLINT:
+                case INTEGER:
+                case REAL:
+                case FLOAT8:
+                    break;
+                default:
+                    dataType = DataType.TEXT;
+            }
+            columns[column] = new ColumnBuffer(dataType, StandardCharsets.UTF_8, records.size());
+            for (int row = 0; row < records.size(); row++) {
+                Object val = records.get(row).get(column).val;
+                if (val == null) {
+                    columns[column].setNull(row);
+                } else if (val instanceof Boolean) {
+                    columns[column].setLong(row, (Boolean) val ? 1 : 0);
+                } else if (val instanceof Float || val instanceof Double) {
+                    columns[column].setDouble(row, ((Number) val).doubleValue());
+                } else if (val instanceof Number) {
+                    columns[column].setLong(row, ((Number) val).longValue());
+                } else {
+                    byte[] bytes = val instanceof byte[] ? (byte[]) val : val.toString().getBytes(StandardCharsets.UTF_8);
+                    columns[column].readBytes(row, new DataInputStream(new ByteArrayInputStream(bytes)), bytes.length);
+                }
+            }
+        }
+        ColumnarBatch batch = new ColumnarBatch(columns);
+        batch.setSize(records.size());
+        return batch;
+    }
+
     private enum NullPlacement {
         // order matters as we use ordinal position here to place null values
         FIRST, MIDDLE, LAST, ALL, NONE
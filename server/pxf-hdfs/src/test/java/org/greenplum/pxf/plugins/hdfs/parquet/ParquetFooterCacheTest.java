@@ -0,0 +1,138 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParquetFooterCacheTest {
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message test { required int32 id; }");
+
+    @TempDir
+    File temp;
+
+    private Configuration configuration;
+    private Path file;
+
+    @BeforeEach
+    public void setup() {
+        configuration = new Configuration();
+        file = new Path(temp.getAbsolutePath(), "test.parquet");
+    }
+
+    @Test
+    public void testFooterIsReadOnce() throws IOException {
+        writeFile(10);
+        ParquetFooterCache cache = new ParquetFooterCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+
+        ParquetMetadata footer = cache.getFooter(file, configuration);
+        assertEquals(SCHEMA, footer.getFileMetaData().getSchema());
+        assertEquals(10, footer.getBlocks().stream().mapToLong(BlockMetaData::getRowCount).sum());
+        assertSame(footer, cache.getFooter(file, configuration));
+
+        cache.invalidateAll();
+        assertNotSame(footer, cache.getFooter(file, configuration));
+    }
+
+    @Test
+    public void testFooterIsReadAgainWhenFileChanges() throws IOException {
+        writeFile(10);
+        ParquetFooterCache cache = new ParquetFooterCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        ParquetMetadata footer = cache.getFooter(file, configuration);
+
+        writeFile(20);
+        ParquetMetadata newFooter = cache.getFooter(file, configuration);
+        assertNotSame(footer, newFooter);
+        assertEquals(20, newFooter.getBlocks().stream().mapToLong(BlockMetaData::getRowCount).sum());
+    }
+
+    @Test
+    public void testEmptyCacheReadsFooterEveryTime() throws IOException {
+        writeFile(10);
+        ParquetFooterCache cache = new ParquetFooterCache(DataSize.ofBytes(0), Duration.ZERO);
+
+        ParquetMetadata footer = cache.getFooter(file, configuration);
+        assertEquals(10, footer.getBlocks().stream().mapToLong(BlockMetaData::getRowCount).sum());
+        assertNotSame(footer, cache.getFooter(file, configuration));
+    }
+
+    @Test
+    public void testMissingFile() {
+        ParquetFooterCache cache = new ParquetFooterCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        assertThrows(FileNotFoundException.class, () -> cache.getFooter(file, configuration));
+    }
+
+    @Test
+    public void testMissingFileWithEmptyCache() {
+        ParquetFooterCache cache = new ParquetFooterCache(DataSize.ofBytes(0), Duration.ZERO);
+        assertThrows(FileNotFoundException.class, () -> cache.getFooter(file, configuration));
+    }
+
+    @Test
+    public void testGetSplitFooter() throws IOException {
+        // small row groups to get several of them in the file
+        writeFile(100000, 4096);
+        ParquetMetadata footer = new ParquetFooterCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1))
+                .getFooter(file, configuration);
+        int rowGroups = footer.getBlocks().size();
+        assertTrue(rowGroups > 2, "expected more than 2 row groups, got " + rowGroups);
+
+        // every row group belongs to exactly one of the splits
+        long length = file.getFileSystem(configuration).getFileStatus(file).getLen();
+        long middle = length / 2;
+        ParquetMetadata first = ParquetFooterCache.getSplitFooter(footer, 0, middle);
+        ParquetMetadata second = ParquetFooterCache.getSplitFooter(footer, middle, length);
+        assertSame(footer.getFileMetaData(), first.getFileMetaData());
+        assertEquals(rowGroups, first.getBlocks().size() + second.getBlocks().size());
+        assertTrue(first.getBlocks().size() > 0);
+        assertTrue(second.getBlocks().size() > 0);
+        for (BlockMetaData rowGroup : first.getBlocks()) {
+            assertTrue(rowGroup.getStartingPos() + rowGroup.getCompressedSize() / 2 < middle);
+        }
+
+        assertEquals(rowGroups, ParquetFooterCache.getSplitFooter(footer, 0, length).getBlocks().size());
+        assertEquals(0, ParquetFooterCache.getSplitFooter(footer, length, length + 100).getBlocks().size());
+    }
+
+    private void writeFile(int rows) throws IOException {
+        writeFile(rows, ParquetWriter.DEFAULT_BLOCK_SIZE);
+    }
+
+    private void writeFile(int rows, int rowGroupSize) throws IOException {
+        SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+                .withConf(configuration)
+                .withType(SCHEMA)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withRowGroupSize(rowGroupSize)
+                .withDictionaryEncoding(false)
+                .build()) {
+            for (int i = 0; i < rows; i++) {
+                writer.write(factory.newGroup().append("id", i));
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.greenplum.pxf.plugins.hdfs.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.greenplum.pxf.api.io.EncodedText;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ParquetRecordConverterTest {
+
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message test {" +
+            " required int32 id;" +
+            " optional binary status (UTF8);" +
+            " optional binary payload;" +
+            " optional group address { optional binary city (UTF8); }" +
+            " repeated binary tags (UTF8);" +
+            "}");
+    private static final String[] STATUSES = {"active", "inactive", "pending"};
+
+    @TempDir
+    File temp;
+
+    @Test
+    public void testDictionaryValuesAreShared() throws IOException {
+        List<Group> records = writeAndRead(true);
+
+        assertEquals(30, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ParquetGroup record = assertInstanceOf(ParquetGroup.class, records.get(i));
+            assertRecord(record, i);
+
+            EncodedText status = record.getDictionaryValue(1);
+            assertEquals(STATUSES[i % 3], status.toString());
+            assertSame(status, ((ParquetGroup) records.get(i % 3)).getDictionaryValue(1));
+            // only the top level text columns are read from the dictionary
+            assertNull(record.getDictionaryValue(0));
+            assertNull(record.getDictionaryValue(2));
+            assertNull(record.getDictionaryValue(3));
+            assertNull(record.getDictionaryValue(4));
+        }
+    }
+
+    @Test
+    public void testPlainValuesAreNotShared() throws IOException {
+        List<Group> records = writeAndRead(false);
+
+        assertEquals(30, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ParquetGroup record = assertInstanceOf(ParquetGroup.class, records.get(i));
+            assertRecord(record, i);
+            assertNull(record.getDictionaryValue(1));
+        }
+    }
+
+    private void assertRecord(Group record, int i) {
+        assertEquals(i, record.getInteger(0, 0));
+        assertEquals(STATUSES[i % 3], record.getString(1, 0));
+        assertEquals("payload-" + i, record.getString(2, 0));
+        assertEquals("city-" + i % 2, record.getGroup(3, 0).getString(0, 0));
+        assertEquals(2, record.getFieldRepetitionCount(4));
+        assertEquals("tag-" + i, record.getString(4, 1));
+    }
+
+    private List<Group> writeAndRead(boolean dictionary) throws IOException {
+        Configuration configuration = new Configuration();
+        Path file = new Path(temp.getAbsolutePath(), "test.parquet");
+        SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+                .withConf(configuration)
+                .withType(SCHEMA)
+                .withDictionaryEncoding(dictionary)
+                .build()) {
+            for (int i = 0; i < 30; i++) {
+                Group group = factory.newGroup()
+                        .append("id", i)
+                        .append("status", STATUSES[i % 3])
+                        .append("payload", "payload-" + i);
+                group.addGroup("address").append("city", "city-" + i % 2);
+                group.append("tags", "tag").append("tags", "tag-" + i);
+                writer.write(group);
+            }
+        }
+
+        List<Group> records = new ArrayList<>();
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(file, configuration))) {
+            MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(SCHEMA);
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> recordReader = columnIO.getRecordReader(rowGroup, new ParquetRecordConverter(SCHEMA));
+                for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                    records.add(recordReader.read());
+                }
+            }
+        }
+        return records;
+    }
+}
@@ -26,10 +26,12 @@ import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class HdfsUtilitiesTest {
 
@@ -52,4 +54,23 @@ public class HdfsUtilitiesTest {
         assertEquals(fileSplit.getLength(), 100);
         assertEquals(fileSplit.getPath().toString(), "/abc/path/to/data/source");
     }
+
+    @Test
+    public void testGetSampledBlocks() {
+        // all the blocks are needed
+        assertNull(HdfsUtilities.getSampledBlocks(0, 0.1f));
+        assertNull(HdfsUtilities.getSampledBlocks(1, 0.1f));
+        assertNull(HdfsUtilities.getSampledBlocks(10, 0.95f));
+        assertNull(HdfsUtilities.getSampledBlocks(10, 0f));
+
+        BitSet blocks = HdfsUtilities.getSampledBlocks(2, 0.5f);
+        assertEquals(BitSet.valueOf(new long[]{0b10}), blocks);
+
+        blocks = HdfsUtilities.getSampledBlocks(100, 0.03f);
+        assertEquals(3, blocks.cardinality());
+        assertEquals("{16, 50, 83}", blocks.toString());
+
+        blocks = HdfsUtilities.getSampledBlocks(10, 0.01f);
+        assertEquals("{5}", blocks.toString());
+    }
 }
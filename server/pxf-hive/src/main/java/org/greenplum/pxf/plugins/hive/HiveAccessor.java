@@ -34,6 +34,7 @@ import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.Reporter;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.filter.ColumnIndexOperandNode;
 import org.greenplum.pxf.api.filter.FilterParser;
 import org.greenplum.pxf.api.filter.Node;
@@ -45,6 +46,7 @@ import org.greenplum.pxf.api.filter.SupportedOperatorPruner;
 import org.greenplum.pxf.api.filter.ToStringTreeVisitor;
 import org.greenplum.pxf.api.filter.TreeTraverser;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.model.Reloader;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.greenplum.pxf.api.utilities.SerializationService;
@@ -92,7 +94,7 @@ import static org.greenplum.pxf.plugins.hive.HiveDataFragmenter.PXF_META_TABLE_P
  * split which does not belong to a partition filter. Naturally, the partition
  * filtering will be done only for Hive tables that are partitioned.
  */
-public class HiveAccessor extends HdfsSplittableDataAccessor {
+public class HiveAccessor extends HdfsSplittableDataAccessor implements Reloader {
 
     private static final Logger LOG = LoggerFactory.getLogger(HiveAccessor.class);
     private static final String PXF_PPD_HIVE = "pxf.ppd.hive";
@@ -337,6 +339,29 @@ public class HiveAccessor extends HdfsSplittableDataAccessor {
         throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
     }
 
+    /**
+     * Closes the pooled Hive MetaStore clients and drops the cached table
+     * metadata used by the Hive fragmenters
+     */
+    @Override
+    public void reloadAll() {
+        getHiveClientWrapper().reloadAll();
+    }
+
+    /**
+     * Closes the pooled Hive MetaStore clients and drops the cached table
+     * metadata of the given server
+     *
+     * @param server the name of the server
+     */
+    @Override
+    public void reload(String server) {
+        if (server == null || server.isBlank()) {
+            throw new PxfRuntimeException("Failed to reload profile. Parameter server is blank.");
+        }
+        getHiveClientWrapper().reload(server);
+    }
+
     /**
      * Creates the RecordReader suitable for this given split.
      *
@@ -361,6 +386,14 @@ public class HiveAccessor extends HdfsSplittableDataAccessor {
         return true;
     }
 
+    private HiveClientWrapper getHiveClientWrapper() {
+        HiveClientWrapper hiveClientWrapper = SpringContext.getBean(HiveClientWrapper.class);
+        if (Objects.isNull(hiveClientWrapper)) {
+            throw new PxfRuntimeException("Failed to reload profile. Hive client wrapper is null.");
+        }
+        return hiveClientWrapper;
+    }
+
     /*
      * The partition fields are initialized one time base on userData provided
      * by the fragmenter
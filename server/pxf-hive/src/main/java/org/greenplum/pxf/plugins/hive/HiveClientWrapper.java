@@ -1,5 +1,6 @@
 package org.greenplum.pxf.plugins.hive;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -12,6 +13,7 @@ import org.apache.hadoop.hive.metastore.RetryingMetaStoreClient;
 import org.apache.hadoop.hive.metastore.TableType;
 import org.apache.hadoop.hive.metastore.api.FieldSchema;
 import org.apache.hadoop.hive.metastore.api.MetaException;
+import org.apache.hadoop.hive.metastore.api.Partition;
 import org.apache.hadoop.hive.metastore.api.Table;
 import org.apache.hadoop.hive.ql.io.AcidUtils;
 import org.apache.hadoop.security.UserGroupInformation;
@@ -35,8 +37,11 @@ import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.FILE_OUTPUT_FORMAT;
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_LOCATION;
@@ -50,6 +55,12 @@ public class HiveClientWrapper {
     private static final Logger LOG = LoggerFactory.getLogger(HiveClientWrapper.class);
 
     private static final String WILDCARD = "*";
+    private static final short ALL_PARTS = -1;
+
+    /**
+     * Properties that determine which MetaStore a client talks to and how
+     */
+    private static final String CLIENT_PROPERTIES_REGEX = "^(hive\\.metastore|hadoop\\.security)\\..*";
 
     private static final String STR_RC_FILE_INPUT_FORMAT = "org.apache.hadoop.hive.ql.io.RCFileInputFormat";
     private static final String STR_TEXT_FILE_INPUT_FORMAT = "org.apache.hadoop.mapred.TextInputFormat";
@@ -60,6 +71,8 @@ public class HiveClientWrapper {
     private HiveClientFactory hiveClientFactory;
     private HiveUtilities hiveUtilities;
     private SecureLogin secureLogin;
+    private HiveMetaStoreClientPool clientPool;
+    private HiveMetadataCache metadataCache;
 
     /**
      * Sets the {@link HiveClientFactory} object
@@ -92,28 +105,98 @@ public class HiveClientWrapper {
     }
 
     /**
-     * Initializes the IMetaStoreClient
+     * Sets the {@link HiveMetaStoreClientPool} object
+     *
+     * @param clientPool the pool of MetaStore clients
+     */
+    @Autowired
+    public void setClientPool(HiveMetaStoreClientPool clientPool) {
+        this.clientPool = clientPool;
+    }
+
+    /**
+     * Sets the {@link HiveMetadataCache} object
+     *
+     * @param metadataCache the cache of tables and partitions
+     */
+    @Autowired
+    public void setMetadataCache(HiveMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
+    /**
+     * Returns an IMetaStoreClient for the server and the user of the request,
+     * a pooled one if there is an idle client for them.
      * Uses classpath configuration files to locate the MetaStore
      *
-     * @return initialized client
+     * @return initialized client, closing the holder returns it to the pool
      */
     public MetaStoreClientHolder initHiveClient(RequestContext context, Configuration configuration) {
-        HiveConf hiveConf = getHiveConf(configuration);
         try {
-            if (Utilities.isSecurityEnabled(configuration)) {
-                UserGroupInformation loginUser = secureLogin.getLoginUser(context, configuration);
-                LOG.debug("initialize HiveMetaStoreClient as login user '{}'", loginUser.getUserName());
-                // wrap in doAs for Kerberos to propagate kerberos tokens from login Subject
-                return loginUser.
-                        doAs((PrivilegedExceptionAction<MetaStoreClientHolder>) () -> hiveClientFactory.initHiveClient(hiveConf));
-            } else {
-                return hiveClientFactory.initHiveClient(hiveConf);
-            }
-        } catch (MetaException | InterruptedException | IOException e) {
+            UserGroupInformation loginUser = Utilities.isSecurityEnabled(configuration) ?
+                    secureLogin.getLoginUser(context, configuration) : null;
+            String user = loginUser != null ? loginUser.getUserName() : UserGroupInformation.getCurrentUser().getUserName();
+            HiveMetaStoreClientPool.ClientDescriptor descriptor = new HiveMetaStoreClientPool.ClientDescriptor(
+                    context.getServerName(), user, configuration.getValByRegex(CLIENT_PROPERTIES_REGEX));
+            return clientPool.getClient(descriptor, () -> createHiveClient(configuration, loginUser));
+        } catch (IOException e) {
             throw new RuntimeException("Failed connecting to Hive MetaStore service: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Reloads all the MetaStore clients and cached metadata
+     */
+    public void reloadAll() {
+        clientPool.reloadCache();
+        metadataCache.invalidateAll();
+    }
+
+    /**
+     * Reloads the MetaStore clients and cached metadata of the given server
+     *
+     * @param server the name of the server
+     */
+    public void reload(String server) {
+        Predicate<HiveMetaStoreClientPool.ClientDescriptor> filter = descriptor -> server.equals(descriptor.getServer());
+        clientPool.reloadCacheIf(filter);
+        metadataCache.invalidateIf(filter);
+    }
+
+    /**
+     * Returns the table from the cache of metadata of the client's identity,
+     * fetching it if it is not cached
+     *
+     * @param holder   the holder of the MetaStore client
+     * @param itemName the table
+     * @return the table
+     * @throws Exception if the table can not be fetched or is not supported
+     */
+    public Table getHiveTable(MetaStoreClientHolder holder, Metadata.Item itemName) throws Exception {
+        return metadataCache.getTable(holder.getDescriptor(), itemName, () -> getHiveTable(holder.getClient(), itemName));
+    }
+
+    /**
+     * Returns the partitions of the table that match the given filter from
+     * the cache of metadata of the client's identity, fetching them if they
+     * are not cached
+     *
+     * @param holder   the holder of the MetaStore client
+     * @param itemName the table
+     * @param filter   the filter in the MetaStore syntax, null to list all the partitions
+     * @return the partitions, the list is shared and must not be modified
+     * @throws Exception if the partitions can not be fetched
+     */
+    public List<Partition> listPartitions(MetaStoreClientHolder holder, Metadata.Item itemName, String filter) throws Exception {
+        return metadataCache.getPartitions(holder.getDescriptor(), itemName, filter, () -> {
+            IMetaStoreClient client = holder.getClient();
+            List<Partition> partitions = filter == null ?
+                    client.listPartitions(itemName.getPath(), itemName.getName(), ALL_PARTS) :
+                    client.listPartitionsByFilter(itemName.getPath(), itemName.getName(), filter, ALL_PARTS);
+            return partitions != null ? partitions : Collections.emptyList();
+        });
+    }
+
     public Table getHiveTable(IMetaStoreClient client, Metadata.Item itemName) throws Exception {
         Table tbl = client.getTable(itemName.getPath(), itemName.getName());
         String tblType = tbl.getTableType();
@@ -323,6 +406,26 @@ public class HiveClientWrapper {
         return hiveConf;
     }
 
+    /**
+     * Creates a new IMetaStoreClient, as the login user when Kerberos is enabled
+     */
+    private IMetaStoreClient createHiveClient(Configuration configuration, UserGroupInformation loginUser) {
+        HiveConf hiveConf = getHiveConf(configuration);
+        try {
+            if (loginUser != null) {
+                LOG.debug("initialize HiveMetaStoreClient as login user '{}'", loginUser.getUserName());
+                // wrap in doAs for Kerberos to propagate kerberos tokens from login Subject
+                return loginUser.
+                        doAs((PrivilegedExceptionAction<MetaStoreClientHolder>) () -> hiveClientFactory.initHiveClient(hiveConf))
+                        .getClient();
+            } else {
+                return hiveClientFactory.initHiveClient(hiveConf).getClient();
+            }
+        } catch (MetaException | InterruptedException | IOException e) {
+            throw new RuntimeException("Failed connecting to Hive MetaStore service: " + e.getMessage(), e);
+        }
+    }
+
     /* Turns the partition values into a string and adds them to the properties */
     private void addPartitionValuesInformation(Properties properties, HiveTablePartition partData) {
         if (partData.partition != null) {
@@ -395,26 +498,43 @@ public class HiveClientWrapper {
 
     /**
      * Holder of a MetaStoreClient that implements AutoCloseable interface that allows it to be used in
-     * try-with-resources block and be automatically closed when no longer required.
+     * try-with-resources block and be automatically released when no longer required.
      * The class just wraps the real client, it does not delegate any methods to the real client as there would be
      * too many methods to override.
      */
     @Getter
     public static class MetaStoreClientHolder implements AutoCloseable {
         private final IMetaStoreClient client;
+        private final HiveMetaStoreClientPool.ClientDescriptor descriptor;
+        @Getter(AccessLevel.NONE)
+        private final Consumer<IMetaStoreClient> releaser;
 
         /**
-         * Creates a new holder of the provided Metastore client.
+         * Creates a new holder of the provided Metastore client, closing the holder closes the client.
          *
          * @param client a client to hold
          */
         MetaStoreClientHolder(IMetaStoreClient client) {
+            this(client, null, IMetaStoreClient::close);
+        }
+
+        /**
+         * Creates a new holder of the provided Metastore client.
+         *
+         * @param client     a client to hold
+         * @param descriptor the identity the client was created for
+         * @param releaser   releases the client when the holder is closed
+         */
+        MetaStoreClientHolder(IMetaStoreClient client, HiveMetaStoreClientPool.ClientDescriptor descriptor,
+                              Consumer<IMetaStoreClient> releaser) {
             this.client = client;
+            this.descriptor = descriptor;
+            this.releaser = releaser;
         }
 
         @Override
         public void close() {
-            client.close();
+            releaser.accept(client);
         }
     }
 }
@@ -22,7 +22,6 @@ package org.greenplum.pxf.plugins.hive;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.conf.HiveConf;
-import org.apache.hadoop.hive.metastore.IMetaStoreClient;
 import org.apache.hadoop.hive.metastore.MetaStoreUtils;
 import org.apache.hadoop.hive.metastore.api.FieldSchema;
 import org.apache.hadoop.hive.metastore.api.Partition;
@@ -33,6 +32,7 @@ import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputFormat;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.security.UserGroupInformation;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.filter.FilterParser;
 import org.greenplum.pxf.api.filter.Node;
@@ -50,6 +50,10 @@ import org.greenplum.pxf.plugins.hive.utilities.ProfileFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.UndeclaredThrowableException;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -57,6 +61,10 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -74,11 +82,18 @@ import java.util.stream.Stream;
  * </ol>
  */
 public class HiveDataFragmenter extends HdfsDataFragmenter {
-    private static final short ALL_PARTS = -1;
 
     public static final String HIVE_PARTITIONS_DELIM = "!HPAD!";
     public static final String PXF_META_TABLE_PARTITION_COLUMN_VALUES = "pxf.pcv";
 
+    /**
+     * The maximum number of partitions whose splits are computed concurrently,
+     * the option overrides the server configuration property.
+     */
+    static final String SPLIT_PARALLELISM_OPTION = "SPLIT_PARALLELISM";
+    static final String PXF_HIVE_SPLIT_PARALLELISM = "pxf.hive.split.parallelism";
+    private static final int DEFAULT_SPLIT_PARALLELISM = 1;
+
     static final EnumSet<Operator> SUPPORTED_OPERATORS =
             EnumSet.of(
                     Operator.EQUALS,
@@ -97,6 +112,7 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
     protected final HiveUtilities hiveUtilities;
 
     private final HiveClientWrapper hiveClientWrapper;
+    private final HiveSplitExecutor splitExecutor;
 
     // Data structure to hold hive partition names if exist, to be used by
     // partition filtering
@@ -104,12 +120,14 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
     private final Map<String, String> partitionKeyTypes = new HashMap<>();
 
     public HiveDataFragmenter() {
-        this(SpringContext.getBean(HiveUtilities.class), SpringContext.getBean(HiveClientWrapper.class));
+        this(SpringContext.getBean(HiveUtilities.class), SpringContext.getBean(HiveClientWrapper.class),
+                SpringContext.getBean(HiveSplitExecutor.class));
     }
 
-    HiveDataFragmenter(HiveUtilities hiveUtilities, HiveClientWrapper hiveClientWrapper) {
+    HiveDataFragmenter(HiveUtilities hiveUtilities, HiveClientWrapper hiveClientWrapper, HiveSplitExecutor splitExecutor) {
         this.hiveClientWrapper = hiveClientWrapper;
         this.hiveUtilities = hiveUtilities;
+        this.splitExecutor = splitExecutor;
     }
 
     /**
@@ -120,7 +138,7 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         Metadata.Item tblDesc = hiveClientWrapper.extractTableFromName(context.getDataSource());
 
         try (HiveClientWrapper.MetaStoreClientHolder clientHolder = hiveClientWrapper.initHiveClient(context, configuration)) {
-            fetchTableMetaData(tblDesc, clientHolder.getClient());
+            fetchTableMetaData(tblDesc, clientHolder);
         }
         return fragments;
     }
@@ -129,9 +147,9 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
      * Goes over the table partitions metadata and extracts the splits and the
      * InputFormat and Serde per split.
      */
-    private void fetchTableMetaData(Metadata.Item tblDesc, IMetaStoreClient client) throws Exception {
+    private void fetchTableMetaData(Metadata.Item tblDesc, HiveClientWrapper.MetaStoreClientHolder clientHolder) throws Exception {
 
-        Table tbl = hiveClientWrapper.getHiveTable(client, tblDesc);
+        Table tbl = hiveClientWrapper.getHiveTable(clientHolder, tblDesc);
 
         Metadata metadata = new Metadata(tblDesc);
         hiveClientWrapper.getSchema(tbl, metadata);
@@ -183,8 +201,7 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
             // API call to Hive MetaStore, will return a List of all the
             // partitions for this table, that matches the partition filters
             // Defined in filterStringForHive.
-            partitions = client.listPartitionsByFilter(tblDesc.getPath(),
-                    tblDesc.getName(), filterStringForHive, ALL_PARTS);
+            partitions = hiveClientWrapper.listPartitions(clientHolder, tblDesc, filterStringForHive);
 
             // No matched partitions for the filter, no fragments to return.
             if (partitions == null || partitions.isEmpty()) {
@@ -200,31 +217,125 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         } else {
             // API call to Hive MetaStore, will return a List of all the
             // partitions for this table (no filtering)
-            partitions = client.listPartitions(tblDesc.getPath(),
-                    tblDesc.getName(), ALL_PARTS);
+            partitions = hiveClientWrapper.listPartitions(clientHolder, tblDesc, null);
         }
 
         StorageDescriptor descTable = tbl.getSd();
-        Properties props;
-
         if (partitions.isEmpty()) {
-            props = getSchema(tbl);
+            Properties props = getSchema(tbl);
             fetchMetaDataForSimpleTable(descTable, props, hasComplexTypes);
         } else {
             List<FieldSchema> partitionKeys = tbl.getPartitionKeys();
+            int parallelism = Math.min(getSplitParallelism(), partitions.size());
+
+            if (parallelism <= 1) {
+                for (Partition partition : partitions) {
+                    fragments.addAll(fetchMetaDataForPartition(partition, descTable, partitionKeys,
+                            tblDesc, hasComplexTypes, getJobConf()));
+                }
+            } else {
+                fetchMetaDataForPartitions(partitions, descTable, partitionKeys, tblDesc, hasComplexTypes, parallelism);
+            }
+        }
+    }
 
+    /*
+     * Computes the splits of the partitions on the threads of the shared split
+     * executor, at most parallelism partitions at a time. The fragments are
+     * added in the order of the partitions, so that the distribution of the
+     * fragments to the segments does not change with the parallelism. The
+     * first failure stops the submission of the remaining partitions and
+     * cancels the partitions in progress.
+     */
+    private void fetchMetaDataForPartitions(List<Partition> partitions,
+                                            StorageDescriptor descTable,
+                                            List<FieldSchema> partitionKeys,
+                                            Metadata.Item tblDesc,
+                                            boolean hasComplexTypes,
+                                            int parallelism) throws Exception {
+        LOG.debug("Computing splits for {} partitions of table {}.{} with parallelism {}",
+                partitions.size(), tblDesc.getPath(), tblDesc.getName(), parallelism);
+
+        // the splits are listed as the user of the request, threads of the pool do not inherit the security context
+        UserGroupInformation ugi = UserGroupInformation.getCurrentUser();
+        JobConf baseJobConf = getJobConf();
+        Semaphore permits = new Semaphore(parallelism);
+        List<CompletableFuture<List<Fragment>>> partitionFragments = new ArrayList<>(partitions.size());
+        List<Future<?>> tasks = new ArrayList<>(partitions.size());
+        // completed with the first failure of a partition
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        try {
             for (Partition partition : partitions) {
-                StorageDescriptor descPartition = partition.getSd();
-                props = MetaStoreUtils.getSchema(descPartition, descTable,
-                        null,
-                        tblDesc.getPath(), tblDesc.getName(),
-                        partitionKeys);
-                fetchMetaDataForPartitionedTable(descPartition, props, partition,
-                        partitionKeys, tblDesc.getName(), hasComplexTypes);
+                permits.acquire();
+                if (failure.isDone()) {
+                    break;
+                }
+                CompletableFuture<List<Fragment>> result = new CompletableFuture<>();
+                result.whenComplete((splitFragments, e) -> {
+                    if (e != null) {
+                        failure.completeExceptionally(e);
+                    }
+                });
+                partitionFragments.add(result);
+                // each partition sets its own input paths, so it needs its own copy of the job configuration
+                tasks.add(splitExecutor.submit(() -> {
+                    try {
+                        result.complete(ugi.doAs((PrivilegedExceptionAction<List<Fragment>>) () ->
+                                fetchMetaDataForPartition(partition, descTable, partitionKeys, tblDesc, hasComplexTypes,
+                                        new JobConf(baseJobConf))));
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            CompletableFuture<Void> allFragments = CompletableFuture.allOf(partitionFragments.toArray(new CompletableFuture[0]));
+            // returns as soon as a partition fails, without waiting for the other partitions
+            CompletableFuture.anyOf(allFragments, failure).get();
+            for (CompletableFuture<List<Fragment>> result : partitionFragments) {
+                fragments.addAll(result.join());
             }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UndeclaredThrowableException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } finally {
+            // the remaining partitions are not needed after a failure
+            tasks.forEach(task -> task.cancel(true));
         }
     }
 
+    private List<Fragment> fetchMetaDataForPartition(Partition partition,
+                                                     StorageDescriptor descTable,
+                                                     List<FieldSchema> partitionKeys,
+                                                     Metadata.Item tblDesc,
+                                                     boolean hasComplexTypes,
+                                                     JobConf jobConf) throws Exception {
+        StorageDescriptor descPartition = partition.getSd();
+        Properties props = MetaStoreUtils.getSchema(descPartition, descTable,
+                null,
+                tblDesc.getPath(), tblDesc.getName(),
+                partitionKeys);
+        return fetchMetaData(new HiveTablePartition(descPartition, props, partition, partitionKeys, tblDesc.getName()),
+                hasComplexTypes, jobConf);
+    }
+
+    /**
+     * Returns the maximum number of partitions whose splits are computed
+     * concurrently, from the request option or the server configuration.
+     *
+     * @return the split parallelism
+     */
+    private int getSplitParallelism() {
+        int parallelism = context.getOption(SPLIT_PARALLELISM_OPTION,
+                configuration.getInt(PXF_HIVE_SPLIT_PARALLELISM, DEFAULT_SPLIT_PARALLELISM), true);
+        return Math.max(parallelism, 1);
+    }
+
     /**
      * Verifies that all the Greenplum defined columns are present in the Hive
      * table schema.
@@ -267,25 +378,13 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
                                              String tableName,
                                              boolean hasComplexTypes)
             throws Exception {
-        fetchMetaData(new HiveTablePartition(stdsc, props, null, null,
-                tableName), hasComplexTypes);
-    }
-
-    private void fetchMetaDataForPartitionedTable(StorageDescriptor stdsc,
-                                                  Properties props,
-                                                  Partition partition,
-                                                  List<FieldSchema> partitionKeys,
-                                                  String tableName,
-                                                  boolean hasComplexTypes)
-            throws Exception {
-        fetchMetaData(new HiveTablePartition(stdsc, props, partition, partitionKeys, tableName),
-                hasComplexTypes);
+        fragments.addAll(fetchMetaData(new HiveTablePartition(stdsc, props, null, null,
+                tableName), hasComplexTypes, getJobConf()));
     }
 
-    /* Fills a table partition */
-    private void fetchMetaData(HiveTablePartition tablePartition, boolean hasComplexTypes)
+    /* Returns the fragments of a table partition */
+    private List<Fragment> fetchMetaData(HiveTablePartition tablePartition, boolean hasComplexTypes, JobConf jobConf)
             throws Exception {
-        JobConf jobConf = getJobConf();
         InputFormat<?, ?> fformat = hiveUtilities.makeInputFormat(tablePartition.storageDesc.getInputFormat(), jobConf);
         String profile = null;
         String userProfile = context.getProfile();
@@ -309,7 +408,7 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
             splits = fformat.getSplits(jobConf, 1);
         } catch (org.apache.hadoop.mapred.InvalidInputException e) {
             LOG.debug("getSplits failed on {}", e.getMessage());
-            return;
+            return Collections.emptyList();
         }
 
         // the same properties object will be reused by all fragments (splits) for a given partition
@@ -317,14 +416,16 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         // when there are a lot of splits (files) backing up the Hive table (partition).
         // Care must be taken by fragment processors to not modify this object or make a clone of it, if needed.
         Properties properties = hiveClientWrapper.buildFragmentProperties(fragmenterForProfile, tablePartition);
+        List<Fragment> partitionFragments = new ArrayList<>(splits.length);
         for (InputSplit split : splits) {
             FileSplit fileSplit = (FileSplit) split;
             String filepath = fileSplit.getPath().toString();
 
             HiveFragmentMetadata metadata = new HiveFragmentMetadata(fileSplit, properties);
             Fragment fragment = new Fragment(filepath, metadata, profile);
-            fragments.add(fragment);
+            partitionFragments.add(fragment);
         }
+        return partitionFragments;
     }
 
     /**
@@ -335,7 +436,7 @@ public class HiveDataFragmenter extends HdfsDataFragmenter {
         Metadata.Item tblDesc = hiveClientWrapper.extractTableFromName(context.getDataSource());
         Table tbl;
         try (HiveClientWrapper.MetaStoreClientHolder holder = hiveClientWrapper.initHiveClient(context, configuration)) {
-            tbl = hiveClientWrapper.getHiveTable(holder.getClient(), tblDesc);
+            tbl = hiveClientWrapper.getHiveTable(holder, tblDesc);
         }
         Metadata metadata = new Metadata(tblDesc);
         hiveClientWrapper.getSchema(tbl, metadata);
@@ -0,0 +1,177 @@
+package org.greenplum.pxf.plugins.hive;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.greenplum.pxf.api.utilities.LeaseClosingExecutor;
+import org.greenplum.pxf.api.utilities.LeaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Pools the Hive MetaStore clients shared by all the fragmenter and metadata
+ * requests. Opening a client connects to the MetaStore over Thrift, and with
+ * Kerberos runs a SASL handshake, so instead of being closed after every
+ * request a client is returned to the pool of the server configuration and
+ * user identity it was created for, and handed to the next request of the
+ * same identity.
+ * <p>
+ * A MetaStore client can not be used by several threads at once, so every
+ * request gets a client of its own, a new one if all the pooled clients are
+ * in use. Up to the configured number of idle clients are kept per identity.
+ * The clients of an identity are closed when the identity has not been used
+ * for the configured expiration time, or when the profile is reloaded.
+ */
+@Component
+public class HiveMetaStoreClientPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HiveMetaStoreClientPool.class);
+
+    private final LeaseManager<ClientDescriptor, ClientPool> pools;
+    private final int maxIdleClients;
+
+    @Autowired
+    public HiveMetaStoreClientPool(@Value("${pxf.hive.metastore.client-pool.expiration:10m}") Duration expiration,
+                                   @Value("${pxf.hive.metastore.client-pool.max-idle:8}") int maxIdleClients,
+                                   LeaseClosingExecutor clientClosingExecutor) {
+        this(expiration, maxIdleClients, (Executor) clientClosingExecutor);
+    }
+
+    HiveMetaStoreClientPool(Duration expiration, int maxIdleClients, Executor clientClosingExecutor) {
+        LOG.info("Creating Hive MetaStore Client Pool of {} idle clients per identity", maxIdleClients);
+        this.maxIdleClients = maxIdleClients;
+        this.pools = new LeaseManager<>("Hive MetaStore clients", expiration, ClientPool::closeAll, clientClosingExecutor);
+    }
+
+    /**
+     * Returns a pooled client for the given identity, or a new client created
+     * with the given creator if there is no idle client. Closing the returned
+     * holder returns the client to the pool.
+     *
+     * @param descriptor    the server configuration and user identity of the client
+     * @param clientCreator creates a client for the identity
+     * @return the holder of the client
+     */
+    public HiveClientWrapper.MetaStoreClientHolder getClient(ClientDescriptor descriptor, Supplier<IMetaStoreClient> clientCreator) {
+        LeaseManager.Lease<ClientPool> lease;
+        try {
+            lease = pools.lease(descriptor, () -> new ClientPool(maxIdleClients));
+        } catch (IOException e) {
+            // creating a pool does not do any I/O
+            throw new UncheckedIOException(e);
+        }
+        IMetaStoreClient client;
+        try {
+            client = lease.getResource().poll();
+            if (client == null) {
+                LOG.debug("Creating Hive MetaStore client for {}", descriptor);
+                client = clientCreator.get();
+            }
+        } catch (RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+        // a pool removed in the meantime is closed once all its clients are released
+        return new HiveClientWrapper.MetaStoreClientHolder(client, descriptor, released -> {
+            lease.getResource().release(released);
+            lease.close();
+        });
+    }
+
+    /**
+     * Closes all the clients, clients that are in use are closed once they
+     * are released.
+     */
+    public void reloadCache() {
+        pools.invalidateAll();
+    }
+
+    /**
+     * Closes the clients of the identities matching the given filter, clients
+     * that are in use are closed once they are released.
+     *
+     * @param descriptorFilter the filter for the identities to close the clients of
+     */
+    public void reloadCacheIf(Predicate<ClientDescriptor> descriptorFilter) {
+        pools.invalidateIf(descriptorFilter);
+    }
+
+    /**
+     * Identifies the clients that can be shared
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class ClientDescriptor {
+        private final String server;
+        private final String user;
+        @ToString.Exclude
+        private final Map<String, String> properties;
+
+        ClientDescriptor(String server, String user, Map<String, String> properties) {
+            this.server = server;
+            this.user = user;
+            this.properties = properties;
+        }
+    }
+
+    /**
+     * The idle clients of an identity, the most recently released client is
+     * handed out first
+     */
+    private static class ClientPool {
+        private final Deque<IMetaStoreClient> idleClients = new ArrayDeque<>();
+        private final int maxIdleClients;
+
+        private ClientPool(int maxIdleClients) {
+            this.maxIdleClients = maxIdleClients;
+        }
+
+        private synchronized IMetaStoreClient poll() {
+            return idleClients.pollFirst();
+        }
+
+        private void release(IMetaStoreClient client) {
+            synchronized (this) {
+                if (idleClients.size() < maxIdleClients) {
+                    idleClients.addFirst(client);
+                    return;
+                }
+            }
+            close(client);
+        }
+
+        private void closeAll() {
+            List<IMetaStoreClient> clients;
+            synchronized (this) {
+                clients = new ArrayList<>(idleClients);
+                idleClients.clear();
+            }
+            clients.forEach(ClientPool::close);
+        }
+
+        private static void close(IMetaStoreClient client) {
+            try {
+                client.close();
+            } catch (RuntimeException e) {
+                LOG.warn("Ignoring error encountered while closing Hive MetaStore client", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.greenplum.pxf.plugins.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.greenplum.pxf.api.model.Metadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Caches the tables and the partition lists fetched from the Hive MetaStore,
+ * so that the queries that run against the same table within a short time
+ * share a single round trip to the MetaStore. Partition lists are cached for
+ * the partition filter they were fetched with.
+ * <p>
+ * Entries expire the configured time after they were fetched, so partitions
+ * added to a table are seen by the queries that start after that time, and
+ * are removed when the profile is reloaded. The cache is bounded by the
+ * number of tables and partitions it holds. The cached objects are shared by
+ * all the requests and must not be modified.
+ */
+@Component
+public class HiveMetadataCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HiveMetadataCache.class);
+
+    private final Cache<MetadataKey, Table> tables;
+    private final Cache<MetadataKey, List<Partition>> partitions;
+
+    @Autowired
+    public HiveMetadataCache(@Value("${pxf.hive.metadata-cache.expiration:10s}") Duration expiration,
+                             @Value("${pxf.hive.metadata-cache.size:10000}") long size) {
+        long expirationMillis = expiration.toMillis();
+        LOG.info("Creating Hive Metadata Cache of {} tables and partitions with entry expiration of {} ms", size, expirationMillis);
+        tables = CacheBuilder.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(expirationMillis, TimeUnit.MILLISECONDS)
+                .build();
+        partitions = CacheBuilder.newBuilder()
+                .maximumWeight(size)
+                .weigher((Weigher<MetadataKey, List<Partition>>) (key, list) -> list.size() + 1)
+                .expireAfterWrite(expirationMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Returns the given table, fetching it with the given loader if it is
+     * not cached yet
+     *
+     * @param descriptor the identity the table is fetched for
+     * @param item       the database and the name of the table
+     * @param loader     fetches the table from the MetaStore
+     * @return the table
+     * @throws Exception if the table could not be fetched
+     */
+    public Table getTable(HiveMetaStoreClientPool.ClientDescriptor descriptor, Metadata.Item item,
+                          Callable<Table> loader) throws Exception {
+        return get(tables, new MetadataKey(descriptor, item.getPath(), item.getName(), null), loader);
+    }
+
+    /**
+     * Returns the partitions of the given table that match the given filter,
+     * fetching them with the given loader if they are not cached yet
+     *
+     * @param descriptor the identity the partitions are fetched for
+     * @param item       the database and the name of the table
+     * @param filter     the partition filter, null when all the partitions are fetched
+     * @param loader     fetches the partitions from the MetaStore
+     * @return the partitions
+     * @throws Exception if the partitions could not be fetched
+     */
+    public List<Partition> getPartitions(HiveMetaStoreClientPool.ClientDescriptor descriptor, Metadata.Item item,
+                                         String filter, Callable<List<Partition>> loader) throws Exception {
+        return get(partitions, new MetadataKey(descriptor, item.getPath(), item.getName(), filter), loader);
+    }
+
+    /**
+     * Removes all the tables and partitions from the cache
+     */
+    public void invalidateAll() {
+        tables.invalidateAll();
+        partitions.invalidateAll();
+    }
+
+    /**
+     * Removes the tables and partitions fetched for the identities matching
+     * the given filter
+     *
+     * @param descriptorFilter the filter for the identities
+     */
+    public void invalidateIf(Predicate<HiveMetaStoreClientPool.ClientDescriptor> descriptorFilter) {
+        tables.asMap().keySet().removeIf(key -> descriptorFilter.test(key.descriptor));
+        partitions.asMap().keySet().removeIf(key -> descriptorFilter.test(key.descriptor));
+    }
+
+    private static <T> T get(Cache<MetadataKey, T> cache, MetadataKey key, Callable<T> loader) throws Exception {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // report the error of the MetaStore call as if it was not cached
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Identifies a table, or the partitions of a table for a filter
+     */
+    @EqualsAndHashCode
+    @ToString
+    private static class MetadataKey {
+        private final HiveMetaStoreClientPool.ClientDescriptor descriptor;
+        private final String database;
+        private final String table;
+        private final String filter;
+
+        private MetadataKey(HiveMetaStoreClientPool.ClientDescriptor descriptor, String database, String table, String filter) {
+            this.descriptor = descriptor;
+            this.database = database;
+            this.table = table;
+            this.filter = filter;
+        }
+    }
+}
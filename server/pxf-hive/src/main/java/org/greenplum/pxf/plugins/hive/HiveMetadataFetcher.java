@@ -22,7 +22,6 @@ package org.greenplum.pxf.plugins.hive;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.hadoop.hive.metastore.IMetaStoreClient;
 import org.apache.hadoop.hive.metastore.api.Partition;
 import org.apache.hadoop.hive.metastore.api.Table;
 import org.apache.hadoop.mapred.InputFormat;
@@ -84,13 +83,13 @@ public class HiveMetadataFetcher extends BasePlugin implements MetadataFetcher {
     @Override
     public List<Metadata> getMetadata(String pattern) throws Exception {
         try (HiveClientWrapper.MetaStoreClientHolder holder = hiveClientWrapper.initHiveClient(context, configuration)) {
-            return getMetadata(pattern, holder.getClient());
+            return getMetadata(pattern, holder);
         }
     }
 
-    private List<Metadata> getMetadata(String pattern, IMetaStoreClient client) throws Exception {
+    private List<Metadata> getMetadata(String pattern, HiveClientWrapper.MetaStoreClientHolder holder) throws Exception {
         boolean ignoreErrors = false;
-        List<Metadata.Item> tblsDesc = hiveClientWrapper.extractTablesFromPattern(client, pattern);
+        List<Metadata.Item> tblsDesc = hiveClientWrapper.extractTablesFromPattern(holder.getClient(), pattern);
 
         if (tblsDesc == null || tblsDesc.isEmpty()) {
             LOG.warn("No tables found for the given pattern: " + pattern);
@@ -106,11 +105,11 @@ public class HiveMetadataFetcher extends BasePlugin implements MetadataFetcher {
         for (Metadata.Item tblDesc : tblsDesc) {
             try {
                 Metadata metadata = new Metadata(tblDesc);
-                Table tbl = hiveClientWrapper.getHiveTable(client, tblDesc);
+                Table tbl = hiveClientWrapper.getHiveTable(holder, tblDesc);
                 hiveClientWrapper.getSchema(tbl, metadata);
                 boolean hasComplexTypes = hiveClientWrapper.hasComplexTypes(metadata);
                 metadataList.add(metadata);
-                List<Partition> tablePartitions = client.listPartitionsByFilter(tblDesc.getPath(), tblDesc.getName(), "", (short) -1);
+                List<Partition> tablePartitions = hiveClientWrapper.listPartitions(holder, tblDesc, "");
                 Set<OutputFormat> formats = new HashSet<>();
                 //If table has partitions - find out all formats
                 for (Partition tablePartition : tablePartitions) {
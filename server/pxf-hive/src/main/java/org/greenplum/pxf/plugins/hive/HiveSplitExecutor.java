@@ -0,0 +1,73 @@
+package org.greenplum.pxf.plugins.hive;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the splits of the Hive partitions of all the fragmenter requests
+ * of the PXF server. The pool of threads is shared and bounded, so that
+ * concurrent queries on partitioned tables do not multiply the threads
+ * listing files on the NameNode. The number of partitions a single request
+ * computes concurrently is limited by the request itself.
+ * <p>
+ * The pool is monitored with the pxf.executor.* metrics tagged with
+ * name=pxfHiveSplitExecutor.
+ */
+@Component
+public class HiveSplitExecutor implements MeterBinder, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HiveSplitExecutor.class);
+
+    static final String EXECUTOR_NAME = "pxfHiveSplitExecutor";
+    private static final String THREAD_NAME_PREFIX = "pxf-hive-split-";
+
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public HiveSplitExecutor(@Value("${pxf.hive.split.pool-size:16}") int poolSize,
+                             @Value("${pxf.hive.split.keep-alive:60s}") Duration keepAlive) {
+        executor = new ThreadPoolExecutor(poolSize, poolSize,
+                keepAlive.toMillis(), TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+        executor.allowCoreThreadTimeOut(true);
+        LOG.debug("Initialized Hive split executor with pool size={}, keep alive={}", poolSize, keepAlive);
+    }
+
+    /**
+     * Submits the computation of the splits of a partition
+     *
+     * @param task the task computing the splits
+     * @param <T>  the type of the result of the task
+     * @return the future result of the task
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -20,19 +20,49 @@ package org.greenplum.pxf.plugins.hive;
  */
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.apache.hadoop.hive.metastore.api.FieldSchema;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.SerDeInfo;
+import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.apache.hadoop.hive.ql.io.HiveIgnoreKeyTextOutputFormat;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.InputFormat;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Metadata;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.plugins.hive.utilities.HiveUtilities;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +72,7 @@ public class HiveDataFragmenterTest {
     private RequestContext context;
     private Configuration configuration;
     private HiveClientWrapper.MetaStoreClientHolder holder;
+    private HiveSplitExecutor splitExecutor;
 
     @Mock
     private HiveClientWrapper hiveClientWrapper;
@@ -51,6 +82,8 @@ public class HiveDataFragmenterTest {
     private Metadata.Item mockItem;
     @Mock
     private IMetaStoreClient mockHiveClient;
+    @Mock
+    private InputFormat<?, ?> inputFormat;
 
     @BeforeEach
     public void setup() {
@@ -65,13 +98,19 @@ public class HiveDataFragmenterTest {
         context.setConfiguration(configuration);
 
         holder = new HiveClientWrapper.MetaStoreClientHolder(mockHiveClient);
+        splitExecutor = new HiveSplitExecutor(2, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        splitExecutor.destroy();
     }
 
     @Test
     public void failsToInitHiveClient() {
         when(hiveClientWrapper.initHiveClient(context, configuration)).thenThrow(new RuntimeException("test"));
 
-        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper);
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper, splitExecutor);
         fragmenter.setRequestContext(context);
         fragmenter.afterPropertiesSet();
         Exception e = assertThrows(RuntimeException.class, fragmenter::getFragments);
@@ -82,9 +121,9 @@ public class HiveDataFragmenterTest {
     public void failsToGetTableInfo_ClosesHiveClient() throws Exception {
         when(hiveClientWrapper.extractTableFromName(context.getDataSource())).thenReturn(mockItem);
         when(hiveClientWrapper.initHiveClient(context, configuration)).thenReturn(holder);
-        when(hiveClientWrapper.getHiveTable(mockHiveClient, mockItem)).thenThrow(new RuntimeException("test"));
+        when(hiveClientWrapper.getHiveTable(holder, mockItem)).thenThrow(new RuntimeException("test"));
 
-        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper);
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper, splitExecutor);
         fragmenter.setRequestContext(context);
         fragmenter.afterPropertiesSet();
         Exception e = assertThrows(RuntimeException.class, fragmenter::getFragments);
@@ -97,10 +136,10 @@ public class HiveDataFragmenterTest {
     public void failsToGetTableInfo_FailsToCloseHiveClient() throws Exception {
         when(hiveClientWrapper.extractTableFromName(context.getDataSource())).thenReturn(mockItem);
         when(hiveClientWrapper.initHiveClient(context, configuration)).thenReturn(holder);
-        when(hiveClientWrapper.getHiveTable(mockHiveClient, mockItem)).thenThrow(new RuntimeException("test"));
+        when(hiveClientWrapper.getHiveTable(holder, mockItem)).thenThrow(new RuntimeException("test"));
         doThrow(new RuntimeException("ignored")).when(mockHiveClient).close();
 
-        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper);
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper, splitExecutor);
         fragmenter.setRequestContext(context);
         fragmenter.afterPropertiesSet();
         Exception e = assertThrows(RuntimeException.class, fragmenter::getFragments);
@@ -109,4 +148,115 @@ public class HiveDataFragmenterTest {
         verify(mockHiveClient).close();
     }
 
+    @Test
+    public void parallelSplitsKeepPartitionOrder() throws Exception {
+        assertPartitionFragmentsInOrder("4");
+    }
+
+    @Test
+    public void serialSplitsKeepPartitionOrder() throws Exception {
+        assertPartitionFragmentsInOrder("1");
+    }
+
+    @Test
+    public void parallelSplitsFailure() throws Exception {
+        context.addOption(HiveDataFragmenter.SPLIT_PARALLELISM_OPTION, "4");
+        HiveDataFragmenter fragmenter = prepareFragmenterForPartitions(10);
+        when(inputFormat.getSplits(any(JobConf.class), eq(1))).thenThrow(new IOException("listing failed"));
+
+        Exception e = assertThrows(IOException.class, fragmenter::getFragments);
+        assertEquals("listing failed", e.getMessage());
+        verify(mockHiveClient).close();
+    }
+
+    @Test
+    public void parallelSplitsStopAtFirstFailure() throws Exception {
+        context.addOption(HiveDataFragmenter.SPLIT_PARALLELISM_OPTION, "2");
+        HiveDataFragmenter fragmenter = prepareFragmenterForPartitions(10);
+        // the first partition fails right away, the others take longer than the test
+        when(inputFormat.getSplits(any(JobConf.class), eq(1))).thenAnswer(invocation -> {
+            Path path = FileInputFormat.getInputPaths(invocation.getArgument(0))[0];
+            if (path.getName().equals("part=p0")) {
+                throw new IOException("listing failed");
+            }
+            Thread.sleep(60000);
+            return new InputSplit[0];
+        });
+
+        // the fragmenter does not wait for the partition in progress, and does not submit the other partitions
+        Exception e = assertTimeout(Duration.ofSeconds(30),
+                () -> assertThrows(IOException.class, fragmenter::getFragments));
+        assertEquals("listing failed", e.getMessage());
+        verify(inputFormat, atMost(2)).getSplits(any(JobConf.class), eq(1));
+        verify(mockHiveClient).close();
+    }
+
+    private void assertPartitionFragmentsInOrder(String parallelism) throws Exception {
+        int numPartitions = 10;
+        context.addOption(HiveDataFragmenter.SPLIT_PARALLELISM_OPTION, parallelism);
+        HiveDataFragmenter fragmenter = prepareFragmenterForPartitions(numPartitions);
+        // earlier partitions take longer to list, so they complete last
+        when(inputFormat.getSplits(any(JobConf.class), eq(1))).thenAnswer(invocation -> {
+            Path path = FileInputFormat.getInputPaths(invocation.getArgument(0))[0];
+            int partitionIndex = Integer.parseInt(path.getName().substring("part=p".length()));
+            Thread.sleep((numPartitions - partitionIndex) * 5L);
+            return new InputSplit[]{
+                    new FileSplit(new Path(path, "file1"), 0, 10, new String[]{"host1"}),
+                    new FileSplit(new Path(path, "file2"), 0, 10, new String[]{"host2"})
+            };
+        });
+
+        List<Fragment> fragments = fragmenter.getFragments();
+
+        assertEquals(2 * numPartitions, fragments.size());
+        for (int i = 0; i < numPartitions; i++) {
+            Path partitionPath = new Path("hdfs:///warehouse/sometable/part=p" + i);
+            assertEquals(new Path(partitionPath, "file1").toString(), fragments.get(2 * i).getSourceName());
+            assertEquals(new Path(partitionPath, "file2").toString(), fragments.get(2 * i + 1).getSourceName());
+        }
+        verify(mockHiveClient).close();
+    }
+
+    private HiveDataFragmenter prepareFragmenterForPartitions(int numPartitions) throws Exception {
+        context.setFragmenter(HiveDataFragmenter.class.getName());
+        // avoid resolving the working directory from the file system when setting the input paths
+        configuration.set("mapreduce.job.working.dir", "/");
+
+        StorageDescriptor sd = new StorageDescriptor();
+        sd.setCols(Collections.singletonList(new FieldSchema("id", "int", null)));
+        sd.setInputFormat(TextInputFormat.class.getName());
+        sd.setOutputFormat(HiveIgnoreKeyTextOutputFormat.class.getName());
+        sd.setLocation("hdfs:///warehouse/sometable");
+        sd.setSerdeInfo(new SerDeInfo("serde", LazySimpleSerDe.class.getName(), new HashMap<>()));
+
+        Table table = new Table();
+        table.setDbName("default");
+        table.setTableName("sometable");
+        table.setSd(sd);
+        table.setPartitionKeys(Collections.singletonList(new FieldSchema("part", "string", null)));
+
+        List<Partition> partitions = new ArrayList<>();
+        for (int i = 0; i < numPartitions; i++) {
+            StorageDescriptor partitionSd = new StorageDescriptor(sd);
+            partitionSd.setLocation("hdfs:///warehouse/sometable/part=p" + i);
+            Partition partition = new Partition();
+            partition.setValues(Collections.singletonList("p" + i));
+            partition.setSd(partitionSd);
+            partitions.add(partition);
+        }
+
+        when(hiveClientWrapper.extractTableFromName(context.getDataSource())).thenReturn(mockItem);
+        when(hiveClientWrapper.initHiveClient(context, configuration)).thenReturn(holder);
+        when(hiveClientWrapper.getHiveTable(holder, mockItem)).thenReturn(table);
+        lenient().when(hiveClientWrapper.buildFragmentProperties(eq(HiveDataFragmenter.class.getName()), any(HiveTablePartition.class)))
+                .thenReturn(new Properties());
+        when(hiveClientWrapper.listPartitions(holder, mockItem, null)).thenReturn(partitions);
+        doReturn(inputFormat).when(hiveUtilities).makeInputFormat(eq(TextInputFormat.class.getName()), any(JobConf.class));
+
+        HiveDataFragmenter fragmenter = new HiveDataFragmenter(hiveUtilities, hiveClientWrapper, splitExecutor);
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        return fragmenter;
+    }
+
 }
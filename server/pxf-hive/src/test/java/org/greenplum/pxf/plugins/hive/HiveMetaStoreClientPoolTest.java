@@ -0,0 +1,116 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class HiveMetaStoreClientPoolTest {
+
+    private static final HiveMetaStoreClientPool.ClientDescriptor S1_ALICE = descriptor("s1", "alice");
+    private static final HiveMetaStoreClientPool.ClientDescriptor S1_BOB = descriptor("s1", "bob");
+    private static final HiveMetaStoreClientPool.ClientDescriptor S2_ALICE = descriptor("s2", "alice");
+
+    private List<IMetaStoreClient> createdClients;
+    private Supplier<IMetaStoreClient> clientCreator;
+    private HiveMetaStoreClientPool clientPool;
+
+    @BeforeEach
+    public void setup() {
+        createdClients = new ArrayList<>();
+        clientCreator = () -> {
+            IMetaStoreClient client = mock(IMetaStoreClient.class);
+            createdClients.add(client);
+            return client;
+        };
+        clientPool = new HiveMetaStoreClientPool(Duration.ofHours(1), 2, Runnable::run);
+    }
+
+    @Test
+    public void testClientIsReusedForSameIdentity() {
+        HiveClientWrapper.MetaStoreClientHolder holder1 = clientPool.getClient(S1_ALICE, clientCreator);
+        holder1.close();
+        HiveClientWrapper.MetaStoreClientHolder holder2 = clientPool.getClient(S1_ALICE, clientCreator);
+
+        assertEquals(1, createdClients.size());
+        assertSame(holder1.getClient(), holder2.getClient());
+        assertSame(S1_ALICE, holder2.getDescriptor());
+        verify(createdClients.get(0), never()).close();
+    }
+
+    @Test
+    public void testClientInUseIsNotShared() {
+        HiveClientWrapper.MetaStoreClientHolder holder1 = clientPool.getClient(S1_ALICE, clientCreator);
+        HiveClientWrapper.MetaStoreClientHolder holder2 = clientPool.getClient(S1_ALICE, clientCreator);
+
+        assertEquals(2, createdClients.size());
+        assertNotSame(holder1.getClient(), holder2.getClient());
+    }
+
+    @Test
+    public void testClientIsNotSharedForDifferentIdentities() {
+        clientPool.getClient(S1_ALICE, clientCreator).close();
+        clientPool.getClient(S1_BOB, clientCreator).close();
+        clientPool.getClient(S2_ALICE, clientCreator).close();
+
+        assertEquals(3, createdClients.size());
+    }
+
+    @Test
+    public void testClientsAboveMaxIdleAreClosed() {
+        HiveClientWrapper.MetaStoreClientHolder holder1 = clientPool.getClient(S1_ALICE, clientCreator);
+        HiveClientWrapper.MetaStoreClientHolder holder2 = clientPool.getClient(S1_ALICE, clientCreator);
+        HiveClientWrapper.MetaStoreClientHolder holder3 = clientPool.getClient(S1_ALICE, clientCreator);
+        holder1.close();
+        holder2.close();
+        holder3.close();
+
+        verify(createdClients.get(0), never()).close();
+        verify(createdClients.get(1), never()).close();
+        verify(createdClients.get(2)).close();
+        // the most recently released client is handed out first
+        assertSame(createdClients.get(1), clientPool.getClient(S1_ALICE, clientCreator).getClient());
+    }
+
+    @Test
+    public void testReloadClosesIdleClients() {
+        clientPool.getClient(S1_ALICE, clientCreator).close();
+        clientPool.getClient(S2_ALICE, clientCreator).close();
+
+        clientPool.reloadCacheIf(descriptor -> "s1".equals(descriptor.getServer()));
+        verify(createdClients.get(0)).close();
+        verify(createdClients.get(1), never()).close();
+
+        clientPool.reloadCache();
+        verify(createdClients.get(1)).close();
+
+        clientPool.getClient(S1_ALICE, clientCreator);
+        assertEquals(3, createdClients.size());
+    }
+
+    @Test
+    public void testClientInUseIsClosedAfterReload() {
+        HiveClientWrapper.MetaStoreClientHolder holder = clientPool.getClient(S1_ALICE, clientCreator);
+        clientPool.reloadCache();
+        verify(createdClients.get(0), never()).close();
+
+        holder.close();
+        verify(createdClients.get(0)).close();
+    }
+
+    private static HiveMetaStoreClientPool.ClientDescriptor descriptor(String server, String user) {
+        return new HiveMetaStoreClientPool.ClientDescriptor(server, user, Collections.emptyMap());
+    }
+}
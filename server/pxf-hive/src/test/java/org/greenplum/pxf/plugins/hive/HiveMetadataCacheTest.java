@@ -0,0 +1,127 @@
+package org.greenplum.pxf.plugins.hive;
+
+import org.apache.hadoop.hive.metastore.api.NoSuchObjectException;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.greenplum.pxf.api.model.Metadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HiveMetadataCacheTest {
+
+    private static final HiveMetaStoreClientPool.ClientDescriptor S1 =
+            new HiveMetaStoreClientPool.ClientDescriptor("s1", "alice", Collections.emptyMap());
+    private static final HiveMetaStoreClientPool.ClientDescriptor S2 =
+            new HiveMetaStoreClientPool.ClientDescriptor("s2", "alice", Collections.emptyMap());
+    private static final Metadata.Item TABLE = new Metadata.Item("default", "sales");
+    private static final Metadata.Item OTHER_TABLE = new Metadata.Item("default", "returns");
+
+    private AtomicInteger tableLoads;
+    private AtomicInteger partitionLoads;
+    private HiveMetadataCache cache;
+
+    @BeforeEach
+    public void setup() {
+        tableLoads = new AtomicInteger();
+        partitionLoads = new AtomicInteger();
+        cache = new HiveMetadataCache(Duration.ofHours(1), 100);
+    }
+
+    @Test
+    public void testTableIsFetchedOnce() throws Exception {
+        Table table = cache.getTable(S1, TABLE, tableLoader());
+
+        assertSame(table, cache.getTable(S1, new Metadata.Item("default", "sales"), tableLoader()));
+        assertEquals(1, tableLoads.get());
+
+        cache.getTable(S1, OTHER_TABLE, tableLoader());
+        cache.getTable(S2, TABLE, tableLoader());
+        assertEquals(3, tableLoads.get());
+    }
+
+    @Test
+    public void testPartitionsAreCachedPerFilter() throws Exception {
+        List<Partition> all = cache.getPartitions(S1, TABLE, null, partitionLoader());
+        List<Partition> filtered = cache.getPartitions(S1, TABLE, "part = \"p1\"", partitionLoader());
+
+        assertSame(all, cache.getPartitions(S1, TABLE, null, partitionLoader()));
+        assertSame(filtered, cache.getPartitions(S1, TABLE, "part = \"p1\"", partitionLoader()));
+        assertEquals(2, partitionLoads.get());
+
+        cache.getPartitions(S1, TABLE, "", partitionLoader());
+        assertEquals(3, partitionLoads.get());
+    }
+
+    @Test
+    public void testErrorsAreNotCached() throws Exception {
+        Exception e = assertThrows(NoSuchObjectException.class, () -> cache.getTable(S1, TABLE, () -> {
+            throw new NoSuchObjectException("default.sales table not found");
+        }));
+        assertEquals("default.sales table not found", e.getMessage());
+        e = assertThrows(UnsupportedOperationException.class, () -> cache.getTable(S1, TABLE, () -> {
+            throw new UnsupportedOperationException("PXF does not support Hive views");
+        }));
+        assertEquals("PXF does not support Hive views", e.getMessage());
+
+        cache.getTable(S1, TABLE, tableLoader());
+        assertEquals(1, tableLoads.get());
+    }
+
+    @Test
+    public void testEntriesExpire() throws Exception {
+        cache = new HiveMetadataCache(Duration.ZERO, 100);
+        cache.getTable(S1, TABLE, tableLoader());
+        cache.getTable(S1, TABLE, tableLoader());
+        cache.getPartitions(S1, TABLE, null, partitionLoader());
+        cache.getPartitions(S1, TABLE, null, partitionLoader());
+
+        assertEquals(2, tableLoads.get());
+        assertEquals(2, partitionLoads.get());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        cache.getTable(S1, TABLE, tableLoader());
+        cache.getTable(S2, TABLE, tableLoader());
+        cache.getPartitions(S1, TABLE, null, partitionLoader());
+        cache.getPartitions(S2, TABLE, null, partitionLoader());
+
+        cache.invalidateIf(descriptor -> "s1".equals(descriptor.getServer()));
+        cache.getTable(S1, TABLE, tableLoader());
+        cache.getTable(S2, TABLE, tableLoader());
+        cache.getPartitions(S1, TABLE, null, partitionLoader());
+        cache.getPartitions(S2, TABLE, null, partitionLoader());
+        assertEquals(3, tableLoads.get());
+        assertEquals(3, partitionLoads.get());
+
+        cache.invalidateAll();
+        cache.getTable(S2, TABLE, tableLoader());
+        cache.getPartitions(S2, TABLE, null, partitionLoader());
+        assertEquals(4, tableLoads.get());
+        assertEquals(4, partitionLoads.get());
+    }
+
+    private Callable<Table> tableLoader() {
+        return () -> {
+            tableLoads.incrementAndGet();
+            return new Table();
+        };
+    }
+
+    private Callable<List<Partition>> partitionLoader() {
+        return () -> {
+            partitionLoads.incrementAndGet();
+            return Collections.singletonList(new Partition());
+        };
+    }
+}
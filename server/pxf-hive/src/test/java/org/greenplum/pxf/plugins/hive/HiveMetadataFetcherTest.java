@@ -33,6 +33,7 @@ import org.greenplum.pxf.plugins.hive.utilities.HiveUtilities;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -87,6 +88,9 @@ public class HiveMetadataFetcherTest {
         fakeHiveClientWrapper = new HiveClientWrapper();
         fakeHiveClientWrapper.setHiveClientFactory(mockClientFactory);
         fakeHiveClientWrapper.setHiveUtilities(hiveUtilities);
+        // clients are not kept idle and metadata is not cached, so that every request closes its client
+        fakeHiveClientWrapper.setClientPool(new HiveMetaStoreClientPool(Duration.ofMinutes(1), 0, Runnable::run));
+        fakeHiveClientWrapper.setMetadataCache(new HiveMetadataCache(Duration.ZERO, 0));
 
         HiveClientWrapper.MetaStoreClientHolder holder = new HiveClientWrapper.MetaStoreClientHolder(mockHiveClient);
         when(mockClientFactory.initHiveClient(any())).thenReturn(holder);
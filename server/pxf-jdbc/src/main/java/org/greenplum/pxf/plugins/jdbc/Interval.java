@@ -14,7 +14,11 @@ public class Interval {
 
     public static class LongInterval extends Interval {
         public LongInterval(String interval) {
-            this.value = Long.parseLong(interval);
+            this(Long.parseLong(interval));
+        }
+
+        public LongInterval(long value) {
+            this.value = value;
             this.type = IntervalType.NUMBER;
         }
     }
@@ -37,6 +41,14 @@ public class Interval {
                 throw new IllegalArgumentException(String.format("Invalid date interval '%s'", intervalType));
             }
         }
+
+        public DateInterval(long value, IntervalType type) {
+            if (!DATE_INTERVAL_TYPES.contains(type)) {
+                throw new IllegalArgumentException(String.format("Invalid date interval '%s'", type));
+            }
+            this.value = value;
+            this.type = type;
+        }
     }
 
     public static class TimestampInterval extends Interval {
@@ -57,5 +69,13 @@ public class Interval {
                 throw new IllegalArgumentException(String.format("Invalid timestamp interval '%s'", intervalType));
             }
         }
+
+        public TimestampInterval(long value, IntervalType type) {
+            if (!TIMESTAMP_INTERVAL_TYPES.contains(type)) {
+                throw new IllegalArgumentException(String.format("Invalid timestamp interval '%s'", type));
+            }
+            this.value = value;
+            this.type = type;
+        }
     }
 }
@@ -21,26 +21,25 @@ package org.greenplum.pxf.plugins.jdbc;
 
 import io.arenadata.security.encryption.client.service.DecryptClient;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang.StringUtils;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.CancelableOperation;
-import org.greenplum.pxf.api.model.ConfigurationFactory;
+import org.greenplum.pxf.api.model.SamplingAccessor;
 import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.api.utilities.SpringContext;
 import org.greenplum.pxf.api.utilities.Utilities;
 import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
 import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
+import org.greenplum.pxf.plugins.jdbc.writercallable.JdbcWriterExecutor;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * JDBC tables accessor
@@ -51,13 +50,20 @@ import java.sql.Statement;
  * built-in JDBC batches of arbitrary size
  */
 @Slf4j
-public class JdbcAccessor extends JdbcBasePlugin implements Accessor, CancelableOperation {
+public class JdbcAccessor extends JdbcBasePlugin implements Accessor, CancelableOperation, SamplingAccessor {
 
     private static final String JDBC_READ_PREPARED_STATEMENT_PROPERTY_NAME = "jdbc.read.prepared-statement";
+    private static final String JDBC_READ_PREFETCH_BATCHES_PROPERTY_NAME = "jdbc.read.prefetch.batches";
+    // the number of rows of a prefetched batch when the fetch size does not give one, e.g. for MySQL streaming
+    private static final int DEFAULT_PREFETCH_BATCH_ROWS = 1000;
 
     private Statement statementRead = null;
     private ResultSet resultSetRead = null;
+    private int prefetchBatches;
+    private JdbcRowPrefetcher prefetcher = null;
 
+    private final JdbcReaderExecutor readerExecutor;
+    private final JdbcWriterExecutor writerExecutor;
     private JdbcWriter writer;
     private boolean isCanceled;
 
@@ -66,6 +72,8 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
      */
     public JdbcAccessor() {
         super();
+        readerExecutor = SpringContext.getBean(JdbcReaderExecutor.class);
+        writerExecutor = SpringContext.getBean(JdbcWriterExecutor.class);
     }
 
     /**
@@ -73,9 +81,14 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
      *
      * @param connectionManager connection manager
      * @param secureLogin       the instance of the secure login
+     * @param readerExecutor    the executor of the prefetching reads
+     * @param writerExecutor    the executor of the INSERT batches
      */
-    JdbcAccessor(ConnectionManager connectionManager, SecureLogin secureLogin, DecryptClient decryptClient) {
+    JdbcAccessor(ConnectionManager connectionManager, SecureLogin secureLogin, DecryptClient decryptClient,
+                 JdbcReaderExecutor readerExecutor, JdbcWriterExecutor writerExecutor) {
         super(connectionManager, secureLogin, decryptClient);
+        this.readerExecutor = readerExecutor;
+        this.writerExecutor = writerExecutor;
     }
 
     /**
@@ -93,6 +106,7 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
             return true;
         }
 
+        prefetchBatches = parseJdbcPrefetchBatchesProperty();
         Connection connection = getConnection();
         try {
             return openForReadInner(connection);
@@ -132,30 +146,31 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
                 ((PreparedStatement) statementRead).executeQuery() :
                 statementRead.executeQuery(queryRead);
 
+        // Rows can be read from the result set by a separate thread, while this thread sends the rows read before
+        if (prefetchBatches > 0) {
+            int batchRows = fetchSize > 0 ? fetchSize : DEFAULT_PREFETCH_BATCH_ROWS;
+            log.debug("Prefetching up to {} batches of {} rows", prefetchBatches, batchRows);
+            JdbcRowPrefetcher rowPrefetcher = new JdbcRowPrefetcher(resultSetRead, columns, isDateWideRange, batchRows, prefetchBatches);
+            try {
+                rowPrefetcher.start(readerExecutor);
+                prefetcher = rowPrefetcher;
+            } catch (RejectedExecutionException e) {
+                log.debug("Reading the rows without prefetching, all the prefetching threads are in use");
+            }
+        }
+
         return true;
     }
 
     private String buildSelectQuery(Connection connection) throws SQLException {
-        SQLQueryBuilder sqlQueryBuilder = new SQLQueryBuilder(context, connection.getMetaData(), getQueryText());
-
         // Build SELECT query
-        if (quoteColumns == null) {
-            sqlQueryBuilder.autoSetQuoteString();
-        } else if (quoteColumns) {
-            sqlQueryBuilder.forceSetQuoteString();
-        }
-
-        if (wrapDateWithTime) {
-            sqlQueryBuilder.setWrapDateWithTime(true);
-        }
-
-        // Read variables
-        return sqlQueryBuilder.buildSelectQuery();
+        return createSelectQueryBuilder(connection).buildSelectQuery();
     }
 
     /**
      * readNextObject() implementation
-     * Retreive the next tuple from resultSet and return it
+     * Retreive the next tuple from resultSet and return it. When the rows are
+     * prefetched, the row holds the values of the columns instead of the resultSet
      *
      * @return row
      * @throws SQLException if a problem in resultSet occurs
@@ -168,6 +183,11 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
             throw new PxfRuntimeException(message);
         }
 
+        if (prefetcher != null) {
+            Object[] values = prefetcher.next();
+            return values != null ? new OneRow(values) : null;
+        }
+
         if (resultSetRead.next()) {
             return new OneRow(resultSetRead);
         }
@@ -179,6 +199,28 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
      */
     @Override
     public void closeForRead() throws SQLException {
+        if (prefetcher != null) {
+            boolean stopped = false;
+            try {
+                // the result set must not be in use when the statement is closed
+                stopped = prefetcher.close(statementRead);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while waiting for the prefetching of the rows to stop");
+            }
+            if (!stopped) {
+                log.warn("The prefetching of the rows is still running, the statement and connection will be closed once it stops");
+                Statement statement = statementRead;
+                prefetcher.whenFinished(() -> {
+                    try {
+                        closeStatementAndConnection(statement);
+                    } catch (SQLException e) {
+                        log.warn("Failed to close the statement and connection after the prefetching of the rows stopped", e);
+                    }
+                });
+                return;
+            }
+        }
         closeStatementAndConnection(statementRead);
     }
 
@@ -190,6 +232,9 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
         // We don't need to close statement and connection here because closeForRead() will be invoked anyway
         // Sometimes resultSetRead.next() has unpredictable behaviour while closing statement and connection
         isCanceled = true;
+        if (prefetcher != null) {
+            prefetcher.cancel();
+        }
     }
 
     /**
@@ -231,6 +276,7 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
                         .query(queryWrite)
                         .plugin(this)
                         .dbProduct(dbProduct)
+                        .writerExecutor(writerExecutor)
                         .build()
         );
         closeConnection(connection);
@@ -294,42 +340,17 @@ public class JdbcAccessor extends JdbcBasePlugin implements Accessor, Cancelable
         }
     }
 
-    /**
-     * Gets the text of the query by reading the file from the server configuration directory. The name of the file
-     * is expected to be the same as the name of the query provided by the user and have extension ".sql"
-     *
-     * @return text of the query
-     */
-    private String getQueryText() {
-        if (StringUtils.isBlank(queryName)) {
-            return null;
-        }
-        // read the contents of the file holding the text of the query with a given name
-        String serverDirectory = context.getConfiguration().get(ConfigurationFactory.PXF_CONFIG_SERVER_DIRECTORY_PROPERTY);
-        if (StringUtils.isBlank(serverDirectory)) {
-            throw new IllegalStateException("No server configuration directory found for server " + context.getServerName());
-        }
-
-        String queryText;
-        try {
-            File queryFile = new File(serverDirectory, queryName + ".sql");
-            log.debug("Reading text of query={} from {}", queryName, queryFile.getCanonicalPath());
-            queryText = FileUtils.readFileToString(queryFile, Charset.defaultCharset());
-        } catch (IOException e) {
-            throw new RuntimeException(String.format("Failed to read text of query %s : %s", queryName, e.getMessage()), e);
-        }
-        if (StringUtils.isBlank(queryText)) {
-            throw new RuntimeException(String.format("Query text file is empty for query %s", queryName));
-        }
-
-        // Remove one or more semicolons followed by optional blank space
-        // happening at the end of the query
-        queryText = queryText.replaceFirst("(;+\\s*)+$", "");
-
-        return queryText;
-    }
-
     private boolean parseJdbcUsePreparedStatementProperty() {
         return Utilities.parseBooleanProperty(configuration, JDBC_READ_PREPARED_STATEMENT_PROPERTY_NAME, false);
     }
+
+    private int parseJdbcPrefetchBatchesProperty() {
+        int prefetchBatches = configuration.getInt(JDBC_READ_PREFETCH_BATCHES_PROPERTY_NAME, 0);
+        if (prefetchBatches < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Property %s has incorrect value %s : must be a non-negative integer",
+                    JDBC_READ_PREFETCH_BATCHES_PROPERTY_NAME, prefetchBatches));
+        }
+        return prefetchBatches;
+    }
 }
@@ -21,10 +21,12 @@ package org.greenplum.pxf.plugins.jdbc;
 
 import io.arenadata.security.encryption.client.service.DecryptClient;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.BasePlugin;
+import org.greenplum.pxf.api.model.ConfigurationFactory;
 import org.greenplum.pxf.api.model.Reloader;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.security.SecureLogin;
@@ -35,6 +37,9 @@ import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
 import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
 import org.greenplum.pxf.plugins.jdbc.utils.HiveJdbcUtils;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.security.PrivilegedExceptionAction;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -484,6 +489,64 @@ public class JdbcBasePlugin extends BasePlugin implements Reloader {
         return statement;
     }
 
+    /**
+     * Creates the builder of the queries reading the data source, either the table or the named query, with the
+     * quotation of the columns and the wrapping of the dates requested by the user.
+     *
+     * @param connection connection to the external database
+     * @return the query builder
+     * @throws SQLException if a database access error occurs
+     */
+    protected SQLQueryBuilder createSelectQueryBuilder(Connection connection) throws SQLException {
+        SQLQueryBuilder sqlQueryBuilder = new SQLQueryBuilder(context, connection.getMetaData(), getQueryText());
+
+        if (quoteColumns == null) {
+            sqlQueryBuilder.autoSetQuoteString();
+        } else if (quoteColumns) {
+            sqlQueryBuilder.forceSetQuoteString();
+        }
+
+        if (wrapDateWithTime) {
+            sqlQueryBuilder.setWrapDateWithTime(true);
+        }
+        return sqlQueryBuilder;
+    }
+
+    /**
+     * Gets the text of the query by reading the file from the server configuration directory. The name of the file
+     * is expected to be the same as the name of the query provided by the user and have extension ".sql"
+     *
+     * @return text of the query
+     */
+    protected String getQueryText() {
+        if (StringUtils.isBlank(queryName)) {
+            return null;
+        }
+        // read the contents of the file holding the text of the query with a given name
+        String serverDirectory = context.getConfiguration().get(ConfigurationFactory.PXF_CONFIG_SERVER_DIRECTORY_PROPERTY);
+        if (StringUtils.isBlank(serverDirectory)) {
+            throw new IllegalStateException("No server configuration directory found for server " + context.getServerName());
+        }
+
+        String queryText;
+        try {
+            File queryFile = new File(serverDirectory, queryName + ".sql");
+            log.debug("Reading text of query={} from {}", queryName, queryFile.getCanonicalPath());
+            queryText = FileUtils.readFileToString(queryFile, Charset.defaultCharset());
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to read text of query %s : %s", queryName, e.getMessage()), e);
+        }
+        if (StringUtils.isBlank(queryText)) {
+            throw new RuntimeException(String.format("Query text file is empty for query %s", queryName));
+        }
+
+        // Remove one or more semicolons followed by optional blank space
+        // happening at the end of the query
+        queryText = queryText.replaceFirst("(;+\\s*)+$", "");
+
+        return queryText;
+    }
+
     /**
      * Close a JDBC statement and underlying {@link Connection}
      *
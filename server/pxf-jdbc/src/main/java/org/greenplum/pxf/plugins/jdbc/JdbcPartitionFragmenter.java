@@ -19,27 +19,69 @@ package org.greenplum.pxf.plugins.jdbc;
  * under the License.
  */
 
+import org.apache.commons.lang.StringUtils;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.BaseFragmenter;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.FragmentStats;
 import org.greenplum.pxf.plugins.jdbc.partitioning.JdbcFragmentMetadata;
 import org.greenplum.pxf.plugins.jdbc.partitioning.PartitionType;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * JDBC fragmenter
  * <p>
  * Splits the query to allow multiple simultaneous SELECTs
+ * <p>
+ * When the partitions of type INT, DATE or TIMESTAMP are requested with DISCOVER_RANGE=true and without the RANGE, the
+ * range is discovered by querying the minimum and the maximum values of the partition column in the external database.
+ * Unless the INTERVAL is provided, the range is then split into as many partitions of equal size as there are Greenplum
+ * segments. Without DISCOVER_RANGE, the RANGE is required.
+ * <p>
+ * Every PXF host computes the fragments of a query, and its segments read the fragments at their own positions in the
+ * list, so all the hosts must produce the same list. The discovery is opt-in because the hosts run their own range
+ * queries unless fragment sharing is enabled, in which case a single host runs it and the other hosts fetch its
+ * fragments. A different minimum or maximum on two hosts makes them split the range differently, so rows may be read
+ * twice or not at all. The partitions before and after the discovered range are always generated.
  */
 public class JdbcPartitionFragmenter extends BaseFragmenter {
 
+    static final String DISCOVER_RANGE_OPTION = "DISCOVER_RANGE";
+
+    private final Supplier<JdbcBasePlugin> jdbcPluginFactory;
+
     private PartitionType partitionType;
     private String column;
     private String range;
     private String interval;
+    private boolean isRangeDiscovered;
     protected boolean isDateWideRange;
 
+    /**
+     * Creates a new instance of the fragmenter, the connection to the external database is only opened to discover
+     * the range of the partitions
+     */
+    public JdbcPartitionFragmenter() {
+        this(JdbcBasePlugin::new);
+    }
+
+    /**
+     * Creates a new instance of the fragmenter with the given factory of the plugins connecting to the external
+     * database
+     *
+     * @param jdbcPluginFactory the factory of the plugins connecting to the external database
+     */
+    JdbcPartitionFragmenter(Supplier<JdbcBasePlugin> jdbcPluginFactory) {
+        this.jdbcPluginFactory = jdbcPluginFactory;
+    }
+
     @Override
     public void afterPropertiesSet() {
         String partitionByOption = context.getOption("PARTITION_BY");
@@ -55,6 +97,8 @@ public class JdbcPartitionFragmenter extends BaseFragmenter {
 
         range = context.getOption("RANGE");
         interval = context.getOption("INTERVAL");
+        isRangeDiscovered = StringUtils.isBlank(range) && partitionType.isRangeDiscoverable()
+                && context.getOption(DISCOVER_RANGE_OPTION, false);
         isDateWideRange = JdbcBasePlugin.getIsDateWideRange(context);
     }
 
@@ -69,16 +113,66 @@ public class JdbcPartitionFragmenter extends BaseFragmenter {
         if (partitionType == null) {
             fragments.add(new Fragment(context.getDataSource()));
         } else {
-            List<JdbcFragmentMetadata> fragmentsMetadata = partitionType.getFragmentsMetadata(
-                    column, range, interval, isDateWideRange
-            );
+            List<JdbcFragmentMetadata> fragmentsMetadata = isRangeDiscovered ?
+                    discoverFragmentsMetadata() :
+                    partitionType.getFragmentsMetadata(column, range, interval, isDateWideRange);
             for (JdbcFragmentMetadata fragmentMetadata : fragmentsMetadata) {
                 fragments.add(new Fragment(context.getDataSource(), fragmentMetadata));
             }
+            // there is nothing to partition if the partition column has no values
+            if (fragments.isEmpty()) {
+                fragments.add(new Fragment(context.getDataSource()));
+            }
         }
         return fragments;
     }
 
+    /**
+     * Queries the external database for the range of values of the partition column and splits it into partitions.
+     * The partitions are only consistent with those of the other PXF hosts if they discover the same range, see the
+     * class documentation.
+     *
+     * @return a list of getFragmentsMetadata, empty if the partition column has no values
+     */
+    private List<JdbcFragmentMetadata> discoverFragmentsMetadata() {
+        JdbcBasePlugin plugin = jdbcPluginFactory.get();
+        plugin.setRequestContext(context);
+        plugin.afterPropertiesSet();
+
+        int partitionCount = Math.max(1, context.getTotalSegments());
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = plugin.getConnection();
+            String query = plugin.createSelectQueryBuilder(connection).buildPartitionRangeQuery(column);
+            statement = plugin.getPreparedStatement(connection, query);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<JdbcFragmentMetadata> fragmentsMetadata = resultSet.next() ?
+                        partitionType.getFragmentsMetadata(column, resultSet, interval, partitionCount, isDateWideRange) :
+                        new ArrayList<>();
+                LOG.debug("Discovered {} partitions of column {} for {} segments", fragmentsMetadata.size(), column, partitionCount);
+                return fragmentsMetadata;
+            }
+        } catch (SQLException e) {
+            throw new PxfRuntimeException(String.format(
+                    "Failed to discover the RANGE of partition column '%s': %s", column, e.getMessage()), e);
+        } finally {
+            close(connection, statement);
+        }
+    }
+
+    private void close(Connection connection, PreparedStatement statement) {
+        try {
+            if (statement != null) {
+                JdbcBasePlugin.closeStatementAndConnection(statement);
+            } else if (connection != null) {
+                JdbcBasePlugin.closeConnection(connection);
+            }
+        } catch (SQLException e) {
+            LOG.warn("Failed to close the connection used to discover the RANGE of partition column {}", column, e);
+        }
+    }
+
     /**
      * @return fragment stats
      * @throws UnsupportedOperationException ANALYZE for Jdbc plugin is not supported
@@ -0,0 +1,92 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the threads prefetching the rows of the JDBC read requests of the PXF
+ * server. Every read request with prefetching enabled uses one thread for
+ * the duration of the request, the pool has at most the configured number
+ * of threads and rejects the requests beyond it, which then read their rows
+ * without prefetching. Idle threads are kept for the configured time, so
+ * that threads are not created and destroyed for every request.
+ * <p>
+ * The pool is monitored with the pxf.executor.* metrics tagged with
+ * name=pxfJdbcReaderExecutor.
+ */
+@Slf4j
+@Component
+public class JdbcReaderExecutor implements MeterBinder, DisposableBean {
+
+    static final String EXECUTOR_NAME = "pxfJdbcReaderExecutor";
+    private static final String THREAD_NAME_PREFIX = "pxf-jdbc-reader-";
+
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public JdbcReaderExecutor(PxfJdbcProperties properties) {
+        this(properties.getReader().getPoolSize(), properties.getReader().getKeepAlive());
+    }
+
+    JdbcReaderExecutor(int poolSize, Duration keepAlive) {
+        executor = new ThreadPoolExecutor(0, poolSize,
+                keepAlive.toMillis(), TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+        log.debug("Initialized JDBC reader executor with pool size={}, keep alive={}", poolSize, keepAlive);
+    }
+
+    /**
+     * Submits the task prefetching the rows of a read request
+     *
+     * @param task the task reading the rows
+     * @return the future of the task
+     * @throws RejectedExecutionException if all the threads of the pool are in use
+     */
+    public Future<?> submit(Runnable task) {
+        return executor.submit(task);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
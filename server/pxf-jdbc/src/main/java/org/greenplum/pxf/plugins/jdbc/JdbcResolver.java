@@ -96,17 +96,19 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
     /**
      * getFields() implementation
      *
-     * @param row one row
+     * @param row one row, with either the {@link ResultSet} positioned on
+     *            the row or the values of the row already read by the accessor
      * @throws SQLException if the provided {@link OneRow} object is invalid
      */
     @Override
     public List<OneField> getFields(OneRow row) throws SQLException {
-        ResultSet result = (ResultSet) row.getData();
+        Object data = row.getData();
+        Object[] values = data instanceof Object[] ? (Object[]) data : null;
+        ResultSet result = values == null ? (ResultSet) data : null;
         LinkedList<OneField> fields = new LinkedList<>();
 
-        for (ColumnDescriptor column : columns) {
-            String colName = column.columnName();
-            Object value;
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnDescriptor column = columns.get(i);
 
             OneField oneField = new OneField();
             oneField.type = column.columnTypeCode();
@@ -118,78 +120,95 @@ public class JdbcResolver extends JdbcBasePlugin implements Resolver {
              */
             if (!column.isProjected()) continue;
 
-            switch (DataType.get(oneField.type)) {
-                case INTEGER:
-                    value = result.getInt(colName);
-                    break;
-                case FLOAT8:
-                    value = result.getDouble(colName);
-                    break;
-                case REAL:
-                    value = result.getFloat(colName);
-                    break;
-                case BIGINT:
-                    value = result.getLong(colName);
-                    break;
-                case SMALLINT:
-                    value = result.getShort(colName);
-                    break;
-                case BOOLEAN:
-                    value = result.getBoolean(colName);
-                    break;
-                case BYTEA:
-                    value = result.getBytes(colName);
-                    break;
-                case VARCHAR:
-                case BPCHAR:
-                case TEXT:
-                case NUMERIC:
-                case JSONB:
-                case JSON:
-                    value = result.getString(colName);
-                    break;
-                case DATE:
-                    if (isDateWideRange) {
-                        LocalDate localDate = result.getObject(colName, LocalDate.class);
-                        value = localDate != null ? localDate.format(LOCAL_DATE_FORMATTER) : null;
-                    } else {
-                        Date date = result.getDate(colName);
-                        value = date != null ? date.toLocalDate().format(DATE_FORMATTER) : null;
-                    }
-                    break;
-                case TIMESTAMP:
-                    if (isDateWideRange) {
-                        LocalDateTime localDateTime = result.getObject(colName, LocalDateTime.class);
-                        value = localDateTime != null ? localDateTime.format(LOCAL_DATE_TIME_FORMATTER) : null;
-                    } else {
-                        Timestamp timestamp = result.getTimestamp(colName);
-                        value = timestamp != null ? timestamp.toLocalDateTime().format(DATETIME_FORMATTER) : null;
-                    }
-                    break;
-                case TIMESTAMP_WITH_TIME_ZONE:
-                    if (isDateWideRange) {
-                        OffsetDateTime offsetDateTime = result.getObject(colName, OffsetDateTime.class);
-                        value = offsetDateTime != null ? offsetDateTime.format(OFFSET_DATE_TIME_FORMATTER) : null;
-                    } else {
-                        throw new UnsupportedOperationException(
-                                String.format("Field type '%s' (column '%s') is not supported",
-                                        DataType.get(oneField.type),
-                                        column));
-                    }
-                    break;
-                case UUID:
-                    value = result.getObject(colName, java.util.UUID.class);
-                    break;
-                default:
+            oneField.val = values != null ? values[i] : getValue(result, column, isDateWideRange);
+        }
+        return fields;
+    }
+
+    /**
+     * Reads the value of the given column from the current row of the result set
+     *
+     * @param result          the result set positioned on the row
+     * @param column          the column to read
+     * @param isDateWideRange whether dates and timestamps are read with the java.time getters
+     * @return the value of the column, or null if the value is SQL NULL
+     * @throws SQLException if the value can not be read
+     */
+    static Object getValue(ResultSet result, ColumnDescriptor column, boolean isDateWideRange) throws SQLException {
+        String colName = column.columnName();
+        DataType dataType = DataType.get(column.columnTypeCode());
+        Object value;
+
+        switch (dataType) {
+            case INTEGER:
+                value = result.getInt(colName);
+                break;
+            case FLOAT8:
+                value = result.getDouble(colName);
+                break;
+            case REAL:
+                value = result.getFloat(colName);
+                break;
+            case BIGINT:
+                value = result.getLong(colName);
+                break;
+            case SMALLINT:
+                value = result.getShort(colName);
+                break;
+            case BOOLEAN:
+                value = result.getBoolean(colName);
+                break;
+            case BYTEA:
+                value = result.getBytes(colName);
+                break;
+            case VARCHAR:
+            case BPCHAR:
+            case TEXT:
+            case NUMERIC:
+            case JSONB:
+            case JSON:
+                value = result.getString(colName);
+                break;
+            case DATE:
+                if (isDateWideRange) {
+                    LocalDate localDate = result.getObject(colName, LocalDate.class);
+                    value = localDate != null ? localDate.format(LOCAL_DATE_FORMATTER) : null;
+                } else {
+                    Date date = result.getDate(colName);
+                    value = date != null ? date.toLocalDate().format(DATE_FORMATTER) : null;
+                }
+                break;
+            case TIMESTAMP:
+                if (isDateWideRange) {
+                    LocalDateTime localDateTime = result.getObject(colName, LocalDateTime.class);
+                    value = localDateTime != null ? localDateTime.format(LOCAL_DATE_TIME_FORMATTER) : null;
+                } else {
+                    Timestamp timestamp = result.getTimestamp(colName);
+                    value = timestamp != null ? timestamp.toLocalDateTime().format(DATETIME_FORMATTER) : null;
+                }
+                break;
+            case TIMESTAMP_WITH_TIME_ZONE:
+                if (isDateWideRange) {
+                    OffsetDateTime offsetDateTime = result.getObject(colName, OffsetDateTime.class);
+                    value = offsetDateTime != null ? offsetDateTime.format(OFFSET_DATE_TIME_FORMATTER) : null;
+                } else {
                     throw new UnsupportedOperationException(
                             String.format("Field type '%s' (column '%s') is not supported",
-                                    DataType.get(oneField.type),
+                                    dataType,
                                     column));
-            }
-
-            oneField.val = result.wasNull() ? null : value;
+                }
+                break;
+            case UUID:
+                value = result.getObject(colName, java.util.UUID.class);
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                        String.format("Field type '%s' (column '%s') is not supported",
+                                dataType,
+                                column));
         }
-        return fields;
+
+        return result.wasNull() ? null : value;
     }
 
     /**
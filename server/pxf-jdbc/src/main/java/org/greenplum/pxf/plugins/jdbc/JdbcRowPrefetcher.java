@@ -0,0 +1,252 @@
+package org.greenplum.pxf.plugins.jdbc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import lombok.extern.slf4j.Slf4j;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reads the rows of a result set on a thread of the {@link JdbcReaderExecutor}
+ * while the request thread resolves and sends the rows read before, so that
+ * the round-trips to the external database overlap with the work of PXF.
+ * <p>
+ * The values of the projected columns are extracted with the getters used by
+ * {@link JdbcResolver#getValue} and handed over in batches through a bounded
+ * queue: the reading thread waits when the queue is full, and stops when the
+ * read is canceled or closed. A reading thread waiting for the external
+ * database when the read is closed is stopped by canceling the statement.
+ */
+@Slf4j
+class JdbcRowPrefetcher {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long CLOSE_TIMEOUT_MILLIS = 30_000;
+    private static final List<Object[]> END_OF_ROWS = Collections.emptyList();
+
+    private final ResultSet resultSet;
+    private final List<ColumnDescriptor> columns;
+    private final boolean isDateWideRange;
+    private final int batchRows;
+    private final BlockingQueue<List<Object[]>> queue;
+    private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+    private volatile boolean canceled;
+    private volatile Throwable error;
+    private List<Object[]> batch = Collections.emptyList();
+    private int batchIndex;
+    private boolean endOfRows;
+
+    /**
+     * Creates a new prefetcher of the rows of the given result set
+     *
+     * @param resultSet       the result set to read
+     * @param columns         the columns of the table
+     * @param isDateWideRange whether dates and timestamps are read with the java.time getters
+     * @param batchRows       the number of rows of a batch
+     * @param queueCapacity   the maximum number of batches read ahead
+     */
+    JdbcRowPrefetcher(ResultSet resultSet, List<ColumnDescriptor> columns, boolean isDateWideRange,
+                      int batchRows, int queueCapacity) {
+        this.resultSet = resultSet;
+        this.columns = columns;
+        this.isDateWideRange = isDateWideRange;
+        this.batchRows = batchRows;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Starts reading the rows with a thread of the given executor
+     *
+     * @param executor the executor of the reading thread
+     * @throws java.util.concurrent.RejectedExecutionException if the executor has no thread available
+     */
+    void start(JdbcReaderExecutor executor) {
+        executor.submit(this::readRows);
+    }
+
+    /**
+     * Returns the values of the next row, waiting for the reading thread if
+     * needed
+     *
+     * @return the values of the projected columns of the next row, or null if there are no more rows
+     * @throws SQLException if the reading thread failed to read the rows
+     */
+    Object[] next() throws SQLException {
+        while (batchIndex == batch.size()) {
+            if (endOfRows) {
+                return null;
+            }
+            batch = takeBatch();
+            batchIndex = 0;
+            if (batch == END_OF_ROWS) {
+                endOfRows = true;
+                Throwable cause = error;
+                if (cause instanceof SQLException) {
+                    throw (SQLException) cause;
+                } else if (cause != null) {
+                    throw new PxfRuntimeException(cause.getMessage(), cause);
+                }
+            }
+        }
+        return batch.get(batchIndex++);
+    }
+
+    /**
+     * Stops the reading thread without waiting for it
+     */
+    void cancel() {
+        canceled = true;
+    }
+
+    /**
+     * Stops the reading thread and waits for it to stop using the result set,
+     * so that the result set can be closed. The statement is canceled if the
+     * reading thread does not stop right away, as it is then waiting for the
+     * external database. A reading thread that does not stop within the
+     * timeout is abandoned.
+     *
+     * @param statement the statement of the result set
+     * @return true if the reading thread stopped, false if it was abandoned
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    boolean close(Statement statement) throws InterruptedException {
+        canceled = true;
+        queue.clear();
+        if (awaitFinished(2 * POLL_TIMEOUT_MILLIS)) {
+            return true;
+        }
+        try {
+            log.debug("Canceling the statement of the rows being prefetched");
+            statement.cancel();
+        } catch (SQLException e) {
+            log.debug("Failed to cancel the statement of the rows being prefetched", e);
+        }
+        if (awaitFinished(CLOSE_TIMEOUT_MILLIS)) {
+            return true;
+        }
+        log.warn("The prefetching of the rows did not stop within {} ms, abandoning it", CLOSE_TIMEOUT_MILLIS);
+        return false;
+    }
+
+    /**
+     * Runs the given action once the reading thread has stopped, right away
+     * if it has already stopped
+     *
+     * @param action the action to run
+     */
+    void whenFinished(Runnable action) {
+        finished.thenRun(action);
+    }
+
+    private boolean awaitFinished(long timeoutMillis) throws InterruptedException {
+        try {
+            finished.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // never completed exceptionally, the errors of the reading thread are kept in the error field
+            return true;
+        }
+    }
+
+    private List<Object[]> takeBatch() {
+        try {
+            while (true) {
+                if (canceled) {
+                    throw new PxfRuntimeException("The read operation was canceled");
+                }
+                List<Object[]> next = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (next != null) {
+                    return next;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PxfRuntimeException("Interrupted while waiting for the rows of the external database", e);
+        }
+    }
+
+    private void readRows() {
+        int rows = 0;
+        try {
+            List<Object[]> rowBatch = new ArrayList<>(batchRows);
+            while (!canceled && resultSet.next()) {
+                Object[] values = new Object[columns.size()];
+                for (int i = 0; i < values.length; i++) {
+                    ColumnDescriptor column = columns.get(i);
+                    // non-projected columns get null values
+                    if (column.isProjected()) {
+                        values[i] = JdbcResolver.getValue(resultSet, column, isDateWideRange);
+                    }
+                }
+                rowBatch.add(values);
+                rows++;
+                if (rowBatch.size() == batchRows) {
+                    put(rowBatch);
+                    rowBatch = new ArrayList<>(batchRows);
+                }
+            }
+            if (!rowBatch.isEmpty()) {
+                put(rowBatch);
+            }
+        } catch (Throwable e) {
+            if (!canceled) {
+                log.debug("Failed to prefetch the rows of the external database", e);
+            }
+            error = e;
+        } finally {
+            put(END_OF_ROWS);
+            log.debug("Prefetched {} rows", rows);
+            finished.complete(null);
+        }
+    }
+
+    /**
+     * Puts a batch in the queue, waiting while the queue is full unless the
+     * read is canceled
+     */
+    private void put(List<Object[]> rowBatch) {
+        try {
+            while (!canceled) {
+                if (queue.offer(rowBatch, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            canceled = true;
+        }
+    }
+}
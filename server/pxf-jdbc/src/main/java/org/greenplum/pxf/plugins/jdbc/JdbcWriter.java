@@ -23,21 +23,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
-import org.greenplum.pxf.plugins.jdbc.writercallable.TimeoutFixedThreadPoolExecutor;
+import org.greenplum.pxf.plugins.jdbc.writercallable.JdbcWriterExecutor;
 import org.greenplum.pxf.plugins.jdbc.writercallable.WriterCallable;
 import org.greenplum.pxf.plugins.jdbc.writercallable.WriterCallableFactory;
 
 import java.sql.SQLException;
-import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 public class JdbcWriter {
@@ -45,7 +42,8 @@ public class JdbcWriter {
     private final ConcurrentLinkedQueue<Future<SQLException>> poolTasks;
     private final WriterCallableFactory writerCallableFactory;
     private final AtomicReference<Exception> firstException;
-    private final ExecutorService writerExecutor;
+    private final JdbcWriterExecutor writerExecutor;
+    private final int batchTimeout;
     private final int terminationTimeoutSeconds;
     private final Semaphore semaphore;
     private WriterCallable writerCallable = null;
@@ -57,7 +55,8 @@ public class JdbcWriter {
                String query,
                int poolSize,
                int terminationTimeoutSeconds,
-               DbProduct dbProduct
+               DbProduct dbProduct,
+               JdbcWriterExecutor writerExecutor
     ) {
         log.debug("Creating JdbcWriter with batchSize={}, batchTimeout={}, query={}, poolSize={}, terminationTimeoutSeconds={}",
                 batchSize, batchTimeout, query, poolSize, terminationTimeoutSeconds);
@@ -68,14 +67,10 @@ public class JdbcWriter {
             log.info("The POOL_SIZE is set to the number of CPUs available ({})", poolSize);
         }
 
-        if (batchTimeout == 0) {
-            writerExecutor = Executors.newFixedThreadPool(poolSize);
-            log.debug("Writer will use fixed thread pool with {} thread(s)", poolSize);
-        } else {
-            writerExecutor = new TimeoutFixedThreadPoolExecutor(poolSize, batchTimeout, TimeUnit.SECONDS);
-            log.debug("Writer will use fixed thread pool with timeout {} seconds and {} thread(s)", batchTimeout, poolSize);
-        }
-
+        // The threads are shared by all write requests, the semaphore limits
+        // the number of batches this request executes concurrently
+        this.writerExecutor = writerExecutor;
+        this.batchTimeout = batchTimeout;
         semaphore = new Semaphore(poolSize);
         poolTasks = new ConcurrentLinkedQueue<>();
         firstException = new AtomicReference<>();
@@ -94,7 +89,8 @@ public class JdbcWriter {
                 props.getQuery(),
                 props.getPoolSize(),
                 props.getTerminationTimeoutSeconds(),
-                props.getDbProduct()
+                props.getDbProduct(),
+                props.getWriterExecutor()
         );
     }
 
@@ -112,14 +108,14 @@ public class JdbcWriter {
             if (log.isTraceEnabled()) {
                 log.trace("Accessor try to acquire semaphore to submit the task for writer {}", writerCallable);
                 log.trace("Current thread pool active task: {}; Queue used: {}; Semaphore remains: {}",
-                        ((ThreadPoolExecutor) writerExecutor).getActiveCount(),
-                        Integer.MAX_VALUE - ((ThreadPoolExecutor) writerExecutor).getQueue().remainingCapacity(),
+                        writerExecutor.getActiveCount(),
+                        writerExecutor.getQueueSize(),
                         semaphore.availablePermits());
             }
             // Semaphore#release runs as onComplete.run() in a 'finally' statement of WriterCallable#call
             semaphore.acquire();
             checkCanceled();
-            Future<SQLException> future = writerExecutor.submit(writerCallable);
+            Future<SQLException> future = writerExecutor.submit(writerCallable, batchTimeout);
             poolTasks.add(future);
             log.trace("Accessor submitted the task for writer {} with future result {}", writerCallable, future);
             writerCallable = writerCallableFactory.get();
@@ -141,7 +137,7 @@ public class JdbcWriter {
                 if (writerCallable != null) {
                     // Send data that is left
                     checkCanceled();
-                    Future<SQLException> future = writerExecutor.submit(writerCallable);
+                    Future<SQLException> future = writerExecutor.submit(writerCallable, batchTimeout);
                     poolTasks.add(future);
                     log.trace("Accessor submitted the last task for writer {} with future result {}", writerCallable, future);
                     checkCloseForWriteResults();
@@ -150,7 +146,7 @@ public class JdbcWriter {
                 throw firstException.get();
             }
         } finally {
-            shutdownExecutorService(writerExecutor);
+            awaitTasks();
         }
     }
 
@@ -159,8 +155,7 @@ public class JdbcWriter {
         try {
             log.debug("Number of tasks to be canceled: {}", poolTasks.size());
             poolTasks.forEach(task -> task.cancel(true));
-            log.debug("Shutdown writer executor service");
-            shutdownExecutorService(writerExecutor);
+            poolTasks.clear();
         } finally {
             // We need to release semaphore because some drivers will not react on interrupt
             semaphore.release();
@@ -217,19 +212,38 @@ public class JdbcWriter {
         throw exception;
     }
 
-    private void shutdownExecutorService(ExecutorService executorService) {
-        log.debug("Accessor starts shutdown executor service for write");
-        executorService.shutdown();
-        try {
-            if (!executorService.awaitTermination(terminationTimeoutSeconds, TimeUnit.SECONDS)) {
-                log.warn("Executor did not terminate in the specified time.");
-                List<Runnable> droppedTasks = executorService.shutdownNow();
-                log.warn("Dropped {} tasks", droppedTasks.size());
+    /**
+     * Waits for the tasks of this request that are still running, for example
+     * after one of the tasks failed, and cancels the tasks that did not
+     * complete in time. The threads of the executor are shared with other
+     * requests, so the executor itself is never shut down.
+     */
+    private void awaitTasks() {
+        if (poolTasks.isEmpty()) {
+            return;
+        }
+        log.debug("Accessor waits for {} remaining task(s)", poolTasks.size());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(terminationTimeoutSeconds);
+        int droppedTasks = 0;
+        for (Future<SQLException> future : poolTasks) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                droppedTasks++;
+            } catch (InterruptedException e) {
+                log.warn("Thread received interrupted signal");
+                Thread.currentThread().interrupt();
+                deadline = System.nanoTime();
+                future.cancel(true);
+                droppedTasks++;
+            } catch (Exception e) {
+                // the first exception has already been reported
             }
-        } catch (InterruptedException e) {
-            log.warn("Thread received interrupted signal");
-            Thread.currentThread().interrupt();
         }
-        log.debug("Accessor completed to shutdown executor service");
+        poolTasks.clear();
+        if (droppedTasks > 0) {
+            log.warn("Tasks did not complete in the specified time, canceled {} task(s)", droppedTasks);
+        }
     }
 }
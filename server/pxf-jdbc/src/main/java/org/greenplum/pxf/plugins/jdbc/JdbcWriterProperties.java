@@ -22,6 +22,7 @@ package org.greenplum.pxf.plugins.jdbc;
 import lombok.Builder;
 import lombok.Data;
 import org.greenplum.pxf.plugins.jdbc.utils.DbProduct;
+import org.greenplum.pxf.plugins.jdbc.writercallable.JdbcWriterExecutor;
 
 @Data
 @Builder
@@ -33,4 +34,5 @@ public class JdbcWriterProperties {
     private final int poolSize;
     private final int terminationTimeoutSeconds;
     private final DbProduct dbProduct;
+    private final JdbcWriterExecutor writerExecutor;
 }
@@ -26,6 +26,16 @@ public class PxfJdbcProperties {
      */
     private Connection connection = new Connection();
 
+    /**
+     * Customizable settings for the thread pool executing INSERT batches
+     */
+    private Writer writer = new Writer();
+
+    /**
+     * Customizable settings for the threads prefetching the rows of SELECT queries
+     */
+    private Reader reader = new Reader();
+
     @Getter
     @Setter
     @Validated
@@ -54,4 +64,43 @@ public class PxfJdbcProperties {
         @DurationUnit(ChronoUnit.HOURS)
         private Duration poolExpirationTimeout = Duration.ofHours(6);
     }
+
+    @Getter
+    @Setter
+    @Validated
+    public static class Writer {
+
+        /**
+         * Defines the maximum number of INSERT batches executed concurrently
+         * by all the write requests of the PXF server
+         */
+        private int poolSize = 64;
+
+        /**
+         * Defines the amount of time an idle thread of the pool is kept
+         * before it is terminated
+         */
+        @DurationUnit(ChronoUnit.SECONDS)
+        private Duration keepAlive = Duration.ofSeconds(60);
+    }
+
+    @Getter
+    @Setter
+    @Validated
+    public static class Reader {
+
+        /**
+         * Defines the maximum number of read requests of the PXF server that
+         * prefetch their rows concurrently, other read requests read their
+         * rows without prefetching
+         */
+        private int poolSize = 64;
+
+        /**
+         * Defines the amount of time an idle thread of the pool is kept
+         * before it is terminated
+         */
+        @DurationUnit(ChronoUnit.SECONDS)
+        private Duration keepAlive = Duration.ofSeconds(60);
+    }
 }
@@ -158,6 +158,30 @@ public class SQLQueryBuilder {
         return query;
     }
 
+    /**
+     * Build a query for the minimum and the maximum values of the partition column (with "WHERE" constraints), used to
+     * discover the range of the partitions when the user did not provide it.
+     *
+     * @param column the partition column
+     * @return SQL query returning a single row with the minimum and the maximum values
+     */
+    public String buildPartitionRangeQuery(String column) {
+        String quotedColumn = quoteString + column + quoteString;
+        StringBuilder sb = new StringBuilder("SELECT MIN(")
+                .append(quotedColumn)
+                .append("), MAX(")
+                .append(quotedColumn)
+                .append(") FROM ")
+                .append(getSource());
+
+        // Insert regular WHERE constraints, only the rows returned to Greenplum need to be partitioned
+        buildWhereSQL(sb);
+
+        String query = sb.toString();
+        LOG.debug("buildPartitionRangeQuery: {}", query);
+        return query;
+    }
+
     /**
      * Build INSERT query template (field values are replaced by placeholders '?')
      *
@@ -23,6 +23,11 @@ import org.apache.commons.lang.StringUtils;
 import org.greenplum.pxf.plugins.jdbc.Interval;
 import org.greenplum.pxf.plugins.jdbc.IntervalType;
 
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -57,7 +62,23 @@ public enum PartitionType {
 
         @Override
         Object next(Object start, Object end, Interval interval) {
-            return Math.min((long) start + interval.getValue(), (long) end);
+            long next = (long) start + interval.getValue();
+            // the interval is positive, a smaller value means the sum overflowed
+            return next < (long) start ? (long) end : Math.min(next, (long) end);
+        }
+
+        @Override
+        Interval getInterval(Object rangeStart, Object rangeEnd, int partitionCount) {
+            BigInteger span = BigInteger.valueOf((long) rangeEnd).subtract(BigInteger.valueOf((long) rangeStart));
+            BigInteger count = BigInteger.valueOf(partitionCount);
+            BigInteger value = span.add(count).subtract(BigInteger.ONE).divide(count);
+            return new Interval.LongInterval(value.min(BigInteger.valueOf(Long.MAX_VALUE)).max(BigInteger.ONE).longValue());
+        }
+
+        @Override
+        Object getBound(ResultSet resultSet, int columnIndex) throws SQLException {
+            long value = resultSet.getLong(columnIndex);
+            return resultSet.wasNull() ? null : value;
         }
 
         @Override
@@ -103,6 +124,18 @@ public enum PartitionType {
             return next.isAfter((LocalDate) end) ? end : next;
         }
 
+        @Override
+        Interval getInterval(Object rangeStart, Object rangeEnd, int partitionCount) {
+            long days = ChronoUnit.DAYS.between((LocalDate) rangeStart, (LocalDate) rangeEnd);
+            return new Interval.DateInterval(divideRoundingUp(days, partitionCount), IntervalType.DAY);
+        }
+
+        @Override
+        Object getBound(ResultSet resultSet, int columnIndex) throws SQLException {
+            Date value = resultSet.getDate(columnIndex);
+            return value == null ? null : value.toLocalDate();
+        }
+
         @Override
         BasePartition createPartition(String column, Object start, Object end, boolean isDateWideRange) {
             return new DatePartition(column, (LocalDate) start, (LocalDate) end, isDateWideRange);
@@ -152,6 +185,19 @@ public enum PartitionType {
             return next.isAfter((LocalDateTime) end) ? end : next;
         }
 
+        @Override
+        Interval getInterval(Object rangeStart, Object rangeEnd, int partitionCount) {
+            long seconds = ChronoUnit.SECONDS.between((LocalDateTime) rangeStart, (LocalDateTime) rangeEnd);
+            return new Interval.TimestampInterval(divideRoundingUp(seconds, partitionCount), IntervalType.SECOND);
+        }
+
+        @Override
+        Object getBound(ResultSet resultSet, int columnIndex) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            // partition boundaries are sent to the database with the precision of seconds
+            return value == null ? null : value.toLocalDateTime().truncatedTo(ChronoUnit.SECONDS);
+        }
+
         @Override
         BasePartition createPartition(String column, Object start, Object end, boolean isDateWideRange) {
             return new TimestampPartition(column, (LocalDateTime) start, (LocalDateTime) end, isDateWideRange);
@@ -190,6 +236,21 @@ public enum PartitionType {
             return false;
         }
 
+        @Override
+        public boolean isRangeDiscoverable() {
+            return false;
+        }
+
+        @Override
+        Interval getInterval(Object rangeStart, Object rangeEnd, int partitionCount) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+        }
+
+        @Override
+        Object getBound(ResultSet resultSet, int columnIndex) {
+            throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
+        }
+
         @Override
         BasePartition createPartition(String column, Object start, Object end, boolean isDateWideRange) {
             throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
@@ -245,11 +306,22 @@ public enum PartitionType {
             ));
         }
 
-        Interval parsedInterval = parseInterval(interval);
-        if (parsedInterval.getValue() < 1) {
-            throw new IllegalArgumentException("The '<interval_num>' in parameter 'INTERVAL' must be at least 1, but actual is " + parsedInterval.getValue());
-        }
+        return generate(column, rangeStart, rangeEnd, parseValidInterval(interval), isDateWideRange);
+    }
 
+    /**
+     * Generates the partitions covering the range from 'rangeStart' to 'rangeEnd' with the given interval, and the
+     * partitions for the values outside of the range.
+     *
+     * @param column          the partition column name
+     * @param rangeStart      the start of the range
+     * @param rangeEnd        the end of the range, not less than the start
+     * @param interval        the interval of the partitions in the range
+     * @param isDateWideRange determine if the year might contain more than 4 digits
+     * @return a list of partitions
+     */
+    private List<JdbcFragmentMetadata> generate(String column, Object rangeStart, Object rangeEnd, Interval interval,
+                                                boolean isDateWideRange) {
         // Generate partitions
         List<JdbcFragmentMetadata> partitions = new ArrayList<>();
 
@@ -262,7 +334,7 @@ public enum PartitionType {
         Object fragmentEnd;
         Object fragmentStart = rangeStart;
         while (isLessThan(fragmentStart, rangeEnd)) {
-            fragmentEnd = next(fragmentStart, rangeEnd, parsedInterval);
+            fragmentEnd = next(fragmentStart, rangeEnd, interval);
             partitions.add(createPartition(column, fragmentStart, fragmentEnd, isDateWideRange));
             fragmentStart = fragmentEnd;
         }
@@ -270,6 +342,18 @@ public enum PartitionType {
         return partitions;
     }
 
+    private Interval parseValidInterval(String interval) {
+        Interval parsedInterval = parseInterval(interval);
+        if (parsedInterval.getValue() < 1) {
+            throw new IllegalArgumentException("The '<interval_num>' in parameter 'INTERVAL' must be at least 1, but actual is " + parsedInterval.getValue());
+        }
+        return parsedInterval;
+    }
+
+    private static long divideRoundingUp(long value, int divisor) {
+        return Math.max(1, (value + divisor - 1) / divisor);
+    }
+
     abstract Object parseRange(String value) throws Exception;
 
     abstract boolean isLessThan(Object rangeStart, Object rangeEnd);
@@ -292,6 +376,31 @@ public enum PartitionType {
      */
     abstract String getValidIntervalFormat();
 
+    /**
+     * Return the interval splitting the range into the given number of partitions of equal size
+     * @param rangeStart the start of the range
+     * @param rangeEnd the end of the range
+     * @param partitionCount the number of partitions
+     * @return the interval, at least 1
+     */
+    abstract Interval getInterval(Object rangeStart, Object rangeEnd, int partitionCount);
+
+    /**
+     * Read a range boundary of this partition type from the result set
+     * @param resultSet the result set positioned at the row with the boundary
+     * @param columnIndex the index of the column with the boundary
+     * @return the boundary or null if the value is NULL
+     * @throws SQLException if the value cannot be read
+     */
+    abstract Object getBound(ResultSet resultSet, int columnIndex) throws SQLException;
+
+    /**
+     * @return true if the RANGE of this partition type can be discovered from the values of the partition column
+     */
+    public boolean isRangeDiscoverable() {
+        return true;
+    }
+
     /**
      * Analyze the user-provided parameters (column name, RANGE and INTERVAL values) and form a list of getFragmentsMetadata for this partition according to those parameters.
      *
@@ -312,6 +421,41 @@ public enum PartitionType {
         return result;
     }
 
+    /**
+     * Form a list of getFragmentsMetadata for the range of values of the partition column read from the database. The
+     * range is split into the given number of partitions of equal size, unless the user provided the INTERVAL.
+     *
+     * @param column          the partition column name
+     * @param resultSet       the result set positioned at the row with the minimum and the maximum values of the column
+     * @param interval        INTERVAL string value, null to split the range into 'partitionCount' partitions
+     * @param partitionCount  the number of partitions to split the range into
+     * @param isDateWideRange determine if the year might contain more than 4 digits
+     * @return a list of getFragmentsMetadata, empty if the column has no values
+     * @throws SQLException if the range cannot be read from the result set
+     */
+    public List<JdbcFragmentMetadata> getFragmentsMetadata(String column, ResultSet resultSet, String interval,
+                                                           int partitionCount, boolean isDateWideRange
+    ) throws SQLException {
+        if (StringUtils.isBlank(column)) {
+            throw new RuntimeException("The column name must be provided");
+        }
+
+        Object rangeStart = getBound(resultSet, 1);
+        Object rangeEnd = getBound(resultSet, 2);
+        if (rangeStart == null || rangeEnd == null) {
+            return new ArrayList<>();
+        }
+
+        Interval parsedInterval = StringUtils.isBlank(interval) ?
+                getInterval(rangeStart, rangeEnd, partitionCount) :
+                parseValidInterval(interval);
+
+        List<JdbcFragmentMetadata> result = generate(column, rangeStart, rangeEnd, parsedInterval, isDateWideRange);
+        result.add(new NullPartition(column));
+
+        return result;
+    }
+
     private void checkValidInput(String column, String range, String interval) {
         // Check input
         if (StringUtils.isBlank(column)) {
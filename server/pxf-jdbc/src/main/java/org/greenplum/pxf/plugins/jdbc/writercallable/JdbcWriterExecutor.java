@@ -0,0 +1,183 @@
+package org.greenplum.pxf.plugins.jdbc.writercallable;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.greenplum.pxf.plugins.jdbc.PxfJdbcProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the INSERT batches of all the JDBC write requests of the PXF
+ * server. The pool of threads is shared, so that threads are not created and
+ * destroyed for every request, and it is bounded, which caps the number of
+ * concurrent INSERT statements sent to external databases by the server. The
+ * number of batches a single request runs concurrently is limited by the
+ * request itself.
+ * <p>
+ * The pool is monitored with the pxf.executor.* metrics tagged with
+ * name=pxfJdbcWriterExecutor, the execution time of the batches is reported
+ * as the pxf.jdbc.writer.batch timer.
+ */
+@Slf4j
+@Component
+public class JdbcWriterExecutor implements MeterBinder, DisposableBean {
+
+    static final String EXECUTOR_NAME = "pxfJdbcWriterExecutor";
+    static final String BATCH_METRIC_NAME = "pxf.jdbc.writer.batch";
+    private static final String THREAD_NAME_PREFIX = "pxf-jdbc-writer-";
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService timeoutExecutor;
+    private volatile Timer successTimer;
+    private volatile Timer errorTimer;
+
+    @Autowired
+    public JdbcWriterExecutor(PxfJdbcProperties properties) {
+        this(properties.getWriter().getPoolSize(), properties.getWriter().getKeepAlive());
+    }
+
+    JdbcWriterExecutor(int poolSize, Duration keepAlive) {
+        executor = new ThreadPoolExecutor(poolSize, poolSize,
+                keepAlive.toMillis(), TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+        executor.allowCoreThreadTimeOut(true);
+        timeoutExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(THREAD_NAME_PREFIX + "timeout-"));
+        log.debug("Initialized JDBC writer executor with pool size={}, keep alive={}", poolSize, keepAlive);
+    }
+
+    /**
+     * Submits an INSERT batch for execution. When the timeout is positive,
+     * the thread executing the batch is interrupted if the batch runs for
+     * longer than the timeout.
+     *
+     * @param task           the batch to execute
+     * @param timeoutSeconds the timeout of the batch in seconds, 0 for no timeout
+     * @return the future result of the batch
+     */
+    public Future<SQLException> submit(Callable<SQLException> task, int timeoutSeconds) {
+        return executor.submit(() -> {
+            BatchTimeout batchTimeout = null;
+            ScheduledFuture<?> timeout = null;
+            if (timeoutSeconds > 0) {
+                batchTimeout = new BatchTimeout(Thread.currentThread(), timeoutSeconds);
+                timeout = timeoutExecutor.schedule(batchTimeout, timeoutSeconds, TimeUnit.SECONDS);
+            }
+
+            final long start = System.nanoTime();
+            boolean success = false;
+            try {
+                SQLException exception = task.call();
+                success = exception == null;
+                return exception;
+            } finally {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                    // a timeout that already started must not interrupt the next batch of the thread
+                    batchTimeout.complete();
+                }
+                Timer timer = success ? successTimer : errorTimer;
+                if (timer != null) {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the approximate number of threads that are executing batches
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return the number of batches waiting for a thread
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+        successTimer = Timer.builder(BATCH_METRIC_NAME)
+                .description("The time taken to execute an INSERT batch")
+                .tags("outcome", "success")
+                .register(registry);
+        errorTimer = Timer.builder(BATCH_METRIC_NAME)
+                .description("The time taken to execute an INSERT batch")
+                .tags("outcome", "error")
+                .register(registry);
+    }
+
+    /**
+     * Interrupts the thread executing a batch when the batch times out, unless
+     * the batch has completed: the threads of the pool are shared, and are
+     * executing the batches of other requests afterwards.
+     */
+    static class BatchTimeout implements Runnable {
+        private final Thread executingThread;
+        private final int timeoutSeconds;
+        private boolean completed;
+
+        BatchTimeout(Thread executingThread, int timeoutSeconds) {
+            this.executingThread = executingThread;
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!completed) {
+                log.warn("Thread {} has timed out after {} seconds", executingThread.getName(), timeoutSeconds);
+                executingThread.interrupt();
+            }
+        }
+
+        synchronized void complete() {
+            completed = true;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        timeoutExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+}
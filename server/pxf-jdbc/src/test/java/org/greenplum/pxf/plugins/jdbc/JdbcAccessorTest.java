@@ -2,11 +2,15 @@ package org.greenplum.pxf.plugins.jdbc;
 
 import io.arenadata.security.encryption.client.service.DecryptClient;
 import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
+import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.greenplum.pxf.plugins.jdbc.partitioning.IntPartition;
 import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
+import org.greenplum.pxf.plugins.jdbc.writercallable.JdbcWriterExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,12 +26,23 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -56,11 +71,15 @@ public class JdbcAccessorTest {
     private ResultSet mockResultSet;
     @Mock
     private DecryptClient mockDecryptClient;
+    @Mock
+    private JdbcReaderExecutor mockReaderExecutor;
+    @Mock
+    private JdbcWriterExecutor mockWriterExecutor;
 
     @BeforeEach
     public void setup() {
 
-        accessor = new JdbcAccessor(mockConnectionManager, mockSecureLogin, mockDecryptClient);
+        accessor = new JdbcAccessor(mockConnectionManager, mockSecureLogin, mockDecryptClient, mockReaderExecutor, mockWriterExecutor);
         configuration = new Configuration();
         context = new RequestContext();
         context.setConfig("default");
@@ -304,6 +323,160 @@ public class JdbcAccessorTest {
         assertEquals(expected, queryPassed.getValue());
     }
 
+    @Test
+    public void testReadWithPrefetch() throws Exception {
+        JdbcReaderExecutor readerExecutor = new JdbcReaderExecutor(4, Duration.ofSeconds(1));
+        try {
+            accessor = new JdbcAccessor(mockConnectionManager, mockSecureLogin, mockDecryptClient, readerExecutor, mockWriterExecutor);
+            configuration.set("jdbc.read.prefetch.batches", "1");
+            configuration.set("jdbc.statement.fetchSize", "2");
+            context.setTupleDescription(Collections.singletonList(
+                    new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, DataType.INTEGER.name(), null)));
+            when(mockStatement.executeQuery(anyString())).thenReturn(mockResultSet);
+            when(mockResultSet.next()).thenReturn(true, true, true, false);
+            when(mockResultSet.getInt("id")).thenReturn(1, 2, 3);
+            wireMocksForReadWithCreateStatement();
+
+            accessor.setRequestContext(context);
+            accessor.afterPropertiesSet();
+            accessor.openForRead();
+
+            for (int i = 1; i <= 3; i++) {
+                OneRow row = accessor.readNextObject();
+                assertArrayEquals(new Object[]{i}, (Object[]) row.getData());
+            }
+            assertNull(accessor.readNextObject());
+            assertNull(accessor.readNextObject());
+
+            accessor.closeForRead();
+            verify(mockStatement).close();
+        } finally {
+            readerExecutor.destroy();
+        }
+    }
+
+    @Test
+    public void testReadWithPrefetchFailure() throws Exception {
+        JdbcReaderExecutor readerExecutor = new JdbcReaderExecutor(4, Duration.ofSeconds(1));
+        try {
+            accessor = new JdbcAccessor(mockConnectionManager, mockSecureLogin, mockDecryptClient, readerExecutor, mockWriterExecutor);
+            configuration.set("jdbc.read.prefetch.batches", "2");
+            context.setTupleDescription(Collections.singletonList(
+                    new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, DataType.INTEGER.name(), null)));
+            when(mockStatement.executeQuery(anyString())).thenReturn(mockResultSet);
+            when(mockResultSet.next()).thenThrow(new SQLException("connection reset"));
+            wireMocksForReadWithCreateStatement();
+
+            accessor.setRequestContext(context);
+            accessor.afterPropertiesSet();
+            accessor.openForRead();
+
+            Exception e = assertThrows(SQLException.class, () -> accessor.readNextObject());
+            assertEquals("connection reset", e.getMessage());
+            accessor.closeForRead();
+        } finally {
+            readerExecutor.destroy();
+        }
+    }
+
+    @Test
+    public void testCancelReadWithPrefetch() throws Exception {
+        JdbcReaderExecutor readerExecutor = new JdbcReaderExecutor(4, Duration.ofSeconds(1));
+        try {
+            accessor = new JdbcAccessor(mockConnectionManager, mockSecureLogin, mockDecryptClient, readerExecutor, mockWriterExecutor);
+            configuration.set("jdbc.read.prefetch.batches", "1");
+            configuration.set("jdbc.statement.fetchSize", "10");
+            context.setTupleDescription(Collections.singletonList(
+                    new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, DataType.INTEGER.name(), null)));
+            when(mockStatement.executeQuery(anyString())).thenReturn(mockResultSet);
+            // the external table never ends, the reading thread waits for the queue to be drained
+            when(mockResultSet.next()).thenReturn(true);
+            when(mockResultSet.getInt("id")).thenReturn(1);
+            wireMocksForReadWithCreateStatement();
+
+            accessor.setRequestContext(context);
+            accessor.afterPropertiesSet();
+            accessor.openForRead();
+            assertArrayEquals(new Object[]{1}, (Object[]) accessor.readNextObject().getData());
+
+            accessor.cancelRead();
+            Exception e = assertThrows(PxfRuntimeException.class, () -> accessor.readNextObject());
+            assertEquals("The read operation was canceled", e.getMessage());
+
+            // the reading thread stops, so the statement can be closed
+            accessor.closeForRead();
+            verify(mockStatement).close();
+        } finally {
+            readerExecutor.destroy();
+        }
+    }
+
+    @Test
+    public void testCloseReadWithPrefetchCancelsStatement() throws Exception {
+        JdbcReaderExecutor readerExecutor = new JdbcReaderExecutor(4, Duration.ofSeconds(1));
+        try {
+            accessor = new JdbcAccessor(mockConnectionManager, mockSecureLogin, mockDecryptClient, readerExecutor, mockWriterExecutor);
+            configuration.set("jdbc.read.prefetch.batches", "1");
+            context.setTupleDescription(Collections.singletonList(
+                    new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, DataType.INTEGER.name(), null)));
+            when(mockStatement.executeQuery(anyString())).thenReturn(mockResultSet);
+            // the reading thread waits for the external database until the statement is canceled
+            CountDownLatch reading = new CountDownLatch(1);
+            CountDownLatch statementCanceled = new CountDownLatch(1);
+            when(mockResultSet.next()).thenAnswer(invocation -> {
+                reading.countDown();
+                statementCanceled.await();
+                throw new SQLException("canceling statement due to user request");
+            });
+            doAnswer(invocation -> {
+                statementCanceled.countDown();
+                return null;
+            }).when(mockStatement).cancel();
+            wireMocksForReadWithCreateStatement();
+
+            accessor.setRequestContext(context);
+            accessor.afterPropertiesSet();
+            accessor.openForRead();
+            assertTrue(reading.await(30, TimeUnit.SECONDS));
+
+            accessor.closeForRead();
+            verify(mockStatement).cancel();
+            verify(mockStatement).close();
+        } finally {
+            readerExecutor.destroy();
+        }
+    }
+
+    @Test
+    public void testReadWithoutPrefetchWhenReaderThreadsAreInUse() throws Exception {
+        configuration.set("jdbc.read.prefetch.batches", "1");
+        when(mockReaderExecutor.submit(any(Runnable.class))).thenThrow(new RejectedExecutionException("pool is full"));
+        when(mockStatement.executeQuery(anyString())).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, false);
+        wireMocksForReadWithCreateStatement();
+
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+
+        // the rows are read from the result set by the request thread
+        assertSame(mockResultSet, accessor.readNextObject().getData());
+        assertNull(accessor.readNextObject());
+
+        accessor.closeForRead();
+        verify(mockStatement).close();
+    }
+
+    @Test
+    public void testReadWithInvalidPrefetchBatches() {
+        configuration.set("jdbc.read.prefetch.batches", "-1");
+
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        Exception e = assertThrows(IllegalArgumentException.class, () -> accessor.openForRead());
+        assertEquals("Property jdbc.read.prefetch.batches has incorrect value -1 : must be a non-negative integer", e.getMessage());
+    }
+
     private void wireMocksForReadWithCreateStatement() throws SQLException {
         wireMocksForRead();
         when(mockConnection.createStatement()).thenReturn(mockStatement);
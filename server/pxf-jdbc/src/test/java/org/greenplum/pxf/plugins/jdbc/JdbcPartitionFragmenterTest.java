@@ -19,21 +19,57 @@ package org.greenplum.pxf.plugins.jdbc;
  * under the License.
  */
 
+import io.arenadata.security.encryption.client.service.DecryptClient;
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.Fragmenter;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.security.SecureLogin;
+import org.greenplum.pxf.plugins.jdbc.partitioning.IntPartition;
+import org.greenplum.pxf.plugins.jdbc.utils.ConnectionManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+@ExtendWith(MockitoExtension.class)
 public class JdbcPartitionFragmenterTest {
 
     private RequestContext context;
 
+    @Mock
+    private ConnectionManager mockConnectionManager;
+    @Mock
+    private SecureLogin mockSecureLogin;
+    @Mock
+    private DecryptClient mockDecryptClient;
+    @Mock
+    private Connection mockConnection;
+    @Mock
+    private DatabaseMetaData mockMetaData;
+    @Mock
+    private PreparedStatement mockStatement;
+    @Mock
+    private ResultSet mockResultSet;
+
     @BeforeEach
     public void setUp() {
         context = new RequestContext();
@@ -68,4 +104,124 @@ public class JdbcPartitionFragmenterTest {
         fragmenter.setRequestContext(context);
         assertThrows(IllegalArgumentException.class, fragmenter::afterPropertiesSet);
     }
+
+    @Test
+    public void testPartitionByIntWithoutRangeDiscoversRange() throws SQLException {
+        context.addOption("PARTITION_BY", "id:int");
+        context.setTotalSegments(4);
+        ArgumentCaptor<String> query = wireMocksForRangeQuery();
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getLong(1)).thenReturn(1L);
+        when(mockResultSet.getLong(2)).thenReturn(101L);
+
+        List<Fragment> fragments = getFragmentsDiscoveringRange();
+
+        assertEquals("SELECT MIN(id), MAX(id) FROM table", query.getValue());
+        // the range is split into a partition per segment, plus the partitions outside of the range and of NULLs
+        assertEquals(7, fragments.size());
+        assertIntPartition(fragments.get(0), null, 1L);
+        assertIntPartition(fragments.get(1), 101L, null);
+        assertIntPartition(fragments.get(2), 1L, 26L);
+        assertIntPartition(fragments.get(3), 26L, 51L);
+        assertIntPartition(fragments.get(4), 51L, 76L);
+        assertIntPartition(fragments.get(5), 76L, 101L);
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testPartitionByIntWithoutRangeUsesInterval() throws SQLException {
+        context.addOption("PARTITION_BY", "id:int");
+        context.addOption("INTERVAL", "50");
+        context.setTotalSegments(4);
+        wireMocksForRangeQuery();
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getLong(1)).thenReturn(1L);
+        when(mockResultSet.getLong(2)).thenReturn(101L);
+
+        List<Fragment> fragments = getFragmentsDiscoveringRange();
+
+        assertEquals(5, fragments.size());
+        assertIntPartition(fragments.get(2), 1L, 51L);
+        assertIntPartition(fragments.get(3), 51L, 101L);
+    }
+
+    @Test
+    public void testPartitionByIntWithoutRangeOnEmptyTable() throws SQLException {
+        context.addOption("PARTITION_BY", "id:int");
+        context.setTotalSegments(4);
+        wireMocksForRangeQuery();
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.wasNull()).thenReturn(true);
+
+        List<Fragment> fragments = getFragmentsDiscoveringRange();
+
+        assertEquals(1, fragments.size());
+        assertNull(fragments.get(0).getMetadata());
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testPartitionByIntWithoutRangeFailsWhenQueryFails() throws SQLException {
+        context.addOption("PARTITION_BY", "id:int");
+        wireMocksForRangeQuery();
+        when(mockStatement.executeQuery()).thenThrow(new SQLException("relation \"table\" does not exist"));
+
+        Exception e = assertThrows(PxfRuntimeException.class, this::getFragmentsDiscoveringRange);
+        assertEquals("Failed to discover the RANGE of partition column 'id': relation \"table\" does not exist", e.getMessage());
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void testPartitionByIntWithoutRangeFailsWithoutDiscovery() {
+        context.addOption("PARTITION_BY", "id:int");
+        context.addOption("INTERVAL", "50");
+        Fragmenter fragmenter = new JdbcPartitionFragmenter(
+                () -> new JdbcBasePlugin(mockConnectionManager, mockSecureLogin, mockDecryptClient));
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        Exception e = assertThrows(IllegalArgumentException.class, fragmenter::getFragments);
+        assertEquals("The parameter 'RANGE' must be specified for partition of type 'INT'", e.getMessage());
+    }
+
+    @Test
+    public void testPartitionByEnumWithoutRangeFails() {
+        context.addOption("PARTITION_BY", "level:enum");
+        Fragmenter fragmenter = new JdbcPartitionFragmenter();
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        Exception e = assertThrows(IllegalArgumentException.class, fragmenter::getFragments);
+        assertEquals("The parameter 'RANGE' must be specified for partition of type 'ENUM'", e.getMessage());
+    }
+
+    private List<Fragment> getFragmentsDiscoveringRange() {
+        Configuration configuration = new Configuration();
+        configuration.set("jdbc.driver", "org.greenplum.pxf.plugins.jdbc.FakeJdbcDriver");
+        configuration.set("jdbc.url", "test-url");
+        context.setConfiguration(configuration);
+        context.addOption(JdbcPartitionFragmenter.DISCOVER_RANGE_OPTION, "true");
+
+        Fragmenter fragmenter = new JdbcPartitionFragmenter(
+                () -> new JdbcBasePlugin(mockConnectionManager, mockSecureLogin, mockDecryptClient));
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        return fragmenter.getFragments();
+    }
+
+    private ArgumentCaptor<String> wireMocksForRangeQuery() throws SQLException {
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        when(mockConnectionManager.getConnection(any(), any(), any(), anyBoolean(), any(), any())).thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+        when(mockMetaData.getDatabaseProductName()).thenReturn("Greenplum");
+        when(mockMetaData.getExtraNameCharacters()).thenReturn("");
+        when(mockConnection.prepareStatement(query.capture())).thenReturn(mockStatement);
+        when(mockStatement.getConnection()).thenReturn(mockConnection);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        return query;
+    }
+
+    private void assertIntPartition(Fragment fragment, Long start, Long end) {
+        IntPartition partition = (IntPartition) fragment.getMetadata();
+        assertEquals(start, partition.getStart());
+        assertEquals(end, partition.getEnd());
+    }
 }
@@ -228,6 +228,24 @@ class JdbcResolverTest {
         assertEquals(uuid, oneField.val);
     }
 
+    @Test
+    void getFieldsFromPrefetchedValuesTest() throws SQLException {
+        when(row.getData()).thenReturn(new Object[]{1, null, "text"});
+        columnDescriptors.add(new ColumnDescriptor("int_col", DataType.INTEGER.getOID(), 0, DataType.INTEGER.name(), null));
+        columnDescriptors.add(new ColumnDescriptor("null_col", DataType.TEXT.getOID(), 1, DataType.TEXT.name(), null));
+        columnDescriptors.add(new ColumnDescriptor("text_col", DataType.TEXT.getOID(), 2, DataType.TEXT.name(), null));
+        context.setTupleDescription(columnDescriptors);
+        resolver.columns = context.getTupleDescription();
+
+        List<OneField> oneFields = resolver.getFields(row);
+        assertEquals(3, oneFields.size());
+        assertEquals(DataType.INTEGER.getOID(), oneFields.get(0).type);
+        assertEquals(1, oneFields.get(0).val);
+        assertNull(oneFields.get(1).val);
+        assertEquals("text", oneFields.get(2).val);
+        verifyNoInteractions(result);
+    }
+
     @Test
     void setFieldDateWithWideRangeTest() {
         isDateWideRange = true;
@@ -24,6 +24,12 @@ class PxfJdbcPropertiesTest {
         assertThat(this.properties.getConnection().getCleanupSleepInterval()).isEqualTo(Duration.ofMinutes(5));
         assertThat(this.properties.getConnection().getCleanupTimeout()).isEqualTo(Duration.ofHours(24));
         assertThat(this.properties.getConnection().getPoolExpirationTimeout()).isEqualTo(Duration.ofHours(6));
+        assertNotNull(properties.getWriter());
+        assertThat(this.properties.getWriter().getPoolSize()).isEqualTo(64);
+        assertThat(this.properties.getWriter().getKeepAlive()).isEqualTo(Duration.ofSeconds(60));
+        assertNotNull(properties.getReader());
+        assertThat(this.properties.getReader().getPoolSize()).isEqualTo(64);
+        assertThat(this.properties.getReader().getKeepAlive()).isEqualTo(Duration.ofSeconds(60));
     }
 
     @Test
@@ -53,6 +59,36 @@ class PxfJdbcPropertiesTest {
         assertThat(this.properties.getConnection().getPoolExpirationTimeout()).isEqualTo(Duration.ofMinutes(5));
     }
 
+    @Test
+    void testWriterPoolSizeBinding() {
+        bind("pxf.jdbc.writer.pool-size", "16");
+        assertThat(this.properties.getWriter().getPoolSize()).isEqualTo(16);
+    }
+
+    @Test
+    void testWriterKeepAliveBinding() {
+        bind("pxf.jdbc.writer.keep-alive", "30");
+        assertThat(this.properties.getWriter().getKeepAlive()).isEqualTo(Duration.ofSeconds(30));
+
+        bind("pxf.jdbc.writer.keep-alive", "5m");
+        assertThat(this.properties.getWriter().getKeepAlive()).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testReaderPoolSizeBinding() {
+        bind("pxf.jdbc.reader.pool-size", "16");
+        assertThat(this.properties.getReader().getPoolSize()).isEqualTo(16);
+    }
+
+    @Test
+    void testReaderKeepAliveBinding() {
+        bind("pxf.jdbc.reader.keep-alive", "30");
+        assertThat(this.properties.getReader().getKeepAlive()).isEqualTo(Duration.ofSeconds(30));
+
+        bind("pxf.jdbc.reader.keep-alive", "5m");
+        assertThat(this.properties.getReader().getKeepAlive()).isEqualTo(Duration.ofMinutes(5));
+    }
+
     private void bind(String name, String value) {
         bind(Collections.singletonMap(name, value));
     }
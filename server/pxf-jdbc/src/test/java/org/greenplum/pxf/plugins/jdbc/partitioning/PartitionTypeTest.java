@@ -2,8 +2,19 @@ package org.greenplum.pxf.plugins.jdbc.partitioning;
 
 import org.junit.jupiter.api.Test;
 
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class PartitionTypeTest {
 
@@ -123,4 +134,76 @@ public class PartitionTypeTest {
             () -> PartitionType.DATE.getFragmentsMetadata("foo", "a:b", "1", false));
         assertEquals("The parameter 'RANGE' is invalid. The correct format for partition of type 'DATE' is 'yyyy-mm-dd'", ex.getMessage());
     }
+
+    @Test
+    public void testDiscoveredRangeForDATE() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getDate(1)).thenReturn(Date.valueOf("2024-01-01"));
+        when(resultSet.getDate(2)).thenReturn(Date.valueOf("2024-01-31"));
+
+        List<JdbcFragmentMetadata> partitions = PartitionType.DATE.getFragmentsMetadata("foo", resultSet, null, 3, false);
+
+        assertEquals(6, partitions.size());
+        assertDatePartition(partitions.get(0), null, LocalDate.of(2024, 1, 1));
+        assertDatePartition(partitions.get(1), LocalDate.of(2024, 1, 31), null);
+        assertDatePartition(partitions.get(2), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 11));
+        assertDatePartition(partitions.get(3), LocalDate.of(2024, 1, 11), LocalDate.of(2024, 1, 21));
+        assertDatePartition(partitions.get(4), LocalDate.of(2024, 1, 21), LocalDate.of(2024, 1, 31));
+        assertTrue(partitions.get(5) instanceof NullPartition);
+    }
+
+    @Test
+    public void testDiscoveredRangeForTIMESTAMP() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getTimestamp(1)).thenReturn(Timestamp.valueOf("2024-01-01 10:00:00.750"));
+        when(resultSet.getTimestamp(2)).thenReturn(Timestamp.valueOf("2024-01-01 10:00:09.250"));
+
+        List<JdbcFragmentMetadata> partitions = PartitionType.TIMESTAMP.getFragmentsMetadata("foo", resultSet, null, 2, false);
+
+        // the boundaries are truncated to seconds
+        assertEquals(5, partitions.size());
+        TimestampPartition partition = (TimestampPartition) partitions.get(2);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0, 0), partition.getStart());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0, 5), partition.getEnd());
+        partition = (TimestampPartition) partitions.get(3);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0, 5), partition.getStart());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0, 9), partition.getEnd());
+    }
+
+    @Test
+    public void testDiscoveredRangeWithSingleValueForINT() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(7L);
+        when(resultSet.getLong(2)).thenReturn(7L);
+
+        List<JdbcFragmentMetadata> partitions = PartitionType.INT.getFragmentsMetadata("foo", resultSet, null, 4, false);
+
+        // only the partitions outside of the empty range and of NULLs
+        assertEquals(3, partitions.size());
+    }
+
+    @Test
+    public void testDiscoveredRangeSpanningAllValuesForINT() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(Long.MIN_VALUE);
+        when(resultSet.getLong(2)).thenReturn(Long.MAX_VALUE);
+
+        List<JdbcFragmentMetadata> partitions = PartitionType.INT.getFragmentsMetadata("foo", resultSet, null, 3, false);
+
+        assertEquals(6, partitions.size());
+        assertEquals(Long.MAX_VALUE, ((IntPartition) partitions.get(4)).getEnd());
+    }
+
+    @Test
+    public void unsupportedGetBoundForEnum() {
+        Exception e = assertThrows(UnsupportedOperationException.class,
+            () -> PartitionType.ENUM.getBound(null, 1));
+        assertEquals("Current operation is not supported", e.getMessage());
+    }
+
+    private void assertDatePartition(JdbcFragmentMetadata metadata, LocalDate start, LocalDate end) {
+        DatePartition partition = (DatePartition) metadata;
+        assertEquals(start, partition.getStart());
+        assertEquals(end, partition.getEnd());
+    }
 }
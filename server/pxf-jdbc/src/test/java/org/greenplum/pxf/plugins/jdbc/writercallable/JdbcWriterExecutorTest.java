@@ -0,0 +1,106 @@
+package org.greenplum.pxf.plugins.jdbc.writercallable;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcWriterExecutorTest {
+
+    private JdbcWriterExecutor executor;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        executor = new JdbcWriterExecutor(2, Duration.ofSeconds(60));
+        registry = new SimpleMeterRegistry();
+        executor.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void testSubmitReturnsBatchResult() throws Exception {
+        SQLException exception = new SQLException("batch failed");
+
+        assertNull(executor.submit(() -> null, 0).get());
+        assertSame(exception, executor.submit(() -> exception, 0).get());
+        assertEquals(1, registry.get(JdbcWriterExecutor.BATCH_METRIC_NAME).tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get(JdbcWriterExecutor.BATCH_METRIC_NAME).tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void testBatchInterruptedAfterTimeout() throws Exception {
+        Future<SQLException> future = executor.submit(() -> {
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                return null;
+            } catch (InterruptedException e) {
+                return new SQLException("interrupted");
+            }
+        }, 1);
+
+        SQLException exception = future.get(30, TimeUnit.SECONDS);
+        assertNotNull(exception);
+        assertEquals("interrupted", exception.getMessage());
+    }
+
+    @Test
+    void testTimeoutDoesNotInterruptNextBatch() throws Exception {
+        assertNull(executor.submit(() -> null, 1).get());
+
+        // the thread that executed the first batch must not be interrupted by its timeout
+        Future<SQLException> future = executor.submit(() -> {
+            Thread.sleep(1500);
+            return null;
+        }, 0);
+        assertNull(future.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCompletedBatchIsNotInterrupted() {
+        JdbcWriterExecutor.BatchTimeout batchTimeout = new JdbcWriterExecutor.BatchTimeout(Thread.currentThread(), 1);
+        batchTimeout.run();
+        assertTrue(Thread.interrupted());
+
+        batchTimeout.complete();
+        batchTimeout.run();
+        assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    void testPoolIsBounded() throws Exception {
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            executor.submit(() -> {
+                running.countDown();
+                release.await();
+                return null;
+            }, 0);
+        }
+
+        assertTrue(running.await(30, TimeUnit.SECONDS));
+        assertEquals(2, executor.getActiveCount());
+        assertEquals(1, executor.getQueueSize());
+        assertEquals(1.0, registry.get("executor.queued").tag("name", JdbcWriterExecutor.EXECUTOR_NAME).gauge().value());
+        release.countDown();
+    }
+}
@@ -19,10 +19,13 @@ package org.greenplum.pxf.plugins.json;
  * under the License.
  */
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hadoop.io.Text;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.BadRecordException;
@@ -36,14 +39,17 @@ import org.greenplum.pxf.plugins.hdfs.utilities.PgUtilities;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 
 /**
  * This JSON resolver for PXF will decode a given object from the {@link JsonAccessor} into a row for GPDB. It will
- * decode this data into a JsonNode and walk the tree for each column. It supports normal value mapping via projections
- * and JSON array indexing.
+ * stream through the JSON tokens of the object, building JsonNodes only for the members projected by the columns and
+ * skipping over all other members. It supports normal value mapping via projections and JSON array indexing.
  * <p>
  * For the writing use case the resolver will just pass the list of OneField objects to the {@link JsonAccessor} and will
  * not perform a serialization of the list into a Json string as it might have been expected. This is due to the nature
@@ -64,6 +70,9 @@ public class JsonResolver extends BasePlugin implements Resolver {
 
     private ArrayList<OneField> oneFieldList;
     private ColumnDescriptorCache[] columnDescriptorCache;
+    private ProjectionNode projectionTree;
+    private int[] columnNodeIndexes;
+    private JsonNode[] projectedNodes;
 
     public JsonResolver() {
         this(SpringContext.getBean(PgUtilities.class));
@@ -83,6 +92,24 @@ public class JsonResolver extends BasePlugin implements Resolver {
             ColumnDescriptor cd = context.getColumn(i);
             columnDescriptorCache[i] = new ColumnDescriptorCache(cd);
         }
+
+        // Merge the column projections into a tree, so that a JSON record can be parsed in a single pass reading only
+        // the projected members. Columns with the same projection, e.g. different indexes of the same array, share the
+        // node read from the record.
+        projectionTree = new ProjectionNode();
+        columnNodeIndexes = new int[columnDescriptorCache.length];
+        int projectedNodeCount = 0;
+        for (int i = 0; i < columnDescriptorCache.length; ++i) {
+            ProjectionNode projection = projectionTree;
+            for (String proj : columnDescriptorCache[i].getNormalizedProjections()) {
+                projection = projection.children.computeIfAbsent(proj, p -> new ProjectionNode());
+            }
+            if (projection.index < 0) {
+                projection.index = projectedNodeCount++;
+            }
+            columnNodeIndexes[i] = projection.index;
+        }
+        projectedNodes = new JsonNode[projectedNodeCount];
     }
 
     @Override
@@ -92,20 +119,26 @@ public class JsonResolver extends BasePlugin implements Resolver {
         if (row == null || row.getData() == null) {
             throw new BadRecordException("json record is null");
         }
-        String jsonRecordAsText = row.getData().toString();
-
-        JsonNode root;
-        try {
-            root = MAPPER.readTree(jsonRecordAsText);
+        Object data = row.getData();
+
+        Arrays.fill(projectedNodes, null);
+        try (JsonParser parser = createParser(data)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                readObject(parser, projectionTree);
+            } else if (token != null) {
+                // not an object, none of the columns can be found but the value still has to be valid JSON
+                parser.skipChildren();
+            }
         } catch (IOException e) {
             throw new BadRecordException(
-                    String.format("error while parsing json record '%s'. invalid JSON record\n%s", e.getMessage(), jsonRecordAsText), e);
+                    String.format("error while parsing json record '%s'. invalid JSON record\n%s", e.getMessage(), data), e);
         }
 
         // Iterate through the column definition and fetch our JSON data
-        for (ColumnDescriptorCache columnMetadata : columnDescriptorCache) {
-
-            JsonNode node = getChildJsonNode(root, columnMetadata.getNormalizedProjections());
+        for (int i = 0; i < columnDescriptorCache.length; i++) {
+            ColumnDescriptorCache columnMetadata = columnDescriptorCache[i];
+            JsonNode node = projectedNodes[columnNodeIndexes[i]];
 
             // If this node is null or missing, add a null value here
             if (node == null || node.isMissingNode()) {
@@ -141,21 +174,82 @@ public class JsonResolver extends BasePlugin implements Resolver {
     }
 
     /**
-     * Iterates down the root node to the child JSON node defined by the projs path.
+     * Creates a parser for the given JSON record. The lines read by the {@link JsonAccessor} are parsed directly from
+     * their UTF-8 bytes, without decoding them into a {@link String} first.
      *
-     * @param root  node to start the traversal from.
-     * @param projs defines the path from the root to the desired child node.
-     * @return Returns the child node defined by the root and projs path.
+     * @param data the JSON record
+     * @return the parser for the record
+     * @throws IOException if the parser cannot be created
      */
-    private JsonNode getChildJsonNode(JsonNode root, String[] projs) {
+    private JsonParser createParser(Object data) throws IOException {
+        if (data instanceof Text) {
+            Text text = (Text) data;
+            return MAPPER.getFactory().createParser(text.getBytes(), 0, text.getLength());
+        }
+        return MAPPER.getFactory().createParser(data.toString());
+    }
 
-        // Iterate through all the tokens to the desired JSON node
-        JsonNode node = root;
-        for (String proj : projs) {
-            node = node.path(proj);
+    /**
+     * Reads the members of the JSON object the parser is positioned at, keeping only the values of the projected
+     * members and skipping over everything else without building any nodes for it. When the method returns the parser
+     * is positioned at the end of the object.
+     *
+     * @param parser     the parser positioned at the start of the object
+     * @param projection the projections of the object members
+     * @throws IOException when the JSON record is invalid
+     */
+    private void readObject(JsonParser parser, ProjectionNode projection) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            ProjectionNode member = projection.children.get(parser.getCurrentName());
+            JsonToken token = parser.nextToken();
+            if (member == null) {
+                parser.skipChildren();
+            } else if (member.index >= 0) {
+                // a column is mapped to the member, its value is needed as a whole, columns nested under it are
+                // resolved from the value
+                JsonNode node = MAPPER.readTree(parser);
+                projectedNodes[member.index] = node;
+                resolveChildren(member, node);
+            } else if (token == JsonToken.START_OBJECT) {
+                // a repeated member replaces the previous one, forget the values read from it
+                clearChildren(member);
+                readObject(parser, member);
+            } else {
+                clearChildren(member);
+                parser.skipChildren();
+            }
         }
+    }
 
-        return node;
+    /**
+     * Resolves the projections nested under the given projection from the already read JSON node.
+     *
+     * @param projection the projection the node was read for
+     * @param node       the JSON node
+     */
+    private void resolveChildren(ProjectionNode projection, JsonNode node) {
+        for (Map.Entry<String, ProjectionNode> entry : projection.children.entrySet()) {
+            ProjectionNode child = entry.getValue();
+            JsonNode childNode = node.path(entry.getKey());
+            if (child.index >= 0) {
+                projectedNodes[child.index] = childNode;
+            }
+            resolveChildren(child, childNode);
+        }
+    }
+
+    /**
+     * Forgets the values read for the projections nested under the given projection.
+     *
+     * @param projection the projection
+     */
+    private void clearChildren(ProjectionNode projection) {
+        for (ProjectionNode child : projection.children.values()) {
+            if (child.index >= 0) {
+                projectedNodes[child.index] = null;
+            }
+            clearChildren(child);
+        }
     }
 
     /**
@@ -364,4 +458,13 @@ public class JsonResolver extends BasePlugin implements Resolver {
 
         return stringJoiner.toString();
     }
+
+    /**
+     * A node of the tree of the column projections. The children are the projected members of the JSON object and the
+     * index, when a column is mapped to the node, is the position of the node's JSON value among the projected nodes.
+     */
+    private static class ProjectionNode {
+        private final Map<String, ProjectionNode> children = new HashMap<>();
+        private int index = -1;
+    }
 }
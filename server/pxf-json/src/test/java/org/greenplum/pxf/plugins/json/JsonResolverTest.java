@@ -1,5 +1,6 @@
 package org.greenplum.pxf.plugins.json;
 
+import org.apache.hadoop.io.Text;
 import org.greenplum.pxf.api.error.BadRecordException;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
@@ -10,6 +11,7 @@ import org.greenplum.pxf.plugins.hdfs.utilities.PgUtilities;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -403,6 +405,86 @@ public class JsonResolverTest {
         assertEquals("error while reading column 'type_array_as_textarray': invalid array value '{\"id\":1}'", badRecordException.getMessage());
     }
 
+    @Test
+    public void testGetFieldsWithNestedProjections() throws Exception {
+        ArrayList<ColumnDescriptor> nestedSchema = new ArrayList<>();
+        nestedSchema.add(new ColumnDescriptor("user.id", DataType.BIGINT.getOID(), 0, "int8", null, true));
+        nestedSchema.add(new ColumnDescriptor("user.location.city", DataType.TEXT.getOID(), 1, "text", null, true));
+        nestedSchema.add(new ColumnDescriptor("user.location", DataType.TEXT.getOID(), 2, "text", null, true));
+        nestedSchema.add(new ColumnDescriptor("user.tags[1]", DataType.TEXT.getOID(), 3, "text", null, true));
+        nestedSchema.add(new ColumnDescriptor("user.missing", DataType.TEXT.getOID(), 4, "text", null, true));
+        nestedSchema.add(new ColumnDescriptor("id.value", DataType.INTEGER.getOID(), 5, "int4", null, true));
+        context.setTupleDescription(nestedSchema);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        //language=JSON
+        String jsonStr = "{" +
+                "\"text\":\"members that are not projected are skipped\"," +
+                "\"entities\":{\"urls\":[{\"url\":\"a\"},[1,2,{\"id\":{\"value\":3}}]]}," +
+                "\"user\":{" +
+                "\"id\":26," +
+                "\"location\":{\"city\":\"San Francisco\",\"zip\":94105}," +
+                "\"tags\":[\"first\",\"second\"]" +
+                "}," +
+                "\"id\":17" +
+                "}";
+
+        List<OneField> fields = assertRow(new OneRow(123, jsonStr), 6);
+        assertField(fields, 0, 26L, DataType.BIGINT);
+        assertField(fields, 1, "San Francisco", DataType.TEXT);
+        assertField(fields, 2, "{\"city\":\"San Francisco\",\"zip\":94105}", DataType.TEXT);
+        assertField(fields, 3, "second", DataType.TEXT);
+        assertField(fields, 4, null, DataType.TEXT);
+        // a member that is not an object has no nested members
+        assertField(fields, 5, null, DataType.INTEGER);
+    }
+
+    @Test
+    public void testGetFieldsFromTextRecord() throws Exception {
+        //language=JSON
+        String jsonStr = "{\"type_int\":1,\"type_string1\":\"caf\u00e9 \u2615\",\"type_array\":[\"a\",\"b\"]}";
+
+        // the records read by JsonAccessor are Hadoop Text objects parsed directly from their UTF-8 bytes, the buffer
+        // of the Text object is reused between records and can be longer than the current record
+        Text text = new Text(jsonStr + "{\"type_int\":2,\"type_string1\":\"previous longer record\"}");
+        byte[] bytes = jsonStr.getBytes(StandardCharsets.UTF_8);
+        text.set(bytes, 0, bytes.length);
+        List<OneField> fields = assertRow(new OneRow(123, text), 38);
+        assertField(fields, 0, 1, DataType.INTEGER);
+        assertField(fields, 5, "caf\u00e9 \u2615", DataType.TEXT);
+        assertField(fields, 10, "a", DataType.TEXT);
+        assertField(fields, 11, "b", DataType.TEXT);
+        assertField(fields, 12, "[\"a\",\"b\"]", DataType.TEXT);
+        assertField(fields, 13, null, DataType.TEXT);
+    }
+
+    @Test
+    public void testGetFieldsWithRepeatedMember() throws Exception {
+        ArrayList<ColumnDescriptor> nestedSchema = new ArrayList<>();
+        nestedSchema.add(new ColumnDescriptor("user.id", DataType.BIGINT.getOID(), 0, "int8", null, true));
+        nestedSchema.add(new ColumnDescriptor("user.name", DataType.TEXT.getOID(), 1, "text", null, true));
+        context.setTupleDescription(nestedSchema);
+        resolver.setRequestContext(context);
+        resolver.afterPropertiesSet();
+
+        // the last occurrence of a member replaces the previous ones
+        //language=JSON
+        String jsonStr = "{\"user\":{\"id\":1,\"name\":\"first\"},\"user\":{\"id\":2}}";
+
+        List<OneField> fields = assertRow(new OneRow(123, jsonStr), 2);
+        assertField(fields, 0, 2L, DataType.BIGINT);
+        assertField(fields, 1, null, DataType.TEXT);
+    }
+
+    @Test
+    public void testGetFieldsWhenRecordIsNotAnObject() throws Exception {
+        List<OneField> fields = assertRow(new OneRow(123, "[{\"type_int\":1}]"), 38);
+        for (int i = 0; i < fields.size(); i++) {
+            assertNull(fields.get(i).val);
+        }
+    }
+
     @Test
     public void testSetFields() throws UnsupportedOperationException {
         context.setMetadata(null);
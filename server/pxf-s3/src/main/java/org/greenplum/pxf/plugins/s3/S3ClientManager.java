@@ -0,0 +1,157 @@
+package org.greenplum.pxf.plugins.s3;
+
+import com.amazonaws.services.s3.AmazonS3;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.s3a.DefaultS3ClientFactory;
+import org.apache.hadoop.fs.s3a.S3ClientFactory;
+import org.greenplum.pxf.api.utilities.LeaseClosingExecutor;
+import org.greenplum.pxf.api.utilities.LeaseManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_SERVER_NAME_PROPERTY;
+
+/**
+ * Manages the AmazonS3 clients shared by all the fragments and requests read
+ * with S3 Select. A client holds its own HTTP connection pool and credential
+ * providers, so a client is created once per server configuration and bucket
+ * and is shut down when it has not been used for the configured expiration
+ * time, or when the profile is reloaded. The connections of the client, and
+ * their TLS sessions, are then reused by all the requests to the bucket.
+ * <p>
+ * Clients are handed out as {@link ClientLease}s, a client removed from the
+ * cache is shut down only after all its leases are closed.
+ */
+@Component
+public class S3ClientManager {
+
+    /**
+     * Properties that determine the endpoint, the region and the credentials of a client
+     */
+    private static final String CLIENT_PROPERTIES_REGEX = "^fs\\.s3a\\..*";
+
+    private final LeaseManager<ClientDescriptor, AmazonS3> clients;
+    private final ClientCreator clientCreator;
+
+    @Autowired
+    public S3ClientManager(@Value("${pxf.s3.client-cache.expiration:1h}") Duration expiration,
+                           LeaseClosingExecutor clientShutdownExecutor) {
+        this(expiration, S3ClientManager::createClient, clientShutdownExecutor);
+    }
+
+    S3ClientManager(Duration expiration, ClientCreator clientCreator, Executor clientShutdownExecutor) {
+        this.clientCreator = clientCreator;
+        this.clients = new LeaseManager<>("S3 client", expiration, AmazonS3::shutdown, clientShutdownExecutor);
+    }
+
+    /**
+     * Returns a lease on the shared client for the bucket of the given URI
+     * and the server of the given configuration, creating the client if
+     * needed. The lease must be closed once the caller is done with the
+     * client.
+     *
+     * @param name          the URI of the object to access
+     * @param configuration the server configuration
+     * @return a lease on the shared client
+     * @throws IOException if the client can not be created
+     */
+    public ClientLease getClient(URI name, Configuration configuration) throws IOException {
+        ClientDescriptor descriptor = new ClientDescriptor(
+                configuration.get(PXF_SERVER_NAME_PROPERTY),
+                name.getHost(),
+                configuration.getValByRegex(CLIENT_PROPERTIES_REGEX));
+
+        return new ClientLease(clients.lease(descriptor, () -> clientCreator.create(name, configuration)));
+    }
+
+    /**
+     * Shuts down all the clients, clients that are in use are shut down
+     * once they are released.
+     */
+    public void reloadCache() {
+        clients.invalidateAll();
+    }
+
+    /**
+     * Shuts down the clients matching the given filter, clients that are in
+     * use are shut down once they are released.
+     *
+     * @param descriptorFilter the filter for the clients to shut down
+     */
+    public void reloadCacheIf(Predicate<ClientDescriptor> descriptorFilter) {
+        clients.invalidateIf(descriptorFilter);
+    }
+
+    /**
+     * Returns a new AmazonS3 client with credentials from the configuration
+     */
+    @SuppressWarnings("deprecation")
+    private static AmazonS3 createClient(URI name, Configuration configuration) throws IOException {
+        DefaultS3ClientFactory factory = new DefaultS3ClientFactory();
+        factory.setConf(configuration);
+        return factory.createS3Client(name, new S3ClientFactory.S3ClientCreationParameters());
+    }
+
+    /**
+     * Identifies a shared client
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class ClientDescriptor {
+        private final String server;
+        private final String bucket;
+        @ToString.Exclude
+        private final Map<String, String> properties;
+
+        ClientDescriptor(String server, String bucket, Map<String, String> properties) {
+            this.server = server;
+            this.bucket = bucket;
+            this.properties = properties;
+        }
+    }
+
+    /**
+     * A lease on a shared client. Closing the lease does not shut down the
+     * client, unless it has been removed from the cache.
+     */
+    public static class ClientLease implements Closeable {
+        private final LeaseManager.Lease<AmazonS3> lease;
+
+        private ClientLease(LeaseManager.Lease<AmazonS3> lease) {
+            this.lease = lease;
+        }
+
+        /**
+         * @return the shared client
+         */
+        public AmazonS3 getClient() {
+            return lease.getResource();
+        }
+
+        @Override
+        public void close() {
+            lease.close();
+        }
+    }
+
+    /**
+     * Creates AmazonS3 clients, wraps the calls to the S3ClientFactory
+     */
+    @FunctionalInterface
+    interface ClientCreator {
+        AmazonS3 create(URI name, Configuration configuration) throws IOException;
+    }
+}
@@ -2,9 +2,12 @@ package org.greenplum.pxf.plugins.s3;
 
 import com.google.common.collect.Sets;
 import org.apache.commons.lang.StringUtils;
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.OutputFormat;
 import org.greenplum.pxf.api.model.ProtocolHandler;
+import org.greenplum.pxf.api.model.Reloader;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.SpringContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,14 +16,19 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.greenplum.pxf.plugins.s3.S3SelectAccessor.FILE_HEADER_INFO_IGNORE;
 import static org.greenplum.pxf.plugins.s3.S3SelectAccessor.FILE_HEADER_INFO_USE;
 
 /**
  * Implementation of ProtocolHandler for "s3" protocol.
+ * <p>
+ * The handler is the reloader of the s3 profiles, reloading a profile shuts
+ * down the AmazonS3 clients of the {@link S3ClientManager} shared by the
+ * S3 Select accessors.
  */
-public class S3ProtocolHandler implements ProtocolHandler {
+public class S3ProtocolHandler implements ProtocolHandler, Reloader {
 
     public static final String S3_SELECT_OPTION = "S3_SELECT";
 
@@ -50,11 +58,38 @@ public class S3ProtocolHandler implements ProtocolHandler {
 
     private static final String STRING_PASS_RESOLVER = "org.greenplum.pxf.plugins.hdfs.StringPassResolver";
     private static final String HCFS_FILE_FRAGMENTER = "org.greenplum.pxf.plugins.hdfs.HdfsFileFragmenter";
+    private static final String PARQUET_VECTORIZED_ACCESSOR = "org.greenplum.pxf.plugins.hdfs.ParquetVectorizedAccessor";
+    private static final String PARQUET_VECTORIZED_RESOLVER = "org.greenplum.pxf.plugins.hdfs.ParquetVectorizedResolver";
+    private static final String OPTION_VECTORIZE = "VECTORIZE";
+
+    private final Supplier<S3ClientManager> clientManagerSupplier;
+
+    /**
+     * Creates a new instance that reloads the default (singleton) instance
+     * of S3ClientManager. The client manager is only looked up on reload, as
+     * the handler is created for every request.
+     */
+    public S3ProtocolHandler() {
+        this(() -> SpringContext.getBean(S3ClientManager.class));
+    }
+
+    /**
+     * Creates a new instance that reloads the S3ClientManager from the given supplier
+     *
+     * @param clientManagerSupplier supplier of the S3 client manager instance
+     */
+    S3ProtocolHandler(Supplier<S3ClientManager> clientManagerSupplier) {
+        this.clientManagerSupplier = clientManagerSupplier;
+    }
 
     @Override
     public String getFragmenterClassName(RequestContext context) {
         String fragmenter = context.getFragmenter(); // default to fragmenter defined by the profile
-        if (useS3Select(context) || useFileReadForJson(context)) {
+        if (useS3Select(context)) {
+            fragmenter = useScanRanges(context) && !useFileReadForJson(context)
+                    ? S3SelectFragmenter.class.getName()
+                    : HCFS_FILE_FRAGMENTER;
+        } else if (useFileReadForJson(context)) {
             fragmenter = HCFS_FILE_FRAGMENTER;
         }
 
@@ -67,6 +102,8 @@ public class S3ProtocolHandler implements ProtocolHandler {
         String accessor = context.getAccessor(); // default to accessor defined by the profile
         if (useS3Select(context)) {
             accessor = S3SelectAccessor.class.getName();
+        } else if (useVectorizedParquet(context)) {
+            accessor = PARQUET_VECTORIZED_ACCESSOR;
         }
         LOG.debug("Determined to use {} accessor", accessor);
         return accessor;
@@ -77,11 +114,34 @@ public class S3ProtocolHandler implements ProtocolHandler {
         String resolver = context.getResolver(); // default to resolver defined by the profile
         if (useS3Select(context)) {
             resolver = STRING_PASS_RESOLVER;
+        } else if (useVectorizedParquet(context)) {
+            resolver = PARQUET_VECTORIZED_RESOLVER;
         }
         LOG.debug("Determined to use {} resolver", resolver);
         return resolver;
     }
 
+    @Override
+    public void reloadAll() {
+        getClientManager().reloadCache();
+    }
+
+    @Override
+    public void reload(String server) {
+        if (server == null || server.isBlank()) {
+            throw new PxfRuntimeException("Failed to reload profile. Parameter server is blank.");
+        }
+        getClientManager().reloadCacheIf(descriptor -> server.equals(descriptor.getServer()));
+    }
+
+    private S3ClientManager getClientManager() {
+        S3ClientManager clientManager = clientManagerSupplier.get();
+        if (Objects.isNull(clientManager)) {
+            throw new PxfRuntimeException("Failed to reload profile. Client manager is null.");
+        }
+        return clientManager;
+    }
+
     private boolean useS3Select(RequestContext context) {
         String format = StringUtils.upperCase(context.getFormat());
         String compressionType = StringUtils.upperCase(context.getOption(S3SelectAccessor.COMPRESSION_TYPE));
@@ -128,6 +188,20 @@ public class S3ProtocolHandler implements ProtocolHandler {
         }
     }
 
+    /**
+     * Determine if the vectorized Parquet accessor and resolver should be used
+     * for reading Parquet files. This determination is dictated by the
+     * VECTORIZE parameter which is provided in the LOCATION uri.
+     *
+     * @param context the request context
+     * @return true if the vectorized Parquet plugins should be used, false otherwise
+     */
+    private boolean useVectorizedParquet(RequestContext context) {
+        return StringUtils.equalsIgnoreCase("PARQUET", context.getFormat())
+                && context.getRequestType() == RequestContext.RequestType.READ_BRIDGE
+                && context.getOption(OPTION_VECTORIZE, false);
+    }
+
     /**
      * Determine if the HdfsFileFragmenter should be used for JSON filetypes.
      * This determination is dictated by the SPLIT_BY_FILE parameter which is provided in the LOCATION uri.
@@ -141,6 +215,28 @@ public class S3ProtocolHandler implements ProtocolHandler {
         return JsonFormat && splitByFile;
     }
 
+    /**
+     * Determine if the objects read with S3 Select can be divided into byte
+     * ranges that are queried in parallel. S3 Select supports scan ranges for
+     * uncompressed CSV and TEXT objects without a header line, and for
+     * uncompressed JSON objects of the LINES type.
+     *
+     * @param context the request context
+     * @return true if the S3SelectFragmenter should be used, false otherwise
+     */
+    private boolean useScanRanges(RequestContext context) {
+        String format = StringUtils.upperCase(context.getFormat());
+        if (StringUtils.isNotBlank(context.getOption(S3SelectAccessor.COMPRESSION_TYPE)) ||
+                fileHasHeaderLine(format, context)) {
+            return false;
+        }
+        if (StringUtils.equals("JSON", format)) {
+            return StringUtils.equalsIgnoreCase(S3SelectAccessor.JSON_TYPE_LINES,
+                    context.getOption(S3SelectAccessor.JSON_TYPE));
+        }
+        return StringUtils.equals("CSV", format) || StringUtils.equals("TEXT", format);
+    }
+
     /**
      * For CSV or TEXT files, it returns true if the file has headers
      *
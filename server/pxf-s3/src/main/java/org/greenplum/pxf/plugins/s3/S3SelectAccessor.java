@@ -1,6 +1,5 @@
 package org.greenplum.pxf.plugins.s3;
 
-import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.CSVInput;
 import com.amazonaws.services.s3.model.CSVOutput;
 import com.amazonaws.services.s3.model.CompressionType;
@@ -9,18 +8,20 @@ import com.amazonaws.services.s3.model.InputSerialization;
 import com.amazonaws.services.s3.model.JSONInput;
 import com.amazonaws.services.s3.model.OutputSerialization;
 import com.amazonaws.services.s3.model.ParquetInput;
+import com.amazonaws.services.s3.model.ScanRange;
 import com.amazonaws.services.s3.model.SelectObjectContentEvent;
 import com.amazonaws.services.s3.model.SelectObjectContentEventVisitor;
 import com.amazonaws.services.s3.model.SelectObjectContentRequest;
 import com.amazonaws.services.s3.model.SelectObjectContentResult;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.hadoop.fs.s3a.DefaultS3ClientFactory;
-import org.apache.hadoop.fs.s3a.S3ClientFactory;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.model.Accessor;
 import org.greenplum.pxf.api.model.BasePlugin;
 import org.greenplum.pxf.api.model.GreenplumCSV;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.FragmentMetadata;
+import org.greenplum.pxf.api.utilities.SpringContext;
+import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -36,6 +37,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * much computation as possible to S3. This reduces the amount of
  * data we transfer over the wire, with the purpose of speeding up
  * query times from S3.
+ * <p>
+ * The AmazonS3 clients are shared between fragments and requests, they are
+ * managed by the {@link S3ClientManager}.
  */
 public class S3SelectAccessor extends BasePlugin implements Accessor {
 
@@ -47,23 +51,41 @@ public class S3SelectAccessor extends BasePlugin implements Accessor {
     public static final String FILE_HEADER_INFO_IGNORE = "IGNORE";
     public static final String FILE_HEADER_INFO_USE = "USE";
     public static final String JSON_TYPE = "JSON-TYPE";
+    public static final String JSON_TYPE_LINES = "LINES";
     private static final String UNSUPPORTED_ERR_MESSAGE = "S3 Select accessor does not support write operation.";
 
+    private final S3ClientManager clientManager;
     private AtomicBoolean isResultComplete;
-    private AmazonS3 s3Client;
+    private S3ClientManager.ClientLease clientLease;
     private SelectObjectContentResult result;
     private InputStream resultInputStream;
     private BufferedReader reader;
     private int lineReadCount;
     private URI name;
 
+    /**
+     * Creates a new instance with the default (singleton) instance of
+     * S3ClientManager.
+     */
+    public S3SelectAccessor() {
+        this(SpringContext.getBean(S3ClientManager.class));
+    }
+
+    /**
+     * Creates a new instance with the given S3ClientManager
+     *
+     * @param clientManager S3 client manager instance
+     */
+    S3SelectAccessor(S3ClientManager clientManager) {
+        this.clientManager = clientManager;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void afterPropertiesSet() {
         name = URI.create(context.getDataSource());
-        s3Client = initS3Client();
         lineReadCount = 0;
     }
 
@@ -72,7 +94,12 @@ public class S3SelectAccessor extends BasePlugin implements Accessor {
         isResultComplete = new AtomicBoolean(false);
         SelectObjectContentRequest request = generateBaseCSVRequest(context);
 
-        result = s3Client.selectObjectContent(request);
+        try {
+            clientLease = clientManager.getClient(name, configuration);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create S3 Client connection", e);
+        }
+        result = clientLease.getClient().selectObjectContent(request);
         resultInputStream = result.getPayload().getRecordsInputStream(
                 new SelectObjectContentEventVisitor() {
                     @Override
@@ -144,6 +171,11 @@ public class S3SelectAccessor extends BasePlugin implements Accessor {
                 LOG.error("Unable to close ResultInputStream", e);
             }
         }
+
+        if (clientLease != null) {
+            clientLease.close();
+            clientLease = null;
+        }
     }
 
     /**
@@ -183,12 +215,62 @@ public class S3SelectAccessor extends BasePlugin implements Accessor {
 
         request.setInputSerialization(inputSerialization);
 
+        ScanRange scanRange = getScanRange(context, inputSerialization);
+        if (scanRange != null) {
+            LOG.debug("With scan range [{}, {}]", scanRange.getStart(), scanRange.getEnd());
+            request.setScanRange(scanRange);
+        }
+
         OutputSerialization outputSerialization = getOutputSerialization(context);
         request.setOutputSerialization(outputSerialization);
 
         return request;
     }
 
+    /**
+     * Returns the {@link ScanRange} of the fragment when the fragment is a
+     * byte range of the object produced by {@link S3SelectFragmenter}, and
+     * the object can be processed in byte ranges, null otherwise.
+     *
+     * @param context            the request context
+     * @param inputSerialization the input serialization of the request
+     * @return the {@link ScanRange} of the fragment, or null if the whole object is queried
+     */
+    private ScanRange getScanRange(RequestContext context, InputSerialization inputSerialization) {
+        FragmentMetadata metadata = context.getFragmentMetadata();
+        if (!(metadata instanceof HcfsFragmentMetadata) || !isScanRangeSupported(inputSerialization)) {
+            return null;
+        }
+        HcfsFragmentMetadata fragmentMetadata = (HcfsFragmentMetadata) metadata;
+        if (fragmentMetadata.getLength() <= 0) {
+            return null;
+        }
+        // the end of a scan range is inclusive
+        return new ScanRange()
+                .withStart(fragmentMetadata.getStart())
+                .withEnd(fragmentMetadata.getStart() + fragmentMetadata.getLength() - 1);
+    }
+
+    /**
+     * S3 Select processes a record in the scan range its first byte belongs
+     * to only for uncompressed CSV objects without a header line, and for
+     * uncompressed JSON objects of the LINES type.
+     *
+     * @param inputSerialization the input serialization of the request
+     * @return true if the object can be queried with a scan range, false otherwise
+     */
+    static boolean isScanRangeSupported(InputSerialization inputSerialization) {
+        if (!StringUtils.equals(CompressionType.NONE.toString(), inputSerialization.getCompressionType())) {
+            return false;
+        }
+        if (inputSerialization.getJson() != null) {
+            return StringUtils.equalsIgnoreCase(JSON_TYPE_LINES, inputSerialization.getJson().getType());
+        }
+        return inputSerialization.getCsv() != null &&
+                (StringUtils.isBlank(inputSerialization.getCsv().getFileHeaderInfo()) ||
+                        StringUtils.equalsIgnoreCase(FILE_HEADER_INFO_NONE, inputSerialization.getCsv().getFileHeaderInfo()));
+    }
+
     /**
      * Returns a {@link com.amazonaws.services.s3.model.OutputSerialization}
      * object with parsed values from the request context.
@@ -303,21 +385,6 @@ public class S3SelectAccessor extends BasePlugin implements Accessor {
         return csvInput;
     }
 
-    /**
-     * Returns a new AmazonS3 client with credentials from
-     * the configuration file
-     */
-    @SuppressWarnings("deprecation")
-    private AmazonS3 initS3Client() {
-        try {
-            DefaultS3ClientFactory factory = new DefaultS3ClientFactory();
-            factory.setConf(configuration);
-            return factory.createS3Client(name, new S3ClientFactory.S3ClientCreationParameters());
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to create S3 Client connection", e);
-        }
-    }
-
     @Override
     public boolean openForWrite() {
         throw new UnsupportedOperationException(UNSUPPORTED_ERR_MESSAGE);
@@ -0,0 +1,83 @@
+package org.greenplum.pxf.plugins.s3;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.InvalidInputException;
+import org.apache.hadoop.mapred.JobConf;
+import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
+import org.greenplum.pxf.plugins.hdfs.HdfsDataFragmenter;
+import org.greenplum.pxf.plugins.hdfs.utilities.PxfInputFormat;
+
+import java.util.List;
+
+/**
+ * Fragmenter for objects read with S3 Select that can be processed in byte
+ * ranges, i.e. uncompressed CSV and JSON LINES objects. Every object is
+ * divided into fragments of at most the configured split size, and every
+ * fragment is read by {@link S3SelectAccessor} with a scan range, so that
+ * several segments query the same object in parallel. S3 Select processes a
+ * record in the scan range its first byte belongs to, so every record is read
+ * exactly once.
+ * <p>
+ * The split size is taken from the S3_SELECT_SPLIT_SIZE option, or from the
+ * {@code pxf.s3.select.split.size} property of the server configuration, a
+ * split size of 0 reads every object with a single fragment.
+ */
+public class S3SelectFragmenter extends HdfsDataFragmenter {
+
+    public static final String SPLIT_SIZE_OPTION = "S3_SELECT_SPLIT_SIZE";
+    public static final String SPLIT_SIZE_PROPERTY = "pxf.s3.select.split.size";
+    public static final long DEFAULT_SPLIT_SIZE = 128L * 1024 * 1024;
+
+    private long splitSize;
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        splitSize = context.getOption(SPLIT_SIZE_OPTION,
+                configuration.getLongBytes(SPLIT_SIZE_PROPERTY, DEFAULT_SPLIT_SIZE), true);
+    }
+
+    /**
+     * Gets the fragments for a data source URI that can appear as a file name,
+     * a directory name or a wildcard. Every non-empty object is divided into
+     * fragments of at most the split size.
+     */
+    @Override
+    public List<Fragment> getFragments() throws Exception {
+        JobConf jobConf = getJobConf();
+        Path path = new Path(hcfsType.getDataUri(context));
+
+        PxfInputFormat<?, ?> pxfInputFormat = new PxfInputFormat<>();
+        PxfInputFormat.setInputPaths(jobConf, path);
+
+        FileStatus[] fileStatusArray;
+        try {
+            fileStatusArray = pxfInputFormat.listStatus(jobConf);
+        } catch (InvalidInputException e) {
+            if (StringUtils.equalsIgnoreCase("true", context.getOption(IGNORE_MISSING_PATH_OPTION))) {
+                LOG.debug("Ignoring InvalidInputException", e);
+                return fragments;
+            }
+            throw e;
+        }
+
+        for (FileStatus fileStatus : fileStatusArray) {
+            String filepath = fileStatus.getPath().toUri().toString();
+            long length = fileStatus.getLen();
+            // an empty object can not be queried with a scan range
+            if (length == 0) {
+                continue;
+            }
+            long rangeSize = splitSize > 0 ? splitSize : length;
+            for (long start = 0; start < length; start += rangeSize) {
+                fragments.add(new Fragment(filepath, new HcfsFragmentMetadata(start, Math.min(rangeSize, length - start))));
+            }
+        }
+        LOG.debug("Total number of fragments = {} with split size {}", fragments.size(), splitSize);
+
+        return fragments;
+    }
+}
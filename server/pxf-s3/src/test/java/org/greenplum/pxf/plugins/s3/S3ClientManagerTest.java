@@ -0,0 +1,115 @@
+package org.greenplum.pxf.plugins.s3;
+
+import com.amazonaws.services.s3.AmazonS3;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.greenplum.pxf.api.model.ConfigurationFactory.PXF_SERVER_NAME_PROPERTY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class S3ClientManagerTest {
+
+    private static final URI OBJECT_1 = URI.create("s3a://bucket1/dir/object1.csv");
+    private static final URI OBJECT_2 = URI.create("s3a://bucket1/dir/object2.csv");
+    private static final URI OTHER_BUCKET_OBJECT = URI.create("s3a://bucket2/object.csv");
+
+    private List<AmazonS3> createdClients;
+    private S3ClientManager clientManager;
+
+    @BeforeEach
+    public void setup() {
+        createdClients = new ArrayList<>();
+        clientManager = new S3ClientManager(Duration.ofHours(1), (name, configuration) -> {
+            AmazonS3 client = mock(AmazonS3.class);
+            createdClients.add(client);
+            return client;
+        }, Runnable::run);
+    }
+
+    @Test
+    public void testClientIsSharedForSameServerAndBucket() throws Exception {
+        S3ClientManager.ClientLease lease1 = clientManager.getClient(OBJECT_1, getConfiguration("s1", "key1"));
+        S3ClientManager.ClientLease lease2 = clientManager.getClient(OBJECT_2, getConfiguration("s1", "key1"));
+        lease1.close();
+        lease2.close();
+        S3ClientManager.ClientLease lease3 = clientManager.getClient(OBJECT_1, getConfiguration("s1", "key1"));
+
+        assertEquals(1, createdClients.size());
+        assertSame(lease1.getClient(), lease2.getClient());
+        assertSame(lease1.getClient(), lease3.getClient());
+        verify(createdClients.get(0), never()).shutdown();
+    }
+
+    @Test
+    public void testClientIsNotSharedForDifferentConfigurations() throws Exception {
+        S3ClientManager.ClientLease lease1 = clientManager.getClient(OBJECT_1, getConfiguration("s1", "key1"));
+        S3ClientManager.ClientLease lease2 = clientManager.getClient(OBJECT_1, getConfiguration("s2", "key1"));
+        S3ClientManager.ClientLease lease3 = clientManager.getClient(OBJECT_1, getConfiguration("s1", "key2"));
+        S3ClientManager.ClientLease lease4 = clientManager.getClient(OTHER_BUCKET_OBJECT, getConfiguration("s1", "key1"));
+
+        assertEquals(4, createdClients.size());
+        assertNotSame(lease1.getClient(), lease2.getClient());
+        assertNotSame(lease1.getClient(), lease3.getClient());
+        assertNotSame(lease1.getClient(), lease4.getClient());
+    }
+
+    @Test
+    public void testReloadShutsDownIdleClients() throws Exception {
+        clientManager.getClient(OBJECT_1, getConfiguration("s1", "key1")).close();
+        clientManager.getClient(OBJECT_1, getConfiguration("s2", "key1")).close();
+
+        clientManager.reloadCacheIf(descriptor -> "s1".equals(descriptor.getServer()));
+        verify(createdClients.get(0)).shutdown();
+        verify(createdClients.get(1), never()).shutdown();
+
+        clientManager.reloadCache();
+        verify(createdClients.get(1)).shutdown();
+
+        // a new client is created after the reload
+        clientManager.getClient(OBJECT_1, getConfiguration("s1", "key1")).close();
+        assertEquals(3, createdClients.size());
+    }
+
+    @Test
+    public void testReloadShutsDownClientInUseOnceReleased() throws Exception {
+        S3ClientManager.ClientLease lease = clientManager.getClient(OBJECT_1, getConfiguration("s1", "key1"));
+
+        clientManager.reloadCache();
+        verify(lease.getClient(), never()).shutdown();
+
+        lease.close();
+        // closing the lease more than once has no effect
+        lease.close();
+        verify(lease.getClient()).shutdown();
+    }
+
+    @Test
+    public void testClientFailure() {
+        clientManager = new S3ClientManager(Duration.ofHours(1), (name, configuration) -> {
+            throw new IOException("invalid endpoint");
+        }, Runnable::run);
+
+        Exception e = assertThrows(IOException.class, () -> clientManager.getClient(OBJECT_1, getConfiguration("s1", "key1")));
+        assertEquals("invalid endpoint", e.getMessage());
+    }
+
+    private Configuration getConfiguration(String server, String accessKey) {
+        Configuration configuration = new Configuration(false);
+        configuration.set(PXF_SERVER_NAME_PROPERTY, server);
+        configuration.set("fs.s3a.access.key", accessKey);
+        return configuration;
+    }
+}
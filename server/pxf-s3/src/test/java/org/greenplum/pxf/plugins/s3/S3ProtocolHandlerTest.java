@@ -1,23 +1,33 @@
 package org.greenplum.pxf.plugins.s3;
 
+import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.OutputFormat;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public class S3ProtocolHandlerTest {
 
     private static final String FILE_FRAGMENTER = "org.greenplum.pxf.plugins.hdfs.HdfsFileFragmenter";
+    private static final String SELECT_FRAGMENTER = S3SelectFragmenter.class.getName();
     private static final String STRING_PASS_RESOLVER = "org.greenplum.pxf.plugins.hdfs.StringPassResolver";
     private static final String S3_ACCESSOR = S3SelectAccessor.class.getName();
+    private static final String PARQUET_VECTORIZED_ACCESSOR = "org.greenplum.pxf.plugins.hdfs.ParquetVectorizedAccessor";
+    private static final String PARQUET_VECTORIZED_RESOLVER = "org.greenplum.pxf.plugins.hdfs.ParquetVectorizedResolver";
     private static final String DEFAULT_ACCESSOR = "default-accessor";
     private static final String DEFAULT_RESOLVER = "default-resolver";
     private static final String DEFAULT_FRAGMENTER = "default-fragmenter";
@@ -34,8 +44,9 @@ public class S3ProtocolHandlerTest {
     private static final String[] EXPECTED_RESOLVER_GPDB_WRITABLE_AUTO = {DEFAULT_RESOLVER, NOT_SUPPORTED, NOT_SUPPORTED, DEFAULT_RESOLVER, DEFAULT_RESOLVER};
     private static final String[] EXPECTED_RESOLVER_GPDB_WRITABLE_OFF = {DEFAULT_RESOLVER, DEFAULT_RESOLVER, DEFAULT_RESOLVER, DEFAULT_RESOLVER, DEFAULT_RESOLVER};
 
-    private static final String[] EXPECTED_FRAGMENTER_TEXT_ON = {FILE_FRAGMENTER, FILE_FRAGMENTER, FILE_FRAGMENTER, FILE_FRAGMENTER, NOT_SUPPORTED};
-    private static final String[] EXPECTED_FRAGMENTER_TEXT_AUTO_BENEFIT = {FILE_FRAGMENTER, FILE_FRAGMENTER, FILE_FRAGMENTER, FILE_FRAGMENTER, DEFAULT_FRAGMENTER};
+    private static final String[] EXPECTED_FRAGMENTER_TEXT_ON = {FILE_FRAGMENTER, SELECT_FRAGMENTER, SELECT_FRAGMENTER, FILE_FRAGMENTER, NOT_SUPPORTED};
+    private static final String[] EXPECTED_FRAGMENTER_TEXT_ON_COMPRESSED = {FILE_FRAGMENTER, FILE_FRAGMENTER, FILE_FRAGMENTER, FILE_FRAGMENTER, NOT_SUPPORTED};
+    private static final String[] EXPECTED_FRAGMENTER_TEXT_AUTO_BENEFIT = {FILE_FRAGMENTER, SELECT_FRAGMENTER, SELECT_FRAGMENTER, FILE_FRAGMENTER, DEFAULT_FRAGMENTER};
     private static final String[] EXPECTED_FRAGMENTER_TEXT_AUTO_NO_BENEFIT = {DEFAULT_FRAGMENTER, DEFAULT_FRAGMENTER, DEFAULT_FRAGMENTER, FILE_FRAGMENTER, DEFAULT_FRAGMENTER};
     private static final String[] EXPECTED_FRAGMENTER_TEXT_OFF = {DEFAULT_FRAGMENTER, DEFAULT_FRAGMENTER, DEFAULT_FRAGMENTER, DEFAULT_FRAGMENTER, DEFAULT_FRAGMENTER};
 
@@ -386,6 +397,37 @@ public class S3ProtocolHandlerTest {
         context.setOutputFormat(OutputFormat.TEXT);
         verifyAccessors(context, EXPECTED_ACCESSOR_TEXT_ON);
         verifyResolvers(context, EXPECTED_RESOLVER_TEXT_ON);
+        verifyFragmenters(context, EXPECTED_FRAGMENTER_TEXT_ON_COMPRESSED);
+    }
+
+    @Test
+    public void testTextWithSelectOnAndFileHeader() {
+        context.addOption("S3_SELECT", "on");
+        context.addOption("FILE_HEADER", "USE");
+        context.setOutputFormat(OutputFormat.TEXT);
+        verifyAccessors(context, EXPECTED_ACCESSOR_TEXT_ON);
+        verifyResolvers(context, EXPECTED_RESOLVER_TEXT_ON);
+        verifyFragmenters(context, EXPECTED_FRAGMENTER_TEXT_ON_COMPRESSED);
+    }
+
+    @Test
+    public void testJsonLinesWithSelectOn() {
+        context.addOption("S3_SELECT", "on");
+        context.addOption("JSON-TYPE", "lines");
+        context.setOutputFormat(OutputFormat.TEXT);
+        verifyAccessors(context, EXPECTED_ACCESSOR_TEXT_ON);
+        verifyResolvers(context, EXPECTED_RESOLVER_TEXT_ON);
+        String[] EXPECTED_FRAGMENTERS = EXPECTED_FRAGMENTER_TEXT_ON.clone();
+        EXPECTED_FRAGMENTERS[3] = SELECT_FRAGMENTER; // index 3 is json
+        verifyFragmenters(context, EXPECTED_FRAGMENTERS);
+    }
+
+    @Test
+    public void testJsonLinesSplitByFileAndSelectOn() {
+        context.addOption("S3_SELECT", "on");
+        context.addOption("JSON-TYPE", "lines");
+        context.addOption("SPLIT_BY_FILE", "true");
+        context.setOutputFormat(OutputFormat.TEXT);
         verifyFragmenters(context, EXPECTED_FRAGMENTER_TEXT_ON);
     }
 
@@ -483,6 +525,58 @@ public class S3ProtocolHandlerTest {
         verifyFragmenters(context, EXPECTED_FRAGMENTERS);
     }
 
+    @Test
+    public void testParquetVectorizeWithSelectOff() {
+        context.addOption("S3_SELECT", "off");
+        context.addOption("VECTORIZE", "true");
+        context.setOutputFormat(OutputFormat.GPDBWritable);
+        context.setRequestType(RequestContext.RequestType.READ_BRIDGE);
+        String[] expectedAccessors = EXPECTED_ACCESSOR_GPDB_WRITABLE_OFF.clone();
+        expectedAccessors[0] = PARQUET_VECTORIZED_ACCESSOR; // index 0 is parquet
+        String[] expectedResolvers = EXPECTED_RESOLVER_GPDB_WRITABLE_OFF.clone();
+        expectedResolvers[0] = PARQUET_VECTORIZED_RESOLVER; // index 0 is parquet
+        verifyAccessors(context, expectedAccessors);
+        verifyResolvers(context, expectedResolvers);
+        verifyFragmenters(context, EXPECTED_FRAGMENTER_GPDB_WRITABLE_OFF);
+    }
+
+    @Test
+    public void testParquetVectorizeIgnoredForWrite() {
+        context.addOption("S3_SELECT", "off");
+        context.addOption("VECTORIZE", "true");
+        context.setOutputFormat(OutputFormat.GPDBWritable);
+        context.setRequestType(RequestContext.RequestType.WRITE_BRIDGE);
+        verifyAccessors(context, EXPECTED_ACCESSOR_GPDB_WRITABLE_OFF);
+        verifyResolvers(context, EXPECTED_RESOLVER_GPDB_WRITABLE_OFF);
+    }
+
+    @Test
+    public void testReloadAllShutsDownSharedClients() {
+        S3ClientManager clientManager = mock(S3ClientManager.class);
+        new S3ProtocolHandler(() -> clientManager).reloadAll();
+        verify(clientManager).reloadCache();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReloadServerShutsDownSharedClientsOfServer() {
+        S3ClientManager clientManager = mock(S3ClientManager.class);
+        new S3ProtocolHandler(() -> clientManager).reload("s1");
+
+        ArgumentCaptor<Predicate<S3ClientManager.ClientDescriptor>> filter = ArgumentCaptor.forClass(Predicate.class);
+        verify(clientManager).reloadCacheIf(filter.capture());
+        assertTrue(filter.getValue().test(new S3ClientManager.ClientDescriptor("s1", "bucket", null)));
+        assertFalse(filter.getValue().test(new S3ClientManager.ClientDescriptor("s2", "bucket", null)));
+    }
+
+    @Test
+    public void testReloadBlankServer() {
+        S3ClientManager clientManager = mock(S3ClientManager.class);
+        Exception e = assertThrows(PxfRuntimeException.class,
+                () -> new S3ProtocolHandler(() -> clientManager).reload(" "));
+        assertEquals("Failed to reload profile. Parameter server is blank.", e.getMessage());
+    }
+
     private void verifyFragmenters(RequestContext context, String[] expected) {
         IntStream.range(0, FORMATS.length).forEach(i -> {
             context.setFormat(FORMATS[i]);
@@ -1,25 +1,40 @@
 package org.greenplum.pxf.plugins.s3;
 
+import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.InputSerialization;
+import com.amazonaws.services.s3.model.SelectObjectContentEventStream;
 import com.amazonaws.services.s3.model.SelectObjectContentRequest;
+import com.amazonaws.services.s3.model.SelectObjectContentResult;
 import org.apache.hadoop.conf.Configuration;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class S3SelectAccessorTest {
 
+    private final S3ClientManager clientManager = mock(S3ClientManager.class);
+
     @Test
     public void testGetInputSerializationDefaults() {
         RequestContext context = getDefaultRequestContext();
 
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertNotNull(inputSerialization);
         assertNotNull(inputSerialization.getCsv());
         assertNull(inputSerialization.getCsv().getAllowQuotedRecordDelimiter());
@@ -40,7 +55,7 @@ public class S3SelectAccessorTest {
         context.addOption("COMPRESSION_CODEC", "GZIP");
 
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertEquals("GZIP", inputSerialization.getCompressionType());
     }
 
@@ -50,7 +65,7 @@ public class S3SelectAccessorTest {
         context.addOption("COMPRESSION_CODEC", "BZIP2");
 
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertEquals("BZIP2", inputSerialization.getCompressionType());
     }
 
@@ -60,7 +75,7 @@ public class S3SelectAccessorTest {
         context.setFormat("parquet");
 
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertNotNull(inputSerialization.getParquet());
         assertNull(inputSerialization.getJson());
         assertNull(inputSerialization.getCsv());
@@ -72,7 +87,7 @@ public class S3SelectAccessorTest {
         context.setFormat("json");
 
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertNotNull(inputSerialization.getJson());
         assertNull(inputSerialization.getCsv());
         assertNull(inputSerialization.getParquet());
@@ -85,7 +100,7 @@ public class S3SelectAccessorTest {
         context.addOption("JSON-TYPE", "document");
 
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertNotNull(inputSerialization.getJson());
         assertNull(inputSerialization.getCsv());
         assertNull(inputSerialization.getParquet());
@@ -99,7 +114,7 @@ public class S3SelectAccessorTest {
         context.addOption("JSON-TYPE", "lines");
 
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertNotNull(inputSerialization.getJson());
         assertNull(inputSerialization.getCsv());
         assertNull(inputSerialization.getParquet());
@@ -112,7 +127,7 @@ public class S3SelectAccessorTest {
         context.getGreenplumCSV().withDelimiter("|");
 
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertEquals('|', inputSerialization.getCsv().getFieldDelimiter().charValue());
     }
 
@@ -121,7 +136,7 @@ public class S3SelectAccessorTest {
         RequestContext context = getDefaultRequestContext();
         context.addOption("FILE_HEADER", "IGNORE");
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertEquals("IGNORE", inputSerialization.getCsv().getFileHeaderInfo());
     }
 
@@ -130,7 +145,7 @@ public class S3SelectAccessorTest {
         RequestContext context = getDefaultRequestContext();
         context.addOption("FILE_HEADER", "USE");
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertEquals("USE", inputSerialization.getCsv().getFileHeaderInfo());
     }
 
@@ -139,7 +154,7 @@ public class S3SelectAccessorTest {
         RequestContext context = getDefaultRequestContext();
         context.addOption("FILE_HEADER", "NONE");
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertEquals("NONE", inputSerialization.getCsv().getFileHeaderInfo());
     }
 
@@ -148,7 +163,7 @@ public class S3SelectAccessorTest {
         RequestContext context = getDefaultRequestContext();
         context.addOption("ESCAPE", "\"");
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertEquals('\"', inputSerialization.getCsv().getQuoteEscapeCharacter().charValue());
     }
 
@@ -157,7 +172,7 @@ public class S3SelectAccessorTest {
         RequestContext context = getDefaultRequestContext();
         context.addOption("NEWLINE", "\n");
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertEquals('\n', inputSerialization.getCsv().getRecordDelimiter().charValue());
     }
 
@@ -166,7 +181,7 @@ public class S3SelectAccessorTest {
         RequestContext context = getDefaultRequestContext();
         context.addOption("QUOTE", "\"");
         InputSerialization inputSerialization =
-                new S3SelectAccessor().getInputSerialization(context);
+                new S3SelectAccessor(clientManager).getInputSerialization(context);
         assertEquals('"', inputSerialization.getCsv().getQuoteCharacter().charValue());
     }
 
@@ -178,7 +193,7 @@ public class S3SelectAccessorTest {
         context.setDataSource("s3a://my-bucket/my/s3/path/");
         context.setConfiguration(new Configuration());
 
-        S3SelectAccessor accessor = new S3SelectAccessor();
+        S3SelectAccessor accessor = new S3SelectAccessor(clientManager);
         accessor.setRequestContext(context);
         accessor.afterPropertiesSet();
         SelectObjectContentRequest request = accessor.generateBaseCSVRequest(context);
@@ -194,7 +209,7 @@ public class S3SelectAccessorTest {
         context.setDataSource("s3a://my-bucket");
         context.setConfiguration(new Configuration());
 
-        S3SelectAccessor accessor = new S3SelectAccessor();
+        S3SelectAccessor accessor = new S3SelectAccessor(clientManager);
         accessor.setRequestContext(context);
         accessor.afterPropertiesSet();
         SelectObjectContentRequest request = accessor.generateBaseCSVRequest(context);
@@ -202,35 +217,141 @@ public class S3SelectAccessorTest {
         assertEquals("", request.getKey());
     }
 
+    @Test
+    public void testScanRangeOfFragment() {
+        RequestContext context = getDefaultRequestContext();
+        context.setFragmentMetadata(new HcfsFragmentMetadata(1024, 512));
+
+        SelectObjectContentRequest request = generateRequest(context);
+        assertNotNull(request.getScanRange());
+        assertEquals(1024, request.getScanRange().getStart().longValue());
+        assertEquals(1535, request.getScanRange().getEnd().longValue());
+    }
+
+    @Test
+    public void testScanRangeOfJsonLinesFragment() {
+        RequestContext context = getRequestContext("s3:json");
+        context.addOption("JSON-TYPE", "lines");
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, 512));
+
+        SelectObjectContentRequest request = generateRequest(context);
+        assertNotNull(request.getScanRange());
+        assertEquals(0, request.getScanRange().getStart().longValue());
+        assertEquals(511, request.getScanRange().getEnd().longValue());
+    }
+
+    @Test
+    public void testNoScanRangeWithoutFragmentMetadata() {
+        SelectObjectContentRequest request = generateRequest(getDefaultRequestContext());
+        assertNull(request.getScanRange());
+    }
+
+    @Test
+    public void testNoScanRangeForCompressedObject() {
+        RequestContext context = getDefaultRequestContext();
+        context.addOption("COMPRESSION_CODEC", "GZIP");
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, 512));
+
+        assertNull(generateRequest(context).getScanRange());
+    }
+
+    @Test
+    public void testNoScanRangeForFileHeader() {
+        RequestContext context = getDefaultRequestContext();
+        context.addOption("FILE_HEADER", "USE");
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, 512));
+
+        assertNull(generateRequest(context).getScanRange());
+    }
+
+    @Test
+    public void testNoScanRangeForJsonDocument() {
+        RequestContext context = getRequestContext("s3:json");
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, 512));
+
+        assertNull(generateRequest(context).getScanRange());
+    }
+
+    @Test
+    public void testNoScanRangeForParquet() {
+        RequestContext context = getRequestContext("s3:parquet");
+        context.setFragmentMetadata(new HcfsFragmentMetadata(0, 512));
+
+        assertNull(generateRequest(context).getScanRange());
+    }
+
+    @Test
+    public void testSharedClientIsReleasedOnClose() throws Exception {
+        AmazonS3 s3Client = mock(AmazonS3.class);
+        SelectObjectContentResult result = mock(SelectObjectContentResult.class);
+        SelectObjectContentEventStream payload = mock(SelectObjectContentEventStream.class);
+        when(s3Client.selectObjectContent(any())).thenReturn(result);
+        when(result.getPayload()).thenReturn(payload);
+        when(payload.getRecordsInputStream(any()))
+                .thenReturn(new ByteArrayInputStream("1,a\n".getBytes(StandardCharsets.UTF_8)));
+        S3ClientManager sharedClientManager = new S3ClientManager(Duration.ofHours(1), (name, configuration) -> s3Client, Runnable::run);
+
+        RequestContext context = getDefaultRequestContext();
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setDataSource("s3a://my-bucket/my/s3/object.csv");
+        context.setConfiguration(new Configuration());
+
+        S3SelectAccessor accessor = new S3SelectAccessor(sharedClientManager);
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        accessor.openForRead();
+        assertEquals("1,a", accessor.readNextObject().getData());
+
+        // the client is in use, it is not shut down by a reload
+        sharedClientManager.reloadCache();
+        verify(s3Client, never()).shutdown();
+
+        accessor.closeForRead();
+        verify(s3Client).shutdown();
+    }
+
     @Test
     public void testFailsToParseNullDataSource() {
         RequestContext context = new RequestContext();
 
         assertThrows(NullPointerException.class,
-                () -> new S3SelectAccessor().generateBaseCSVRequest(context));
+                () -> new S3SelectAccessor(clientManager).generateBaseCSVRequest(context));
     }
 
     @Test
     public void testFailsOnOpenForWrite() {
         Exception e = assertThrows(UnsupportedOperationException.class,
-                () -> new S3SelectAccessor().openForWrite());
+                () -> new S3SelectAccessor(clientManager).openForWrite());
         assertEquals("S3 Select accessor does not support write operation.", e.getMessage());
     }
 
     @Test
     public void testFailsOnWriteNextObject() {
         Exception e = assertThrows(UnsupportedOperationException.class,
-                () -> new S3SelectAccessor().writeNextObject(new OneRow()));
+                () -> new S3SelectAccessor(clientManager).writeNextObject(new OneRow()));
         assertEquals("S3 Select accessor does not support write operation.", e.getMessage());
     }
 
     @Test
     public void testFailsOnCloseForWrite() {
         Exception e = assertThrows(UnsupportedOperationException.class,
-                () -> new S3SelectAccessor().closeForWrite());
+                () -> new S3SelectAccessor(clientManager).closeForWrite());
         assertEquals("S3 Select accessor does not support write operation.", e.getMessage());
     }
 
+    private SelectObjectContentRequest generateRequest(RequestContext context) {
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setDataSource("s3a://my-bucket/my/s3/object.csv");
+        context.setConfiguration(new Configuration());
+
+        S3SelectAccessor accessor = new S3SelectAccessor(clientManager);
+        accessor.setRequestContext(context);
+        accessor.afterPropertiesSet();
+        return accessor.generateBaseCSVRequest(context);
+    }
+
     private RequestContext getDefaultRequestContext() {
         return getRequestContext("s3:csv");
     }
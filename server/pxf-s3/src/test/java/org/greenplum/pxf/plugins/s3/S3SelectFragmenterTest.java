@@ -0,0 +1,139 @@
+package org.greenplum.pxf.plugins.s3;
+
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class S3SelectFragmenterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RequestContext context;
+    private Configuration configuration;
+
+    @BeforeEach
+    public void setup() {
+        configuration = new Configuration();
+        configuration.set("pxf.fs.basePath", "/");
+
+        context = new RequestContext();
+        context.setConfig("default");
+        context.setUser("test-user");
+        context.setConfiguration(configuration);
+    }
+
+    @Test
+    public void testFragmentsOfSplitSize() throws Exception {
+        writeFile("data.csv", 2500);
+        context.setDataSource(tempDir.toString());
+        context.addOption("S3_SELECT_SPLIT_SIZE", "1000");
+
+        List<Fragment> fragments = getFragmenter().getFragments();
+        assertEquals(3, fragments.size());
+        assertFragment(fragments.get(0), 0, 1000);
+        assertFragment(fragments.get(1), 1000, 1000);
+        assertFragment(fragments.get(2), 2000, 500);
+    }
+
+    @Test
+    public void testSplitSizeFromConfiguration() throws Exception {
+        writeFile("data.csv", 2000);
+        context.setDataSource(tempDir.toString());
+        configuration.set("pxf.s3.select.split.size", "1k");
+
+        List<Fragment> fragments = getFragmenter().getFragments();
+        assertEquals(2, fragments.size());
+        assertFragment(fragments.get(0), 0, 1024);
+        assertFragment(fragments.get(1), 1024, 976);
+    }
+
+    @Test
+    public void testOptionOverridesConfiguration() throws Exception {
+        writeFile("data.csv", 2000);
+        context.setDataSource(tempDir.toString());
+        configuration.set("pxf.s3.select.split.size", "1k");
+        context.addOption("S3_SELECT_SPLIT_SIZE", "500");
+
+        assertEquals(4, getFragmenter().getFragments().size());
+    }
+
+    @Test
+    public void testDefaultSplitSizeReadsSmallObjectsWhole() throws Exception {
+        writeFile("a.csv", 100);
+        writeFile("b.csv", 200);
+        context.setDataSource(tempDir.toString());
+
+        List<Fragment> fragments = getFragmenter().getFragments();
+        assertEquals(2, fragments.size());
+        fragments.forEach(f -> assertEquals(0, ((HcfsFragmentMetadata) f.getMetadata()).getStart()));
+    }
+
+    @Test
+    public void testSplitSizeZeroReadsObjectsWhole() throws Exception {
+        writeFile("data.csv", 2500);
+        context.setDataSource(tempDir.toString());
+        context.addOption("S3_SELECT_SPLIT_SIZE", "0");
+
+        List<Fragment> fragments = getFragmenter().getFragments();
+        assertEquals(1, fragments.size());
+        assertFragment(fragments.get(0), 0, 2500);
+    }
+
+    @Test
+    public void testEmptyObjectsAreSkipped() throws Exception {
+        writeFile("empty.csv", 0);
+        writeFile("data.csv", 10);
+        context.setDataSource(tempDir.toString());
+
+        List<Fragment> fragments = getFragmenter().getFragments();
+        assertEquals(1, fragments.size());
+        assertFragment(fragments.get(0), 0, 10);
+    }
+
+    @Test
+    public void testInvalidSplitSize() {
+        context.setDataSource(tempDir.toString());
+        context.addOption("S3_SELECT_SPLIT_SIZE", "-1");
+
+        Exception e = assertThrows(IllegalArgumentException.class, this::getFragmenter);
+        assertEquals("Property S3_SELECT_SPLIT_SIZE has incorrect value -1 : must be a non-negative long", e.getMessage());
+    }
+
+    @Test
+    public void testInvalidInputPathIgnored() throws Exception {
+        context.setDataSource(tempDir.resolve("non-existent").toString());
+        context.addOption("IGNORE_MISSING_PATH", "true");
+
+        assertEquals(0, getFragmenter().getFragments().size());
+    }
+
+    private void assertFragment(Fragment fragment, long start, long length) {
+        HcfsFragmentMetadata metadata = (HcfsFragmentMetadata) fragment.getMetadata();
+        assertEquals(start, metadata.getStart());
+        assertEquals(length, metadata.getLength());
+    }
+
+    private void writeFile(String name, int size) throws IOException {
+        Files.write(tempDir.resolve(name), new byte[size]);
+    }
+
+    private S3SelectFragmenter getFragmenter() {
+        S3SelectFragmenter fragmenter = new S3SelectFragmenter();
+        fragmenter.setRequestContext(context);
+        fragmenter.afterPropertiesSet();
+        return fragmenter;
+    }
+}
@@ -22,16 +22,20 @@ package org.greenplum.pxf.service;
 import lombok.Getter;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.lang.ArrayUtils;
-import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.StringUtils;
+import org.greenplum.pxf.api.EncodedTextField;
 import org.greenplum.pxf.api.GreenplumDateTime;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.error.BadRecordException;
 import org.greenplum.pxf.api.io.BufferWritable;
 import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.EncodedText;
 import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableEncoder;
 import org.greenplum.pxf.api.io.Text;
 import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.ColumnValues;
+import org.greenplum.pxf.api.model.ColumnarBatch;
 import org.greenplum.pxf.api.model.GreenplumCSV;
 import org.greenplum.pxf.api.model.OutputFormat;
 import org.greenplum.pxf.api.model.RequestContext;
@@ -39,11 +43,11 @@ import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Array;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -72,6 +76,7 @@ public class BridgeOutputBuilder {
     @Getter
     private Writable partialLine = null;
     private GPDBWritable errorRecord = null;
+    private GPDBWritableEncoder encoder = null;
     private int[] schema;
     private String[] colNames;
     private final boolean samplingEnabled;
@@ -152,8 +157,8 @@ public class BridgeOutputBuilder {
      */
     public LinkedList<Writable> makeOutput(List<OneField> recFields)
             throws BadRecordException {
-        if (output == null && outputFormat == OutputFormat.GPDBWritable) {
-            makeGPDBWritableOutput();
+        if (outputFormat == OutputFormat.GPDBWritable) {
+            makeGPDBWritableEncoder().reset();
         }
 
         outputList.clear();
@@ -165,11 +170,11 @@ public class BridgeOutputBuilder {
 
     public LinkedList<Writable> makeVectorizedOutput(List<List<OneField>> recordsBatch) throws BadRecordException {
         outputList.clear();
+        if (outputFormat == OutputFormat.GPDBWritable) {
+            makeGPDBWritableEncoder().reset();
+        }
         if (recordsBatch != null) {
             for (List<OneField> record : recordsBatch) {
-                if (outputFormat == OutputFormat.GPDBWritable) {
-                    makeGPDBWritableOutput();
-                }
                 fillOutputRecord(record);
             }
         }
@@ -177,12 +182,44 @@ public class BridgeOutputBuilder {
     }
 
     /**
-     * Creates the GPDBWritable object. The object is created one time and is
-     * refilled from recFields for each record sent
+     * Translates a batch in columnar form into output records, the values are
+     * serialized straight from the columns of the batch, without a
+     * {@link OneField} for every value.
+     *
+     * @param batch the batch of records to be serialized
+     * @return list of Writable objects with the serialized rows
+     * @throws BadRecordException if building the output records failed
+     */
+    public LinkedList<Writable> makeColumnarOutput(ColumnarBatch batch) throws BadRecordException {
+        outputList.clear();
+        if (outputFormat == OutputFormat.GPDBWritable) {
+            makeGPDBWritableEncoder().reset();
+            fillGPDBWritables(batch);
+        } else if (batch.getColumnCount() == 1) {
+            // the single value of a record is written as is in the TEXT format, see fillText
+            ColumnValues column = batch.getColumn(0);
+            for (int row = 0; row < batch.getSize(); row++) {
+                int index = column.isRepeating() ? 0 : row;
+                Object value = column.isNull(index) ? null : column.getObject(index);
+                fillText(Collections.singletonList(new OneField(column.getDataType().getOID(), value)));
+            }
+        } else {
+            fillCSVLines(batch);
+        }
+        return outputList;
+    }
+
+    /**
+     * Creates the encoder of the GPDBWritable records. The encoder is created
+     * one time and serializes all the records sent, its buffer is reused for
+     * every call to makeOutput
      *
-     * @return empty GPDBWritable object with set columns
+     * @return the encoder for the columns of the table
      */
-    GPDBWritable makeGPDBWritableOutput() {
+    GPDBWritableEncoder makeGPDBWritableEncoder() {
+        if (encoder != null) {
+            return encoder;
+        }
         int num_actual_fields = columnDescriptors.size();
         schema = new int[num_actual_fields];
         colNames = new String[num_actual_fields];
@@ -192,9 +229,9 @@ public class BridgeOutputBuilder {
             colNames[i] = columnDescriptors.get(i).columnName();
         }
 
-        output = new GPDBWritable(schema, databaseEncoding);
+        encoder = new GPDBWritableEncoder(schema, databaseEncoding);
 
-        return (GPDBWritable) output;
+        return encoder;
     }
 
     /**
@@ -212,7 +249,7 @@ public class BridgeOutputBuilder {
     }
 
     /**
-     * Fills a GPDBWritable object based on recFields. The input record
+     * Serializes a GPDBWritable record based on recFields. The input record
      * recFields must correspond to schema. If the record has more or less
      * fields than the schema we throw an exception. We require that the type of
      * field[i] in recFields corresponds to the type of field[i] in the schema.
@@ -230,20 +267,188 @@ public class BridgeOutputBuilder {
                     + " fields but the schema size is " + schema.length);
         }
 
-        for (int i = 0; i < size; i++) {
-            OneField current = recFields.get(i);
-            if (!isTypeInSchema(current.type, schema[i])) {
+        boolean success = false;
+        encoder.beginRecord();
+        try {
+            for (int i = 0; i < size; i++) {
+                OneField current = recFields.get(i);
+                if (!isTypeInSchema(current.type, schema[i])) {
+                    throw new BadRecordException(
+                            String.format("For field %s schema requires type %s but input record has type %s",
+                                    colNames[i],
+                                    DataType.get(schema[i]),
+                                    DataType.get(current.type)));
+                }
+
+                fillOneGPDBWritableField(current, i);
+            }
+            encoder.endRecord();
+            success = true;
+        } finally {
+            if (!success) {
+                encoder.discardRecord();
+            }
+        }
+
+        outputList.add(encoder.getRecord(encoder.getRecordCount() - 1));
+    }
+
+    /**
+     * Serializes the rows of a batch in columnar form as GPDBWritable records.
+     * The types of the columns are checked and the writers of the values are
+     * chosen once for the batch, the rows are then written column by column
+     * from the vectors of the batch.
+     *
+     * @param batch the batch of records
+     * @throws BadRecordException if building the output records failed
+     */
+    void fillGPDBWritables(ColumnarBatch batch) throws BadRecordException {
+        int columnCount = batch.getColumnCount();
+        if (columnCount == 0) {
+            throw new BadRecordException("No fields in record");
+        } else if (columnCount != schema.length) {
+            throw new BadRecordException("Record has " + columnCount
+                    + " fields but the schema size is " + schema.length);
+        }
+
+        ColumnValues[] columns = new ColumnValues[columnCount];
+        DataType[] writableTypes = new DataType[columnCount];
+        ValueWriter[] writers = new ValueWriter[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = batch.getColumn(i);
+            DataType dataType = columns[i].getDataType();
+            if (!isTypeInSchema(dataType.getOID(), schema[i])) {
                 throw new BadRecordException(
                         String.format("For field %s schema requires type %s but input record has type %s",
                                 colNames[i],
                                 DataType.get(schema[i]),
-                                DataType.get(current.type)));
+                                dataType));
+            }
+            writableTypes[i] = getWritableType(dataType);
+            if (writableTypes[i] == null) {
+                LOG.debug("Data type OID is {}", dataType.getOID());
+                throw new UnsupportedOperationException(dataType + " is not supported for GPDB conversion");
             }
+            writers[i] = createValueWriter(writableTypes[i], columns[i]);
+        }
 
-            fillOneGPDBWritableField(current, i);
+        int size = batch.getSize();
+        for (int row = 0; row < size; row++) {
+            boolean success = false;
+            encoder.beginRecord();
+            try {
+                for (int i = 0; i < columnCount; i++) {
+                    ColumnValues column = columns[i];
+                    int index = column.isRepeating() ? 0 : row;
+                    if (!column.noNulls() && column.isNull(index)) {
+                        encoder.writeNull(writableTypes[i]);
+                    } else {
+                        writers[i].write(column, index);
+                    }
+                }
+                encoder.endRecord();
+                success = true;
+            } catch (GPDBWritable.TypeMismatchException e) {
+                throw new BadRecordException(e);
+            } finally {
+                if (!success) {
+                    encoder.discardRecord();
+                }
+            }
+            outputList.add(encoder.getRecord(encoder.getRecordCount() - 1));
         }
+    }
 
-        outputList.add(output);
+    /**
+     * Creates the writer of the non-null values of a column, for the type
+     * the values are serialized with.
+     */
+    private ValueWriter createValueWriter(DataType writableType, ColumnValues column) {
+        switch (writableType) {
+            case INTEGER:
+                return (values, row) -> encoder.writeInt((int) values.getLong(row));
+            case FLOAT8:
+                return (values, row) -> encoder.writeDouble(values.getDouble(row));
+            case REAL:
+                return (values, row) -> encoder.writeFloat((float) values.getDouble(row));
+            case BIGINT:
+                return (values, row) -> encoder.writeLong(values.getLong(row));
+            case SMALLINT:
+                return (values, row) -> encoder.writeShort((short) values.getLong(row));
+            case BOOLEAN:
+                return (values, row) -> encoder.writeBoolean(values.getLong(row) != 0);
+            case BYTEA:
+                return (values, row) -> encoder.writeBytes(values.getBytes(row), values.getStart(row), values.getLength(row));
+            default:
+                return column.hasUtf8Bytes()
+                        ? (values, row) -> encoder.writeUtf8(values.getBytes(row), values.getStart(row), values.getLength(row))
+                        : (values, row) -> encoder.writeString(values.getObject(row).toString());
+        }
+    }
+
+    /**
+     * Serializes the rows of a batch in columnar form as CSV lines.
+     *
+     * @param batch the batch of records
+     */
+    private void fillCSVLines(ColumnarBatch batch) {
+        int columnCount = batch.getColumnCount();
+        ColumnValues[] columns = new ColumnValues[columnCount];
+        CSVFormatter[] formatters = new CSVFormatter[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = batch.getColumn(i);
+            formatters[i] = createCSVFormatter(columns[i]);
+        }
+
+        String valueOfNull = greenplumCSV.getValueOfNull();
+        char delimiter = greenplumCSV.getDelimiter();
+        StringBuilder line = new StringBuilder();
+        int size = batch.getSize();
+        for (int row = 0; row < size; row++) {
+            line.setLength(0);
+            for (int i = 0; i < columnCount; i++) {
+                if (i > 0) {
+                    line.append(delimiter);
+                }
+                ColumnValues column = columns[i];
+                int index = column.isRepeating() ? 0 : row;
+                if (!column.noNulls() && column.isNull(index)) {
+                    line.append(valueOfNull);
+                } else {
+                    line.append(formatters[i].format(column, index));
+                }
+            }
+            outputList.add(new Text(line.append(newLine).toString()));
+        }
+    }
+
+    /**
+     * Creates the formatter of the non-null values of a column, the values
+     * are formatted the same way as {@link #fieldListToCSVString(List)} does.
+     */
+    private CSVFormatter createCSVFormatter(ColumnValues column) {
+        DataType dataType = column.getDataType();
+        int type = dataType.getOID();
+        switch (dataType) {
+            case INTEGER:
+            case BIGINT:
+            case SMALLINT:
+                return (values, row) -> Long.toString(values.getLong(row));
+            case BOOLEAN:
+                return (values, row) -> Boolean.toString(values.getLong(row) != 0);
+            case FLOAT8:
+                return (values, row) -> Double.toString(values.getDouble(row));
+            case REAL:
+                return (values, row) -> Float.toString((float) values.getDouble(row));
+            case BYTEA:
+                return (values, row) -> toCSVField(type, Arrays.copyOfRange(values.getBytes(row),
+                        values.getStart(row), values.getStart(row) + values.getLength(row)));
+            default:
+                return column.hasUtf8Bytes()
+                        ? (values, row) -> toCSVField(type, new String(values.getBytes(row),
+                        values.getStart(row), values.getLength(row), StandardCharsets.UTF_8))
+                        : (values, row) -> toCSVField(type, values.getObject(row));
+        }
     }
 
     /**
@@ -374,7 +579,8 @@ public class BridgeOutputBuilder {
     }
 
     /**
-     * Fills one GPDBWritable field.
+     * Serializes one GPDBWritable field, the fields of the record are
+     * serialized in the order of the columns.
      *
      * @param oneField field
      * @param colIdx   column index
@@ -385,89 +591,117 @@ public class BridgeOutputBuilder {
             throws BadRecordException {
         int type = oneField.type;
         Object val = oneField.val;
-        GPDBWritable gpdbOutput = (GPDBWritable) output;
+        DataType dataType = getWritableType(DataType.get(type));
         try {
-            switch (DataType.get(type)) {
+            if (dataType == null) {
+                LOG.debug("Data type OID is {}", type);
+                String valClassName = (val != null) ? val.getClass().getSimpleName()
+                        : null;
+                throw new UnsupportedOperationException(valClassName
+                        + " is not supported for GPDB conversion");
+            }
+
+            if (val == null) {
+                encoder.writeNull(dataType);
+                return;
+            }
+
+            switch (dataType) {
                 case INTEGER:
-                    gpdbOutput.setInt(colIdx, (Integer) val);
+                    encoder.writeInt((Integer) val);
                     break;
                 case FLOAT8:
-                    gpdbOutput.setDouble(colIdx, (Double) val);
+                    encoder.writeDouble((Double) val);
                     break;
                 case REAL:
-                    gpdbOutput.setFloat(colIdx, (Float) val);
+                    encoder.writeFloat((Float) val);
                     break;
                 case BIGINT:
-                    gpdbOutput.setLong(colIdx, (Long) val);
+                    encoder.writeLong((Long) val);
                     break;
                 case SMALLINT:
-                    gpdbOutput.setShort(colIdx, (Short) val);
+                    encoder.writeShort((Short) val);
                     break;
                 case BOOLEAN:
-                    gpdbOutput.setBoolean(colIdx, (Boolean) val);
+                    encoder.writeBoolean((Boolean) val);
                     break;
                 case BYTEA:
-                    byte[] bts = null;
-                    if (val != null) {
-                        int length = Array.getLength(val);
-                        bts = new byte[length];
-                        for (int j = 0; j < length; j++) {
-                            bts[j] = Array.getByte(val, j);
-                        }
-                    }
-                    gpdbOutput.setBytes(colIdx, bts);
-                    break;
-                case VARCHAR:
-                case BPCHAR:
-                case TEXT:
-                case UUID:
-                case NUMERIC:
-                case TIMESTAMP:
-                case TIMESTAMP_WITH_TIME_ZONE:
-                case TIME:
-                case DATE:
-                case INTERVAL:
-                case JSON:
-                case JSONB:
-                case BOOLARRAY:
-                case BYTEAARRAY:
-                case INT2ARRAY:
-                case INT4ARRAY:
-                case INT8ARRAY:
-                case FLOAT4ARRAY:
-                case FLOAT8ARRAY:
-                case TEXTARRAY:
-                case BPCHARARRAY:
-                case VARCHARARRAY:
-                case DATEARRAY:
-                case UUIDARRAY:
-                case NUMERICARRAY:
-                case TIMEARRAY:
-                case TIMESTAMPARRAY:
-                case TIMESTAMP_WITH_TIMEZONE_ARRAY:
-                case JSONARRAY:
-                case JSONBARRAY:
-                case INTERVALARRAY:
-                    /*
-                     * If resolvers support sending arrays to GPDB, they are expected to serialize arrays into Postgres
-                     * array external text representation.
-                     * see https://www.postgresql.org/docs/9.4/arrays.html for details of this format.
-                     */
-                    gpdbOutput.setString(colIdx,
-                            ObjectUtils.toString(val, null));
+                    encoder.writeBytes((byte[]) val);
                     break;
                 default:
-                    LOG.debug("Data type OID is {}", type);
-                    String valClassName = (val != null) ? val.getClass().getSimpleName()
+                    EncodedText text = oneField instanceof EncodedTextField
+                            ? ((EncodedTextField) oneField).getEncodedText()
                             : null;
-                    throw new UnsupportedOperationException(valClassName
-                            + " is not supported for GPDB conversion");
+                    if (text != null) {
+                        encoder.writeString(text);
+                    } else {
+                        encoder.writeString(val.toString());
+                    }
             }
         } catch (GPDBWritable.TypeMismatchException e) {
             throw new BadRecordException(e);
         }
     }
 
+    /**
+     * Returns the type a value of the given type is serialized with in a
+     * GPDBWritable record, the types with a text form are serialized as text.
+     *
+     * @param dataType the type of the value
+     * @return the type of the serialized value, or null if the type is not supported
+     */
+    private static DataType getWritableType(DataType dataType) {
+        switch (dataType) {
+            case INTEGER:
+            case FLOAT8:
+            case REAL:
+            case BIGINT:
+            case SMALLINT:
+            case BOOLEAN:
+            case BYTEA:
+                return dataType;
+            case VARCHAR:
+            case BPCHAR:
+            case TEXT:
+            case UUID:
+            case NUMERIC:
+            case TIMESTAMP:
+            case TIMESTAMP_WITH_TIME_ZONE:
+            case TIME:
+            case DATE:
+            case INTERVAL:
+            case JSON:
+            case JSONB:
+            case BOOLARRAY:
+            case BYTEAARRAY:
+            case INT2ARRAY:
+            case INT4ARRAY:
+            case INT8ARRAY:
+            case FLOAT4ARRAY:
+            case FLOAT8ARRAY:
+            case TEXTARRAY:
+            case BPCHARARRAY:
+            case VARCHARARRAY:
+            case DATEARRAY:
+            case UUIDARRAY:
+            case NUMERICARRAY:
+            case TIMEARRAY:
+            case TIMESTAMPARRAY:
+            case TIMESTAMP_WITH_TIMEZONE_ARRAY:
+            case JSONARRAY:
+            case JSONBARRAY:
+            case INTERVALARRAY:
+                /*
+                 * If resolvers support sending arrays to GPDB, they are expected to serialize arrays into Postgres
+                 * array external text representation.
+                 * see https://www.postgresql.org/docs/9.4/arrays.html for details of this format.
+                 */
+                return TEXT;
+            default:
+                return null;
+        }
+    }
+
     /**
      * Serialize a list of OneFields to a CSV line
      *
@@ -476,26 +710,51 @@ public class BridgeOutputBuilder {
      */
     private String fieldListToCSVString(List<OneField> fields) {
         return fields.stream()
-                .map(field -> {
-                    // Check first if the field.val is null then using .toString() is safe in else branches.
-                    if (field.val == null) {
-                        return greenplumCSV.getValueOfNull();
-                    } else if (field.type == DataType.BYTEA.getOID()) {
-                        // check for Format Type here. if the Format Type is CSV, we should escape using single \
-                        // for Text or Custom Format types, it should \\
-                        String hexPrepend = gpdbTableformat.equalsIgnoreCase("csv") ? "\\x" : "\\\\x";
-                        return hexPrepend + Hex.encodeHexString((byte[]) field.val);
-                    } else if (field.type == DataType.NUMERIC.getOID() || !DataType.isTextForm(field.type)) {
-                        return field.val.toString();
-                    } else if (field.type == DataType.TIMESTAMP.getOID()) {
-                        return field.val instanceof String ?
-                                (String) field.val :
-                                ((Timestamp) field.val).toLocalDateTime().format(GreenplumDateTime.DATETIME_FORMATTER);
-                    } else if (field.type == DataType.DATE.getOID()) {
-                        return field.val.toString();
-                    } else
-                        return greenplumCSV.toCsvField(field.val.toString(), true, true, true);
-                })
+                .map(field -> toCSVField(field.type, field.val))
                 .collect(Collectors.joining(String.valueOf(greenplumCSV.getDelimiter()), "", newLine));
     }
+
+    /**
+     * Serializes a value to a CSV field
+     *
+     * @param type the type of the value
+     * @param val  the value
+     * @return the serialized field
+     */
+    private String toCSVField(int type, Object val) {
+        // Check first if the val is null then using .toString() is safe in else branches.
+        if (val == null) {
+            return greenplumCSV.getValueOfNull();
+        } else if (type == DataType.BYTEA.getOID()) {
+            // check for Format Type here. if the Format Type is CSV, we should escape using single \
+            // for Text or Custom Format types, it should \\
+            String hexPrepend = gpdbTableformat.equalsIgnoreCase("csv") ? "\\x" : "\\\\x";
+            return hexPrepend + Hex.encodeHexString((byte[]) val);
+        } else if (type == DataType.NUMERIC.getOID() || !DataType.isTextForm(type)) {
+            return val.toString();
+        } else if (type == DataType.TIMESTAMP.getOID()) {
+            return val instanceof String ?
+                    (String) val :
+                    ((Timestamp) val).toLocalDateTime().format(GreenplumDateTime.DATETIME_FORMATTER);
+        } else if (type == DataType.DATE.getOID()) {
+            return val.toString();
+        } else
+            return greenplumCSV.toCsvField(val.toString(), true, true, true);
+    }
+
+    /**
+     * Writes the non-null value of a row of a column
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(ColumnValues values, int row) throws GPDBWritable.TypeMismatchException;
+    }
+
+    /**
+     * Formats the non-null value of a row of a column as a CSV field
+     */
+    @FunctionalInterface
+    private interface CSVFormatter {
+        String format(ColumnValues values, int row);
+    }
 }
@@ -0,0 +1,493 @@
+package org.greenplum.pxf.service;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.pool.KryoPool;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang.StringUtils;
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
+import org.greenplum.pxf.api.model.Fragment;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Shares the list of fragments of a query between the PXF servers of the
+ * cluster. For every fragmenter cache key, one of the configured hosts is
+ * elected as the owner: the owner runs the fragmenter and keeps the resulting
+ * list available for a while, while the other hosts fetch the list from the
+ * owner over HTTP. A host that does not receive the list within the timeout
+ * computes it itself, and does not ask that owner again until the expiration
+ * has passed, so that an unresponsive owner only delays the first query.
+ * <p>
+ * The owner only serves the keys it registered itself when it started to
+ * compute their fragments, a host asking for a key that is not registered
+ * yet asks again until the timeout. The fragments are only served to the
+ * configured hosts, over HTTPS when the PXF server has SSL enabled.
+ * <p>
+ * Only the classes of the fragments and of the fragment metadata shipped
+ * with PXF are accepted from the other hosts. The fragments of a fragmenter
+ * whose metadata is of another class are not shared, and every host computes
+ * them.
+ * <p>
+ * The owner is elected by hashing the key over the list of hosts, so all the
+ * hosts must be configured with the same list, in the same order.
+ */
+@Component
+public class FragmentSharingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FragmentSharingService.class);
+
+    public static final String FRAGMENTS_PATH = "/pxf/fragments";
+    static final String KEY_PARAMETER = "key";
+    static final String TIMEOUT_PARAMETER = "timeout";
+
+    /**
+     * Extra time given to the HTTP request on top of the time the owner waits
+     * for the fragments, so that the owner answers before the request times out
+     */
+    private static final Duration REQUEST_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+
+    /**
+     * Time waited before asking the owner again for a key it did not register yet
+     */
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(200);
+
+    /**
+     * The fragment metadata classes shipped with PXF, the only classes other
+     * than the JDK types below that are read from the other hosts. The
+     * registration IDs follow the order of the list, so the list must be the
+     * same on all the hosts.
+     */
+    private static final List<String> FRAGMENT_METADATA_CLASSES = List.of(
+            "org.greenplum.pxf.api.examples.DemoFragmentMetadata",
+            "org.greenplum.pxf.diagnostic.FilterVerifyFragmentMetadata",
+            "org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata",
+            "org.greenplum.pxf.plugins.hive.HiveFragmentMetadata",
+            "org.greenplum.pxf.plugins.hbase.HBaseFragmentMetadata",
+            "org.greenplum.pxf.plugins.jdbc.partitioning.DatePartition",
+            "org.greenplum.pxf.plugins.jdbc.partitioning.EnumPartition",
+            "org.greenplum.pxf.plugins.jdbc.partitioning.IntRangePartition",
+            "org.greenplum.pxf.plugins.jdbc.partitioning.IntValuePartition",
+            "org.greenplum.pxf.plugins.jdbc.partitioning.NullPartition",
+            "org.greenplum.pxf.plugins.jdbc.partitioning.TimestampPartition");
+
+    /**
+     * The first registration ID after the IDs Kryo assigns to the primitive
+     * types and {@link String}
+     */
+    private static final int FIRST_REGISTRATION_ID = 20;
+
+    private final boolean enabled;
+    private final List<String> hosts;
+    private final String localHost;
+    private final String scheme;
+    private final Duration timeout;
+    private final KryoPool kryoPool;
+    private final Cache<String, CompletableFuture<byte[]>> sharedFragments;
+    private final Cache<String, Boolean> unresponsiveHosts;
+    private final ConcurrentMap<String, CompletableFuture<Optional<List<Fragment>>>> pendingFetches = new ConcurrentHashMap<>();
+    private HttpClient httpClient;
+
+    @Autowired
+    public FragmentSharingService(PxfServerProperties serverProperties,
+                                  @Value("${server.port:5888}") int serverPort,
+                                  @Value("${server.ssl.enabled:false}") boolean sslEnabled) {
+        this(serverProperties.getFragmentSharing(), serverPort, sslEnabled, FragmentSharingService::getLocalHostNames);
+    }
+
+    FragmentSharingService(PxfServerProperties.FragmentSharing properties,
+                           int serverPort,
+                           boolean sslEnabled,
+                           Supplier<Set<String>> localHostNames) {
+        // a dedicated pool, the instances are configured for the fragments only
+        this.kryoPool = new KryoPool.Builder(FragmentSharingService::createKryo).softReferences().build();
+        this.timeout = properties.getTimeout();
+        // all the hosts run with the same configuration, so they use the same scheme
+        this.scheme = sslEnabled ? "https" : "http";
+        this.hosts = properties.getHosts().stream()
+                .map(String::trim)
+                .filter(StringUtils::isNotBlank)
+                .map(host -> host.contains(":") ? host : host + ":" + serverPort)
+                .collect(Collectors.toList());
+
+        this.enabled = properties.isEnabled() && !hosts.isEmpty();
+        if (enabled) {
+            Set<String> localAddresses = (StringUtils.isNotBlank(properties.getLocalHost())
+                    ? Set.of(properties.getLocalHost().trim()) : localHostNames.get()).stream()
+                    .map(host -> host.contains(":") ? host : host + ":" + serverPort)
+                    .collect(Collectors.toSet());
+            this.localHost = hosts.stream()
+                    .filter(host -> localAddresses.stream().anyMatch(host::equalsIgnoreCase))
+                    .findFirst()
+                    .orElse(null);
+            LOG.info("Sharing fragments between hosts {}, this host is {}", hosts, localHost == null ? "not listed" : localHost);
+        } else {
+            this.localHost = null;
+        }
+
+        this.sharedFragments = CacheBuilder.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getExpiration().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.unresponsiveHosts = CacheBuilder.newBuilder()
+                .expireAfterWrite(properties.getExpiration().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * @return true if the fragments are shared between the hosts, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns whether this host computes the fragments for the given key.
+     *
+     * @param key the fragmenter cache key
+     * @return true if this host is the owner of the key, false otherwise
+     */
+    public boolean isOwner(String key) {
+        return localHost != null && localHost.equals(getOwner(key));
+    }
+
+    /**
+     * Returns whether the given address is the address of one of the hosts
+     * sharing the fragments, the only clients the fragments are served to.
+     *
+     * @param remoteAddress the IP address of the client
+     * @return true if the client is one of the configured hosts, false otherwise
+     */
+    public boolean isSharingHost(String remoteAddress) {
+        if (!enabled || remoteAddress == null) {
+            return false;
+        }
+        for (String host : hosts) {
+            String hostName = host.substring(0, host.lastIndexOf(':'));
+            try {
+                for (InetAddress address : InetAddress.getAllByName(hostName)) {
+                    if (remoteAddress.equals(address.getHostAddress())) {
+                        return true;
+                    }
+                }
+            } catch (UnknownHostException e) {
+                LOG.debug("Unable to resolve the address of host {}: {}", hostName, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registers the given key owned by this host before its fragments are
+     * computed, so that the other hosts wait for the fragments of the key. A
+     * key whose fragments could not be computed is registered again.
+     *
+     * @param key the fragmenter cache key
+     */
+    public void register(String key) {
+        sharedFragments.asMap().compute(key, (k, future) ->
+                future == null || future.isCompletedExceptionally() ? new CompletableFuture<>() : future);
+    }
+
+    /**
+     * Returns whether this host owns the given key and registered it.
+     *
+     * @param key the fragmenter cache key
+     * @return true if the fragments of the key are or will be available, false otherwise
+     */
+    public boolean isRegistered(String key) {
+        return enabled && isOwner(key) && sharedFragments.getIfPresent(key) != null;
+    }
+
+    /**
+     * Makes the fragments computed for the given key available to the other
+     * hosts. The fragments are serialized once, when they are first published.
+     *
+     * @param key       the fragmenter cache key
+     * @param fragments the list of fragments
+     */
+    public void publish(String key, List<Fragment> fragments) {
+        CompletableFuture<byte[]> future = sharedFragments.asMap().computeIfAbsent(key, k -> new CompletableFuture<>());
+        if (future.isDone()) {
+            return;
+        }
+        try {
+            future.complete(serialize(fragments));
+        } catch (Exception e) {
+            LOG.warn("Unable to serialize the fragments for key={}: {}", key, e.getMessage());
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Notifies the other hosts waiting for the fragments of the given key that
+     * the fragments could not be computed, so that they compute them without
+     * waiting for the timeout.
+     *
+     * @param key   the fragmenter cache key
+     * @param cause the error encountered while computing the fragments
+     */
+    public void publishFailure(String key, Throwable cause) {
+        sharedFragments.asMap().computeIfAbsent(key, k -> new CompletableFuture<>()).completeExceptionally(cause);
+    }
+
+    /**
+     * Returns the serialized list of fragments for the given key, waiting up
+     * to the given time, and at most the timeout, for this host to compute
+     * them. Returns an empty result when this host did not register the key,
+     * or when the fragments are not available in time. No entry is created
+     * for the keys that were not registered.
+     *
+     * @param key  the fragmenter cache key
+     * @param wait the time the client waits for the fragments
+     * @return the serialized list of fragments, if available
+     */
+    public Optional<byte[]> getSerializedFragments(String key, Duration wait) {
+        CompletableFuture<byte[]> future = enabled && isOwner(key) ? sharedFragments.getIfPresent(key) : null;
+        if (future == null) {
+            return Optional.empty();
+        }
+        long waitMillis = Math.max(0, Math.min(wait.toMillis(), timeout.toMillis()));
+        try {
+            return Optional.of(future.get(waitMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            LOG.debug("Fragments for key={} were not computed within {} ms", key, waitMillis);
+        } catch (ExecutionException e) {
+            LOG.debug("Fragments for key={} could not be computed: {}", key, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Fetches the list of fragments for the given key from the owner of the
+     * key. Returns an empty result if the owner does not provide the
+     * fragments, in which case the caller needs to compute them. Concurrent
+     * requests for the same key share a single fetch, and an owner that
+     * did not answer a previous fetch is not asked until the expiration has
+     * passed.
+     *
+     * @param key the fragmenter cache key
+     * @return the list of fragments, if provided by the owner
+     */
+    public Optional<List<Fragment>> fetchFragments(String key) {
+        String owner = getOwner(key);
+        if (unresponsiveHosts.getIfPresent(owner) != null) {
+            LOG.debug("Host {} did not answer recently, not fetching the fragments for key={}", owner, key);
+            return Optional.empty();
+        }
+
+        CompletableFuture<Optional<List<Fragment>>> fetch = new CompletableFuture<>();
+        CompletableFuture<Optional<List<Fragment>>> pendingFetch = pendingFetches.putIfAbsent(key, fetch);
+        if (pendingFetch != null) {
+            try {
+                return pendingFetch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOG.debug("Unable to fetch the fragments for key={}: {}", key, e.getCause().getMessage());
+            }
+            return Optional.empty();
+        }
+
+        Optional<List<Fragment>> fragments = Optional.empty();
+        try {
+            fragments = fetchFragments(key, owner);
+        } finally {
+            pendingFetches.remove(key, fetch);
+            fetch.complete(fragments);
+        }
+        return fragments;
+    }
+
+    private Optional<List<Fragment>> fetchFragments(String key, String owner) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (true) {
+                Duration remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+                URI uri = URI.create(String.format("%s://%s%s?%s=%s&%s=%d", scheme, owner, FRAGMENTS_PATH,
+                        KEY_PARAMETER, URLEncoder.encode(key, StandardCharsets.UTF_8),
+                        TIMEOUT_PARAMETER, remaining.toMillis()));
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(remaining.plus(REQUEST_TIMEOUT_MARGIN))
+                        .GET()
+                        .build();
+                HttpResponse<byte[]> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 200) {
+                    List<Fragment> fragments = deserialize(response.body());
+                    LOG.debug("Fetched {} fragments for key={} from host {}", fragments.size(), key, owner);
+                    return Optional.of(fragments);
+                }
+                // the owner did not start to compute the fragments yet, ask again while there is time left
+                if (response.statusCode() == 404 && remaining.compareTo(POLL_INTERVAL) > 0) {
+                    Thread.sleep(POLL_INTERVAL.toMillis());
+                    continue;
+                }
+                LOG.debug("Host {} did not provide the fragments for key={}, status={}", owner, key, response.statusCode());
+                return Optional.empty();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // the owner is unreachable or did not answer in time, compute the fragments locally for a while
+            unresponsiveHosts.put(owner, Boolean.TRUE);
+            LOG.warn("Unable to fetch the fragments for key={} from host {}: {}", key, owner, e.getMessage());
+        } catch (Exception e) {
+            LOG.warn("Unable to fetch the fragments for key={} from host {}: {}", key, owner, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private String getOwner(String key) {
+        return hosts.get(Math.floorMod(key.hashCode(), hosts.size()));
+    }
+
+    private synchronized HttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClient.newBuilder()
+                    .connectTimeout(timeout)
+                    .build();
+        }
+        return httpClient;
+    }
+
+    byte[] serialize(List<Fragment> fragments) {
+        Kryo kryo = kryoPool.borrow();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (Output output = new Output(bytes)) {
+                kryo.writeObject(output, new ArrayList<>(fragments));
+            }
+            return bytes.toByteArray();
+        } finally {
+            kryoPool.release(kryo);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    List<Fragment> deserialize(byte[] bytes) {
+        Kryo kryo = kryoPool.borrow();
+        try (Input input = new Input(bytes)) {
+            return kryo.readObject(input, ArrayList.class);
+        } finally {
+            kryoPool.release(kryo);
+        }
+    }
+
+    /**
+     * Creates a Kryo instance that only reads and writes the registered
+     * classes, so that the bytes received from another host can not
+     * instantiate arbitrary classes
+     *
+     * @return the Kryo instance
+     */
+    private static Kryo createKryo() {
+        Kryo kryo = new Kryo();
+        kryo.setRegistrationRequired(true);
+        kryo.setClassLoader(FragmentSharingService.class.getClassLoader());
+        // fragments and their metadata do not necessarily have a no-arg constructor
+        kryo.setInstantiatorStrategy(new Kryo.DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+
+        int id = FIRST_REGISTRATION_ID;
+        kryo.register(ArrayList.class, id++);
+        kryo.register(Fragment.class, id++);
+        kryo.register(byte[].class, id++);
+        kryo.register(String[].class, id++);
+        kryo.register(HashMap.class, id++);
+        kryo.register(Properties.class, id++);
+        kryo.register(LocalDate.class, new LocalDateSerializer(), id++);
+        kryo.register(LocalDateTime.class, new LocalDateTimeSerializer(), id++);
+        for (String className : FRAGMENT_METADATA_CLASSES) {
+            try {
+                kryo.register(Class.forName(className, false, kryo.getClassLoader()), id);
+            } catch (ClassNotFoundException e) {
+                LOG.debug("Fragment metadata class {} is not available", className);
+            }
+            id++;
+        }
+        return kryo;
+    }
+
+    /**
+     * Writes the dates as epoch days, the JDK does not allow Kryo to access
+     * the fields of {@link LocalDate}
+     */
+    private static class LocalDateSerializer extends Serializer<LocalDate> {
+        @Override
+        public void write(Kryo kryo, Output output, LocalDate date) {
+            output.writeLong(date.toEpochDay());
+        }
+
+        @Override
+        public LocalDate read(Kryo kryo, Input input, Class<LocalDate> type) {
+            return LocalDate.ofEpochDay(input.readLong());
+        }
+    }
+
+    /**
+     * Writes the timestamps as epoch days and nanoseconds of the day
+     */
+    private static class LocalDateTimeSerializer extends Serializer<LocalDateTime> {
+        @Override
+        public void write(Kryo kryo, Output output, LocalDateTime dateTime) {
+            output.writeLong(dateTime.toLocalDate().toEpochDay());
+            output.writeLong(dateTime.toLocalTime().toNanoOfDay());
+        }
+
+        @Override
+        public LocalDateTime read(Kryo kryo, Input input, Class<LocalDateTime> type) {
+            return LocalDateTime.of(LocalDate.ofEpochDay(input.readLong()), LocalTime.ofNanoOfDay(input.readLong()));
+        }
+    }
+
+    private static Set<String> getLocalHostNames() {
+        Set<String> names = new HashSet<>();
+        try {
+            InetAddress address = InetAddress.getLocalHost();
+            names.add(address.getHostName());
+            names.add(address.getCanonicalHostName());
+            names.add(address.getHostAddress());
+        } catch (UnknownHostException e) {
+            LOG.warn("Unable to resolve the name of the local host: {}", e.getMessage());
+        }
+        return names;
+    }
+}
@@ -19,6 +19,7 @@ package org.greenplum.pxf.service;
  * under the License.
  */
 
+import com.google.common.cache.Cache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.Fragment;
@@ -54,13 +55,19 @@ public class FragmenterService {
     private final BasePluginFactory pluginFactory;
     private final FragmenterCacheFactory fragmenterCacheFactory;
     private final GSSFailureHandler failureHandler;
+    private final MetricsReporter metricsReporter;
+    private final FragmentSharingService fragmentSharingService;
 
     public FragmenterService(FragmenterCacheFactory fragmenterCacheFactory,
                              BasePluginFactory pluginFactory,
-                             GSSFailureHandler failureHandler) {
+                             GSSFailureHandler failureHandler,
+                             MetricsReporter metricsReporter,
+                             FragmentSharingService fragmentSharingService) {
         this.fragmenterCacheFactory = fragmenterCacheFactory;
         this.pluginFactory = pluginFactory;
         this.failureHandler = failureHandler;
+        this.metricsReporter = metricsReporter;
+        this.fragmentSharingService = fragmentSharingService;
     }
 
     public List<Fragment> getFragmentsForSegment(RequestContext context) throws IOException {
@@ -125,7 +132,11 @@ public class FragmenterService {
      * empty, it populates the cache with the list of fragments. When
      * concurrent requests are made to the cache with the same key, the first
      * request will populate the cache, while the other requests will wait
-     * until the cache entry is populated.
+     * until the cache entry is populated. When fragment sharing is enabled,
+     * the list of fragments is fetched from the host that owns the cache key,
+     * and computed locally only if the owner does not provide it in time. The
+     * list is fetched before the cache is populated, so that a slow owner
+     * does not hold the loading of the cache entry.
      *
      * @param context   the request context
      * @param startTime the start time of the request
@@ -134,14 +145,40 @@ public class FragmenterService {
      */
     private List<Fragment> getFragmentsFromCache(RequestContext context, Instant startTime) throws IOException {
         final String fragmenterCacheKey = getFragmenterCacheKey(context);
+        final Cache<String, List<Fragment>> fragmenterCache = fragmenterCacheFactory.getCache();
+        final boolean owner = fragmentSharingService.isEnabled() && fragmentSharingService.isOwner(fragmenterCacheKey);
+        final Optional<List<Fragment>> sharedFragments =
+                fragmentSharingService.isEnabled() && !owner && fragmenterCache.getIfPresent(fragmenterCacheKey) == null
+                        ? fragmentSharingService.fetchFragments(fragmenterCacheKey)
+                        : Optional.empty();
+        if (owner) {
+            fragmentSharingService.register(fragmenterCacheKey);
+        }
         try {
-            return fragmenterCacheFactory.getCache()
+            List<Fragment> fragments = fragmenterCache
                     .get(fragmenterCacheKey, () -> {
+                        if (sharedFragments.isPresent()) {
+                            return sharedFragments.get();
+                        }
                         LOG.debug("Caching fragments from segmentId={} with key={}",
                                 context.getSegmentId(), fragmenterCacheKey);
 
-                        List<Fragment> fragmentList = failureHandler.execute(context.getConfiguration(),
-                                "get fragments", () -> getFragmenter(context).getFragments());
+                        Instant fragmentationStartTime = Instant.now();
+                        List<Fragment> fragmentList;
+                        boolean success = false;
+                        try {
+                            fragmentList = failureHandler.execute(context.getConfiguration(),
+                                    "get fragments", () -> getFragmenter(context).getFragments());
+                            success = true;
+                        } catch (Exception e) {
+                            if (owner) {
+                                fragmentSharingService.publishFailure(fragmenterCacheKey, e);
+                            }
+                            throw e;
+                        } finally {
+                            metricsReporter.reportTimer(MetricsReporter.PxfMetric.FRAGMENTATION,
+                                    Duration.between(fragmentationStartTime, Instant.now()), context, success);
+                        }
 
                         /* Create a fragmenter instance with API level parameters */
                         fragmentList = AnalyzeUtils.getSampleFragments(fragmentList, context);
@@ -164,6 +201,11 @@ public class FragmenterService {
 
                         return fragmentList;
                     });
+            if (owner) {
+                // also publishes the cached fragments if the shared ones were evicted
+                fragmentSharingService.publish(fragmenterCacheKey, fragments);
+            }
+            return fragments;
         } catch (UncheckedExecutionException | ExecutionException e) {
             // Unwrap the error
             Exception exception = e.getCause() != null ? (Exception) e.getCause() : e;
@@ -275,13 +317,17 @@ public class FragmenterService {
      * For that reason we must include the schema name, table name, and the filter string as part
      * of the fragmenter cache key. We also include dataSource for a case where the table is recreated during
      * the same transaction (in a PLSQL function, for example) and now points to a different location.
+     * The user and the server are included so that the fragments listed with the credentials of a user or server are
+     * never returned for another one, as the list may also be shared with the other PXF hosts.
      *
      * @param context the request context
      * @return the key for the fragmenter cache
      */
     private String getFragmenterCacheKey(RequestContext context) {
-        return String.format("%s:%s:%s:%s:%s",
+        return String.format("%s:%s:%s:%s:%s:%s:%s",
                 context.getTransactionId(),
+                context.getUser(),
+                context.getServerName(),
                 context.getSchemaName(),
                 context.getTableName(),
                 context.getDataSource(),
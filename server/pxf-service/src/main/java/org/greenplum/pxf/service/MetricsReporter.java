@@ -151,10 +151,15 @@ public class MetricsReporter {
     @Getter
     public enum PxfMetric {
         FRAGMENTS_SENT("pxf.fragments.sent", "pxf.metrics.fragments.enabled"),
+        FRAGMENTATION("pxf.fragmentation", "pxf.metrics.fragments.enabled"),
         RECORDS_SENT("pxf.records.sent", "pxf.metrics.records.enabled"),
         RECORDS_RECEIVED("pxf.records.received", "pxf.metrics.records.enabled"),
         BYTES_SENT("pxf.bytes.sent", "pxf.metrics.bytes.enabled"),
-        BYTES_RECEIVED("pxf.bytes.received", "pxf.metrics.bytes.enabled");
+        BYTES_RECEIVED("pxf.bytes.received", "pxf.metrics.bytes.enabled"),
+        BLOCKS_READ("pxf.blocks.read", "pxf.metrics.pruning.enabled"),
+        BLOCKS_SKIPPED("pxf.blocks.skipped", "pxf.metrics.pruning.enabled"),
+        PAGES_SKIPPED("pxf.pages.skipped", "pxf.metrics.pruning.enabled"),
+        ROWS_FILTERED("pxf.rows.filtered", "pxf.metrics.pruning.enabled");
 
         private final String metricName;
         private final String enabledPropertyName;
@@ -21,6 +21,7 @@ package org.greenplum.pxf.service.bridge;
 
 
 import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.PruningStats;
 
 import java.io.DataInputStream;
 
@@ -65,4 +66,14 @@ public interface Bridge {
      * @throws Exception when an error occurs during the operation
      */
     void cancelIteration() throws Exception;
+
+    /**
+     * Returns the blocks and pages that the accessor read and skipped because
+     * of the filter, called after the iteration ended.
+     *
+     * @return the statistics of the iteration, or null if the accessor does not report them
+     */
+    default PruningStats getPruningStats() {
+        return null;
+    }
 }
@@ -19,10 +19,13 @@ package org.greenplum.pxf.service.bridge;
  * under the License.
  */
 
+import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.BadRecordException;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.CancelableOperation;
+import org.greenplum.pxf.api.model.PruningAccessor;
+import org.greenplum.pxf.api.model.PruningStats;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.service.BridgeOutputBuilder;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
@@ -34,8 +37,10 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.UTFDataFormatException;
 import java.nio.charset.CharacterCodingException;
+import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.zip.ZipException;
 
 /**
@@ -44,16 +49,20 @@ import java.util.zip.ZipException;
  * get records from accessor, let resolver deserialize them and serialize them
  * again using the output conversion class. <br>
  * The class handles BadRecordException and other exception type and marks the
- * record as invalid for GPDB.
+ * record as invalid for GPDB. When the query has a filter, the resolved records
+ * that do not match it are not sent to GPDB.
  */
 public class ReadBridge extends BaseBridge {
 
     protected final BridgeOutputBuilder outputBuilder;
     protected Deque<Writable> outputQueue = new LinkedList<>();
+    private final RowFilter rowFilter;
+    private final Deque<Writable> filteredOutput = new ArrayDeque<>(0);
 
     public ReadBridge(BasePluginFactory pluginFactory, RequestContext context, GSSFailureHandler failureHandler) {
         super(pluginFactory, context, failureHandler);
         this.outputBuilder = new BridgeOutputBuilder(context);
+        this.rowFilter = RowFilter.forContext(context);
     }
 
     /**
@@ -66,7 +75,11 @@ public class ReadBridge extends BaseBridge {
     }
 
     protected Deque<Writable> makeOutput(OneRow oneRow) throws Exception {
-        return outputBuilder.makeOutput(resolver.getFields(oneRow));
+        List<OneField> fields = resolver.getFields(oneRow);
+        if (rowFilter != null && !rowFilter.test(fields)) {
+            return filteredOutput;
+        }
+        return outputBuilder.makeOutput(fields);
     }
 
     /**
@@ -129,6 +142,23 @@ public class ReadBridge extends BaseBridge {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PruningStats getPruningStats() {
+        PruningStats accessorStats = accessor instanceof PruningAccessor ? ((PruningAccessor) accessor).getPruningStats() : null;
+        if (rowFilter == null) {
+            return accessorStats;
+        }
+        PruningStats pruningStats = new PruningStats();
+        if (accessorStats != null) {
+            pruningStats.add(accessorStats);
+        }
+        pruningStats.addRowsFiltered(rowFilter.getRowsFiltered());
+        return pruningStats;
+    }
+
     /*
      * There are many exceptions that inherit IOException. Some of them like
      * EOFException are generated due to a data problem, and not because of an
@@ -19,13 +19,20 @@ package org.greenplum.pxf.service.bridge;
  * under the License.
  */
 
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.ReadVectorizedResolver;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.SamplingAccessor;
 import org.greenplum.pxf.service.utilities.AnalyzeUtils;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
 
+import java.io.IOException;
 import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
 
 /**
  * ReadSamplingBridge wraps a ReadBridge, and returns only some of the output
@@ -38,12 +45,19 @@ import java.util.BitSet;
  * ratio of 0.034, a bit-map of 1000 bits will be created, and 34 bits will be
  * set. This map is matched against each read record, discarding ones with a 0
  * bit and continuing until a 1 bit record is read.
+ * <p>
+ * When the accessor is a {@link SamplingAccessor}, the sampling starts in the
+ * accessor: blocks of data that are not part of the sample are skipped by the
+ * accessor, and the bit map is built for the ratio of the records that remain
+ * to be sampled. For accessors that return a record at a time, the records
+ * with a 0 bit are skipped before they are resolved.
  */
 public class ReadSamplingBridge extends ReadBridge {
 
     private BitSet sampleBitSet;
     private int bitSetSize;
     private int curIndex;
+    private boolean skipRecords;
 
     public ReadSamplingBridge(BasePluginFactory pluginFactory, RequestContext context, GSSFailureHandler failureHandler) {
         super(pluginFactory, context, failureHandler);
@@ -51,11 +65,36 @@ public class ReadSamplingBridge extends ReadBridge {
         this.curIndex = 0;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean beginIteration() throws Exception {
+        boolean result = super.beginIteration();
+        if (accessor instanceof SamplingAccessor) {
+            float readRatio = ((SamplingAccessor) accessor).getReadRatio();
+            if (readRatio > 0 && readRatio < 1) {
+                // the accessor already skipped some of the data, sample the rest
+                float sampleRatio = Math.min(1.0f, context.getStatsSampleRatio() / readRatio);
+                LOG.debug("Accessor reads {} of the data, sampling ratio {} of the records", readRatio, sampleRatio);
+                calculateBitSet(sampleRatio);
+                curIndex = 0;
+            }
+            // batches of records are sampled after they are resolved
+            skipRecords = !(resolver instanceof ReadVectorizedResolver);
+        }
+        return result;
+    }
+
     /**
      * Fetches next sample, according to the sampling ratio.
      */
     @Override
     public Writable getNext() throws Exception {
+        if (skipRecords) {
+            return getNextSkippingRecords();
+        }
+
         Writable output = super.getNext();
 
         // sample - if bit is false, advance to the next object
@@ -72,6 +111,45 @@ public class ReadSamplingBridge extends ReadBridge {
         return output;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Deque<Writable> makeOutput(OneRow oneRow) throws Exception {
+        if (resolver instanceof ReadVectorizedResolver) {
+            List<List<OneField>> resolvedBatch = ((ReadVectorizedResolver) resolver).
+                    getFieldsForBatch(oneRow);
+            return outputBuilder.makeVectorizedOutput(resolvedBatch);
+        }
+        return super.makeOutput(oneRow);
+    }
+
+    /**
+     * Fetches next sample, skipping the records with a 0 bit in the accessor,
+     * before they are resolved.
+     */
+    private Writable getNextSkippingRecords() throws Exception {
+        if (outputQueue.isEmpty()) {
+            SamplingAccessor samplingAccessor = (SamplingAccessor) accessor;
+            while (!sampleBitSet.get(curIndex)) {
+                try {
+                    if (!samplingAccessor.skipNextObject()) {
+                        return null;
+                    }
+                } catch (IOException ex) {
+                    // a bad record that is not part of the sample is discarded
+                    if (!isDataException(ex)) {
+                        throw ex;
+                    }
+                    LOG.debug("Discarding a bad record that is not part of the sample: {}", ex.getMessage());
+                }
+                incIndex();
+            }
+            incIndex();
+        }
+        return super.getNext();
+    }
+
     private void calculateBitSet(float sampleRatio) {
         int sampleSize = (int) (sampleRatio * 10000);
         bitSetSize = 10000;
@@ -21,6 +21,8 @@ package org.greenplum.pxf.service.bridge;
 
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.model.ColumnarBatch;
+import org.greenplum.pxf.api.model.ReadColumnarResolver;
 import org.greenplum.pxf.api.model.ReadVectorizedResolver;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.RequestContext;
@@ -41,6 +43,11 @@ public class ReadVectorizedBridge extends ReadBridge {
      */
     @Override
     protected Deque<Writable> makeOutput(OneRow oneRow) throws Exception {
+        if (resolver instanceof ReadColumnarResolver) {
+            // serialize the values straight from the columns of the batch
+            ColumnarBatch batch = ((ReadColumnarResolver) resolver).getColumnsForBatch(oneRow);
+            return outputBuilder.makeColumnarOutput(batch);
+        }
         List<List<OneField>> resolvedBatch = ((ReadVectorizedResolver) resolver).
                 getFieldsForBatch(oneRow);
         return outputBuilder.makeVectorizedOutput(resolvedBatch);
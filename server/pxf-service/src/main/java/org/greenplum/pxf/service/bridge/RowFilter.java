@@ -0,0 +1,234 @@
+package org.greenplum.pxf.service.bridge;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.filter.FilterEvaluator;
+import org.greenplum.pxf.api.filter.FilterParser;
+import org.greenplum.pxf.api.filter.Node;
+import org.greenplum.pxf.api.model.GreenplumCSV;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Rejects the resolved rows that do not match the filter of the query before
+ * they are serialized and sent to Greenplum. Most useful for the formats that
+ * can not push the filter down to the accessor, such as text, CSV, JSON and
+ * SequenceFile, where every row of the fragment is resolved.
+ * <p>
+ * Rows resolved to one field per column are evaluated with the values of the
+ * projected columns. Rows resolved to a single line of text are split with the
+ * delimiter Greenplum sends, and only when the split is not ambiguous: lines
+ * with quote or escape characters, and the lines of records spanning multiple
+ * lines, are always sent. Lines are not split at all unless Greenplum sent both
+ * the delimiter and the null string of the table: the defaults PXF would fall
+ * back to do not match the text format of foreign tables, nor the formats of
+ * external tables with custom formatters, which send no format options.
+ */
+class RowFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RowFilter.class);
+
+    static final String PXF_RESIDUAL_FILTER_ENABLED = "pxf.reader.residual-filter.enabled";
+    static final boolean PXF_RESIDUAL_FILTER_DEFAULT = true;
+
+    private final FilterEvaluator evaluator;
+    private final List<ColumnDescriptor> columnDescriptors;
+    private final boolean textOutput;
+    private final Charset dataEncoding;
+    private final Character delimiter;
+    private final char quote;
+    private final Character escape;
+    private final String valueOfNull;
+    private final Object[] lineValues;
+    private final IntFunction<Object> fieldValueGetter = this::getFieldValue;
+    private final IntFunction<Object> lineValueGetter = this::getLineValue;
+
+    private List<OneField> fields;
+    private boolean insideQuotes;
+    private boolean continuedLine;
+    private long rowsFiltered;
+
+    RowFilter(FilterEvaluator evaluator, RequestContext context) {
+        this.evaluator = evaluator;
+        this.columnDescriptors = context.getTupleDescription();
+        this.textOutput = context.getOutputFormat() == OutputFormat.TEXT;
+        this.dataEncoding = context.getDataEncoding() != null ? context.getDataEncoding() : StandardCharsets.UTF_8;
+        GreenplumCSV greenplumCSV = context.getGreenplumCSV();
+        // the values of a line are only known with the format options of the table
+        this.delimiter = greenplumCSV.isDelimiterSpecified() && greenplumCSV.isValueOfNullSpecified()
+                ? greenplumCSV.getDelimiter()
+                : null;
+        this.quote = greenplumCSV.getQuote();
+        this.escape = greenplumCSV.getEscape();
+        this.valueOfNull = greenplumCSV.getValueOfNull();
+        this.lineValues = new Object[columnDescriptors.size()];
+    }
+
+    /**
+     * Returns the row filter for the filter of the request, or null if the
+     * request has no filter, the filter can not reject any row, or the row
+     * filter is disabled for the server
+     *
+     * @param context the request context
+     * @return the row filter, or null
+     */
+    static RowFilter forContext(RequestContext context) {
+        if (!context.hasFilter()) {
+            return null;
+        }
+        Configuration configuration = context.getConfiguration();
+        if (configuration != null && !configuration.getBoolean(PXF_RESIDUAL_FILTER_ENABLED, PXF_RESIDUAL_FILTER_DEFAULT)) {
+            return null;
+        }
+        try {
+            Node root = new FilterParser().parse(context.getFilterString());
+            FilterEvaluator evaluator = new FilterEvaluator(root, context.getTupleDescription());
+            if (!evaluator.canReject()) {
+                LOG.debug("Filter {} can not be evaluated by PXF", context.getFilterString());
+                return null;
+            }
+            return new RowFilter(evaluator, context);
+        } catch (Exception e) {
+            // Greenplum evaluates the filter in any case
+            LOG.debug("Unable to parse filter {}, rows will not be filtered", context.getFilterString(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the row may match the filter and has to be sent
+     *
+     * @param fields the resolved fields of the row
+     * @return false if the row does not match the filter, true otherwise
+     */
+    boolean test(List<OneField> fields) {
+        IntFunction<Object> row = null;
+        if (textOutput && fields.size() == 1
+                && (fields.get(0).val instanceof Text || fields.get(0).val instanceof String)) {
+            if (splitLine(fields.get(0).val)) {
+                row = lineValueGetter;
+            }
+        } else if (fields.size() == columnDescriptors.size()) {
+            this.fields = fields;
+            row = fieldValueGetter;
+        }
+        if (row == null || evaluator.evaluate(row) != FilterEvaluator.Result.FALSE) {
+            return true;
+        }
+        rowsFiltered++;
+        return false;
+    }
+
+    /**
+     * Returns the number of rows that did not match the filter
+     *
+     * @return the number of rows filtered
+     */
+    long getRowsFiltered() {
+        return rowsFiltered;
+    }
+
+    private Object getFieldValue(int index) {
+        // the resolvers do not read the values of the columns that are not projected
+        return columnDescriptors.get(index).isProjected() ? fields.get(index).val : FilterEvaluator.UNKNOWN_VALUE;
+    }
+
+    private Object getLineValue(int index) {
+        return lineValues[index];
+    }
+
+    /**
+     * Splits the line into the values of the columns the way Greenplum does
+     *
+     * @param value the line, as a {@link Text} or a {@link String}
+     * @return true if the values of the line are known, false otherwise
+     */
+    private boolean splitLine(Object value) {
+        if (delimiter == null) {
+            return false;
+        }
+        String line;
+        if (value instanceof Text) {
+            Text text = (Text) value;
+            line = new String(text.getBytes(), 0, text.getLength(), dataEncoding);
+        } else {
+            line = (String) value;
+        }
+
+        boolean continuation = insideQuotes || continuedLine;
+        if (!isPlain(line)) {
+            trackRecordBoundary(line);
+            return false;
+        }
+        continuedLine = false;
+        if (continuation) {
+            // the end of a record that started on a previous line
+            return false;
+        }
+
+        int column = 0;
+        int start = 0;
+        while (column < lineValues.length) {
+            int end = line.indexOf(delimiter, start);
+            String field = line.substring(start, end == -1 ? line.length() : end);
+            if (field.isEmpty()) {
+                // an empty value is null in CSV and an empty string in text
+                lineValues[column] = FilterEvaluator.UNKNOWN_VALUE;
+            } else if (field.equals(valueOfNull)) {
+                lineValues[column] = null;
+            } else {
+                lineValues[column] = field;
+            }
+            column++;
+            if (end == -1) {
+                // the line has as many values as the table has columns
+                return column == lineValues.length;
+            }
+            start = end + 1;
+        }
+        // the line has more values than the table has columns
+        return false;
+    }
+
+    private boolean isPlain(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == quote || c == '\\' || c == '\n' || c == '\r' || (escape != null && c == escape)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tracks whether the record of the line continues on the next line, either
+     * in a quoted CSV value or after a backslash at the end of a text line
+     *
+     * @param line the line
+     */
+    private void trackRecordBoundary(String line) {
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (insideQuotes && escape != null && c == escape && escape != quote && i + 1 < length) {
+                i++;
+            } else if (c == quote) {
+                insideQuotes = !insideQuotes;
+            }
+        }
+        int backslashes = 0;
+        while (backslashes < length && line.charAt(length - 1 - backslashes) == '\\') {
+            backslashes++;
+        }
+        continuedLine = !insideQuotes && backslashes % 2 == 1;
+    }
+}
@@ -3,8 +3,11 @@ package org.greenplum.pxf.service.bridge;
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.OneRow;
 import org.greenplum.pxf.api.error.BadRecordException;
+import org.greenplum.pxf.api.model.ColumnarBatch;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.WriteColumnarResolver;
 import org.greenplum.pxf.api.model.WriteVectorizedResolver;
+import org.greenplum.pxf.service.serde.BatchRecordReader;
 import org.greenplum.pxf.service.serde.RecordReaderFactory;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
@@ -15,10 +18,13 @@ import java.util.List;
 
 /**
  * A WriteBridge that reads multiple records from the InputStream into a batch and then uses a vectorized resolver and
- * accessor to write it to the remote system.
+ * accessor to write it to the remote system. When both the record reader and the resolver support it, the records of
+ * a batch are decoded into reusable column buffers instead of a list of OneFields per record.
  */
 public class WriteVectorizedBridge extends WriteBridge {
 
+    private final List<List<OneField>> batch = new ArrayList<>();
+
     /**
      * Creates a new instance of the bridge.
      * @param pluginFactory plugin factory
@@ -41,20 +47,30 @@ public class WriteVectorizedBridge extends WriteBridge {
         WriteVectorizedResolver vectorizedResolver = getVectorizedResolver();
         int batchSize = vectorizedResolver.getBatchSize();
 
-        // TODO: should we re-use / reset a list ? what if the batch size ends up being different between iterations ?
-        List<List<OneField>> batch = new ArrayList<>(batchSize);
-        int recordCount = 0;
-        while (recordCount < batchSize) {
-            List<OneField> record = recordReader.readRecord(inputStream);
-            if (record == null) {
-                break; // no more records to read
+        int recordCount;
+        OneRow resolvedBatch;
+        if (vectorizedResolver instanceof WriteColumnarResolver && recordReader instanceof BatchRecordReader) {
+            // decode the records straight into the columns of the batch
+            ColumnarBatch columnarBatch = ((BatchRecordReader) recordReader).readBatch(inputStream, batchSize);
+            recordCount = columnarBatch == null ? 0 : columnarBatch.getSize();
+            resolvedBatch = columnarBatch == null ? null :
+                    ((WriteColumnarResolver) vectorizedResolver).setColumnsForBatch(columnarBatch);
+        } else {
+            // the list is re-used between batches, the resolver is done with the records of the previous batch
+            batch.clear();
+            recordCount = 0;
+            while (recordCount < batchSize) {
+                List<OneField> record = recordReader.readRecord(inputStream);
+                if (record == null) {
+                    break; // no more records to read
+                }
+                batch.add(record); // add record to the batch
+                recordCount++;
             }
-            batch.add(record); // add record to the batch
-            recordCount++;
-        }
 
-        // resolve the whole batch
-        OneRow resolvedBatch = vectorizedResolver.setFieldsForBatch(batch);
+            // resolve the whole batch
+            resolvedBatch = vectorizedResolver.setFieldsForBatch(batch);
+        }
         if (resolvedBatch == null) {
             return false; // this will terminate further reading, might happen if the batch is empty
         }
@@ -3,10 +3,14 @@ package org.greenplum.pxf.service.controller;
 import com.google.common.io.CountingOutputStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.ConfigurationFactory;
 import org.greenplum.pxf.api.model.Fragment;
 import org.greenplum.pxf.api.model.PluginConf;
+import org.greenplum.pxf.api.model.PruningStats;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.Utilities;
 import org.greenplum.pxf.service.FragmenterService;
@@ -14,26 +18,50 @@ import org.greenplum.pxf.service.MetricsReporter;
 import org.greenplum.pxf.service.bridge.Bridge;
 import org.greenplum.pxf.service.bridge.BridgeFactory;
 import org.greenplum.pxf.service.security.SecurityService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
 import java.io.DataOutputStream;
 import java.io.OutputStream;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.security.PrivilegedExceptionAction;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
+import static org.greenplum.pxf.service.spring.PxfConfiguration.PXF_FRAGMENT_PREFETCH_TASK_EXECUTOR;
+
 /**
  * Implementation of the ReadService.
  */
 @Service
 @Slf4j
 public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements ReadService {
-    private final Map<RequestIdentifier, Bridge> readExecutionMap = new ConcurrentHashMap<>();
+    /**
+     * How long the teardown of a request waits for a fragment being opened ahead of time
+     */
+    private static final Duration PREFETCH_DISCARD_TIMEOUT = Duration.ofSeconds(30);
+
+    // a request has several bridges when its fragments are opened ahead of time
+    private final Map<RequestIdentifier, Set<Bridge>> readExecutionMap = new ConcurrentHashMap<>();
 
     private final FragmenterService fragmenterService;
+    private final AsyncTaskExecutor prefetchExecutor;
+    private final int prefetchDepth;
 
     /**
      * Creates a new instance.
@@ -43,14 +71,20 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
      * @param securityService      security service
      * @param fragmenterService    fragmenter service
      * @param metricsReporter      metrics reporter service
+     * @param prefetchExecutor     executor that opens fragments ahead of time
+     * @param pxfServerProperties  PXF server properties
      */
     public ReadServiceImpl(ConfigurationFactory configurationFactory,
                            BridgeFactory bridgeFactory,
                            SecurityService securityService,
                            FragmenterService fragmenterService,
-                           MetricsReporter metricsReporter) {
+                           MetricsReporter metricsReporter,
+                           @Qualifier(PXF_FRAGMENT_PREFETCH_TASK_EXECUTOR) AsyncTaskExecutor prefetchExecutor,
+                           PxfServerProperties pxfServerProperties) {
         super("Read", configurationFactory, bridgeFactory, securityService, metricsReporter);
         this.fragmenterService = fragmenterService;
+        this.prefetchExecutor = prefetchExecutor;
+        this.prefetchDepth = Math.max(0, pxfServerProperties.getFragmentPrefetch().getDepth());
     }
 
     @Override
@@ -64,16 +98,16 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
     @Override
     public boolean cancelRead(RequestContext context) {
         RequestIdentifier requestIdentifier = new RequestIdentifier(context);
-        Bridge bridge = readExecutionMap.remove(requestIdentifier);
-        return cancelExecution(requestIdentifier, bridge);
+        Set<Bridge> bridges = readExecutionMap.remove(requestIdentifier);
+        return cancelExecution(requestIdentifier, bridges);
     }
 
     @Override
     public void cancelReadExecutions(String profile, String server) {
         Predicate<RequestIdentifier> identifierFilter = getIdentifierFilter(profile, server);
-        readExecutionMap.forEach((requestIdentifier, bridge) -> {
+        readExecutionMap.forEach((requestIdentifier, bridges) -> {
             if (identifierFilter.test(requestIdentifier)) {
-                cancelExecution(requestIdentifier, bridge);
+                cancelExecution(requestIdentifier, bridges);
             }
         });
     }
@@ -108,6 +142,17 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
         String sourceName = null;
         try {
             List<Fragment> fragments = fragmenterService.getFragmentsForSegment(context);
+            if (prefetchDepth > 0 && fragments.size() > 1) {
+                // open the next fragments ahead of time, while the current one is being streamed
+                try (FragmentPrefetcher prefetcher = new FragmentPrefetcher(context, fragments)) {
+                    PrefetchedFragment fragment;
+                    while ((fragment = prefetcher.next()) != null) {
+                        sourceName = fragment.context.getDataSource();
+                        streamFragment(countingOutputStream, fragment.context, queryStats, fragment::open);
+                    }
+                }
+                return queryResult;
+            }
             for (int i = 0; i < fragments.size(); i++) {
                 Fragment fragment = fragments.get(i);
                 sourceName = fragment.getSourceName();
@@ -154,27 +199,33 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
 
     private void registerExecution(RequestContext context, Bridge readBridge) {
         RequestIdentifier requestIdentifier = new RequestIdentifier(context);
-        readExecutionMap.put(requestIdentifier, readBridge);
+        readExecutionMap.computeIfAbsent(requestIdentifier, k -> ConcurrentHashMap.newKeySet()).add(readBridge);
     }
 
-    private void removeExecution(RequestContext context) {
+    private void removeExecution(RequestContext context, Bridge readBridge) {
         RequestIdentifier requestIdentifier = new RequestIdentifier(context);
-        readExecutionMap.remove(requestIdentifier);
+        readExecutionMap.computeIfPresent(requestIdentifier, (k, bridges) -> {
+            bridges.remove(readBridge);
+            return bridges.isEmpty() ? null : bridges;
+        });
     }
 
-    private boolean cancelExecution(RequestIdentifier requestIdentifier, Bridge bridge) {
-        if (bridge == null) {
+    private boolean cancelExecution(RequestIdentifier requestIdentifier, Set<Bridge> bridges) {
+        if (bridges == null || bridges.isEmpty()) {
             log.debug("Couldn't cancel read request, request {} not found", requestIdentifier);
             return false;
         }
-        try {
-            log.debug("Cancelling read request {}", requestIdentifier);
-            bridge.cancelIteration();
-        } catch (Exception e) {
-            log.warn("Ignoring error encountered during bridge.cancelIteration()", e);
-            return false;
+        log.debug("Cancelling read request {}", requestIdentifier);
+        boolean cancelled = true;
+        for (Bridge bridge : bridges) {
+            try {
+                bridge.cancelIteration();
+            } catch (Exception e) {
+                log.warn("Ignoring error encountered during bridge.cancelIteration()", e);
+                cancelled = false;
+            }
         }
-        return true;
+        return cancelled;
     }
 
     /**
@@ -188,6 +239,31 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
     private void processFragment(CountingOutputStream countingOutputStream,
                                  RequestContext context,
                                  OperationStats queryStats) throws Exception {
+        streamFragment(countingOutputStream, context, queryStats, () -> {
+            Bridge bridge = getBridge(context);
+            registerExecution(context, bridge);
+            try {
+                return openFragment(bridge);
+            } catch (Exception e) {
+                removeExecution(context, bridge);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Streams the records of a single fragment identified in the RequestContext and updates query statistics.
+     *
+     * @param countingOutputStream output stream to write data to
+     * @param context              request context of the fragment
+     * @param queryStats           query statistics
+     * @param opener               provides the bridge of the fragment with the iteration started
+     * @throws Exception if operation fails
+     */
+    private void streamFragment(CountingOutputStream countingOutputStream,
+                                RequestContext context,
+                                OperationStats queryStats,
+                                Callable<OpenedFragment> opener) throws Exception {
         Writable record;
         DataOutputStream dos = new DataOutputStream(countingOutputStream);
 
@@ -197,9 +273,9 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
         Instant startTime = Instant.now();
         Bridge bridge = null;
         try {
-            bridge = getBridge(context);
-            registerExecution(context, bridge);
-            if (!bridge.beginIteration()) {
+            OpenedFragment fragment = opener.call();
+            bridge = fragment.bridge;
+            if (!fragment.iterating) {
                 log.debug("Skipping streaming fragment {} of resource {}",
                         context.getFragmentIndex(), context.getDataSource());
             } else {
@@ -214,13 +290,9 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
             success = true;
         } finally {
             if (bridge != null) {
-                try {
-                    bridge.endIteration();
-                } catch (Exception e) {
-                    log.warn("Ignoring error encountered during bridge.endIteration()", e);
-                }
+                endIteration(bridge);
+                removeExecution(context, bridge);
             }
-            removeExecution(context);
             Duration duration = Duration.between(startTime, Instant.now());
 
             // fragment's current byte count is relative to the previous stream's byte count
@@ -236,6 +308,55 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
             log.debug("Finished processing fragment {} of resource {} in {} ms, wrote {} records and {} bytes.",
                     context.getFragmentIndex(), context.getDataSource(), duration.toMillis(), fragmentStats.getRecordCount(), fragmentStats.getByteCount());
             metricsReporter.reportTimer(MetricsReporter.PxfMetric.FRAGMENTS_SENT, duration, context, success);
+            if (bridge != null) {
+                reportPruningStats(bridge, context);
+            }
+        }
+    }
+
+    /**
+     * Reports the blocks and pages of the fragment that the accessor read and
+     * skipped, and the rows that were not sent, because of the filter, if the
+     * bridge reports them.
+     *
+     * @param bridge  the bridge of the fragment
+     * @param context the context of the fragment
+     */
+    private void reportPruningStats(Bridge bridge, RequestContext context) {
+        PruningStats pruningStats = bridge.getPruningStats();
+        if (pruningStats == null) {
+            return;
+        }
+        log.debug("Fragment {} of resource {} read {} blocks, skipped {} blocks and {} pages, filtered {} rows",
+                context.getFragmentIndex(), context.getDataSource(), pruningStats.getBlocksRead(),
+                pruningStats.getBlocksSkipped(), pruningStats.getPagesSkipped(), pruningStats.getRowsFiltered());
+        metricsReporter.reportCounter(MetricsReporter.PxfMetric.BLOCKS_READ, pruningStats.getBlocksRead(), context);
+        metricsReporter.reportCounter(MetricsReporter.PxfMetric.BLOCKS_SKIPPED, pruningStats.getBlocksSkipped(), context);
+        metricsReporter.reportCounter(MetricsReporter.PxfMetric.PAGES_SKIPPED, pruningStats.getPagesSkipped(), context);
+        metricsReporter.reportCounter(MetricsReporter.PxfMetric.ROWS_FILTERED, pruningStats.getRowsFiltered(), context);
+    }
+
+    /**
+     * Begins the iteration of the given bridge. The iteration is ended if it fails to begin.
+     *
+     * @param bridge the bridge of the fragment
+     * @return the opened fragment
+     * @throws Exception if the iteration fails to begin
+     */
+    private OpenedFragment openFragment(Bridge bridge) throws Exception {
+        try {
+            return new OpenedFragment(bridge, bridge.beginIteration());
+        } catch (Exception e) {
+            endIteration(bridge);
+            throw e;
+        }
+    }
+
+    private void endIteration(Bridge bridge) {
+        try {
+            bridge.endIteration();
+        } catch (Exception e) {
+            log.warn("Ignoring error encountered during bridge.endIteration()", e);
         }
     }
 
@@ -259,4 +380,203 @@ public class ReadServiceImpl extends BaseServiceImpl<OperationStats> implements
             context.setProfileScheme(profileProtocol);
         }
     }
+
+    /**
+     * Builds the request context for the given fragment. Each fragment gets
+     * its own copy of the request context, so that the fragment can be opened
+     * while the previous fragments are still being streamed.
+     *
+     * @param context  request context
+     * @param fragment the fragment
+     * @return a copy of the request context for the fragment
+     */
+    private RequestContext getFragmentContext(RequestContext context, Fragment fragment) {
+        RequestContext fragmentContext = context.copy();
+        // the fragments are opened concurrently, and accessors may modify their configuration
+        if (context.getConfiguration() != null) {
+            fragmentContext.setConfiguration(new Configuration(context.getConfiguration()));
+        }
+        String profile = fragment.getProfile();
+        if (StringUtils.isNotBlank(profile) &&
+                !StringUtils.equalsIgnoreCase(profile, context.getProfile())) {
+            log.debug("Fragment {} of resource {} will be using profile: {}",
+                    fragment.getIndex(), fragment.getSourceName(), profile);
+            updateProfile(fragmentContext, profile);
+        }
+        fragmentContext.setDataSource(fragment.getSourceName());
+        fragmentContext.setFragmentIndex(fragment.getIndex());
+        fragmentContext.setFragmentMetadata(fragment.getMetadata());
+        return fragmentContext;
+    }
+
+    /**
+     * A fragment whose bridge has been created and whose iteration has begun.
+     */
+    private static class OpenedFragment {
+        private final Bridge bridge;
+        private final boolean iterating;
+
+        private OpenedFragment(Bridge bridge, boolean iterating) {
+            this.bridge = bridge;
+            this.iterating = iterating;
+        }
+    }
+
+    /**
+     * Keeps the fragments following the one being streamed opened ahead of
+     * time, up to the configured prefetch depth. Fragments are returned in
+     * their original order. A fragment is opened by the prefetch executor
+     * with the identity of the request, or by the streaming thread if the
+     * executor did not get to it in time or rejected it.
+     */
+    private class FragmentPrefetcher implements AutoCloseable {
+        private final RequestContext context;
+        private final List<Fragment> fragments;
+        private final UserGroupInformation userGroupInformation;
+        private final Deque<PrefetchedFragment> pipeline = new ArrayDeque<>();
+        private int nextFragment;
+
+        private FragmentPrefetcher(RequestContext context, List<Fragment> fragments) throws Exception {
+            this.context = context;
+            this.fragments = fragments;
+            // the identity of the request, set up by the security service for the streaming thread
+            this.userGroupInformation = UserGroupInformation.getCurrentUser();
+        }
+
+        /**
+         * Returns the next fragment to stream and schedules the fragments
+         * that follow it to be opened ahead of time.
+         *
+         * @return the next fragment, or null if all fragments have been returned
+         */
+        private PrefetchedFragment next() {
+            // the returned fragment plus prefetchDepth fragments following it
+            while (nextFragment < fragments.size() && pipeline.size() <= prefetchDepth) {
+                pipeline.add(schedule(getFragmentContext(context, fragments.get(nextFragment))));
+                // release the fragment reference as soon as possible, as we
+                // might have hundreds of thousands of fragments
+                fragments.set(nextFragment++, null);
+            }
+            return pipeline.poll();
+        }
+
+        private PrefetchedFragment schedule(RequestContext fragmentContext) {
+            PrefetchedFragment fragment = new PrefetchedFragment(fragmentContext);
+            Callable<OpenedFragment> task = () -> userGroupInformation.doAs(
+                    (PrivilegedExceptionAction<OpenedFragment>) fragment::openAhead);
+            try {
+                fragment.future = prefetchExecutor.submit(task);
+                log.debug("Scheduled fragment {} of resource {} to be opened ahead of time",
+                        fragmentContext.getFragmentIndex(), fragmentContext.getDataSource());
+            } catch (TaskRejectedException e) {
+                log.debug("Fragment {} of resource {} will not be opened ahead of time, prefetch capacity exceeded",
+                        fragmentContext.getFragmentIndex(), fragmentContext.getDataSource());
+            }
+            return fragment;
+        }
+
+        /**
+         * Ends the iteration of all the fragments that have been opened
+         * ahead of time, but not streamed.
+         */
+        @Override
+        public void close() {
+            PrefetchedFragment fragment;
+            while ((fragment = pipeline.poll()) != null) {
+                fragment.discard();
+            }
+        }
+    }
+
+    /**
+     * A fragment scheduled to be opened ahead of time. The bridge of the
+     * fragment is registered as soon as it is opened, so that the request
+     * can be cancelled before the fragment is streamed.
+     */
+    private class PrefetchedFragment {
+        private final RequestContext context;
+        // set by whichever of the opening task and an abandoning discard() gets there first
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private Future<OpenedFragment> future;
+
+        private PrefetchedFragment(RequestContext context) {
+            this.context = context;
+        }
+
+        /**
+         * Opens the fragment in the prefetch executor, the fragment is ended
+         * right away if a discard gave up waiting for it.
+         *
+         * @return the opened fragment
+         * @throws Exception if the fragment fails to open
+         */
+        private OpenedFragment openAhead() throws Exception {
+            OpenedFragment fragment = openFragment(getBridge(context));
+            registerExecution(context, fragment.bridge);
+            if (!settled.compareAndSet(false, true)) {
+                endIteration(fragment.bridge);
+                removeExecution(context, fragment.bridge);
+            }
+            return fragment;
+        }
+
+        /**
+         * Waits for the fragment to be opened, opens the fragment in the
+         * current thread if the executor has not started to open it yet.
+         *
+         * @return the opened fragment
+         * @throws Exception if the fragment fails to open
+         */
+        private OpenedFragment open() throws Exception {
+            OpenedFragment fragment;
+            if (future == null || future.cancel(false)) {
+                fragment = openFragment(getBridge(context));
+                registerExecution(context, fragment.bridge);
+            } else {
+                try {
+                    fragment = future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() instanceof UndeclaredThrowableException ? e.getCause().getCause() : e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw e;
+                }
+            }
+            return fragment;
+        }
+
+        /**
+         * Ends the iteration of the fragment if it has been opened. If the
+         * fragment is still being opened after the timeout, the opening is
+         * interrupted and the fragment is ended once it is opened.
+         */
+        private void discard() {
+            if (future == null || future.cancel(false)) {
+                return;
+            }
+            try {
+                OpenedFragment fragment;
+                try {
+                    fragment = future.get(PREFETCH_DISCARD_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (settled.compareAndSet(false, true)) {
+                        log.warn("Fragment {} of resource {} was not opened ahead of time within {} ms, interrupting it",
+                                context.getFragmentIndex(), context.getDataSource(), PREFETCH_DISCARD_TIMEOUT.toMillis());
+                        future.cancel(true);
+                        return;
+                    }
+                    // the fragment has just been opened, its result is about to be set
+                    fragment = future.get();
+                }
+                endIteration(fragment.bridge);
+                removeExecution(context, fragment.bridge);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.debug("Ignoring error encountered while opening fragment {} of resource {} ahead of time",
+                        context.getFragmentIndex(), context.getDataSource(), e.getCause());
+            }
+        }
+    }
 }
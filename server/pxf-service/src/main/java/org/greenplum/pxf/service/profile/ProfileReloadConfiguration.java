@@ -51,8 +51,14 @@ public class ProfileReloadConfiguration {
                                            BasePluginFactory basePluginFactory) {
         try {
             Map<String, String> pluginMap = profileConf.getPlugins(profile);
-            return Optional.ofNullable(pluginMap)
+            Optional<Reloader> reloader = Optional.ofNullable(pluginMap)
                     .map(plugins -> getReloaderInstance(plugins.get(ACCESSOR_KEY), basePluginFactory, profile));
+            if (reloader.isPresent()) {
+                return reloader;
+            }
+            // the protocol handler replaces the accessor of the profile for some requests, it reloads their resources
+            return Optional.ofNullable(profileConf.getHandler(profile))
+                    .map(handler -> getHandlerReloaderInstance(handler, profile));
         } catch (Exception e) {
             log.warn("Profile '{}': Failed to get plugin map", profile);
         }
@@ -74,4 +80,20 @@ public class ProfileReloadConfiguration {
         }
         return null;
     }
+
+    private Reloader getHandlerReloaderInstance(String handlerClassName, String profile) {
+        try {
+            Class<?> handlerClass = Class.forName(handlerClassName);
+            if (Reloader.class.isAssignableFrom(handlerClass)) {
+                log.debug("Profile '{}': Initialize instance of the protocol handler class {}", profile, handlerClassName);
+                return (Reloader) handlerClass.getDeclaredConstructor().newInstance();
+            } else {
+                log.debug("Profile '{}': Protocol handler class {} doesn't implement Reloader interface", profile, handlerClassName);
+            }
+        } catch (Exception e) {
+            log.warn("Profile '{}': Failed to initialize instance of the protocol handler class {}. {}",
+                    profile, handlerClassName, e.getMessage());
+        }
+        return null;
+    }
 }
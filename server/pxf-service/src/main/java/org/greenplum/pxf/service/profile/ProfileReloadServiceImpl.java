@@ -22,6 +22,7 @@ package org.greenplum.pxf.service.profile;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
+import org.greenplum.pxf.api.model.ConfigurationFactory;
 import org.greenplum.pxf.api.model.Reloader;
 import org.greenplum.pxf.service.controller.ReadService;
 import org.greenplum.pxf.service.controller.WriteService;
@@ -38,13 +39,16 @@ import java.util.function.Predicate;
 public class ProfileReloadServiceImpl implements ProfileReloadService {
     private final ReadService readService;
     private final WriteService writeService;
+    private final ConfigurationFactory configurationFactory;
     private final Map<String, Reloader> profileReloaderMap;
 
     public ProfileReloadServiceImpl(ReadService readService,
                                     WriteService writeService,
+                                    ConfigurationFactory configurationFactory,
                                     @Lazy Map<String, Reloader> profileReloaderMap) {
         this.readService = readService;
         this.writeService = writeService;
+        this.configurationFactory = configurationFactory;
         this.profileReloaderMap = profileReloaderMap;
     }
 
@@ -66,6 +70,13 @@ public class ProfileReloadServiceImpl implements ProfileReloadService {
     }
 
     private void reloadAll(String profile) {
+        if (StringUtils.isNotBlank(profile) && !profileReloaderMap.containsKey(profile)) {
+            String message = String.format(
+                    "Profile '%s' doesn't support reloading methods. Skipping reloading for all servers. " +
+                            "Profiles with supporting reloading methods: %s", profile, profileReloaderMap.keySet());
+            log.error(message);
+            throw new PxfRuntimeException(message);
+        }
         Predicate<String> profilePredicate = key -> (StringUtils.isBlank(profile) || key.equals(profile));
         profileReloaderMap.forEach((profileName, reloader) -> {
             if (profilePredicate.test(profileName)) {
@@ -73,14 +84,10 @@ public class ProfileReloadServiceImpl implements ProfileReloadService {
                 log.info("Canceled running queries with profile '{}' for all servers", profileName);
                 reloader.reloadAll();
                 log.info("Reloaded profile '{}' for all servers with reloader {}", profileName, reloader);
-            } else {
-                String message = String.format(
-                        "Profile '%s' doesn't support reloading methods. Skipping reloading for all servers. " +
-                                "Profiles with supporting reloading methods: %s", profile, profileReloaderMap.keySet());
-                log.error(message);
-                throw new PxfRuntimeException(message);
             }
         });
+        // the configurations of all the servers are read again once, whatever the reloaded profiles
+        configurationFactory.invalidateConfiguration(null);
     }
 
     private void reload(String profile, String server) {
@@ -89,6 +96,7 @@ public class ProfileReloadServiceImpl implements ProfileReloadService {
             cancelQueryExecutions(profile, server);
             log.info("Canceled running queries with profile '{}' and server '{}'", profile, server);
             reloader.reload(server);
+            configurationFactory.invalidateConfiguration(server);
             log.info("Reloaded profile '{}' for server '{}' with reloader {}", profile, server, reloader);
         } else {
             String message = String.format(
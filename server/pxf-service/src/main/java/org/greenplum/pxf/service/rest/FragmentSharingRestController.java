@@ -0,0 +1,45 @@
+package org.greenplum.pxf.service.rest;
+
+import lombok.RequiredArgsConstructor;
+import org.greenplum.pxf.service.FragmentSharingService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * PXF REST endpoint used by the PXF servers of the cluster to fetch the list
+ * of fragments computed by the server that owns a fragmenter cache key. Only
+ * the configured fragment sharing hosts are allowed to call it, see
+ * {@link org.greenplum.pxf.service.security.SecurityConfig}.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/pxf")
+public class FragmentSharingRestController {
+    private final FragmentSharingService fragmentSharingService;
+
+    /**
+     * Returns the serialized list of fragments for the given key, not found
+     * if this server did not register the key yet, or no content if the
+     * fragments are not available within the given time.
+     *
+     * @param key     the fragmenter cache key
+     * @param timeout the time in milliseconds the client waits for the fragments
+     * @return the response with the serialized list of fragments
+     */
+    @GetMapping(value = "/fragments", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getFragments(@RequestParam("key") String key,
+                                               @RequestParam(value = "timeout", defaultValue = "0") long timeout) {
+        if (!fragmentSharingService.isRegistered(key)) {
+            return ResponseEntity.notFound().build();
+        }
+        return fragmentSharingService.getSerializedFragments(key, Duration.ofMillis(timeout))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+}
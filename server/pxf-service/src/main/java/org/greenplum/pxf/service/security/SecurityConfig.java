@@ -20,6 +20,7 @@ package org.greenplum.pxf.service.security;
  */
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.greenplum.pxf.service.FragmentSharingService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authorization.AuthorizationDecision;
@@ -38,11 +39,12 @@ public class SecurityConfig {
     private static final String LOCALHOST_IP_ADDRESS = "127.0.0.1";
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, FragmentSharingService fragmentSharingService) throws Exception {
 
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth.requestMatchers("/pxf/reload").access(hasIpAddress(LOCALHOST_IP_ADDRESS))
+                        .requestMatchers(FragmentSharingService.FRAGMENTS_PATH).access(isFragmentSharingHost(fragmentSharingService))
                         .requestMatchers("/**").permitAll())
                 ;
         return http.build();
@@ -55,4 +57,9 @@ public class SecurityConfig {
             return new AuthorizationDecision(ipAddressMatcher.matches(request));
         };
     }
+
+    private static AuthorizationManager<RequestAuthorizationContext> isFragmentSharingHost(FragmentSharingService fragmentSharingService) {
+        return (authentication, context) ->
+                new AuthorizationDecision(fragmentSharingService.isSharingHost(context.getRequest().getRemoteAddr()));
+    }
 }
@@ -0,0 +1,23 @@
+package org.greenplum.pxf.service.serde;
+
+import org.greenplum.pxf.api.model.ColumnarBatch;
+
+import java.io.DataInput;
+
+/**
+ * A RecordReader that can also deserialize a batch of database tuples at once into reusable column buffers, for
+ * downstream consumption by resolvers that implement {@link org.greenplum.pxf.api.model.WriteColumnarResolver}.
+ */
+public interface BatchRecordReader extends RecordReader {
+
+    /**
+     * Reads up to batchSize database tuples from the provided input stream received from GPDB and deserializes them
+     * into the columns of a batch. The batch and its columns are re-used between calls, the returned batch is only
+     * valid until the next call.
+     * @param input a data input stream
+     * @param batchSize the maximum number of tuples to read
+     * @return the batch of tuples, or null if there are no more tuples to read
+     * @throws Exception if the operation fails
+     */
+    ColumnarBatch readBatch(DataInput input, int batchSize) throws Exception;
+}
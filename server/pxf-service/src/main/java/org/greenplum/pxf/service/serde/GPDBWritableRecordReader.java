@@ -2,6 +2,8 @@ package org.greenplum.pxf.service.serde;
 
 import org.greenplum.pxf.api.OneField;
 import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableDecoder;
+import org.greenplum.pxf.api.model.ColumnarBatch;
 import org.greenplum.pxf.api.model.RequestContext;
 
 import java.io.DataInput;
@@ -10,8 +12,11 @@ import java.util.List;
 
 /**
  * Record reader that reads data from an input stream and deserializes database tuples encoded in GPDBWritable format.
+ * Batches of tuples are decoded straight into reusable column buffers.
  */
-public class GPDBWritableRecordReader extends BaseRecordReader {
+public class GPDBWritableRecordReader extends BaseRecordReader implements BatchRecordReader {
+
+    private GPDBWritableDecoder decoder;
 
     /**
      * Creates a new instance
@@ -44,4 +49,19 @@ public class GPDBWritableRecordReader extends BaseRecordReader {
         }
         return record;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ColumnarBatch readBatch(DataInput input, int batchSize) throws Exception {
+        if (decoder == null) {
+            decoder = new GPDBWritableDecoder(databaseEncoding);
+        }
+        ColumnarBatch batch = decoder.readBatch(input, batchSize);
+        if (batch == null) {
+            LOG.debug("Reached end of stream");
+        }
+        return batch;
+    }
 }
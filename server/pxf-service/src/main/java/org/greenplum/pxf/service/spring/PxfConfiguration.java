@@ -4,8 +4,10 @@ import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import io.micrometer.core.instrument.config.MeterFilter;
 import org.greenplum.pxf.api.configuration.PxfServerProperties;
+import org.greenplum.pxf.api.model.BaseConfigurationFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ListableBeanFactory;
@@ -39,6 +41,10 @@ public class PxfConfiguration implements WebMvcConfigurer {
      * Bean name of PXF's {@link TaskExecutor}.
      */
     public static final String PXF_RESPONSE_STREAM_TASK_EXECUTOR = "pxfResponseStreamTaskExecutor";
+    /**
+     * Bean name of PXF's {@link TaskExecutor} for opening fragments ahead of time.
+     */
+    public static final String PXF_FRAGMENT_PREFETCH_TASK_EXECUTOR = "pxfFragmentPrefetchTaskExecutor";
     public static final String PXF_EXECUTOR_METRIC_NAME_PREFIX = "pxf";
     public static final String ORIGINAL_EXECUTOR_METRIC_NAME_PREFIX = "executor";
     private static final Logger LOG = LoggerFactory.getLogger(PxfConfiguration.class);
@@ -110,6 +116,32 @@ public class PxfConfiguration implements WebMvcConfigurer {
         return builder.build(PxfThreadPoolTaskExecutor.class);
     }
 
+    /**
+     * Configures and builds the {@link ThreadPoolTaskExecutor} used by the
+     * read service to open the next fragments of a request while the current
+     * fragment is being streamed. The pool is bounded, the read service opens
+     * a fragment itself when a task is rejected.
+     *
+     * @return the {@link ThreadPoolTaskExecutor}
+     */
+    @Bean(name = PXF_FRAGMENT_PREFETCH_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor pxfFragmentPrefetchTaskExecutor(PxfServerProperties pxfServerProperties,
+                                                                  ObjectProvider<TaskDecorator> taskDecorator) {
+        PxfServerProperties.FragmentPrefetch prefetch = pxfServerProperties.getFragmentPrefetch();
+        ThreadPoolTaskExecutorBuilder builder = new ThreadPoolTaskExecutorBuilder()
+                .corePoolSize(prefetch.getPoolSize())
+                .maxPoolSize(prefetch.getPoolSize())
+                .queueCapacity(prefetch.getQueueCapacity())
+                .allowCoreThreadTimeOut(true)
+                .threadNamePrefix("pxf-prefetch-")
+                .taskDecorator(taskDecorator.getIfUnique());
+
+        LOG.debug("Initializing PXF fragment prefetch ThreadPoolTaskExecutor with depth={}, pool size={}, queue capacity={}",
+                prefetch.getDepth(), prefetch.getPoolSize(), prefetch.getQueueCapacity());
+
+        return builder.build();
+    }
+
     @Bean
     @ConditionalOnAvailableEndpoint(endpoint = MetricsEndpoint.class)
     public MeterFilter renameMetrics() {
@@ -132,4 +164,14 @@ public class PxfConfiguration implements WebMvcConfigurer {
                 .baseUnit("tasks")
                 .register(registry);
     }
+
+    /**
+     * Exposes the hit rate, size and load (parse) time of the cache of server
+     * configurations as cache.* metrics tagged with cache=configuration.
+     */
+    @Bean
+    public MeterBinder registerConfigurationCacheMetrics(ObjectProvider<BaseConfigurationFactory> configurationFactory) {
+        return (registry) -> configurationFactory.ifAvailable(factory ->
+                GuavaCacheMetrics.monitor(registry, factory.getConfigurationCache(), "configuration"));
+    }
 }
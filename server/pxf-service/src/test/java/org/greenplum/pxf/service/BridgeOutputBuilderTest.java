@@ -27,14 +27,19 @@ import org.greenplum.pxf.api.examples.DemoFragmentMetadata;
 import org.greenplum.pxf.api.io.BufferWritable;
 import org.greenplum.pxf.api.io.DataType;
 import org.greenplum.pxf.api.io.GPDBWritable;
+import org.greenplum.pxf.api.io.GPDBWritableEncoder;
 import org.greenplum.pxf.api.io.Text;
 import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.ColumnValues;
+import org.greenplum.pxf.api.model.ColumnarBatch;
 import org.greenplum.pxf.api.model.OutputFormat;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -44,6 +49,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -171,28 +177,27 @@ public class BridgeOutputBuilderTest {
                         + ",PXFERRMSG> test message\n";
     }
 
-    private void assertPrimitiveTypesInGPDBWritable(List<Writable> outputQueue) throws GPDBWritable.TypeMismatchException {
+    private void assertPrimitiveTypesInGPDBWritable(List<Writable> outputQueue) throws IOException {
         assertNotNull(outputQueue);
         assertEquals(1, outputQueue.size());
-        assertTrue(outputQueue.get(0) instanceof GPDBWritable);
-        output = (GPDBWritable) outputQueue.get(0);
+        output = toGPDBWritable(outputQueue.get(0));
 
         assertTrue(output.getBoolean(0));
         assertArrayEquals(new byte[]{0, 1}, output.getBytes(1));
         assertEquals(1L, output.getLong(2));
         assertEquals((short) 2, output.getShort(3));
         assertEquals(3, output.getInt(4));
-        assertEquals("text-value\0", output.getString(5));
+        assertEquals("text-value", output.getString(5));
         assertEquals(4.5f, output.getFloat(6));
         assertEquals(6.7d, output.getDouble(7));
-        assertEquals("char-value\0", output.getString(8));
-        assertEquals("varchar-value\0", output.getString(9));
-        assertEquals("1994-08-03\0", output.getString(10));
-        assertEquals("10:11:12\0", output.getString(11));
-        assertEquals("2022-06-10 11:44:33.123456\0", output.getString(12));
-        assertEquals("2022-06-10 11:44:55.123456\0", output.getString(13));
-        assertEquals("9876.54321\0", output.getString(14));
-        assertEquals("667b97ba-38d0-4b91-9c7d-1f8b30a75c6e\0", output.getString(15));
+        assertEquals("char-value", output.getString(8));
+        assertEquals("varchar-value", output.getString(9));
+        assertEquals("1994-08-03", output.getString(10));
+        assertEquals("10:11:12", output.getString(11));
+        assertEquals("2022-06-10 11:44:33.123456", output.getString(12));
+        assertEquals("2022-06-10 11:44:55.123456", output.getString(13));
+        assertEquals("9876.54321", output.getString(14));
+        assertEquals("667b97ba-38d0-4b91-9c7d-1f8b30a75c6e", output.getString(15));
     }
 
     private void assertPrimitiveTypesInText(List<Writable> outputQueue) throws IOException {
@@ -312,7 +317,7 @@ public class BridgeOutputBuilderTest {
         RequestContext context = new RequestContext();
         addColumn(context, 0, DataType.INTEGER, "col0");
         BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        builder.makeGPDBWritableEncoder().beginRecord();
 
         OneField unSupportedField = new OneField(UN_SUPPORTED_TYPE, (byte) 0);
 
@@ -332,7 +337,7 @@ public class BridgeOutputBuilderTest {
         addColumn(context, 3, DataType.INTEGER, "col3");
 
         BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        GPDBWritableEncoder encoder = builder.makeGPDBWritableEncoder();
 
         /* all four fields */
         List<OneField> complete = Arrays.asList(
@@ -341,6 +346,7 @@ public class BridgeOutputBuilderTest {
                         DataType.INTEGER.getOID(), 30), new OneField(
                         DataType.INTEGER.getOID(), 40));
         builder.fillGPDBWritable(complete);
+        output = toGPDBWritable(encoder.getRecord(0));
         assertEquals(output.getColType().length, 4);
         assertEquals(output.getInt(0), Integer.valueOf(10));
         assertEquals(output.getInt(1), Integer.valueOf(20));
@@ -355,6 +361,7 @@ public class BridgeOutputBuilderTest {
                 () -> builder.fillGPDBWritable(incomplete),
                 "testRecordBiggerThanSchema should have failed on - Record has 2 fields but the schema size is 4");
         assertEquals("Record has 2 fields but the schema size is 4", e.getMessage());
+        assertEquals(1, encoder.getRecordCount());
     }
 
     @Test
@@ -367,7 +374,7 @@ public class BridgeOutputBuilderTest {
         addColumn(context, 3, DataType.INTEGER, "col3");
 
         BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        GPDBWritableEncoder encoder = builder.makeGPDBWritableEncoder();
 
         /* five fields instead of four */
         List<OneField> complete = Arrays.asList(
@@ -447,7 +454,7 @@ public class BridgeOutputBuilderTest {
         addColumn(context, 3, DataType.INTEGER, "col3");
 
         BridgeOutputBuilder builder = makeBuilder(context);
-        output = builder.makeGPDBWritableOutput();
+        GPDBWritableEncoder encoder = builder.makeGPDBWritableEncoder();
 
         /* last field is REAL while schema requires INT */
         List<OneField> complete = Arrays.asList(
@@ -459,6 +466,122 @@ public class BridgeOutputBuilderTest {
                 () -> builder.fillGPDBWritable(complete),
                 "testFieldTypeMismatch should have failed on - For field 3 schema requires type INTEGER but input record has type REAL");
         assertEquals("For field col3 schema requires type INTEGER but input record has type REAL", e.getMessage());
+        // the partially serialized record is discarded
+        assertEquals(0, encoder.getRecordCount());
+    }
+
+    @Test
+    public void testMakeVectorizedOutputGPDBWritable() throws Exception {
+        RequestContext context = new RequestContext();
+        context.setOutputFormat(OutputFormat.GPDBWritable);
+        addColumn(context, 0, DataType.INTEGER, "col0");
+        addColumn(context, 1, DataType.TEXT, "col1");
+        BridgeOutputBuilder builder = makeBuilder(context);
+
+        List<List<OneField>> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(Arrays.asList(
+                    new OneField(DataType.INTEGER.getOID(), i),
+                    new OneField(DataType.TEXT.getOID(), i % 2 == 0 ? null : "value-" + i)));
+        }
+        List<Writable> outputQueue = builder.makeVectorizedOutput(batch);
+
+        assertEquals(100, outputQueue.size());
+        for (int i = 0; i < 100; i++) {
+            GPDBWritable record = toGPDBWritable(outputQueue.get(i));
+            assertEquals(i, record.getInt(0));
+            assertEquals(i % 2 == 0 ? null : "value-" + i, record.getString(1));
+        }
+
+        // the buffer is reused for the next batch
+        outputQueue = builder.makeVectorizedOutput(batch.subList(0, 2));
+        assertEquals(2, outputQueue.size());
+        assertEquals(1, toGPDBWritable(outputQueue.get(1)).getInt(0));
+    }
+
+    @Test
+    public void testMakeColumnarOutputMatchesVectorizedOutput() throws Exception {
+        for (OutputFormat format : new OutputFormat[]{OutputFormat.GPDBWritable, OutputFormat.TEXT}) {
+            RequestContext context = new RequestContext();
+            context.setOutputFormat(format);
+            context.setFormat("CSV");
+            DataType[] types = {DataType.INTEGER, DataType.BIGINT, DataType.SMALLINT, DataType.BOOLEAN, DataType.REAL,
+                    DataType.FLOAT8, DataType.BYTEA, DataType.TEXT, DataType.VARCHAR, DataType.NUMERIC, DataType.DATE,
+                    DataType.TIMESTAMP, DataType.INTEGER, DataType.TEXT};
+            for (int i = 0; i < types.length; i++) {
+                addColumn(context, i, types[i], "col" + i);
+            }
+
+            int size = 50;
+            ColumnValues[] columns = new ColumnValues[types.length];
+            Object[][] values = new Object[types.length][size];
+            for (int row = 0; row < size; row++) {
+                boolean isNull = row % 7 == 3;
+                values[0][row] = isNull ? null : row;
+                values[1][row] = row * 1000000000L;
+                values[2][row] = (short) -row;
+                values[3][row] = isNull ? null : row % 2 == 0;
+                values[4][row] = row / 3f;
+                values[5][row] = isNull ? null : row / 7d;
+                values[6][row] = isNull ? null : new byte[]{(byte) row, 0, -1};
+                values[7][row] = isNull ? null : "va\"lue, é 中文 " + row;
+                values[8][row] = "value-" + row;
+                values[9][row] = isNull ? null : row + ".25";
+                values[10][row] = new Date(row * 86400000L);
+                values[11][row] = new Timestamp(row * 1000L);
+                values[12][row] = 42; // repeating
+            }
+            for (int i = 0; i < types.length - 1; i++) {
+                columns[i] = new ArrayColumnValues(types[i], values[i], i == 12);
+            }
+            columns[13] = ColumnValues.nullValues(DataType.TEXT);
+
+            List<List<OneField>> batch = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                List<OneField> record = new ArrayList<>();
+                for (int i = 0; i < types.length; i++) {
+                    record.add(new OneField(types[i].getOID(), i == 13 ? null : values[i][i == 12 ? 0 : row]));
+                }
+                batch.add(record);
+            }
+            ColumnarBatch columnarBatch = new ColumnarBatch(columns);
+            columnarBatch.setSize(size);
+
+            byte[] expected = serialize(makeBuilder(context).makeVectorizedOutput(batch));
+            List<Writable> outputQueue = makeBuilder(context).makeColumnarOutput(columnarBatch);
+
+            assertEquals(size, outputQueue.size(), format.name());
+            assertArrayEquals(expected, serialize(outputQueue), format.name());
+        }
+    }
+
+    @Test
+    public void testMakeColumnarOutputSingleTextColumn() throws Exception {
+        RequestContext context = new RequestContext();
+        addColumn(context, 0, DataType.TEXT, "col0");
+        BridgeOutputBuilder builder = makeBuilder(context);
+
+        ColumnarBatch columnarBatch = new ColumnarBatch(new ColumnValues[]{
+                new ArrayColumnValues(DataType.TEXT, new Object[]{"a,b", null, "c"}, false)});
+        columnarBatch.setSize(3);
+        List<Writable> outputQueue = builder.makeColumnarOutput(columnarBatch);
+
+        // the value of a single column is the whole line
+        assertEquals("a,b\n\nc\n", new String(serialize(outputQueue), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testMakeColumnarOutputFieldTypeMismatch() {
+        RequestContext context = new RequestContext();
+        context.setOutputFormat(OutputFormat.GPDBWritable);
+        addColumn(context, 0, DataType.INTEGER, "col0");
+        BridgeOutputBuilder builder = makeBuilder(context);
+
+        ColumnarBatch columnarBatch = new ColumnarBatch(new ColumnValues[]{
+                new ArrayColumnValues(DataType.REAL, new Object[]{1f}, false)});
+        columnarBatch.setSize(1);
+        Exception e = assertThrows(BadRecordException.class, () -> builder.makeColumnarOutput(columnarBatch));
+        assertEquals("For field col0 schema requires type INTEGER but input record has type REAL", e.getMessage());
     }
 
     @Test
@@ -619,6 +742,7 @@ public class BridgeOutputBuilderTest {
     private BridgeOutputBuilder makeBuilder(RequestContext context) {
         System.setProperty("greenplum.alignment", "8");
 
+        context.setDatabaseEncoding(StandardCharsets.UTF_8);
         context.setSegmentId(-44);
         context.setTotalSegments(2);
         if (context.getOutputFormat() == null) {
@@ -636,6 +760,101 @@ public class BridgeOutputBuilderTest {
         return new BridgeOutputBuilder(context);
     }
 
+    private byte[] serialize(List<Writable> writables) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Writable writable : writables) {
+            writable.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private GPDBWritable toGPDBWritable(Writable writable) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writable.write(new DataOutputStream(bytes));
+        return new GPDBWritable(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Column values backed by an array of the values of the rows, the bytes
+     * of the BYTEA and TEXT values are returned at an offset in a larger
+     * array.
+     */
+    private static class ArrayColumnValues implements ColumnValues {
+
+        private static final int OFFSET = 2;
+
+        private final DataType dataType;
+        private final Object[] values;
+        private final boolean repeating;
+
+        ArrayColumnValues(DataType dataType, Object[] values, boolean repeating) {
+            this.dataType = dataType;
+            this.values = values;
+            this.repeating = repeating;
+        }
+
+        @Override
+        public DataType getDataType() {
+            return dataType;
+        }
+
+        @Override
+        public boolean isRepeating() {
+            return repeating;
+        }
+
+        @Override
+        public boolean noNulls() {
+            return Arrays.stream(values).allMatch(Objects::nonNull);
+        }
+
+        @Override
+        public boolean isNull(int row) {
+            return values[row] == null;
+        }
+
+        @Override
+        public long getLong(int row) {
+            return values[row] instanceof Boolean ? ((Boolean) values[row] ? 1 : 0) : ((Number) values[row]).longValue();
+        }
+
+        @Override
+        public double getDouble(int row) {
+            return ((Number) values[row]).doubleValue();
+        }
+
+        @Override
+        public boolean hasUtf8Bytes() {
+            return dataType == DataType.TEXT;
+        }
+
+        @Override
+        public byte[] getBytes(int row) {
+            byte[] value = values[row] instanceof String
+                    ? ((String) values[row]).getBytes(StandardCharsets.UTF_8)
+                    : (byte[]) values[row];
+            byte[] bytes = new byte[OFFSET + value.length + 1];
+            System.arraycopy(value, 0, bytes, OFFSET, value.length);
+            return bytes;
+        }
+
+        @Override
+        public int getStart(int row) {
+            return OFFSET;
+        }
+
+        @Override
+        public int getLength(int row) {
+            return getBytes(row).length - OFFSET - 1;
+        }
+
+        @Override
+        public Object getObject(int row) {
+            return values[row];
+        }
+    }
+
     /**
      * Test class to check the data inside BufferWritable.
      */
@@ -0,0 +1,224 @@
+package org.greenplum.pxf.service;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Output;
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
+import org.greenplum.pxf.api.examples.DemoFragmentMetadata;
+import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.plugins.hdfs.HcfsFragmentMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FragmentSharingServiceTest {
+
+    private static final List<String> HOSTS = Arrays.asList("sdw1", "sdw2", "sdw3:5999");
+    private static final Duration WAIT = Duration.ofMinutes(1);
+
+    private PxfServerProperties.FragmentSharing properties;
+
+    @BeforeEach
+    public void setup() {
+        properties = new PxfServerProperties.FragmentSharing();
+        properties.setHosts(HOSTS);
+        properties.setTimeout(Duration.ofMillis(100));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        FragmentSharingService service = createService(properties, "sdw1");
+
+        assertFalse(service.isEnabled());
+        assertFalse(service.isOwner("key"));
+        assertEquals(Optional.empty(), service.getSerializedFragments("key", WAIT));
+    }
+
+    @Test
+    public void testDisabledWithoutHosts() {
+        properties.setEnabled(true);
+        properties.setHosts(List.of());
+
+        assertFalse(createService(properties, "sdw1").isEnabled());
+    }
+
+    @Test
+    public void testSingleOwnerPerKey() {
+        properties.setEnabled(true);
+        FragmentSharingService service1 = createService(properties, "sdw1");
+        FragmentSharingService service2 = createService(properties, "SDW2");
+        FragmentSharingService service3 = createService(properties, "sdw3:5999");
+
+        for (int i = 0; i < 100; i++) {
+            String key = "XID-" + i + ":public:table:path:filter";
+            int owners = (service1.isOwner(key) ? 1 : 0) + (service2.isOwner(key) ? 1 : 0) + (service3.isOwner(key) ? 1 : 0);
+            assertEquals(1, owners, "key " + key);
+        }
+    }
+
+    @Test
+    public void testUnlistedHostIsNeverOwner() {
+        properties.setEnabled(true);
+        FragmentSharingService service = createService(properties, "mdw");
+
+        assertTrue(service.isEnabled());
+        for (int i = 0; i < 100; i++) {
+            assertFalse(service.isOwner("XID-" + i));
+        }
+    }
+
+    @Test
+    public void testLocalHostProperty() {
+        properties.setEnabled(true);
+        properties.setLocalHost("sdw3:5999");
+        FragmentSharingService service = createService(properties, "sdw1");
+
+        String key = getKeyOwnedBy(createService(properties, "sdw3:5999"));
+        assertTrue(service.isOwner(key));
+    }
+
+    @Test
+    public void testPublishedFragmentsAreServedByOwner() {
+        properties.setEnabled(true);
+        FragmentSharingService service = createService(properties, "sdw1");
+        String key = getKeyOwnedBy(service);
+        List<Fragment> fragments = Arrays.asList(
+                new Fragment("foo.bar", new DemoFragmentMetadata("foo.bar")),
+                new Fragment("bar.foo", new HcfsFragmentMetadata(0, 100), "profile"));
+        fragments.get(1).setIndex(3);
+
+        service.register(key);
+        assertTrue(service.isRegistered(key));
+        service.publish(key, fragments);
+        Optional<byte[]> serializedFragments = service.getSerializedFragments(key, WAIT);
+
+        assertTrue(serializedFragments.isPresent());
+        List<Fragment> result = service.deserialize(serializedFragments.get());
+        assertEquals(2, result.size());
+        assertEquals("foo.bar", result.get(0).getSourceName());
+        assertEquals("foo.bar", ((DemoFragmentMetadata) result.get(0).getMetadata()).getPath());
+        assertEquals("bar.foo", result.get(1).getSourceName());
+        assertEquals(3, result.get(1).getIndex());
+        assertEquals("profile", result.get(1).getProfile());
+        assertEquals(100, ((HcfsFragmentMetadata) result.get(1).getMetadata()).getLength());
+        assertArrayEquals(service.serialize(fragments), serializedFragments.get());
+    }
+
+    @Test
+    public void testUnregisteredClassesAreNotDeserialized() {
+        FragmentSharingService service = createService(properties, "sdw1");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Output output = new Output(bytes)) {
+            new Kryo().writeObject(output, new ArrayList<>(List.of(new Date(0))));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> service.deserialize(bytes.toByteArray()));
+    }
+
+    @Test
+    public void testFragmentsAreNotServedByOtherHosts() {
+        properties.setEnabled(true);
+        FragmentSharingService owner = createService(properties, "sdw1");
+        FragmentSharingService other = createService(properties, "sdw2");
+        String key = getKeyOwnedBy(owner);
+
+        other.publish(key, List.of(new Fragment("foo.bar")));
+
+        assertFalse(other.isRegistered(key));
+        assertEquals(Optional.empty(), other.getSerializedFragments(key, WAIT));
+    }
+
+    @Test
+    public void testFragmentsNotComputedWithinTimeout() {
+        properties.setEnabled(true);
+        FragmentSharingService service = createService(properties, "sdw1");
+        String key = getKeyOwnedBy(service);
+        service.register(key);
+
+        assertEquals(Optional.empty(), service.getSerializedFragments(key, WAIT));
+    }
+
+    @Test
+    public void testUnregisteredKeysAreNotCreated() {
+        properties.setEnabled(true);
+        FragmentSharingService service = createService(properties, "sdw1");
+        String key = getKeyOwnedBy(service);
+
+        assertEquals(Optional.empty(), service.getSerializedFragments(key, WAIT));
+        assertFalse(service.isRegistered(key));
+    }
+
+    @Test
+    public void testFailedKeyIsRegisteredAgain() {
+        properties.setEnabled(true);
+        FragmentSharingService service = createService(properties, "sdw1");
+        String key = getKeyOwnedBy(service);
+        service.register(key);
+        service.publishFailure(key, new IOException("fragmenter failed"));
+
+        service.register(key);
+        service.publish(key, List.of(new Fragment("foo.bar")));
+
+        assertTrue(service.getSerializedFragments(key, WAIT).isPresent());
+    }
+
+    @Test
+    public void testFragmentsAreOnlyServedToSharingHosts() {
+        properties.setEnabled(true);
+        properties.setHosts(List.of("127.0.0.1", "sdw2"));
+        FragmentSharingService service = createService(properties, "127.0.0.1");
+
+        assertTrue(service.isSharingHost("127.0.0.1"));
+        assertFalse(service.isSharingHost("10.0.0.1"));
+        assertFalse(service.isSharingHost(null));
+    }
+
+    @Test
+    public void testFragmentsFailure() {
+        properties.setEnabled(true);
+        properties.setTimeout(Duration.ofMinutes(1));
+        FragmentSharingService service = createService(properties, "sdw1");
+        String key = getKeyOwnedBy(service);
+
+        service.register(key);
+        service.publishFailure(key, new IOException("fragmenter failed"));
+
+        assertEquals(Optional.empty(), service.getSerializedFragments(key, WAIT));
+    }
+
+    @Test
+    public void testFetchFragmentsFromUnreachableOwner() {
+        properties.setEnabled(true);
+        properties.setHosts(List.of("localhost:1"));
+        FragmentSharingService service = createService(properties, "sdw1");
+
+        assertEquals(Optional.empty(), service.fetchFragments("key"));
+    }
+
+    private FragmentSharingService createService(PxfServerProperties.FragmentSharing properties, String localHost) {
+        return new FragmentSharingService(properties, 5888, false, () -> Set.of(localHost));
+    }
+
+    private String getKeyOwnedBy(FragmentSharingService service) {
+        for (int i = 0; ; i++) {
+            String key = "XID-" + i;
+            if (service.isOwner(key)) {
+                return key;
+            }
+        }
+    }
+}
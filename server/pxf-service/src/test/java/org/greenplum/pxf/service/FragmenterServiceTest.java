@@ -20,10 +20,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -33,11 +35,14 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -48,6 +53,8 @@ class FragmenterServiceTest {
     @Mock private Fragmenter fragmenter1;
     @Mock private Fragmenter fragmenter2;
     @Mock private Fragmenter fragmenter3;
+    @Mock private MetricsReporter mockMetricsReporter;
+    @Mock private FragmentSharingService mockFragmentSharingService;
     private Cache<String, List<Fragment>> fragmentCache;
     private FakeTicker fakeTicker;
     private FragmenterService fragmenterService;
@@ -102,7 +109,7 @@ class FragmenterServiceTest {
 
         // use a real handler to ensure pass-through calls on default configuration
         fragmenterService = new FragmenterService(fragmenterCacheFactory,
-                mockPluginFactory, new GSSFailureHandler());
+                mockPluginFactory, new GSSFailureHandler(), mockMetricsReporter, mockFragmentSharingService);
     }
 
     @Test
@@ -227,6 +234,7 @@ class FragmenterServiceTest {
 
         fragmenterService.getFragmentsForSegment(context1);
         verify(fragmenter1, times(1)).getFragments();
+        verify(mockMetricsReporter).reportTimer(eq(MetricsReporter.PxfMetric.FRAGMENTATION), any(Duration.class), eq(context1), eq(true));
     }
 
     @Test
@@ -350,6 +358,88 @@ class FragmenterServiceTest {
         assertEquals(fragmentList, response2);
     }
 
+    @Test
+    public void testSharedFragmentsAreFetchedFromOwner() throws Throwable {
+        List<Fragment> fragmentList = Arrays.asList(
+                new Fragment("foo.bar", new DemoFragmentMetadata()),
+                new Fragment("bar.foo", new DemoFragmentMetadata())
+        );
+
+        when(mockFragmentSharingService.isEnabled()).thenReturn(true);
+        when(mockFragmentSharingService.isOwner(any())).thenReturn(false);
+        when(mockFragmentSharingService.fetchFragments(any())).thenReturn(Optional.of(fragmentList));
+
+        List<Fragment> response = fragmenterService.getFragmentsForSegment(context1);
+
+        assertEquals(2, response.size());
+        assertEquals("foo.bar", response.get(0).getSourceName());
+        assertEquals("bar.foo", response.get(1).getSourceName());
+        verifyNoInteractions(mockPluginFactory);
+    }
+
+    @Test
+    public void testSharedFragmentsAreNotFetchedWhenCached() throws Throwable {
+        List<Fragment> fragmentList = new ArrayList<>();
+
+        when(mockFragmentSharingService.isEnabled()).thenReturn(true);
+        when(mockFragmentSharingService.isOwner(any())).thenReturn(false);
+        when(mockFragmentSharingService.fetchFragments(any())).thenReturn(Optional.of(fragmentList));
+
+        fragmenterService.getFragmentsForSegment(context1);
+        fragmenterService.getFragmentsForSegment(context1);
+
+        verify(mockFragmentSharingService, times(1)).fetchFragments(any());
+        verifyNoInteractions(mockPluginFactory);
+    }
+
+    @Test
+    public void testSharedFragmentsAreComputedWhenOwnerDoesNotProvideThem() throws Throwable {
+        List<Fragment> fragmentList = new ArrayList<>();
+
+        when(mockFragmentSharingService.isEnabled()).thenReturn(true);
+        when(mockFragmentSharingService.isOwner(any())).thenReturn(false);
+        when(mockFragmentSharingService.fetchFragments(any())).thenReturn(Optional.empty());
+        when(mockPluginFactory.getPlugin(context1, context1.getFragmenter())).thenReturn(fragmenter1);
+        when(fragmenter1.getFragments()).thenReturn(fragmentList);
+
+        fragmenterService.getFragmentsForSegment(context1);
+
+        verify(fragmenter1).getFragments();
+        verify(mockFragmentSharingService, never()).publish(any(), any());
+    }
+
+    @Test
+    public void testSharedFragmentsArePublishedByOwner() throws Throwable {
+        List<Fragment> fragmentList = new ArrayList<>();
+
+        when(mockFragmentSharingService.isEnabled()).thenReturn(true);
+        when(mockFragmentSharingService.isOwner(any())).thenReturn(true);
+        when(mockPluginFactory.getPlugin(context1, context1.getFragmenter())).thenReturn(fragmenter1);
+        when(fragmenter1.getFragments()).thenReturn(fragmentList);
+
+        fragmenterService.getFragmentsForSegment(context1);
+
+        verify(mockFragmentSharingService).register(any());
+        verify(mockFragmentSharingService).publish(any(), eq(fragmentList));
+        verify(mockFragmentSharingService, never()).fetchFragments(any());
+    }
+
+    @Test
+    public void testSharedFragmentsFailureIsPublishedByOwner() throws Throwable {
+        IOException exception = new IOException("Something Else");
+
+        when(mockFragmentSharingService.isEnabled()).thenReturn(true);
+        when(mockFragmentSharingService.isOwner(any())).thenReturn(true);
+        when(mockPluginFactory.getPlugin(context1, context1.getFragmenter())).thenReturn(fragmenter1);
+        when(fragmenter1.getFragments()).thenThrow(exception);
+
+        Exception e = assertThrows(IOException.class, () -> fragmenterService.getFragmentsForSegment(context1));
+        assertEquals("Something Else", e.getMessage());
+
+        verify(mockFragmentSharingService).publishFailure(any(), eq(exception));
+        verify(mockFragmentSharingService, never()).publish(any(), any());
+    }
+
     @Test
     public void testFragmenterCallExpiresAfterTimeout() throws Throwable {
         List<Fragment> fragmentList1 = new ArrayList<>();
@@ -485,6 +575,7 @@ class FragmenterServiceTest {
         verify(mockPluginFactory).getPlugin(context1, context1.getFragmenter());
         verify(fragmenter1).getFragments();
         verifyNoMoreInteractions(mockPluginFactory, fragmenter1);
+        verify(mockMetricsReporter).reportTimer(eq(MetricsReporter.PxfMetric.FRAGMENTATION), any(Duration.class), eq(context1), eq(false));
     }
 
     @Test
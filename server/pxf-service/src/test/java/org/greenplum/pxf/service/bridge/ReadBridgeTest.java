@@ -1,8 +1,17 @@
 package org.greenplum.pxf.service.bridge;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.Accessor;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.PruningStats;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.Resolver;
+import org.greenplum.pxf.api.utilities.ColumnDescriptor;
 import org.greenplum.pxf.service.utilities.BasePluginFactory;
 import org.greenplum.pxf.service.utilities.GSSFailureHandler;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,11 +21,20 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -39,6 +57,8 @@ public class ReadBridgeTest {
     private Accessor mockAccessor2;
     @Mock
     private Accessor mockAccessor3;
+    @Mock
+    private Resolver mockResolver;
 
     @BeforeEach
     public void setup() {
@@ -147,4 +167,94 @@ public class ReadBridgeTest {
         Exception e = assertThrows(UnsupportedOperationException.class, () -> bridge.setNext(null));
         assertEquals("Write operation is not supported.", e.getMessage());
     }
+
+    @Test
+    public void testGetNextSkipsRowsNotMatchingFilter() throws Exception {
+        // id > 2
+        setupFilteredRead(OutputFormat.GPDBWritable, "a0c23s1d2o2",
+                row(1, "a"), row(3, "b"), row(2, "c"), row(null, "d"), row(5, "e"));
+
+        bridge = new ReadBridge(mockPluginFactory, context, handler);
+        assertEquals(3, readAll().size());
+
+        PruningStats pruningStats = bridge.getPruningStats();
+        assertEquals(2, pruningStats.getRowsFiltered());
+        assertEquals(0, pruningStats.getBlocksRead());
+    }
+
+    @Test
+    public void testGetNextSkipsTextLinesNotMatchingFilter() throws Exception {
+        // id > 2
+        setupFilteredRead(OutputFormat.TEXT, "a0c23s1d2o2",
+                line("1,a"), line("3,b"), line("2,\"c\""), line("2,c"), line("1,d,e"),
+                line("6,\"multi"), line("1,line"), line("value\""), line("2,f"), line("5,g"));
+        context.getGreenplumCSV().withDelimiter(",").withValueOfNull("");
+
+        bridge = new ReadBridge(mockPluginFactory, context, handler);
+        List<String> lines = new ArrayList<>();
+        for (Writable writable : readAll()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            writable.write(new DataOutputStream(bytes));
+            lines.add(bytes.toString(StandardCharsets.UTF_8.name()));
+        }
+
+        // lines with quotes or with a wrong number of values, and the lines
+        // of a record spanning multiple lines, are sent
+        assertEquals(Arrays.asList("3,b\n", "2,\"c\"\n", "1,d,e\n", "6,\"multi\n", "1,line\n", "value\"\n", "5,g\n"), lines);
+        assertEquals(3, bridge.getPruningStats().getRowsFiltered());
+    }
+
+    @Test
+    public void testGetNextDoesNotSplitTextLinesWithoutDelimiter() throws Exception {
+        // name = 'Smith, John', the table is tab-delimited but Greenplum did not send the delimiter
+        setupFilteredRead(OutputFormat.TEXT, "a1c25s11dSmith, Johno5",
+                line("5\tSmith, John"), line("6\tDoe, Jane"));
+
+        bridge = new ReadBridge(mockPluginFactory, context, handler);
+        assertEquals(2, readAll().size());
+        assertEquals(0, bridge.getPruningStats().getRowsFiltered());
+    }
+
+    @Test
+    public void testGetNextDoesNotFilterRowsWhenDisabled() throws Exception {
+        configuration.setBoolean("pxf.reader.residual-filter.enabled", false);
+        setupFilteredRead(OutputFormat.GPDBWritable, "a0c23s1d2o2", row(1, "a"), row(3, "b"));
+
+        bridge = new ReadBridge(mockPluginFactory, context, handler);
+        assertEquals(2, readAll().size());
+        assertNull(bridge.getPruningStats());
+    }
+
+    private void setupFilteredRead(OutputFormat outputFormat, String filter, OneRow... rows) throws Exception {
+        context.setOutputFormat(outputFormat);
+        context.setFilterString(filter);
+        context.setDataEncoding(StandardCharsets.UTF_8);
+        context.setDatabaseEncoding(StandardCharsets.UTF_8);
+        context.getTupleDescription().add(new ColumnDescriptor("id", DataType.INTEGER.getOID(), 0, "int4", null));
+        context.getTupleDescription().add(new ColumnDescriptor("name", DataType.TEXT.getOID(), 1, "text", null));
+
+        when(mockPluginFactory.getPlugin(context, context.getAccessor())).thenReturn(mockAccessor1);
+        when(mockPluginFactory.getPlugin(context, context.getResolver())).thenReturn(mockResolver);
+        when(mockAccessor1.readNextObject()).thenReturn(rows[0], Arrays.copyOfRange(rows, 1, rows.length + 1));
+        when(mockResolver.getFields(any())).thenAnswer(invocation -> invocation.<OneRow>getArgument(0).getData());
+    }
+
+    private List<Writable> readAll() throws Exception {
+        List<Writable> records = new ArrayList<>();
+        Writable record;
+        while ((record = bridge.getNext()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    private OneRow row(Integer id, String name) {
+        return new OneRow(null, Arrays.asList(
+                new OneField(DataType.INTEGER.getOID(), id),
+                new OneField(DataType.TEXT.getOID(), name)));
+    }
+
+    private OneRow line(String line) {
+        return new OneRow(null, Collections.singletonList(new OneField(DataType.VARCHAR.getOID(), new Text(line))));
+    }
 }
@@ -19,204 +19,189 @@ package org.greenplum.pxf.service.bridge;
  * under the License.
  */
 
-
-import org.junit.jupiter.api.Disabled;
-
-// TODO remove Disabled
-@Disabled
+import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.OneField;
+import org.greenplum.pxf.api.OneRow;
+import org.greenplum.pxf.api.io.DataType;
+import org.greenplum.pxf.api.io.Writable;
+import org.greenplum.pxf.api.model.Accessor;
+import org.greenplum.pxf.api.model.OutputFormat;
+import org.greenplum.pxf.api.model.ReadVectorizedResolver;
+import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.api.model.Resolver;
+import org.greenplum.pxf.api.model.SamplingAccessor;
+import org.greenplum.pxf.service.utilities.BasePluginFactory;
+import org.greenplum.pxf.service.utilities.GSSFailureHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
 public class ReadSamplingBridgeTest {
 
-    /**
-     * Writable test object to test ReadSamplingBridge. The object receives a
-     * string and returns it in its toString function.
-     *
-    public static class WritableTest implements Writable {
-
-        private final String data;
-
-        public WritableTest(String data) {
-            this.data = data;
-        }
-
-        @Override
-        public void write(DataOutput out) throws IOException {
-            throw new IOException("not implemented");
-        }
-
-        @Override
-        public void readFields(DataInput in) throws IOException {
-            throw new IOException("not implemented");
-        }
-
-        @Override
-        public String toString() {
-            return data;
-        }
-
-    }
-
     private RequestContext context;
-    private ReadBridge mockBridge;
 
-    private ReadSamplingBridge readSamplingBridge;
-    private int recordsLimit = 0;
-    private BitSet samplingBitSet;
-    private Writable result;
+    @Mock
+    private BasePluginFactory mockPluginFactory;
+    @Mock
+    private Resolver mockResolver;
 
     @BeforeEach
-    public void setUp() throws Exception {
-
+    public void setup() {
         context = new RequestContext();
         context.setConfiguration(new Configuration());
-
-        mockBridge = mock(ReadBridge.class);
-
-        when(mockBridge.getNext()).thenAnswer(new Answer<Writable>() {
-            private int count = 0;
-
-            @Override
-            public Writable answer(InvocationOnMock invocation) {
-                if (count >= recordsLimit) {
-                    return null;
-                }
-                return new WritableTest("" + (count++));
-            }
-        });
-
-        samplingBitSet = new BitSet();
-        when(
-                AnalyzeUtils.generateSamplingBitSet(any(int.class),
-                        any(int.class))).thenReturn(samplingBitSet);
+        context.setAccessor("accessor");
+        context.setResolver("resolver");
+        context.setOutputFormat(OutputFormat.TEXT);
+        context.setStatsMaxFragments(10);
+        context.setStatsSampleRatio(0.1f);
     }
 
     @Test
-    public void getNextRecord100Percent() throws Exception {
+    public void testAccessorWithoutSampling() throws Exception {
+        TestRecordAccessor accessor = new TestRecordAccessor(100);
+        when(mockResolver.getFields(any())).thenAnswer(invocation -> toFields(invocation.getArgument(0)));
 
-        samplingBitSet.set(0, 100);
-        recordsLimit = 100;
-        context.setStatsSampleRatio(1.0F);
-
-        // readSamplingBridge = new ReadSamplingBridge(new BridgeOutputBuilder(context), mockResolverFactory, context);
+        assertEquals(10, readAll(createBridge(accessor)).size());
+        // every record is resolved before it is sampled
+        verify(mockResolver, times(100)).getFields(any());
+    }
 
-        result = readSamplingBridge.getNext();
-        assertEquals("0", result.toString());
+    @Test
+    public void testRecordsSkippedBeforeResolution() throws Exception {
+        TestSamplingAccessor accessor = new TestSamplingAccessor(100, 1.0f);
+        when(mockResolver.getFields(any())).thenAnswer(invocation -> toFields(invocation.getArgument(0)));
 
-        result = readSamplingBridge.getNext();
-        assertEquals("1", result.toString());
+        List<String> records = readAll(createBridge(accessor));
 
-        when(mockBridge.getNext()).thenReturn(null);
+        assertEquals(10, records.size());
+        assertEquals(90, accessor.skipped);
+        verify(mockResolver, times(10)).getFields(any());
+        assertEquals(records, accessor.returned);
+    }
 
-        result = readSamplingBridge.getNext();
-        assertNull(result);
+    @Test
+    public void testSampleRatioAdjustedToReadRatio() throws Exception {
+        // the accessor only reads half of the records, a fifth of them need to be sampled
+        TestSamplingAccessor accessor = new TestSamplingAccessor(100, 0.5f);
+        when(mockResolver.getFields(any())).thenAnswer(invocation -> toFields(invocation.getArgument(0)));
+
+        assertEquals(20, readAll(createBridge(accessor)).size());
+        assertEquals(80, accessor.skipped);
+        verify(mockResolver, times(20)).getFields(any());
     }
 
     @Test
-    public void getNextRecord100Records10Percent() throws Exception {
+    public void testBatchesSampledAfterResolution() throws Exception {
+        Resolver vectorizedResolver = mock(Resolver.class, withSettings().extraInterfaces(ReadVectorizedResolver.class));
+        TestSamplingAccessor accessor = new TestSamplingAccessor(10, 1.0f);
+        when(((ReadVectorizedResolver) vectorizedResolver).getFieldsForBatch(any())).thenAnswer(invocation -> {
+            List<List<OneField>> batch = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                batch.add(toFields(invocation.getArgument(0)));
+            }
+            return batch;
+        });
+        when(mockPluginFactory.getPlugin(context, context.getAccessor())).thenReturn(accessor);
+        when(mockPluginFactory.getPlugin(context, context.getResolver())).thenReturn(vectorizedResolver);
 
-        // set 10 bits from 5 to 14.
-        samplingBitSet.set(5, 15);
-        recordsLimit = 100;
-        context.setStatsSampleRatio(0.1F);
+        ReadSamplingBridge bridge = new ReadSamplingBridge(mockPluginFactory, context, new GSSFailureHandler());
 
-        // readSamplingBridge = new ReadSamplingBridge(mockAccessorFactory, mockResolverFactory);
+        assertEquals(10, readAll(bridge).size());
+        assertEquals(0, accessor.skipped);
+        verify(vectorizedResolver, never()).getFields(any());
+    }
+
+    private ReadSamplingBridge createBridge(Accessor accessor) {
+        when(mockPluginFactory.getPlugin(context, context.getAccessor())).thenReturn(accessor);
+        when(mockPluginFactory.getPlugin(context, context.getResolver())).thenReturn(mockResolver);
+        return new ReadSamplingBridge(mockPluginFactory, context, new GSSFailureHandler());
+    }
 
-        for (int i = 0; i < 10; i++) {
-            result = readSamplingBridge.getNext();
-            assertEquals("" + (i + 5), result.toString());
+    private List<String> readAll(ReadSamplingBridge bridge) throws Exception {
+        List<String> records = new ArrayList<>();
+        bridge.beginIteration();
+        Writable output;
+        while ((output = bridge.getNext()) != null) {
+            records.add(output.toString().trim());
         }
+        bridge.endIteration();
+        return records;
+    }
 
-        result = readSamplingBridge.getNext();
-        assertNull(result);
+    private static List<OneField> toFields(OneRow row) {
+        return Collections.singletonList(new OneField(DataType.TEXT.getOID(), row.getData().toString()));
     }
 
-    @Test
-    public void getNextRecord100Records90Percent() throws Exception {
-        int expected;
-
-        // set the first odd numbers until 20, then all numbers until 100
-        // total: 90.
-        samplingBitSet.set(0, 100);
-        for (int i = 0; i < 10; i++) {
-            samplingBitSet.flip(i * 2);
+    /**
+     * Accessor that returns the given number of records and keeps track of
+     * the records it returned.
+     */
+    private static class TestRecordAccessor extends TestAccessor {
+        final int numRecords;
+        final List<String> returned = new ArrayList<>();
+        int count;
+
+        TestRecordAccessor(int numRecords) {
+            this.numRecords = numRecords;
         }
-        recordsLimit = 100;
-        context.setStatsSampleRatio(0.9F);
 
-        // readSamplingBridge = new ReadSamplingBridge(mockAccessorFactory, mockResolverFactory);
+        @Override
+        public boolean openForRead() {
+            return true;
+        }
 
-        for (int i = 0; i < 90; i++) {
-            result = readSamplingBridge.getNext();
-            if (i < 10) {
-                expected = (i * 2) + 1;
-            } else {
-                expected = i + 10;
+        @Override
+        public OneRow readNextObject() {
+            if (count == numRecords) {
+                return null;
             }
-            assertEquals("" + expected, result.toString());
+            String record = "record" + count++;
+            returned.add(record);
+            return new OneRow(null, record);
         }
-        result = readSamplingBridge.getNext();
-        assertNull(result);
     }
 
-    @Test
-    public void getNextRecord350Records50Percent() throws Exception {
-
-        // set bits 0, 40-79 (40) and 90-98 (9)
-        // total 50.
-        samplingBitSet.set(0);
-        samplingBitSet.set(40, 80);
-        samplingBitSet.set(90, 99);
-        recordsLimit = 350;
-        context.setStatsSampleRatio(0.5F);
-
-        // readSamplingBridge = new ReadSamplingBridge(mockAccessorFactory, mockResolverFactory);
-
-        /*
-         * expecting to have: 50 (out of first 100) 50 (out of second 100) 50
-         * (out of third 100) 11 (out of last 50) --- 161 records
-         *
-        for (int i = 0; i < 161; i++) {
-            result = readSamplingBridge.getNext();
-            assertNotNull(result);
-            if (i % 50 == 0) {
-                assertEquals("" + (i * 2), result.toString());
-            }
+    /**
+     * Sampling accessor that also keeps track of the records it skipped.
+     */
+    private static class TestSamplingAccessor extends TestRecordAccessor implements SamplingAccessor {
+        private final float readRatio;
+        private int skipped;
+
+        TestSamplingAccessor(int numRecords, float readRatio) {
+            super(numRecords);
+            this.readRatio = readRatio;
         }
-        result = readSamplingBridge.getNext();
-        assertNull(result);
-    }
 
-    @Test
-    public void getNextRecord100000Records30Sample() throws Exception {
-        int expected;
-
-        // ratio = 0.0003
-        float ratio = (float) (30.0 / 100000.0);
-
-        // set 3 records in every 10000.
-        samplingBitSet.set(99);
-        samplingBitSet.set(999);
-        samplingBitSet.set(9999);
-        recordsLimit = 100000;
-        context.setStatsSampleRatio(ratio);
-
-        // readSamplingBridge = new ReadSamplingBridge(mockAccessorFactory, mockResolverFactory);
-
-        for (int i = 0; i < 30; i++) {
-            result = readSamplingBridge.getNext();
-            assertNotNull(result);
-            int residue = i % 3;
-            int div = i / 3;
-            if (residue == 0) {
-                expected = 99 + (div * 10000);
-            } else if (residue == 1) {
-                expected = 999 + (div * 10000);
-            } else {
-                expected = 9999 + (div * 10000);
+        @Override
+        public boolean skipNextObject() {
+            if (count == numRecords) {
+                return false;
             }
-            assertEquals("" + expected, result.toString());
+            count++;
+            skipped++;
+            return true;
+        }
+
+        @Override
+        public float getReadRatio() {
+            return readRatio;
         }
-        result = readSamplingBridge.getNext();
-        assertNull(result);
     }
-    */
 }
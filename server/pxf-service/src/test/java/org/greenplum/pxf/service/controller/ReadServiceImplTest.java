@@ -1,10 +1,12 @@
 package org.greenplum.pxf.service.controller;
 
 import org.apache.hadoop.conf.Configuration;
+import org.greenplum.pxf.api.configuration.PxfServerProperties;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.io.Writable;
 import org.greenplum.pxf.api.model.ConfigurationFactory;
 import org.greenplum.pxf.api.model.Fragment;
+import org.greenplum.pxf.api.model.PruningStats;
 import org.greenplum.pxf.api.model.RequestContext;
 import org.greenplum.pxf.service.FragmenterService;
 import org.greenplum.pxf.service.MetricsReporter;
@@ -18,6 +20,9 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
 
 import java.io.DataOutputStream;
 import java.io.OutputStream;
@@ -25,13 +30,20 @@ import java.nio.charset.StandardCharsets;
 import java.security.PrivilegedAction;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Callable;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -62,6 +74,12 @@ public class ReadServiceImplTest {
     private Writable mockRecord1, mockRecord2, mockRecord3;
     @Mock
     private RequestContext mockContext;
+    @Mock
+    private AsyncTaskExecutor mockPrefetchExecutor;
+    @Mock
+    private Fragment mockFragment3;
+    @Mock
+    private Bridge mockBridge3;
 
     private ReadServiceImpl readService;
 
@@ -74,7 +92,7 @@ public class ReadServiceImplTest {
             return action.run();
         });
 
-        readService = new ReadServiceImpl(mockConfigurationFactory, mockBridgeFactory, mockSecurityService, mockFragmenterService, mockMetricReporter);
+        readService = new ReadServiceImpl(mockConfigurationFactory, mockBridgeFactory, mockSecurityService, mockFragmenterService, mockMetricReporter, mockPrefetchExecutor, new PxfServerProperties());
     }
 
     @Test
@@ -97,6 +115,36 @@ public class ReadServiceImplTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void testReadDataReportsPruningStats() throws Exception {
+        when(mockMetricReporter.getReportFrequency()).thenReturn(1L);
+        when(mockFragmentList.size()).thenReturn(1);
+        when(mockFragmentList.get(0)).thenReturn(mockFragment1);
+        when(mockBridgeFactory.getBridge(mockContext)).thenReturn(mockBridge1);
+        when(mockBridge1.beginIteration()).thenReturn(true);
+        when(mockBridge1.getNext()).thenReturn(mockRecord1).thenReturn(null);
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+        PruningStats pruningStats = new PruningStats();
+        pruningStats.addBlocksRead(2);
+        pruningStats.addBlocksSkipped(5);
+        pruningStats.addPagesSkipped(40);
+        pruningStats.addRowsFiltered(300);
+        when(mockBridge1.getPruningStats()).thenReturn(pruningStats);
+
+        readService.readData(mockContext, mockOutputStream);
+
+        InOrder inOrder = inOrder(mockOutputStream, mockMetricReporter);
+        inOrder.verify(mockOutputStream).write("hello".getBytes(StandardCharsets.UTF_8), 0, 5);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.RECORDS_SENT, 1, mockContext);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BYTES_SENT, 5, mockContext);
+        inOrder.verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(mockContext), eq(true));
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BLOCKS_READ, 2, mockContext);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.BLOCKS_SKIPPED, 5, mockContext);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.PAGES_SKIPPED, 40, mockContext);
+        inOrder.verify(mockMetricReporter).reportCounter(MetricsReporter.PxfMetric.ROWS_FILTERED, 300, mockContext);
+        inOrder.verifyNoMoreInteractions();
+    }
+
     @Test
     public void testReadDataOneFragMultiRecordsReportBatch() throws Exception {
         when(mockMetricReporter.getReportFrequency()).thenReturn(2L);
@@ -283,6 +331,167 @@ public class ReadServiceImplTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void testReadDataMultiFragmentWithPrefetch() throws Exception {
+        // the executor opens the fragments synchronously when they are scheduled
+        readService = getPrefetchingReadService(new ConcurrentTaskExecutor(Runnable::run));
+        RequestContext context1 = new RequestContext(), context2 = new RequestContext(), context3 = new RequestContext();
+        mockThreeFragments(context1, context2, context3);
+
+        when(mockBridge1.getNext()).thenReturn(mockRecord1).thenReturn(null);
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+        when(mockBridge2.beginIteration()).thenReturn(false);
+        when(mockBridge3.getNext()).thenReturn(mockRecord2, mockRecord3, null);
+        doAnswer(writeTestData("world!")).when(mockRecord2).write(any(DataOutputStream.class));
+        doAnswer(writeTestData("Boo!")).when(mockRecord3).write(any(DataOutputStream.class));
+
+        readService.readData(mockContext, mockOutputStream);
+
+        assertEquals("file1", context1.getDataSource());
+        assertEquals(1, context2.getFragmentIndex());
+        assertEquals("file3", context3.getDataSource());
+
+        // all fragments are opened before the first one finished streaming, the output keeps the fragment order
+        InOrder inOrder = inOrder(mockBridge1, mockBridge2, mockBridge3, mockOutputStream, mockMetricReporter);
+        inOrder.verify(mockBridge3).beginIteration();
+        inOrder.verify(mockOutputStream).write("hello".getBytes(StandardCharsets.UTF_8), 0, 5);
+        inOrder.verify(mockBridge1).endIteration();
+        inOrder.verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(context1), eq(true));
+        inOrder.verify(mockBridge2).endIteration();
+        inOrder.verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(context2), eq(true));
+        inOrder.verify(mockOutputStream).write("world!".getBytes(StandardCharsets.UTF_8), 0, 6);
+        inOrder.verify(mockOutputStream).write("Boo!".getBytes(StandardCharsets.UTF_8), 0, 4);
+        inOrder.verify(mockBridge3).endIteration();
+        inOrder.verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(context3), eq(true));
+        verify(mockBridge2, never()).getNext();
+    }
+
+    @Test
+    public void testReadDataWithPrefetchOpensFragmentsWhenRejected() throws Exception {
+        readService = getPrefetchingReadService(mockPrefetchExecutor);
+        when(mockPrefetchExecutor.submit(any(Callable.class))).thenThrow(new TaskRejectedException("rejected"));
+        RequestContext context1 = new RequestContext(), context2 = new RequestContext(), context3 = new RequestContext();
+        mockThreeFragments(context1, context2, context3);
+
+        when(mockBridge1.getNext()).thenReturn(mockRecord1).thenReturn(null);
+        doAnswer(writeTestData("hello")).when(mockRecord1).write(any(DataOutputStream.class));
+        when(mockBridge2.beginIteration()).thenReturn(false);
+        when(mockBridge3.getNext()).thenReturn(mockRecord2, null);
+        doAnswer(writeTestData("world!")).when(mockRecord2).write(any(DataOutputStream.class));
+
+        readService.readData(mockContext, mockOutputStream);
+
+        // the fragments are opened by the streaming thread one after another
+        InOrder inOrder = inOrder(mockBridge1, mockBridge2, mockBridge3, mockOutputStream);
+        inOrder.verify(mockBridge1).beginIteration();
+        inOrder.verify(mockOutputStream).write("hello".getBytes(StandardCharsets.UTF_8), 0, 5);
+        inOrder.verify(mockBridge1).endIteration();
+        inOrder.verify(mockBridge2).beginIteration();
+        inOrder.verify(mockBridge2).endIteration();
+        inOrder.verify(mockBridge3).beginIteration();
+        inOrder.verify(mockOutputStream).write("world!".getBytes(StandardCharsets.UTF_8), 0, 6);
+        inOrder.verify(mockBridge3).endIteration();
+    }
+
+    @Test
+    public void testReadDataWithPrefetchEndsPrefetchedFragmentsOnError() throws Exception {
+        readService = getPrefetchingReadService(new ConcurrentTaskExecutor(Runnable::run));
+        RequestContext context1 = new RequestContext(), context2 = new RequestContext(), context3 = new RequestContext();
+        mockThreeFragments(context1, context2, context3);
+
+        when(mockBridge1.getNext()).thenThrow(new Exception("failed to read"));
+        when(mockBridge2.beginIteration()).thenReturn(true);
+
+        assertThrows(PxfRuntimeException.class, () -> readService.readData(mockContext, mockOutputStream));
+
+        verify(mockBridge1).endIteration();
+        verify(mockBridge2).endIteration();
+        verify(mockBridge3).endIteration();
+        verify(mockBridge2, never()).getNext();
+        verify(mockBridge3, never()).getNext();
+        verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(context1), eq(false));
+    }
+
+    @Test
+    public void testReadDataWithPrefetchFailsToOpenFragment() throws Exception {
+        readService = getPrefetchingReadService(new ConcurrentTaskExecutor(Runnable::run));
+        RequestContext context1 = new RequestContext(), context2 = new RequestContext(), context3 = new RequestContext();
+        mockThreeFragments(context1, context2, context3);
+
+        when(mockBridge1.getNext()).thenReturn(null);
+        when(mockBridge2.beginIteration()).thenThrow(new PxfRuntimeException("failed to open"));
+
+        Exception e = assertThrows(PxfRuntimeException.class, () -> readService.readData(mockContext, mockOutputStream));
+        assertEquals("failed to open", e.getMessage());
+
+        verify(mockBridge1).endIteration();
+        verify(mockBridge2).endIteration();
+        verify(mockBridge3).endIteration();
+        verify(mockMetricReporter).reportTimer(same(MetricsReporter.PxfMetric.FRAGMENTS_SENT), any(Duration.class), same(context2), eq(false));
+    }
+
+    @Test
+    public void testReadDataWithPrefetchCancelsPrefetchedFragments() throws Exception {
+        readService = getPrefetchingReadService(new ConcurrentTaskExecutor(Runnable::run));
+        RequestContext context1 = new RequestContext(), context2 = new RequestContext(), context3 = new RequestContext();
+        mockThreeFragments(context1, context2, context3);
+        when(mockBridge2.beginIteration()).thenReturn(true);
+
+        // the read is cancelled while the first fragment is streamed, the other fragments are already open
+        when(mockBridge1.getNext()).thenAnswer(invocation -> {
+            assertTrue(readService.cancelRead(mockContext));
+            return null;
+        });
+
+        readService.readData(mockContext, mockOutputStream);
+
+        verify(mockBridge1).cancelIteration();
+        verify(mockBridge2).cancelIteration();
+        verify(mockBridge3).cancelIteration();
+    }
+
+    @Test
+    public void testReadDataWithPrefetchCopiesConfigurationPerFragment() throws Exception {
+        readService = getPrefetchingReadService(new ConcurrentTaskExecutor(Runnable::run));
+        RequestContext context1 = new RequestContext(), context2 = new RequestContext(), context3 = new RequestContext();
+        mockThreeFragments(context1, context2, context3);
+        Configuration configuration = new Configuration(false);
+        configuration.set("foo", "bar");
+        when(mockContext.getConfiguration()).thenReturn(configuration);
+
+        readService.readData(mockContext, mockOutputStream);
+
+        // fragments are opened concurrently, each of them gets its own configuration
+        assertNotSame(configuration, context1.getConfiguration());
+        assertNotSame(context1.getConfiguration(), context2.getConfiguration());
+        assertNotSame(context2.getConfiguration(), context3.getConfiguration());
+        assertEquals("bar", context3.getConfiguration().get("foo"));
+    }
+
+    private ReadServiceImpl getPrefetchingReadService(AsyncTaskExecutor prefetchExecutor) {
+        PxfServerProperties properties = new PxfServerProperties();
+        properties.getFragmentPrefetch().setDepth(2);
+        return new ReadServiceImpl(mockConfigurationFactory, mockBridgeFactory, mockSecurityService, mockFragmenterService, mockMetricReporter, prefetchExecutor, properties);
+    }
+
+    private void mockThreeFragments(RequestContext context1, RequestContext context2, RequestContext context3) throws Exception {
+        when(mockMetricReporter.getReportFrequency()).thenReturn(1L);
+        when(mockFragmentList.size()).thenReturn(3);
+        when(mockFragmentList.get(0)).thenReturn(mockFragment1);
+        when(mockFragmentList.get(1)).thenReturn(mockFragment2);
+        when(mockFragmentList.get(2)).thenReturn(mockFragment3);
+        when(mockFragment1.getSourceName()).thenReturn("file1");
+        when(mockFragment2.getSourceName()).thenReturn("file2");
+        when(mockFragment2.getIndex()).thenReturn(1);
+        when(mockFragment3.getSourceName()).thenReturn("file3");
+        when(mockContext.copy()).thenReturn(context1, context2, context3);
+        when(mockBridgeFactory.getBridge(context1)).thenReturn(mockBridge1);
+        when(mockBridgeFactory.getBridge(context2)).thenReturn(mockBridge2);
+        when(mockBridgeFactory.getBridge(context3)).thenReturn(mockBridge3);
+        lenient().when(mockBridge1.beginIteration()).thenReturn(true);
+        lenient().when(mockBridge3.beginIteration()).thenReturn(true);
+    }
+
     // helper for writing mock record to a mock output stream
     // mockOutputStream -> CountingOutputStream -> DataOutputStream
     // in order for the us to see the side-effect of CountingOutputStream,
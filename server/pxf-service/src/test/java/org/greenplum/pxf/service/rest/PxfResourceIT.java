@@ -3,6 +3,7 @@ package org.greenplum.pxf.service.rest;
 import com.google.common.base.Charsets;
 import org.greenplum.pxf.api.error.PxfRuntimeException;
 import org.greenplum.pxf.api.model.RequestContext;
+import org.greenplum.pxf.service.FragmentSharingService;
 import org.greenplum.pxf.service.HttpHeaderDecoder;
 import org.greenplum.pxf.service.RequestParser;
 import org.greenplum.pxf.service.controller.ReadService;
@@ -51,6 +52,10 @@ public class PxfResourceIT {
     @MockBean
     private HttpHeaderDecoder mockHttpHeaderDecoder;
 
+    // needed by the security configuration
+    @MockBean
+    private FragmentSharingService mockFragmentSharingService;
+
     @Mock
     private RequestContext mockContext;
 